@@ -0,0 +1,79 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.console;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.apache.felix.service.command.CommandSession;
+import org.apache.felix.service.command.Descriptor;
+import org.eclipse.ecf.core.metrics.ICounter;
+import org.eclipse.ecf.core.metrics.IGauge;
+import org.eclipse.ecf.core.metrics.IHistogram;
+import org.eclipse.ecf.core.metrics.IMetric;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
+import org.osgi.service.component.annotations.Component;
+
+@Component(immediate = true, property = { "osgi.command.scope=ecf", "osgi.command.function=metrics",
+		"osgi.command.function=metricsreset" }, service = { MetricsCommand.class })
+public class MetricsCommand {
+
+	private static final String VALUE_LINE_FORMAT = "%1$-60s|%2$d\n"; //$NON-NLS-1$
+	private static final String HISTOGRAM_LINE_FORMAT = "%1$-60s|count=%2$d min=%3$d mean=%4$.0f p50=%5$d p90=%6$d p99=%7$d max=%8$d (ns)\n"; //$NON-NLS-1$
+
+	@Descriptor("List ECF metrics")
+	public void metrics(CommandSession cs) {
+		metrics(cs, ""); //$NON-NLS-1$
+	}
+
+	@Descriptor("List ECF metrics with names starting with prefix")
+	public void metrics(CommandSession cs, @Descriptor("Metric name prefix (String)") String prefix) {
+		if (!MetricsRegistry.getDefault().isEnabled()) {
+			cs.getConsole().println("Metrics are disabled.  Set system property " + MetricsRegistry.ENABLED_PROP + "=true to enable"); //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+		final SortedMap<String, IMetric> metrics = MetricsRegistry.getDefault().getMetrics();
+		for (Map.Entry<String, IMetric> entry : metrics.entrySet()) {
+			final String name = entry.getKey();
+			if (!name.startsWith(prefix))
+				continue;
+			final IMetric metric = entry.getValue();
+			if (metric instanceof ICounter)
+				cs.getConsole().format(VALUE_LINE_FORMAT, name, ((ICounter) metric).getCount());
+			else if (metric instanceof IGauge)
+				cs.getConsole().format(VALUE_LINE_FORMAT, name, ((IGauge) metric).getValue());
+			else if (metric instanceof IHistogram) {
+				final IHistogram h = (IHistogram) metric;
+				cs.getConsole().format(HISTOGRAM_LINE_FORMAT, name, h.getCount(), h.getMin(), h.getMean(),
+						h.getValueAtPercentile(50.0), h.getValueAtPercentile(90.0), h.getValueAtPercentile(99.0),
+						h.getMax());
+			}
+		}
+	}
+
+	@Descriptor("Reset ECF metric histograms with names starting with prefix")
+	public void metricsreset(CommandSession cs, @Descriptor("Metric name prefix (String)") String prefix) {
+		int count = 0;
+		for (Map.Entry<String, IMetric> entry : MetricsRegistry.getDefault().getMetrics().entrySet())
+			if (entry.getKey().startsWith(prefix) && entry.getValue() instanceof IHistogram) {
+				((IHistogram) entry.getValue()).reset();
+				count++;
+			}
+		cs.getConsole().println("Reset " + count + " histograms"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Descriptor("Reset all ECF metric histograms")
+	public void metricsreset(CommandSession cs) {
+		metricsreset(cs, ""); //$NON-NLS-1$
+	}
+}
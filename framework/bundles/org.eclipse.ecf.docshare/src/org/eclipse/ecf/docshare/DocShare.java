@@ -20,7 +20,9 @@ import org.eclipse.ecf.internal.docshare.Messages;
 
 import java.io.*;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.*;
@@ -194,6 +196,45 @@ public class DocShare extends AbstractShare {
 	 */
 	SelectionReceiver selectionReceiver;
 
+	/**
+	 * Documents longer than this are sent compressed, in
+	 * {@link ContentChunkMessage}s following the {@link StartMessage}
+	 */
+	static final int START_CONTENT_CHUNK_THRESHOLD = 64 * 1024;
+
+	/**
+	 * System property to send large documents in chunks to all receivers.  By
+	 * default, chunks are only sent to receivers that are known to support
+	 * them, as receivers that predate content chunks require the content in
+	 * the {@link StartMessage}.
+	 */
+	public static final String CHUNKED_START_CONTENT_PROP = "org.eclipse.ecf.docshare.chunkedStartContent"; //$NON-NLS-1$
+
+	/**
+	 * IDs of peers that sent a {@link StartMessage} supporting content chunks
+	 */
+	final Set chunkCapablePeers = Collections.synchronizedSet(new HashSet());
+
+	/**
+	 * Merges local document changes before they are registered with the
+	 * syncStrategy and sent. Only accessed on the UI thread.
+	 */
+	final DocumentChangeCoalescer coalescer = new DocumentChangeCoalescer();
+
+	/**
+	 * Runnable to flush coalesced changes at the end of the coalescing window
+	 */
+	final Runnable flushRunnable = new Runnable() {
+		public void run() {
+			flushLocalChanges();
+		}
+	};
+
+	/**
+	 * Reassembles the content chunks following a StartMessage
+	 */
+	final ContentChunkAssembler chunkAssembler = new ContentChunkAssembler();
+
 	/**
 	 * Create a document sharing session instance.
 	 * 
@@ -298,22 +339,59 @@ public class DocShare extends AbstractShare {
 			}
 			Trace.trace(Activator.PLUGIN_ID, NLS.bind("{0}.documentChanged[{1}]", DocShare.this, event)); //$NON-NLS-1$
 
-			// SYNC API.  Here is entry point usage of sync API.  When a local document is changed by an editor,
-			// this method will be called and the following code executed.  This code registers a DocumentChange
-			// with the local syncStrategy instance via syncStrategy.registerLocalChange(IModelChange).
-			// Model change messages returned from the registerLocalChange call are then sent (via ECF datashare channel)
-			// to remote participant.
-			IModelChangeMessage changeMessages[] = syncStrategy.registerLocalChange(new DocumentChangeMessage(event.getOffset(), event.getLength(), event.getText()));
-			for (int i = 0; i < changeMessages.length; i++) {
-				try {
-					sendMessage(getOtherID(), changeMessages[i].serialize());
-				} catch (final Exception e) {
-					logError(Messages.DocShare_EXCEPTION_SEND_MESSAGE, e);
-				}
-			}
+			// Adjacent changes are merged by the coalescer, and sent together when
+			// a change cannot be merged or the coalescing window ends
+			final boolean wasPending = coalescer.hasPending();
+			final DocumentChangeMessage[] changes = coalescer.add(event.getOffset(), event.getLength(), event.getText());
+			for (int i = 0; i < changes.length; i++)
+				sendLocalChange(changes[i]);
+			if (coalescer.hasPending() && (!wasPending || changes.length > 0))
+				scheduleFlush();
 		}
 	};
 
+	boolean isChunkCapable(ID peerID) {
+		return Boolean.getBoolean(CHUNKED_START_CONTENT_PROP) || chunkCapablePeers.contains(peerID);
+	}
+
+	void scheduleFlush() {
+		final Display display = Display.getCurrent();
+		if (display != null)
+			display.timerExec((int) coalescer.getWindow(), flushRunnable);
+		else
+			flushLocalChanges();
+	}
+
+	/**
+	 * Send any coalesced local change. Must be called before a remote change
+	 * is transformed, so that the syncStrategy knows about all changes
+	 * already applied to the local document.
+	 */
+	void flushLocalChanges() {
+		final DocumentChangeMessage change = coalescer.flush();
+		if (change != null)
+			sendLocalChange(change);
+	}
+
+	void sendLocalChange(DocumentChangeMessage change) {
+		final IModelSynchronizationStrategy strategy = syncStrategy;
+		if (strategy == null || !isSharing())
+			return;
+		// SYNC API.  Here is entry point usage of sync API.  When a local document is changed by an editor,
+		// the (coalesced) change is passed to this method.  This code registers a DocumentChange
+		// with the local syncStrategy instance via syncStrategy.registerLocalChange(IModelChange).
+		// Model change messages returned from the registerLocalChange call are then sent (via ECF datashare channel)
+		// to remote participant.
+		IModelChangeMessage changeMessages[] = strategy.registerLocalChange(change);
+		for (int i = 0; i < changeMessages.length; i++) {
+			try {
+				sendMessage(getOtherID(), changeMessages[i].serialize());
+			} catch (final Exception e) {
+				logError(Messages.DocShare_EXCEPTION_SEND_MESSAGE, e);
+			}
+		}
+	}
+
 	ISelectionChangedListener selectionListener = new ISelectionChangedListener() {
 
 		public void selectionChanged(final SelectionChangedEvent event) {
@@ -333,6 +411,8 @@ public class DocShare extends AbstractShare {
 			if (!(event.getSelection() instanceof ITextSelection)) {
 				return;
 			}
+			// Keep remote selection in order with pending text changes
+			flushLocalChanges();
 			final ITextSelection textSelection = (ITextSelection) event.getSelection();
 			final SelectionMessage msg = new SelectionMessage(textSelection.getOffset(), textSelection.getLength());
 
@@ -377,8 +457,15 @@ public class DocShare extends AbstractShare {
 
 					// Get content from local document
 					final String content = editorPart.getDocumentProvider().getDocument(editorPart.getEditorInput()).get();
-					// Send start message with current content
-					sendMessage(toID, new StartMessage(our, fName, toID, content, fileName).serialize());
+					// Send start message with current content.  Large content is compressed and sent in chunks,
+					// if the receiver can reassemble them
+					if (content.length() > START_CONTENT_CHUNK_THRESHOLD && isChunkCapable(toID)) {
+						final ContentChunkMessage[] chunks = ContentChunkMessage.createChunks(content, ContentChunkMessage.DEFAULT_CHUNK_SIZE);
+						sendMessage(toID, new StartMessage(our, fName, toID, fileName, chunks.length).serialize());
+						for (int i = 0; i < chunks.length; i++)
+							sendMessage(toID, chunks[i].serialize());
+					} else
+						sendMessage(toID, new StartMessage(our, fName, toID, content, fileName).serialize());
 					// Set local sharing start (to setup doc listener)
 					localStartShare(getLocalRosterManager(), our, our, toID, editorPart);
 				} catch (final Exception e) {
@@ -397,6 +484,16 @@ public class DocShare extends AbstractShare {
 	public void stopShare() {
 		Trace.entering(Activator.PLUGIN_ID, DocshareDebugOptions.METHODS_ENTERING, this.getClass(), "stopShare"); //$NON-NLS-1$
 		if (isSharing()) {
+			// Send the coalesced change, on the UI thread where the coalescer is used
+			if (Display.getCurrent() != null)
+				flushLocalChanges();
+			else {
+				final Display display = Display.getDefault();
+				if (display.isDisposed())
+					flushLocalChanges();
+				else
+					display.syncExec(flushRunnable);
+			}
 			// send stop message to other
 			sendStopMessage();
 			syncStrategy = null;
@@ -425,6 +522,8 @@ public class DocShare extends AbstractShare {
 				}
 			} else if (message instanceof StartMessage) {
 				handleStartMessage((StartMessage) message);
+			} else if (message instanceof ContentChunkMessage) {
+				handleContentChunkMessage((ContentChunkMessage) message);
 			} else if (message instanceof StopMessage) {
 				handleStopMessage((StopMessage) message);
 			} else {
@@ -445,6 +544,46 @@ public class DocShare extends AbstractShare {
 	 * @throws IDCreateException 
 	 */
 	protected void handleStartMessage(final StartMessage message) throws IDCreateException {
+		if (message.isContentChunksSupported() && message.getSenderID() != null)
+			chunkCapablePeers.add(message.getSenderID());
+		if (message.getContentChunks() > 0) {
+			// Content follows in chunks
+			chunkAssembler.start(message);
+			return;
+		}
+		handleStartMessage(message, message.getDocumentContent());
+	}
+
+	/**
+	 * This method called by the {@link #handleMessage(ID, byte[])} method if
+	 * the type of the message received is a chunk of the content of a
+	 * preceding start message. When the last chunk is received,
+	 * {@link #handleStartMessage(StartMessage, String)} is called with the
+	 * decompressed content.
+	 * 
+	 * @param message
+	 *            the ContentChunkMessage received.
+	 * @throws IOException if the chunk is out of order or the content cannot be decompressed
+	 * @throws IDCreateException
+	 * @since 2.2
+	 */
+	protected void handleContentChunkMessage(final ContentChunkMessage message) throws IOException, IDCreateException {
+		final StartMessage start = chunkAssembler.add(message);
+		if (start != null)
+			handleStartMessage(start, start.getDocumentContent());
+	}
+
+	/**
+	 * Handle a start message once its document content is available.
+	 * 
+	 * @param message
+	 *            the StartMessage received.
+	 * @param documentContent
+	 *            the content of the shared document.
+	 * @throws IDCreateException
+	 * @since 2.2
+	 */
+	protected void handleStartMessage(final StartMessage message, final String documentContent) throws IDCreateException {
 		final ID senderID = message.getSenderID();
 		Assert.isNotNull(senderID);
 		final String senderUsername = message.getSenderUsername();
@@ -453,7 +592,6 @@ public class DocShare extends AbstractShare {
 		Assert.isNotNull(our);
 		final String filename = message.getFilename();
 		Assert.isNotNull(filename);
-		final String documentContent = message.getDocumentContent();
 		Assert.isNotNull(documentContent);
 
 		//SYNC API. Create an instance of the synchronization strategy on the receiver
@@ -550,6 +688,9 @@ public class DocShare extends AbstractShare {
 					if (document != null) {
 						Trace.trace(Activator.PLUGIN_ID, NLS.bind("{0}.handleUpdateMessage calling transformIncomingMessage", DocShare.this)); //$NON-NLS-1$
 
+						// Register coalesced local changes first, as they are already in the document
+						flushLocalChanges();
+
 						// SYNC API.  Here a document change message has been received from remote via channel,
 						// and is now passed to the syncStrategy for transformation.  The returned IModelChange[]
 						// are then applied to the local document (after the synchronization strategy as transformed
@@ -718,6 +859,7 @@ public class DocShare extends AbstractShare {
 	void localStartShare(final IRosterManager rm, ID our, ID initiator, ID receiver, ITextEditor edt) {
 		synchronized (stateLock) {
 			localStopShare();
+			coalescer.clear();
 			this.rosterManager = rm;
 			if (this.rosterManager != null) {
 				this.rosterManager.addRosterListener(rosterListener);
@@ -751,6 +893,7 @@ public class DocShare extends AbstractShare {
 			this.initiatorID = null;
 			this.receiverID = null;
 			this.startContent = null;
+			chunkAssembler.clear();
 			final IDocument doc = getDocumentFromEditor();
 			if (doc != null)
 				doc.removeDocumentListener(documentListener);
@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.docshare.messages;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.ecf.internal.docshare.Messages;
+import org.eclipse.ecf.sync.SerializationException;
+
+/**
+ * Part of the compressed document content of a {@link StartMessage}, for
+ * documents too large to send in a single message. The content is UTF-8
+ * encoded, gzip compressed and split into chunks, which are sent in order
+ * after the StartMessage.
+ * 
+ * @see StartMessage#getContentChunks()
+ * @since 2.2
+ */
+public class ContentChunkMessage extends Message {
+
+	private static final long serialVersionUID = -2153347211760935407L;
+
+	public static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+
+	private final int index;
+	private final byte[] data;
+
+	public ContentChunkMessage(int index, byte[] data) {
+		this.index = index;
+		this.data = data;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Compress content and split it into chunks.
+	 * 
+	 * @param content the document content.  Must not be <code>null</code>.
+	 * @param chunkSize maximum number of compressed bytes per chunk
+	 * @return the chunks, in order.  Will contain at least one chunk.
+	 * @throws SerializationException if content cannot be compressed
+	 */
+	public static ContentChunkMessage[] createChunks(String content, int chunkSize) throws SerializationException {
+		byte[] compressed;
+		try {
+			final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			final GZIPOutputStream gzos = new GZIPOutputStream(bos);
+			gzos.write(content.getBytes("UTF-8")); //$NON-NLS-1$
+			gzos.close();
+			compressed = bos.toByteArray();
+		} catch (final IOException e) {
+			throw new SerializationException(Messages.DocShare_EXCEPTION_DESERIALIZING_MESSAGE0, e);
+		}
+		final int count = Math.max(1, (compressed.length + chunkSize - 1) / chunkSize);
+		final ContentChunkMessage[] chunks = new ContentChunkMessage[count];
+		for (int i = 0; i < count; i++) {
+			final int start = i * chunkSize;
+			final byte[] chunk = new byte[Math.min(chunkSize, compressed.length - start)];
+			System.arraycopy(compressed, start, chunk, 0, chunk.length);
+			chunks[i] = new ContentChunkMessage(i, chunk);
+		}
+		return chunks;
+	}
+
+	/**
+	 * @param compressed the data of all chunks, concatenated in order
+	 * @return the document content
+	 * @throws SerializationException if compressed cannot be decompressed
+	 */
+	public static String decompress(byte[] compressed) throws SerializationException {
+		try {
+			final GZIPInputStream gzis = new GZIPInputStream(new ByteArrayInputStream(compressed));
+			final ByteArrayOutputStream bos = new ByteArrayOutputStream(compressed.length * 4);
+			final byte[] buf = new byte[8192];
+			int count;
+			while ((count = gzis.read(buf)) != -1)
+				bos.write(buf, 0, count);
+			gzis.close();
+			return new String(bos.toByteArray(), "UTF-8"); //$NON-NLS-1$
+		} catch (final IOException e) {
+			throw new SerializationException(Messages.DocShare_EXCEPTION_DESERIALIZING_MESSAGE0, e);
+		}
+	}
+}
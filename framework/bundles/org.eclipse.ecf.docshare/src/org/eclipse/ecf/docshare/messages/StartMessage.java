@@ -28,6 +28,9 @@ public class StartMessage extends Message {
 	private final String fromUsername;
 	private final String fileName;
 	private final String documentContent;
+	private final int contentChunks;
+	// false when deserialized from senders that do not know this field
+	private final boolean contentChunksSupported;
 
 	public StartMessage(ID senderID, String fromUser, ID receiverID, String content, String file) {
 		this.senderID = senderID;
@@ -35,6 +38,24 @@ public class StartMessage extends Message {
 		this.fromUsername = fromUser;
 		this.fileName = file;
 		this.documentContent = content;
+		this.contentChunks = 0;
+		this.contentChunksSupported = true;
+	}
+
+	/**
+	 * Create a start message for content sent in the given number of
+	 * {@link ContentChunkMessage}s following this message.
+	 * 
+	 * @since 2.2
+	 */
+	public StartMessage(ID senderID, String fromUser, ID receiverID, String file, int contentChunks) {
+		this.senderID = senderID;
+		this.receiverID = receiverID;
+		this.fromUsername = fromUser;
+		this.fileName = file;
+		this.documentContent = null;
+		this.contentChunks = contentChunks;
+		this.contentChunksSupported = true;
 	}
 
 	public ID getSenderID() {
@@ -53,8 +74,31 @@ public class StartMessage extends Message {
 		return fileName;
 	}
 
+	/**
+	 * @return the document content, or <code>null</code> if the content is
+	 *         sent in {@link ContentChunkMessage}s
+	 */
 	public String getDocumentContent() {
 		return documentContent;
 	}
 
+	/**
+	 * @return the number of {@link ContentChunkMessage}s following this
+	 *         message, or 0 if the content is included in this message
+	 * @since 2.2
+	 */
+	public int getContentChunks() {
+		return contentChunks;
+	}
+
+	/**
+	 * @return <code>true</code> if the sender of this message can receive
+	 *         content in {@link ContentChunkMessage}s. Senders that predate
+	 *         content chunks cannot, and must be sent the content inline.
+	 * @since 2.2
+	 */
+	public boolean isContentChunksSupported() {
+		return contentChunksSupported;
+	}
+
 }
@@ -0,0 +1,83 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.docshare;
+
+import java.io.*;
+import org.eclipse.ecf.docshare.messages.ContentChunkMessage;
+import org.eclipse.ecf.docshare.messages.StartMessage;
+import org.eclipse.ecf.sync.SerializationException;
+
+/**
+ * Reassembles the document content sent in {@link ContentChunkMessage}s
+ * following a {@link StartMessage}. Chunks must arrive in order; a chunk
+ * without a preceding StartMessage is ignored.
+ */
+public class ContentChunkAssembler {
+
+	private StartMessage start;
+	private ByteArrayOutputStream content;
+	private int received;
+
+	/**
+	 * Start reassembling the content of message, discarding any content of a
+	 * previous StartMessage.
+	 * 
+	 * @param message a StartMessage with {@link StartMessage#getContentChunks()} > 0
+	 */
+	public synchronized void start(StartMessage message) {
+		start = message;
+		content = new ByteArrayOutputStream();
+		received = 0;
+	}
+
+	public synchronized boolean isAssembling() {
+		return start != null;
+	}
+
+	/**
+	 * Add the next chunk.
+	 * 
+	 * @param chunk the chunk.  Must not be <code>null</code>.
+	 * @return a StartMessage with the reassembled content inline, if chunk was
+	 *         the last chunk, or <code>null</code> otherwise
+	 * @throws IOException if chunk is out of order or the content cannot be
+	 *         decompressed
+	 */
+	public synchronized StartMessage add(ContentChunkMessage chunk) throws IOException {
+		if (start == null)
+			return null;
+		if (chunk.getIndex() != received++) {
+			clear();
+			throw new InvalidObjectException("Content chunk " + chunk.getIndex() + " out of order"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		content.write(chunk.getData());
+		if (received < start.getContentChunks())
+			return null;
+		final StartMessage s = start;
+		final byte[] compressed = content.toByteArray();
+		clear();
+		try {
+			return new StartMessage(s.getSenderID(), s.getSenderUsername(), s.getReceiverID(), ContentChunkMessage.decompress(compressed), s.getFilename());
+		} catch (final SerializationException e) {
+			final IOException ioe = new IOException(e.getMessage());
+			ioe.initCause(e);
+			throw ioe;
+		}
+	}
+
+	public synchronized void clear() {
+		start = null;
+		content = null;
+		received = 0;
+	}
+}
@@ -0,0 +1,165 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.docshare;
+
+import org.eclipse.ecf.sync.doc.DocumentChangeMessage;
+
+/**
+ * Merges consecutive local document changes into a single change before they
+ * are registered with the synchronization strategy and sent. Typing adds to
+ * a pending insert, and backspace or delete adds to a pending delete. A
+ * change that cannot be merged flushes the pending change first.
+ * <p>
+ * The pending change is flushed by the caller after {@link #getWindow()}
+ * milliseconds. The window doubles, up to the maximum, after a flush that
+ * merged changes (a typing burst), and halves, down to the minimum, after a
+ * flush of a single change. Not thread safe; all methods are called on the
+ * UI thread.
+ * </p>
+ */
+public class DocumentChangeCoalescer {
+
+	public static final String MIN_WINDOW_PROP = "org.eclipse.ecf.docshare.coalesceMinWindow"; //$NON-NLS-1$
+	public static final String MAX_WINDOW_PROP = "org.eclipse.ecf.docshare.coalesceMaxWindow"; //$NON-NLS-1$
+
+	public static final long DEFAULT_MIN_WINDOW = 20;
+	public static final long DEFAULT_MAX_WINDOW = 200;
+	public static final int DEFAULT_MAX_TEXT_LENGTH = 8192;
+
+	private static final DocumentChangeMessage[] NO_CHANGES = new DocumentChangeMessage[0];
+
+	private final long minWindow;
+	private final long maxWindow;
+	private final int maxTextLength;
+	private long window;
+
+	private boolean pending = false;
+	private int offset;
+	private int length;
+	private StringBuffer text;
+	private int merged;
+
+	public DocumentChangeCoalescer() {
+		this(Long.getLong(MIN_WINDOW_PROP, DEFAULT_MIN_WINDOW).longValue(), Long.getLong(MAX_WINDOW_PROP, DEFAULT_MAX_WINDOW).longValue(), DEFAULT_MAX_TEXT_LENGTH);
+	}
+
+	/**
+	 * @param minWindow minimum coalescing window in ms
+	 * @param maxWindow maximum coalescing window in ms.  If <= 0, changes are not coalesced.
+	 * @param maxTextLength length of pending text at which the pending change is flushed
+	 */
+	public DocumentChangeCoalescer(long minWindow, long maxWindow, int maxTextLength) {
+		this.minWindow = Math.max(1, minWindow);
+		this.maxWindow = maxWindow;
+		this.maxTextLength = maxTextLength;
+		this.window = this.minWindow;
+	}
+
+	public boolean isEnabled() {
+		return maxWindow > 0;
+	}
+
+	public boolean hasPending() {
+		return pending;
+	}
+
+	/**
+	 * @return the current coalescing window in ms
+	 */
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * Add a local document change.
+	 * 
+	 * @param off offset of the change
+	 * @param len length of the replaced text
+	 * @param txt the new text.  May be <code>null</code>.
+	 * @return the changes that are ready to be sent, in order.  Will not be <code>null</code>.
+	 */
+	public DocumentChangeMessage[] add(int off, int len, String txt) {
+		final String t = (txt == null) ? "" : txt; //$NON-NLS-1$
+		if (!isEnabled())
+			return new DocumentChangeMessage[] {new DocumentChangeMessage(off, len, t)};
+		if (pending && merge(off, len, t)) {
+			merged++;
+			if (text.length() < maxTextLength)
+				return NO_CHANGES;
+			final DocumentChangeMessage full = flush();
+			return (full == null) ? NO_CHANGES : new DocumentChangeMessage[] {full};
+		}
+		final DocumentChangeMessage previous = flush();
+		pending = true;
+		offset = off;
+		length = len;
+		text = new StringBuffer(t);
+		merged = 0;
+		return (previous == null) ? NO_CHANGES : new DocumentChangeMessage[] {previous};
+	}
+
+	private boolean merge(int off, int len, String t) {
+		final int end = offset + text.length();
+		if (len == 0 && off == end) {
+			// Typing after the pending text
+			text.append(t);
+			return true;
+		}
+		if (t.length() == 0 && len > 0) {
+			if (text.length() > 0) {
+				if (off >= offset && off + len == end) {
+					// Backspace within the pending text
+					text.setLength(text.length() - len);
+					return true;
+				}
+			} else if (off == offset) {
+				// Forward delete after a pending delete
+				length += len;
+				return true;
+			} else if (off + len == offset) {
+				// Backspace before a pending delete
+				offset = off;
+				length += len;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Flush the pending change.
+	 * 
+	 * @return the pending change, or <code>null</code> if there is none, or
+	 * if the pending changes cancelled each other out.
+	 */
+	public DocumentChangeMessage flush() {
+		if (!pending)
+			return null;
+		pending = false;
+		window = (merged > 0) ? Math.min(maxWindow, window * 2) : Math.max(minWindow, window / 2);
+		final String t = text.toString();
+		text = null;
+		if (length == 0 && t.length() == 0)
+			return null;
+		return new DocumentChangeMessage(offset, length, t);
+	}
+
+	/**
+	 * Discard the pending change.
+	 */
+	public void clear() {
+		pending = false;
+		text = null;
+		window = minWindow;
+	}
+}
@@ -11,6 +11,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.core.identity;
 
+import java.io.ObjectStreamException;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IAdapterManager;
 import org.eclipse.ecf.internal.core.identity.Activator;
@@ -27,7 +28,11 @@ public abstract class BaseID implements ID {
 
 	private static final long serialVersionUID = -6242599410460002514L;
 
-	protected Namespace namespace;
+	// volatile, as subclasses may set it lazily without holding a lock (see StringID)
+	protected volatile Namespace namespace;
+
+	// cached hash code of immutable IDs, 0 if not (yet) computed
+	private transient int hashCode;
 
 	/**
 	 * @since 3.9
@@ -62,6 +67,10 @@ public abstract class BaseID implements ID {
 		if (o == null || !(o instanceof BaseID)) {
 			return false;
 		}
+		// Equal IDs have equal hash codes, so differing cached hashes settle it
+		final int otherHashCode = ((BaseID) o).hashCode;
+		if (hashCode != 0 && otherHashCode != 0 && hashCode != otherHashCode)
+			return false;
 		return namespace.testIDEquals(this, (BaseID) o);
 	}
 
@@ -89,7 +98,40 @@ public abstract class BaseID implements ID {
 	 * @see java.lang.Object#hashCode()
 	 */
 	public int hashCode() {
-		return namespace.getHashCodeForID(this);
+		if (!isHashCodeCacheable())
+			return namespace.getHashCodeForID(this);
+		int h = hashCode;
+		if (h == 0) {
+			h = namespace.getHashCodeForID(this);
+			hashCode = h;
+		}
+		return h;
+	}
+
+	/**
+	 * Whether the value returned by {@link #hashCode()} may be cached. Subclasses
+	 * whose state (and therefore hash code) never changes after construction
+	 * may override to return <code>true</code>. Default implementation returns
+	 * <code>false</code>.
+	 * 
+	 * @return <code>true</code> if the hash code of this ID may be cached.
+	 * @since 3.10
+	 */
+	protected boolean isHashCodeCacheable() {
+		return false;
+	}
+
+	/**
+	 * Replace deserialized instances with their canonical instance if
+	 * {@link IDFactory#isInternIDs() interning} is enabled.
+	 * 
+	 * @return Object the canonical instance of this ID, or this ID.
+	 * @throws ObjectStreamException
+	 *             not thrown by this implementation.
+	 * @since 3.10
+	 */
+	protected Object readResolve() throws ObjectStreamException {
+		return IDInterner.intern(this);
 	}
 
 	/*
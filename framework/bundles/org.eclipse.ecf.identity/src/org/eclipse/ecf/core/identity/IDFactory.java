@@ -13,6 +13,7 @@ package org.eclipse.ecf.core.identity;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.ecf.internal.core.identity.Activator;
@@ -25,7 +26,18 @@ import org.eclipse.ecf.internal.core.identity.Activator;
 public class IDFactory implements IIDFactory {
 	public static final String SECURITY_PROPERTY = IDFactory.class.getName() + ".security"; //$NON-NLS-1$
 
-	private static Hashtable<String, Namespace> namespaces = new Hashtable<String, Namespace>();
+	/**
+	 * System property that enables interning of the {@link StringID}, {@link GUID},
+	 * {@link URIID} and {@link LongID} instances created by this factory or
+	 * deserialized (default <code>false</code>).
+	 * 
+	 * @since 3.10
+	 */
+	public static final String INTERN_PROPERTY = IDFactory.class.getName() + ".intern"; //$NON-NLS-1$
+
+	// Read without locking once initialized, so ID creation on different
+	// threads does not contend
+	private static Map<String, Namespace> namespaces = new ConcurrentHashMap<String, Namespace>();
 
 	protected static IIDFactory instance = null;
 
@@ -38,21 +50,50 @@ public class IDFactory implements IIDFactory {
 		addNamespace0(new UuID.UuIDNamespace());
 	}
 
-	private synchronized static void initialize() {
-		if (!initialized) {
-			Activator a = Activator.getDefault();
-			if (a != null)
-				a.setupNamespaceExtensionPoint();
-			initialized = true;
+	private static void initialize() {
+		if (initialized)
+			return;
+		synchronized (IDFactory.class) {
+			if (!initialized) {
+				Activator a = Activator.getDefault();
+				if (a != null)
+					a.setupNamespaceExtensionPoint();
+				initialized = true;
+			}
 		}
 	}
 
-	private static boolean initialized = false;
+	private static volatile boolean initialized = false;
 
-	public synchronized static IIDFactory getDefault() {
+	public static IIDFactory getDefault() {
 		return instance;
 	}
 
+	/**
+	 * Enable or disable interning of {@link StringID}, {@link GUID},
+	 * {@link URIID} and {@link LongID} instances. When enabled, equal IDs
+	 * created by this factory or deserialized are the same instance, as long as
+	 * that instance is referenced. Initially set from {@link #INTERN_PROPERTY}.
+	 * Disabling interning discards all canonical instances.
+	 * 
+	 * @param intern
+	 *            <code>true</code> to enable interning
+	 * @since 3.10
+	 */
+	public static void setInternIDs(boolean intern) {
+		IDInterner.enabled = intern;
+		if (!intern)
+			IDInterner.clear();
+	}
+
+	/**
+	 * @return <code>true</code> if IDs are interned
+	 * @since 3.10
+	 */
+	public static boolean isInternIDs() {
+		return IDInterner.enabled;
+	}
+
 	private IDFactory() {
 	}
 
@@ -194,7 +235,7 @@ public class IDFactory implements IIDFactory {
 		Namespace ns = getNamespace0(n);
 		if (ns == null)
 			logAndThrow("Namespace " + n.getName() + " not found", null); //$NON-NLS-1$
-		return ns.createInstance(args);
+		return IDInterner.intern(ns.createInstance(args));
 	}
 
 	/*
@@ -0,0 +1,77 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.identity;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Weak canonicalizing cache for the immutable ID classes of this bundle
+ * ({@link StringID}, {@link GUID}, {@link URIID} and {@link LongID}). Entries
+ * are removed once the canonical instance is no longer referenced. The cache
+ * is split in stripes selected by ID hash code, so concurrent interning of
+ * different IDs rarely contends.
+ */
+final class IDInterner {
+
+	private static final int STRIPES = 32;
+
+	static volatile boolean enabled = Boolean.valueOf(System.getProperty(IDFactory.INTERN_PROPERTY, "false")).booleanValue(); //$NON-NLS-1$
+
+	// Map<ID,WeakReference<ID>> per stripe
+	@SuppressWarnings("unchecked")
+	private static final Map<ID, WeakReference<ID>>[] stripes = new Map[STRIPES];
+
+	static {
+		for (int i = 0; i < STRIPES; i++)
+			stripes[i] = new WeakHashMap<ID, WeakReference<ID>>();
+	}
+
+	private IDInterner() {
+		// no instantiation
+	}
+
+	static boolean isInternable(ID id) {
+		// Exact classes only, subclasses may carry additional or mutable state
+		final Class<?> clazz = id.getClass();
+		return clazz == StringID.class || clazz == GUID.class || clazz == URIID.class || clazz == LongID.class;
+	}
+
+	/**
+	 * @param id the ID to intern. May be <code>null</code>.
+	 * @return the canonical instance equal to id, or id itself if interning is disabled
+	 * or id is not of an internable class.
+	 */
+	static ID intern(ID id) {
+		if (!enabled || id == null || !isInternable(id))
+			return id;
+		final Map<ID, WeakReference<ID>> stripe = stripes[(id.hashCode() & 0x7fffffff) % STRIPES];
+		synchronized (stripe) {
+			final WeakReference<ID> ref = stripe.get(id);
+			final ID canonical = (ref == null) ? null : ref.get();
+			if (canonical != null)
+				return canonical;
+			stripe.put(id, new WeakReference<ID>(id));
+			return id;
+		}
+	}
+
+	static void clear() {
+		for (int i = 0; i < STRIPES; i++) {
+			synchronized (stripes[i]) {
+				stripes[i].clear();
+			}
+		}
+	}
+}
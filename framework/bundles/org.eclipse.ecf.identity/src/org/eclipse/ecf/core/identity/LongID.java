@@ -95,6 +95,13 @@ public class LongID extends BaseID {
 		return value.hashCode();
 	}
 
+	/**
+	 * @since 3.10
+	 */
+	protected boolean isHashCodeCacheable() {
+		return true;
+	}
+
 	public long longValue() {
 		return value.longValue();
 	}
@@ -84,6 +84,8 @@ public class StringID extends BaseID {
 	}
 
 	public boolean equals(Object o) {
+		if (this == o)
+			return true;
 		setEmptyNamespace();
 		return super.equals(o);
 	}
@@ -135,9 +137,22 @@ public class StringID extends BaseID {
 		return value.hashCode() ^ getClass().hashCode();
 	}
 
-	protected synchronized void setEmptyNamespace() {
-		if (namespace == null) {
-			namespace = IDFactory.getDefault().getNamespaceByName(StringID.class.getName());
+	/**
+	 * @since 3.10
+	 */
+	protected boolean isHashCodeCacheable() {
+		return true;
+	}
+
+	protected void setEmptyNamespace() {
+		// Only instances created with the no-arg constructor lack a namespace,
+		// so avoid locking on every call
+		if (namespace != null)
+			return;
+		synchronized (this) {
+			if (namespace == null) {
+				namespace = IDFactory.getDefault().getNamespaceByName(StringID.class.getName());
+			}
 		}
 	}
 
@@ -120,6 +120,13 @@ public class URIID extends BaseID implements IResourceID {
 		return uri.toString().hashCode() ^ getClass().hashCode();
 	}
 
+	/**
+	 * @since 3.10
+	 */
+	protected boolean isHashCodeCacheable() {
+		return true;
+	}
+
 	public URI toURI() {
 		return uri;
 	}
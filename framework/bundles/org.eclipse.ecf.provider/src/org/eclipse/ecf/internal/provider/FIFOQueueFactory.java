@@ -0,0 +1,73 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.provider;
+
+import java.util.Map;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ecf.core.sharedobject.util.LockFreeFIFOQueue;
+import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
+
+/**
+ * Creates the queues used by shared object wrappers and tcp clients. The queue
+ * implementation is selected by the {@link #QUEUE_PROP} property, either given
+ * in the container properties or as a system property:
+ * <ul>
+ * <li>"simple" (default): {@link SimpleFIFOQueue}</li>
+ * <li>"lockfree": {@link LockFreeFIFOQueue}, bounded by the
+ * {@link #QUEUE_CAPACITY_PROP} property (default unbounded)</li>
+ * </ul>
+ */
+public class FIFOQueueFactory {
+
+	public static final String QUEUE_PROP = "org.eclipse.ecf.provider.generic.queue"; //$NON-NLS-1$
+	public static final String QUEUE_CAPACITY_PROP = QUEUE_PROP + ".capacity"; //$NON-NLS-1$
+	public static final String QUEUE_LATENCY_PROP = QUEUE_PROP + ".recordLatency"; //$NON-NLS-1$
+
+	public static final String SIMPLE = "simple"; //$NON-NLS-1$
+	public static final String LOCKFREE = "lockfree"; //$NON-NLS-1$
+
+	private FIFOQueueFactory() {
+		// no instantiation
+	}
+
+	private static String getProperty(Map props, String name, String def) {
+		final Object val = (props == null) ? null : props.get(name);
+		if (val != null)
+			return val.toString();
+		return System.getProperty(name, def);
+	}
+
+	/**
+	 * @param props container properties.  May be <code>null</code>.
+	 * @return a new queue of the configured type.  Will not be <code>null</code>.
+	 */
+	public static SimpleFIFOQueue createQueue(Map props) {
+		final String type = getProperty(props, QUEUE_PROP, SIMPLE);
+		if (!LOCKFREE.equalsIgnoreCase(type))
+			return new SimpleFIFOQueue();
+		int capacity = LockFreeFIFOQueue.UNBOUNDED;
+		try {
+			capacity = Math.max(LockFreeFIFOQueue.UNBOUNDED, Integer.parseInt(getProperty(props, QUEUE_CAPACITY_PROP, "0"))); //$NON-NLS-1$
+		} catch (final NumberFormatException e) {
+			final ProviderPlugin plugin = ProviderPlugin.getDefault();
+			if (plugin != null)
+				plugin.log(new Status(IStatus.WARNING, ProviderPlugin.PLUGIN_ID, "Invalid queue capacity, using unbounded queue", e)); //$NON-NLS-1$
+		}
+		return new LockFreeFIFOQueue(capacity, Boolean.valueOf(getProperty(props, QUEUE_LATENCY_PROP, "false")).booleanValue()); //$NON-NLS-1$
+	}
+
+	public static SimpleFIFOQueue createQueue() {
+		return createQueue(null);
+	}
+}
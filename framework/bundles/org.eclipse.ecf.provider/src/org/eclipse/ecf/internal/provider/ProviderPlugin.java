@@ -22,6 +22,7 @@ import org.eclipse.ecf.core.ContainerTypeDescription;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.provider.generic.GenericContainerInstantiator;
 import org.eclipse.ecf.provider.generic.SSLGenericContainerInstantiator;
+import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.log.LogService;
@@ -158,6 +159,14 @@ public class ProviderPlugin implements BundleActivator {
 		return this.context;
 	}
 
+	/**
+	 * @return Bundle this bundle, or <code>null</code> if not started in a framework
+	 */
+	public Bundle getBundle() {
+		final BundleContext c = this.context;
+		return (c == null) ? null : c.getBundle();
+	}
+
 	@SuppressWarnings("unchecked")
 	public SSLServerSocketFactory getSSLServerSocketFactory() {
 		if (context == null)
@@ -20,10 +20,12 @@ import java.util.*;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.metrics.*;
 import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.core.util.Trace;
 import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.FIFOQueueFactory;
 import org.eclipse.ecf.internal.provider.ProviderPlugin;
 import org.eclipse.ecf.provider.comm.*;
 
@@ -44,7 +46,7 @@ public final class Client implements ISynchAsynchConnection {
 	// Event handler
 	protected ISynchAsynchEventHandler handler;
 	// Our queue
-	protected SimpleFIFOQueue queue = new SimpleFIFOQueue();
+	protected SimpleFIFOQueue queue;
 	protected int keepAlive = 0;
 	protected Thread sendThread;
 	protected Thread rcvThread;
@@ -61,6 +63,13 @@ public final class Client implements ISynchAsynchConnection {
 	private final Object disconnectLock = new Object();
 	protected final Object outputStreamLock = new Object();
 	private int maxmsgs = DEFAULT_MAX_BUFFER_MSG;
+	private volatile IDDictionary idDictionary;
+
+	private static final ICounter messagesSent = MetricsRegistry.getDefault().counter("ecf.tcp.messages.sent"); //$NON-NLS-1$
+	private static final ICounter messagesReceived = MetricsRegistry.getDefault().counter("ecf.tcp.messages.received"); //$NON-NLS-1$
+	// Time to serialize and write a message to the socket
+	private static final IHistogram sendTime = MetricsRegistry.getDefault().histogram("ecf.tcp.send.time"); //$NON-NLS-1$
+	private String metricsPrefix;
 
 	private String getHostNameForAddressWithoutLookup(InetAddress inetAddress) {
 		// First get InetAddress.toString(), which returns
@@ -98,7 +107,22 @@ public final class Client implements ISynchAsynchConnection {
 	}
 
 	public Client(Socket aSocket, ObjectInputStream iStream, ObjectOutputStream oStream, ISynchAsynchEventHandler handler, int maxmsgs) throws IOException {
+		this(aSocket, iStream, oStream, handler, maxmsgs, null);
+	}
+
+	/**
+	 * @param aSocket the connected socket.
+	 * @param iStream the socket input stream.
+	 * @param oStream the socket output stream.
+	 * @param handler the event handler.
+	 * @param maxmsgs the maximum number of buffered messages.
+	 * @param containerProperties the container properties used to configure the send queue.  May be <code>null</code>.
+	 * @throws IOException if the socket cannot be set up.
+	 * @since 4.10
+	 */
+	public Client(Socket aSocket, ObjectInputStream iStream, ObjectOutputStream oStream, ISynchAsynchEventHandler handler, int maxmsgs, Map containerProperties) throws IOException {
 		Assert.isNotNull(aSocket);
+		queue = FIFOQueueFactory.createQueue(containerProperties);
 		keepAlive = Integer.valueOf(System.getProperty("org.eclipse.ecf.provider.generic.keepalive", "30000")).intValue(); //$NON-NLS-1$ //$NON-NLS-2$
 		if (keepAlive > 0)
 			aSocket.setSoTimeout(keepAlive);
@@ -113,12 +137,23 @@ public final class Client implements ISynchAsynchConnection {
 	}
 
 	public Client(ISynchAsynchEventHandler handler, int keepAlive) {
+		this(handler, keepAlive, null);
+	}
+
+	/**
+	 * @param handler the event handler.
+	 * @param keepAlive the keep alive interval.
+	 * @param containerProperties the container properties used to configure the send queue.  May be <code>null</code>.
+	 * @since 4.10
+	 */
+	public Client(ISynchAsynchEventHandler handler, int keepAlive, Map containerProperties) {
 		if (handler == null)
 			throw new NullPointerException("event handler cannot be null"); //$NON-NLS-1$
 		this.handler = handler;
 		this.keepAlive = keepAlive;
 		containerID = handler.getEventHandlerID();
 		this.properties = new HashMap();
+		queue = FIFOQueueFactory.createQueue(containerProperties);
 	}
 
 	public synchronized ID getLocalID() {
@@ -219,7 +254,9 @@ public final class Client implements ISynchAsynchConnection {
 			inputStream = ProviderPlugin.getDefault().createObjectInputStream(s.getInputStream());
 			debug("connect;" + anURI); //$NON-NLS-1$
 			// send connect data and get synchronous response
-			send(new ConnectRequestMessage(anURI, (Serializable) data));
+			final ConnectRequestMessage req = new ConnectRequestMessage(anURI, (Serializable) data);
+			req.setIDDictionarySize(IDDictionary.DEFAULT_MAX_ENTRIES);
+			send(req);
 			res = (ConnectResultMessage) readObject();
 		} catch (final IOException e) {
 			throw new ECFException("Exception during connection to " + remote.getName(), e); //$NON-NLS-1$
@@ -227,6 +264,9 @@ public final class Client implements ISynchAsynchConnection {
 		debug("connect;rcv:" + res); //$NON-NLS-1$
 		if (res == null)
 			throw new ECFException("Result cannot be null"); //$NON-NLS-1$
+		// Server agreed to use an ID dictionary
+		if (res.getIDDictionarySize() > 0)
+			enableIDDictionary(res.getIDDictionarySize());
 		// Setup threads
 		setupThreads();
 		// Return results.
@@ -314,8 +354,11 @@ public final class Client implements ISynchAsynchConnection {
 
 	void send(Serializable snd) throws IOException {
 		synchronized (outputStreamLock) {
+			final long start = System.nanoTime();
 			outputStream.writeObject(snd);
 			outputStream.flush();
+			sendTime.recordSince(start);
+			messagesSent.increment();
 			if (resetCounter > this.maxmsgs) {
 				outputStream.reset();
 				resetCounter = 0;
@@ -404,6 +447,7 @@ public final class Client implements ISynchAsynchConnection {
 
 	public synchronized void start() {
 		debug("start()"); //$NON-NLS-1$
+		registerMetrics();
 		if (sendThread != null)
 			sendThread.start();
 		if (rcvThread != null)
@@ -419,6 +463,24 @@ public final class Client implements ISynchAsynchConnection {
 		debug("stop()"); //$NON-NLS-1$
 	}
 
+	private void registerMetrics() {
+		if (metricsPrefix != null)
+			return;
+		metricsPrefix = "ecf.tcp.connection." + getAddressPort() + "."; //$NON-NLS-1$ //$NON-NLS-2$
+		MetricsRegistry.getDefault().gauge(metricsPrefix + "queue.size", new IGauge() { //$NON-NLS-1$
+			public long getValue() {
+				return queue.size();
+			}
+		});
+	}
+
+	private void unregisterMetrics() {
+		if (metricsPrefix != null) {
+			MetricsRegistry.getDefault().removeAll(metricsPrefix);
+			metricsPrefix = null;
+		}
+	}
+
 	private Thread setupPing() {
 		debug("setupPing()"); //$NON-NLS-1$
 		final int pingStartWait = (new Random()).nextInt(keepAlive / 2);
@@ -477,6 +539,7 @@ public final class Client implements ISynchAsynchConnection {
 		debug("disconnect()"); //$NON-NLS-1$
 		// Close send queue and socket
 		queue.close();
+		unregisterMetrics();
 		closeSocket();
 		if (keepAliveThread != null) {
 			if (Thread.currentThread() != keepAliveThread)
@@ -501,10 +564,18 @@ public final class Client implements ISynchAsynchConnection {
 		queueObject(recipient, (Serializable) obj);
 	}
 
-	public synchronized void queueObject(ID recipient, Serializable obj) throws IOException {
-		if (queue.isStopped() || isClosing)
-			throw new ConnectException("Not connected"); //$NON-NLS-1$
-		queue.enqueue(new AsynchMessage(obj));
+	public void queueObject(ID recipient, Serializable obj) throws IOException {
+		synchronized (this) {
+			if (queue.isStopped() || isClosing)
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+		}
+		// Enqueue without holding our lock, as a bounded queue may block until there is
+		// space, and disconnect() needs the lock to close the queue and release us
+		if (!queue.enqueue(new AsynchMessage(obj))) {
+			if (queue.isStopped())
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+			throw new InterruptedIOException("Interrupted waiting for space in send queue"); //$NON-NLS-1$
+		}
 	}
 
 	public synchronized Serializable sendObject(ID recipient, Serializable obj) throws IOException {
@@ -526,6 +597,7 @@ public final class Client implements ISynchAsynchConnection {
 		Serializable ret = null;
 		try {
 			ret = (Serializable) inputStream.readObject();
+			messagesReceived.increment();
 		} catch (final ClassNotFoundException e) {
 			traceStack("readObject;classnotfoundexception", e); //$NON-NLS-1$
 			final IOException except = new IOException("Protocol violation due to class load failure"); //$NON-NLS-1$
@@ -541,9 +613,23 @@ public final class Client implements ISynchAsynchConnection {
 
 	@SuppressWarnings("unchecked")
 	public Object getAdapter(Class clazz) {
+		if (clazz == IDDictionary.class)
+			return idDictionary;
 		return null;
 	}
 
+	/**
+	 * Use an {@link IDDictionary} with the given number of entries to compress the
+	 * IDs in container messages sent and received on this connection.  Must
+	 * only be called when the other end of the connection has agreed to use an
+	 * ID dictionary of the same size, and before any messages are exchanged.
+	 * @param maxEntries the number of dictionary entries.  Must be > 0.
+	 * @since 4.10
+	 */
+	public void enableIDDictionary(int maxEntries) {
+		idDictionary = new IDDictionary(maxEntries);
+	}
+
 	String getAddressPort() {
 		return addressPort;
 	}
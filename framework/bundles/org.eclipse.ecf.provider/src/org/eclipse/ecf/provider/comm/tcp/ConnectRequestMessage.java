@@ -20,12 +20,32 @@ public class ConnectRequestMessage implements Serializable {
 	private static final long serialVersionUID = 3257844363974226229L;
 	URI target;
 	Serializable data;
+	// 0 if the requester does not support ID dictionaries (e.g. older versions)
+	int idDictionarySize;
 
 	public ConnectRequestMessage(URI target, Serializable data) {
 		this.target = target;
 		this.data = data;
 	}
 
+	/**
+	 * @return the maximum number of entries of the {@link IDDictionary} the requester
+	 * supports, or 0 if ID dictionaries are not supported.
+	 * @since 4.10
+	 */
+	public int getIDDictionarySize() {
+		return idDictionarySize;
+	}
+
+	/**
+	 * @param idDictionarySize the maximum number of entries of the {@link IDDictionary}
+	 * the requester supports, or 0 if ID dictionaries are not supported.
+	 * @since 4.10
+	 */
+	public void setIDDictionarySize(int idDictionarySize) {
+		this.idDictionarySize = idDictionarySize;
+	}
+
 	public URI getTarget() {
 		return target;
 	}
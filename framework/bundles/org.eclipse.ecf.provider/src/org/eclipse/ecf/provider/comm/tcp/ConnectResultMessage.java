@@ -18,11 +18,31 @@ import java.io.Serializable;
 public class ConnectResultMessage implements Serializable {
 	private static final long serialVersionUID = 3833188038300938804L;
 	Serializable data;
+	// 0 if the responder does not use an ID dictionary (e.g. older versions)
+	int idDictionarySize;
 
 	public ConnectResultMessage(Serializable data) {
 		this.data = data;
 	}
 
+	/**
+	 * @return the number of entries of the {@link IDDictionary} used for the connection,
+	 * or 0 if no ID dictionary is used.
+	 * @since 4.10
+	 */
+	public int getIDDictionarySize() {
+		return idDictionarySize;
+	}
+
+	/**
+	 * @param idDictionarySize the number of entries of the {@link IDDictionary} used for the
+	 * connection, or 0 if no ID dictionary is used.
+	 * @since 4.10
+	 */
+	public void setIDDictionarySize(int idDictionarySize) {
+		this.idDictionarySize = idDictionarySize;
+	}
+
 	public Serializable getData() {
 		return data;
 	}
@@ -0,0 +1,328 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.comm.tcp;
+
+import java.io.*;
+import java.util.*;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.internal.provider.ProviderPlugin;
+import org.eclipse.ecf.provider.comm.IAsynchConnection;
+
+/**
+ * Connection scoped dictionary of IDs, used to compress the IDs in messages
+ * sent over a {@link Client} connection. The first time an ID is written, its
+ * full serialized form is sent together with a small integer handle. Later
+ * messages send only the handle. At most <code>maxEntries</code> IDs are kept,
+ * the least recently used ID is evicted and its handle reused when the
+ * dictionary is full.
+ * <p>
+ * Both ends of a connection agree on <code>maxEntries</code> during the connect
+ * handshake (see {@link ConnectRequestMessage#getIDDictionarySize()}). Messages
+ * serialized with {@link #serialize(Serializable)} must be delivered to the
+ * other end in the order they were serialized, and must be read with
+ * {@link #deserialize(byte[])} in that same order.
+ * {@link #sendAsynch(IAsynchConnection, ID, Serializable)} serializes and sends
+ * messages in that order without holding the dictionary lock while sending.
+ * Once a send fails, later messages could reference definitions that were
+ * never sent, so all further sendAsynch calls fail as well.
+ * </p>
+ * <p>
+ * If a message cannot be deserialized, the definitions it carried may only
+ * be partially known, so later references could resolve to the wrong IDs.
+ * The dictionary then fails all further {@link #deserialize(byte[])} calls,
+ * and the connection should be closed.
+ * </p>
+ *
+ * @since 4.10
+ */
+public class IDDictionary {
+
+	public static final int DEFAULT_MAX_ENTRIES = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.comm.tcp.client.idDictionarySize", "1024")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final ThreadLocal readDictionary = new ThreadLocal();
+
+	static class Definition implements Serializable {
+		private static final long serialVersionUID = -3424093815722542154L;
+		final int handle;
+		final byte[] id;
+
+		Definition(int handle, byte[] id) {
+			this.handle = handle;
+			this.id = id;
+		}
+
+		private Object readResolve() throws ObjectStreamException {
+			final IDDictionary dictionary = (IDDictionary) readDictionary.get();
+			if (dictionary == null)
+				throw new InvalidObjectException("ID definition read outside of IDDictionary.deserialize"); //$NON-NLS-1$
+			return dictionary.define(handle, id);
+		}
+	}
+
+	static class Reference implements Serializable {
+		private static final long serialVersionUID = 6530186962421766357L;
+		final int handle;
+
+		Reference(int handle) {
+			this.handle = handle;
+		}
+
+		private Object readResolve() throws ObjectStreamException {
+			final IDDictionary dictionary = (IDDictionary) readDictionary.get();
+			if (dictionary == null)
+				throw new InvalidObjectException("ID reference read outside of IDDictionary.deserialize"); //$NON-NLS-1$
+			return dictionary.lookup(handle);
+		}
+	}
+
+	class DictionaryObjectOutputStream extends ObjectOutputStream {
+		DictionaryObjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		protected Object replaceObject(Object obj) throws IOException {
+			return (obj instanceof ID) ? replace((ID) obj) : obj;
+		}
+	}
+
+	private final int maxEntries;
+	// Output side: ID -> handle, in least recently used order
+	private final LinkedHashMap outHandles;
+	private int nextHandle = 0;
+	// Input side: handle -> ID
+	private ID[] inIDs = new ID[16];
+
+	private long definitionsSent;
+	private long referencesSent;
+
+	// The number of messages serialized for sendAsynch, and the number of those sent or discarded
+	private long serializedCount;
+	private long sentCount;
+	private IOException sendFailure;
+	private volatile boolean failed;
+
+	/**
+	 * @param maxEntries the maximum number of IDs in the dictionary.  Must be > 0.
+	 */
+	public IDDictionary(int maxEntries) {
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("maxEntries must be > 0"); //$NON-NLS-1$
+		this.maxEntries = maxEntries;
+		this.outHandles = new LinkedHashMap(16, 0.75f, true);
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Serialize obj, replacing the IDs in its object graph by dictionary entries.
+	 * @param obj the object to serialize.  Must not be <code>null</code>.
+	 * @return byte[] the serialized form of obj
+	 * @throws IOException if obj cannot be serialized
+	 */
+	public synchronized byte[] serialize(Serializable obj) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new DictionaryObjectOutputStream(bos);
+		oos.writeObject(obj);
+		oos.close();
+		return bos.toByteArray();
+	}
+
+	/**
+	 * Deserialize bytes written by the {@link #serialize(Serializable)} method of the
+	 * dictionary at the other end of the connection.
+	 * @param bytes the serialized form.  Must not be <code>null</code>.
+	 * @return Object the deserialized object
+	 * @throws IOException if bytes cannot be read or refer to an unknown ID handle
+	 * @throws ClassNotFoundException if a class in the object graph cannot be loaded
+	 */
+	public Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		if (failed)
+			throw new IOException("IDDictionary out of sync after a failed deserialize"); //$NON-NLS-1$
+		final Object old = readDictionary.get();
+		readDictionary.set(this);
+		boolean ok = false;
+		try {
+			final Object result = createObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+			ok = true;
+			return result;
+		} catch (final RuntimeException e) {
+			final IOException ioe = new IOException("Cannot deserialize message"); //$NON-NLS-1$
+			ioe.initCause(e);
+			throw ioe;
+		} finally {
+			readDictionary.set(old);
+			if (!ok)
+				failed = true;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if a {@link #deserialize(byte[])} failed and this dictionary
+	 * can no longer be used to read messages
+	 */
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Serialize message and send it asynchronously on conn.  Messages are passed to conn in
+	 * the order they were serialized, but this dictionary is not locked while conn sends,
+	 * so other threads can serialize while a send blocks.  This method returns once message
+	 * has been passed to conn, which happens after all messages serialized before it.
+	 * @param conn the connection to send on.  Must not be <code>null</code>.
+	 * @param toID the receiver of the message.  May be <code>null</code>.
+	 * @param message the message to send.  Must not be <code>null</code>.
+	 * @throws IOException if message cannot be serialized, if sending it fails, or if sending
+	 * an earlier message failed
+	 */
+	public void sendAsynch(IAsynchConnection conn, ID toID, Serializable message) throws IOException {
+		final byte[] bytes;
+		synchronized (this) {
+			checkSendFailure();
+			bytes = serialize(message);
+			final long turn = serializedCount++;
+			boolean interrupted = false;
+			// Must not give up the turn, or all later messages would wait forever
+			while (sentCount != turn) {
+				try {
+					wait();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+			if (sendFailure != null) {
+				sentCount++;
+				notifyAll();
+				checkSendFailure();
+			}
+		}
+		boolean ok = false;
+		try {
+			conn.sendAsynch(toID, bytes);
+			ok = true;
+		} catch (final IOException e) {
+			synchronized (this) {
+				sendFailure = e;
+			}
+			throw e;
+		} finally {
+			synchronized (this) {
+				if (!ok && sendFailure == null)
+					sendFailure = new IOException("Send failed"); //$NON-NLS-1$
+				sentCount++;
+				notifyAll();
+			}
+		}
+	}
+
+	// Must be called holding this
+	private void checkSendFailure() throws IOException {
+		if (sendFailure != null) {
+			// Later messages could reference definitions that were not sent
+			final IOException e = new IOException("Message not sent after an earlier message could not be sent"); //$NON-NLS-1$
+			e.initCause(sendFailure);
+			throw e;
+		}
+	}
+
+	private static ObjectInputStream createObjectInputStream(InputStream ins) throws IOException {
+		final ProviderPlugin plugin = ProviderPlugin.getDefault();
+		return (plugin == null) ? new ObjectInputStream(ins) : plugin.createObjectInputStream(ins);
+	}
+
+	Object replace(ID id) throws IOException {
+		final Integer existing = (Integer) outHandles.get(id);
+		if (existing != null) {
+			referencesSent++;
+			return new Reference(existing.intValue());
+		}
+		int handle;
+		if (nextHandle < maxEntries) {
+			handle = nextHandle++;
+		} else {
+			// Evict least recently used entry and reuse its handle
+			final Iterator i = outHandles.entrySet().iterator();
+			final Map.Entry eldest = (Map.Entry) i.next();
+			i.remove();
+			handle = ((Integer) eldest.getValue()).intValue();
+		}
+		// Full form is written with a separate stream, as writing id itself to
+		// the dictionary stream would be replaced again
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(id);
+		oos.close();
+		outHandles.put(id, Integer.valueOf(handle));
+		definitionsSent++;
+		return new Definition(handle, bos.toByteArray());
+	}
+
+	synchronized ID define(int handle, byte[] idBytes) throws ObjectStreamException {
+		checkHandle(handle);
+		ID id;
+		try {
+			id = (ID) createObjectInputStream(new ByteArrayInputStream(idBytes)).readObject();
+		} catch (final Exception e) {
+			final InvalidObjectException ioe = new InvalidObjectException("Cannot read ID definition for handle " + handle); //$NON-NLS-1$
+			ioe.initCause(e);
+			throw ioe;
+		}
+		if (handle >= inIDs.length) {
+			final ID[] newIDs = new ID[Math.min(maxEntries, Math.max(handle + 1, inIDs.length * 2))];
+			System.arraycopy(inIDs, 0, newIDs, 0, inIDs.length);
+			inIDs = newIDs;
+		}
+		inIDs[handle] = id;
+		return id;
+	}
+
+	synchronized ID lookup(int handle) throws ObjectStreamException {
+		checkHandle(handle);
+		final ID id = (handle < inIDs.length) ? inIDs[handle] : null;
+		if (id == null)
+			throw new InvalidObjectException("Unknown ID handle " + handle); //$NON-NLS-1$
+		return id;
+	}
+
+	private void checkHandle(int handle) throws InvalidObjectException {
+		if (handle < 0 || handle >= maxEntries)
+			throw new InvalidObjectException("ID handle " + handle + " out of range"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @return the number of full ID definitions sent
+	 */
+	public synchronized long getDefinitionsSent() {
+		return definitionsSent;
+	}
+
+	/**
+	 * @return the number of ID handle references sent in place of full IDs
+	 */
+	public synchronized long getReferencesSent() {
+		return referencesSent;
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("IDDictionary["); //$NON-NLS-1$
+		buf.append("maxEntries=").append(maxEntries); //$NON-NLS-1$
+		buf.append(";definitionsSent=").append(getDefinitionsSent()); //$NON-NLS-1$
+		buf.append(";referencesSent=").append(getReferencesSent()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
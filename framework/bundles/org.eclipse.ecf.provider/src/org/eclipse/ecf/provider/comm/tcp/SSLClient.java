@@ -25,6 +25,7 @@ import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.core.util.Trace;
 import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.FIFOQueueFactory;
 import org.eclipse.ecf.internal.provider.ProviderPlugin;
 import org.eclipse.ecf.provider.comm.*;
 
@@ -48,7 +49,7 @@ public final class SSLClient implements ISynchAsynchConnection {
 	// Event handler
 	protected ISynchAsynchEventHandler handler;
 	// Our queue
-	protected SimpleFIFOQueue queue = new SimpleFIFOQueue();
+	protected SimpleFIFOQueue queue;
 	protected int keepAlive = 0;
 	protected Thread sendThread;
 	protected Thread rcvThread;
@@ -65,6 +66,7 @@ public final class SSLClient implements ISynchAsynchConnection {
 	private final Object disconnectLock = new Object();
 	protected final Object outputStreamLock = new Object();
 	private int maxmsgs = DEFAULT_MAX_BUFFER_MSG;
+	private volatile IDDictionary idDictionary;
 
 	private String getHostNameForAddressWithoutLookup(InetAddress inetAddress) {
 		// First get InetAddress.toString(), which returns
@@ -102,7 +104,22 @@ public final class SSLClient implements ISynchAsynchConnection {
 	}
 
 	public SSLClient(Socket aSocket, ObjectInputStream iStream, ObjectOutputStream oStream, ISynchAsynchEventHandler handler, int maxmsgs) throws IOException {
+		this(aSocket, iStream, oStream, handler, maxmsgs, null);
+	}
+
+	/**
+	 * @param aSocket the connected socket.
+	 * @param iStream the socket input stream.
+	 * @param oStream the socket output stream.
+	 * @param handler the event handler.
+	 * @param maxmsgs the maximum number of buffered messages.
+	 * @param containerProperties the container properties used to configure the send queue.  May be <code>null</code>.
+	 * @throws IOException if the socket cannot be set up.
+	 * @since 4.10
+	 */
+	public SSLClient(Socket aSocket, ObjectInputStream iStream, ObjectOutputStream oStream, ISynchAsynchEventHandler handler, int maxmsgs, Map containerProperties) throws IOException {
 		Assert.isNotNull(aSocket);
+		queue = FIFOQueueFactory.createQueue(containerProperties);
 		if (aSocket.getKeepAlive())
 			keepAlive = aSocket.getSoTimeout();
 		setSocket(aSocket);
@@ -115,12 +132,23 @@ public final class SSLClient implements ISynchAsynchConnection {
 	}
 
 	public SSLClient(ISynchAsynchEventHandler handler, int keepAlive) {
+		this(handler, keepAlive, null);
+	}
+
+	/**
+	 * @param handler the event handler.
+	 * @param keepAlive the keep alive interval.
+	 * @param containerProperties the container properties used to configure the send queue.  May be <code>null</code>.
+	 * @since 4.10
+	 */
+	public SSLClient(ISynchAsynchEventHandler handler, int keepAlive, Map containerProperties) {
 		if (handler == null)
 			throw new NullPointerException("event handler cannot be null"); //$NON-NLS-1$
 		this.handler = handler;
 		this.keepAlive = keepAlive;
 		containerID = handler.getEventHandlerID();
 		this.properties = new HashMap();
+		queue = FIFOQueueFactory.createQueue(containerProperties);
 	}
 
 	public synchronized ID getLocalID() {
@@ -199,12 +227,19 @@ public final class SSLClient implements ISynchAsynchConnection {
 			inputStream = ProviderPlugin.getDefault().createObjectInputStream(s.getInputStream());
 			debug("connect;" + anURI); //$NON-NLS-1$
 			// send connect data and get synchronous response
-			send(new ConnectRequestMessage(anURI, (Serializable) data));
+			final ConnectRequestMessage req = new ConnectRequestMessage(anURI, (Serializable) data);
+			req.setIDDictionarySize(IDDictionary.DEFAULT_MAX_ENTRIES);
+			send(req);
 			res = (ConnectResultMessage) readObject();
 		} catch (final Exception e) {
 			throw new ECFException("Exception during connection to " + remote.getName(), e); //$NON-NLS-1$
 		}
 		debug("connect;rcv:" + res); //$NON-NLS-1$
+		if (res == null)
+			throw new ECFException("Result cannot be null"); //$NON-NLS-1$
+		// Server agreed to use an ID dictionary
+		if (res.getIDDictionarySize() > 0)
+			enableIDDictionary(res.getIDDictionarySize());
 		// Setup threads
 		setupThreads();
 		// Return results.
@@ -481,10 +516,18 @@ public final class SSLClient implements ISynchAsynchConnection {
 		queueObject(recipient, (Serializable) obj);
 	}
 
-	public synchronized void queueObject(ID recipient, Serializable obj) throws IOException {
-		if (queue.isStopped() || isClosing)
-			throw new ConnectException("Not connected"); //$NON-NLS-1$
-		queue.enqueue(new AsynchMessage(obj));
+	public void queueObject(ID recipient, Serializable obj) throws IOException {
+		synchronized (this) {
+			if (queue.isStopped() || isClosing)
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+		}
+		// Enqueue without holding our lock, as a bounded queue may block until there is
+		// space, and disconnect() needs the lock to close the queue and release us
+		if (!queue.enqueue(new AsynchMessage(obj))) {
+			if (queue.isStopped())
+				throw new ConnectException("Not connected"); //$NON-NLS-1$
+			throw new InterruptedIOException("Interrupted waiting for space in send queue"); //$NON-NLS-1$
+		}
 	}
 
 	public synchronized Serializable sendObject(ID recipient, Serializable obj) throws IOException {
@@ -521,9 +564,23 @@ public final class SSLClient implements ISynchAsynchConnection {
 
 	@SuppressWarnings("unchecked")
 	public Object getAdapter(Class clazz) {
+		if (clazz == IDDictionary.class)
+			return idDictionary;
 		return null;
 	}
 
+	/**
+	 * Use an {@link IDDictionary} with the given number of entries to compress the
+	 * IDs in container messages sent and received on this connection.  Must
+	 * only be called when the other end of the connection has agreed to use an
+	 * ID dictionary of the same size, and before any messages are exchanged.
+	 * @param maxEntries the number of dictionary entries.  Must be > 0.
+	 * @since 4.10
+	 */
+	public void enableIDDictionary(int maxEntries) {
+		idDictionary = new IDDictionary(maxEntries);
+	}
+
 	String getAddressPort() {
 		return addressPort;
 	}
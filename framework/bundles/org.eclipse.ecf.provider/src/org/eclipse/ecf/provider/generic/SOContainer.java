@@ -20,16 +20,20 @@ import org.eclipse.ecf.core.AbstractContainer;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.IContainerEvent;
 import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.core.metrics.*;
 import org.eclipse.ecf.core.security.IConnectContext;
 import org.eclipse.ecf.core.sharedobject.*;
 import org.eclipse.ecf.core.sharedobject.events.*;
 import org.eclipse.ecf.core.sharedobject.security.ISharedObjectPolicy;
 import org.eclipse.ecf.core.sharedobject.util.IQueueEnqueue;
 import org.eclipse.ecf.core.sharedobject.util.ISharedObjectMessageSerializer;
+import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.internal.provider.ECFProviderDebugOptions;
+import org.eclipse.ecf.internal.provider.FIFOQueueFactory;
 import org.eclipse.ecf.internal.provider.ProviderPlugin;
 import org.eclipse.ecf.provider.comm.*;
+import org.eclipse.ecf.provider.comm.tcp.IDDictionary;
 import org.eclipse.ecf.provider.generic.ContainerMessage.SharedObjectMessage;
 import org.eclipse.ecf.provider.generic.gmm.Member;
 
@@ -155,6 +159,40 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 
 	protected ThreadGroup sharedObjectThreadGroup = null;
 
+	/**
+	 * Container or system property selecting how shared object events are
+	 * dispatched.  "thread" (default) starts a thread for every shared object,
+	 * "pooled" services all shared object queues with a worker pool of
+	 * {@link #SHAREDOBJECT_DISPATCH_POOLSIZE_PROP} threads.  In pooled mode,
+	 * shared object event handlers should not block for long.  If all workers
+	 * are blocked while events are waiting, workers are added up to
+	 * {@link #SHAREDOBJECT_DISPATCH_MAXPOOLSIZE_PROP}.
+	 * @since 4.10
+	 */
+	public static final String SHAREDOBJECT_DISPATCH_PROP = "org.eclipse.ecf.provider.generic.sharedObjectDispatch"; //$NON-NLS-1$
+	/**
+	 * @since 4.10
+	 */
+	public static final String SHAREDOBJECT_DISPATCH_POOLSIZE_PROP = SHAREDOBJECT_DISPATCH_PROP + ".poolSize"; //$NON-NLS-1$
+	/**
+	 * @since 4.10
+	 */
+	public static final String SHAREDOBJECT_DISPATCH_MAXPOOLSIZE_PROP = SHAREDOBJECT_DISPATCH_PROP + ".maxPoolSize"; //$NON-NLS-1$
+	/**
+	 * @since 4.10
+	 */
+	public static final String SHAREDOBJECT_DISPATCH_POOLED = "pooled"; //$NON-NLS-1$
+
+	private SharedObjectDispatcher sharedObjectDispatcher = null;
+
+	// Metrics are named ecf.container.<containerID>.<metric>
+	private final String metricsPrefix;
+	private final ICounter messagesSent;
+	private final ICounter messagesReceived;
+	private final IHistogram serializeTime;
+	private final IHistogram deserializeTime;
+	private final IHistogram sharedObjectEventTime;
+
 	/**
 	 * @since 2.0
 	 */
@@ -216,6 +254,23 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		sharedObjectManager = new SOManager(this);
 		loadingThreadGroup = new ThreadGroup(getID() + ":loading"); //$NON-NLS-1$
 		sharedObjectThreadGroup = new ThreadGroup(getID() + ":SOs"); //$NON-NLS-1$
+		final IMetricsRegistry metrics = MetricsRegistry.getDefault();
+		metricsPrefix = "ecf.container." + getID().getName() + "."; //$NON-NLS-1$ //$NON-NLS-2$
+		messagesSent = metrics.counter(metricsPrefix + "messages.sent"); //$NON-NLS-1$
+		messagesReceived = metrics.counter(metricsPrefix + "messages.received"); //$NON-NLS-1$
+		serializeTime = metrics.histogram(metricsPrefix + "serialize.time"); //$NON-NLS-1$
+		deserializeTime = metrics.histogram(metricsPrefix + "deserialize.time"); //$NON-NLS-1$
+		sharedObjectEventTime = metrics.histogram(metricsPrefix + "sharedobject.event.time"); //$NON-NLS-1$
+		metrics.gauge(metricsPrefix + "members", new IGauge() { //$NON-NLS-1$
+			public long getValue() {
+				return groupManager.getSize();
+			}
+		});
+		metrics.gauge(metricsPrefix + "sharedobjects", new IGauge() { //$NON-NLS-1$
+			public long getValue() {
+				return groupManager.getSharedObjectIDs().length;
+			}
+		});
 	}
 
 	// Implementation of IIdentifiable
@@ -282,6 +337,14 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 			loadingThreadGroup.interrupt();
 			loadingThreadGroup = null;
 		}
+		synchronized (this) {
+			if (sharedObjectDispatcher != null) {
+				// Already scheduled dispose events are still delivered
+				sharedObjectDispatcher.shutdown();
+				sharedObjectDispatcher = null;
+			}
+		}
+		MetricsRegistry.getDefault().removeAll(metricsPrefix);
 		super.dispose();
 	}
 
@@ -508,6 +571,19 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return groupManager;
 	}
 
+	IHistogram getSharedObjectEventTime() {
+		return sharedObjectEventTime;
+	}
+
+	/**
+	 * @return String the prefix of the names of this container's metrics in
+	 * {@link MetricsRegistry#getDefault()}
+	 * @since 4.10
+	 */
+	public String getMetricsPrefix() {
+		return metricsPrefix;
+	}
+
 	protected int getMaxGroupMembers() {
 		return groupManager.getMaxMembers();
 	}
@@ -547,6 +623,72 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return null;
 	}
 
+	/**
+	 * Get the ID dictionary used to compress the IDs in asynchronous container messages
+	 * sent and received on the given connection.
+	 * 
+	 * @param conn the connection.  May be <code>null</code>.
+	 * @return IDDictionary the dictionary, or <code>null</code> if messages on conn
+	 * are not compressed.
+	 * @since 4.10
+	 */
+	protected IDDictionary getIDDictionary(IConnection conn) {
+		return (conn == null) ? null : (IDDictionary) conn.getAdapter(IDDictionary.class);
+	}
+
+	/**
+	 * Serialize message and send it asynchronously on conn, using the ID dictionary of
+	 * conn if present.
+	 * 
+	 * @param conn the connection to send on.  Must not be <code>null</code>.
+	 * @param toID the receiver of the message.  May be <code>null</code>.
+	 * @param message the message to send.  Must not be <code>null</code>.
+	 * @throws IOException if the message cannot be serialized or sent
+	 * @since 4.10
+	 */
+	protected void sendAsynchContainerMessage(IAsynchConnection conn, ID toID, ContainerMessage message) throws IOException {
+		final IDDictionary dictionary = getIDDictionary(conn);
+		if (dictionary == null) {
+			conn.sendAsynch(toID, serialize(message));
+			return;
+		}
+		// Messages must be queued in the order their IDs were added to the dictionary
+		dictionary.sendAsynch(conn, toID, message);
+	}
+
+	/**
+	 * Deserialize a container message received asynchronously on conn, using the ID
+	 * dictionary of conn if present.
+	 * 
+	 * @param conn the connection the message was received on.  May be <code>null</code>.
+	 * @param bytes the serialized message.  Must not be <code>null</code>.
+	 * @return ContainerMessage the message, or <code>null</code> if bytes do not contain a valid container message.
+	 * @throws IOException if bytes cannot be read.  If conn uses an ID dictionary, the dictionary
+	 * is then out of sync and conn should be disconnected.
+	 * @since 4.10
+	 */
+	protected ContainerMessage deserializeContainerMessage(IConnection conn, byte[] bytes) throws IOException {
+		final IDDictionary dictionary = getIDDictionary(conn);
+		if (dictionary == null)
+			return deserializeContainerMessage(bytes);
+		Object obj = null;
+		try {
+			obj = dictionary.deserialize(bytes);
+		} catch (final ClassNotFoundException e) {
+			ProviderPlugin.getDefault().log(new Status(IStatus.ERROR, ProviderPlugin.PLUGIN_ID, "class not found on deserialize", e)); //$NON-NLS-1$
+			printToSystemError("deserializeContainerMessage class not found", e); //$NON-NLS-1$
+			// ID definitions after the missing class were not read, so the connection cannot be used anymore
+			final IOException ioe = new IOException("ID dictionary out of sync: " + e.getMessage()); //$NON-NLS-1$
+			ioe.initCause(e);
+			throw ioe;
+		}
+		if (obj instanceof ContainerMessage)
+			return (ContainerMessage) obj;
+		ProviderPlugin.getDefault().log(new Status(IStatus.ERROR, ProviderPlugin.PLUGIN_ID, "invalid container message", null)); //$NON-NLS-1$
+		printToSystemError("deserializeContainerMessage invalid container message ", new InvalidObjectException("object " + obj + " not appropriate type")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return null;
+	}
+
 	/**
 	 * @param message message
 	 * @param t exception to print to system error
@@ -801,6 +943,64 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		return new SOContext(soconfig.getSharedObjectID(), soconfig.getHomeContainerID(), this, soconfig.getProperties(), queue);
 	}
 
+	/**
+	 * Create the event queue for a shared object wrapper.  By default, the queue type is selected
+	 * by the <code>org.eclipse.ecf.provider.generic.queue</code> container or system property
+	 * ("simple" or "lockfree").
+	 *
+	 * @param sharedObjectID the ID of the shared object the queue is created for.
+	 * @return SimpleFIFOQueue a non-<code>null</code> queue.
+	 * @since 4.10
+	 */
+	protected SimpleFIFOQueue createSharedObjectQueue(ID sharedObjectID) {
+		final SharedObjectDispatcher dispatcher = getSharedObjectDispatcher();
+		if (dispatcher != null)
+			return dispatcher.createMailbox();
+		return FIFOQueueFactory.createQueue(getContainerProperties());
+	}
+
+	/**
+	 * @return Map the properties from this container's config.  May be <code>null</code>.
+	 * @since 4.10
+	 */
+	protected Map getContainerProperties() {
+		return (config == null) ? null : config.getProperties();
+	}
+
+	private String getContainerProperty(String name, String def) {
+		final Map props = getContainerProperties();
+		final Object val = (props == null) ? null : props.get(name);
+		return (val == null) ? System.getProperty(name, def) : val.toString();
+	}
+
+	/**
+	 * Get the dispatcher that services shared object queues in pooled dispatch mode
+	 * (see {@link #SHAREDOBJECT_DISPATCH_PROP}).
+	 *
+	 * @return SharedObjectDispatcher the dispatcher, or <code>null</code> if every shared object
+	 * gets its own thread.
+	 * @since 4.10
+	 */
+	protected synchronized SharedObjectDispatcher getSharedObjectDispatcher() {
+		if (sharedObjectDispatcher == null && !isClosing && SHAREDOBJECT_DISPATCH_POOLED.equalsIgnoreCase(getContainerProperty(SHAREDOBJECT_DISPATCH_PROP, null))) {
+			int poolSize = Runtime.getRuntime().availableProcessors();
+			try {
+				poolSize = Integer.parseInt(getContainerProperty(SHAREDOBJECT_DISPATCH_POOLSIZE_PROP, String.valueOf(poolSize)));
+			} catch (final NumberFormatException e) {
+				traceStack("Invalid " + SHAREDOBJECT_DISPATCH_POOLSIZE_PROP, e); //$NON-NLS-1$
+			}
+			int maxPoolSize = SharedObjectDispatcher.DEFAULT_MAX_POOL_SIZE;
+			try {
+				maxPoolSize = Integer.parseInt(getContainerProperty(SHAREDOBJECT_DISPATCH_MAXPOOLSIZE_PROP, String.valueOf(maxPoolSize)));
+			} catch (final NumberFormatException e) {
+				traceStack("Invalid " + SHAREDOBJECT_DISPATCH_MAXPOOLSIZE_PROP, e); //$NON-NLS-1$
+			}
+			poolSize = Math.max(1, poolSize);
+			sharedObjectDispatcher = new SharedObjectDispatcher(getID().getName(), sharedObjectThreadGroup, poolSize, SharedObjectDispatcher.DEFAULT_BATCH_SIZE, maxPoolSize, SharedObjectDispatcher.DEFAULT_STALL_MILLIS);
+		}
+		return sharedObjectDispatcher;
+	}
+
 	protected SOWrapper createSharedObjectWrapper(ID id, ISharedObject s, Map props) throws ECFException {
 		final SOConfig newConfig = createSharedObjectConfig(id, s, props);
 		return new SOWrapper(newConfig, s, this);
@@ -873,7 +1073,10 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 				debug("Ignoring event without valid data " + event); //$NON-NLS-1$
 				return;
 			}
-			final ContainerMessage mess = validateContainerMessage(deserializeContainerMessage((byte[]) obj));
+			final long start = System.nanoTime();
+			final ContainerMessage mess = validateContainerMessage(deserializeContainerMessage(event.getConnection(), (byte[]) obj));
+			deserializeTime.recordSince(start);
+			messagesReceived.increment();
 			if (mess == null) {
 				debug("event not validated: " + event); //$NON-NLS-1$
 				return;
@@ -983,8 +1186,10 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		synchronized (getGroupMembershipLock()) {
 			final ID ourID = getID();
 			// We don't send to ourselves
-			if (!ourID.equals(data.getToContainerID()))
+			if (!ourID.equals(data.getToContainerID())) {
 				queueContainerMessage(data);
+				messagesSent.increment();
+			}
 		}
 	}
 
@@ -1035,7 +1240,7 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 		try {
 			return AccessController.doPrivileged((PrivilegedExceptionAction<Object>) () -> {
 				final ByteArrayInputStream bins = new ByteArrayInputStream(bytes);
-				final OSGIObjectInputStream oins = new OSGIObjectInputStream(ProviderPlugin.getDefault().getContext().getBundle(), bins);
+				final OSGIObjectInputStream oins = new OSGIObjectInputStream(ProviderPlugin.getDefault().getBundle(), bins);
 				ID sharedObjectID = (ID) oins.readObject();
 				if (sharedObjectID != null) {
 					ISharedObject so = getSharedObject(sharedObjectID);
@@ -1067,7 +1272,9 @@ public abstract class SOContainer extends AbstractContainer implements ISharedOb
 			return;
 		// fire IContainerSharedObjectMessageSendingEvent
 		fireContainerEvent(new ContainerSharedObjectMessageSendingEvent(getID(), toContainerID, sharedObjectID, message));
+		final long start = System.nanoTime();
 		final byte[] sendData = serializeSharedObjectMessage(sharedObjectID, message);
+		serializeTime.recordSince(start);
 		sendSharedObjectMessage(toContainerID, sharedObjectID, sendData);
 	}
 
@@ -130,7 +130,7 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 			throw new InvalidObjectException("Container not found for path=" + path); //$NON-NLS-1$
 
 		// Create our local messaging interface
-		final Client newClient = new Client(aSocket, iStream, oStream, srs.getMessageReceiver());
+		final Client newClient = new Client(aSocket, iStream, oStream, srs.getMessageReceiver(), Client.DEFAULT_MAX_BUFFER_MSG, srs.getContainerProperties());
 		// Get output stream lock so nothing is sent until we've responded
 		Object outputStreamLock = newClient.getOutputStreamLock();
 		// No other threads can access messaging interface until connect request handler has
@@ -139,7 +139,14 @@ public class SOContainerGroup implements ISocketAcceptHandler {
 			// Call checkConnect
 			final Serializable resp = ((IConnectRequestHandler) srs).handleConnectRequest(aSocket, path, req.getData(), newClient);
 			// Create connect response wrapper and send it back
-			oStream.writeObject(new ConnectResultMessage(resp));
+			final ConnectResultMessage res = new ConnectResultMessage(resp);
+			// Use an ID dictionary if the client supports it
+			final int idDictionarySize = Math.min(req.getIDDictionarySize(), IDDictionary.DEFAULT_MAX_ENTRIES);
+			if (resp != null && idDictionarySize > 0) {
+				newClient.enableIDDictionary(idDictionarySize);
+				res.setIDDictionarySize(idDictionarySize);
+			}
+			oStream.writeObject(res);
 			oStream.flush();
 		}
 	}
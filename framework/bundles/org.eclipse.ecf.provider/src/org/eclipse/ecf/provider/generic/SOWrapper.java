@@ -19,6 +19,8 @@ import java.security.PrivilegedAction;
 import org.eclipse.ecf.core.events.ContainerConnectedEvent;
 import org.eclipse.ecf.core.events.ContainerDisconnectedEvent;
 import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.metrics.IGauge;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
 import org.eclipse.ecf.core.sharedobject.ISharedObject;
 import org.eclipse.ecf.core.sharedobject.SharedObjectInitException;
 import org.eclipse.ecf.core.sharedobject.events.*;
@@ -37,6 +39,7 @@ public class SOWrapper {
 	private SOContainer container;
 	private ID containerID;
 	private Thread thread;
+	private volatile boolean dispatching;
 	SimpleFIFOQueue queue;
 
 	protected SOWrapper(SOContainer.LoadingSharedObject obj, SOContainer cont) {
@@ -46,7 +49,7 @@ public class SOWrapper {
 		containerID = cont.getID();
 		sharedObjectConfig = null;
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = cont.createSharedObjectQueue(sharedObjectID);
 	}
 
 	public SOWrapper(SOConfig aConfig, ISharedObject obj, SOContainer cont) {
@@ -56,7 +59,7 @@ public class SOWrapper {
 		container = cont;
 		containerID = cont.getID();
 		thread = null;
-		queue = new SimpleFIFOQueue();
+		queue = cont.createSharedObjectQueue(sharedObjectID);
 	}
 
 	protected void init() throws SharedObjectInitException {
@@ -78,6 +81,11 @@ public class SOWrapper {
 	}
 
 	protected void activated() {
+		registerQueueGauge();
+		if (queue instanceof SharedObjectDispatcher.Mailbox) {
+			activatedPooled((SharedObjectDispatcher.Mailbox) queue);
+			return;
+		}
 		thread = (Thread) AccessController.doPrivileged(new PrivilegedAction() {
 			public Object run() {
 				Thread aThread = getThread();
@@ -92,22 +100,50 @@ public class SOWrapper {
 		send(new SharedObjectActivatedEvent(containerID, sharedObjectID));
 	}
 
+	private void activatedPooled(SharedObjectDispatcher.Mailbox mailbox) {
+		dispatching = true;
+		// Notify container and listeners
+		container.notifySharedObjectActivated(sharedObjectID);
+		// Start servicing queue on dispatcher pool
+		mailbox.start(new SharedObjectDispatcher.Processor() {
+			public boolean process(Object evt) {
+				dispatch((Event) evt);
+				return true;
+			}
+		});
+		// Send message
+		send(new SharedObjectActivatedEvent(containerID, sharedObjectID));
+	}
+
 	protected void deactivated() {
 		container.notifySharedObjectDeactivated(sharedObjectID);
 		send(new SharedObjectDeactivatedEvent(containerID, sharedObjectID));
 		destroyed();
 	}
 
+	private String getQueueGaugeName() {
+		return container.getMetricsPrefix() + "sharedobject." + sharedObjectID.getName() + ".queue.size"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void registerQueueGauge() {
+		MetricsRegistry.getDefault().gauge(getQueueGaugeName(), new IGauge() {
+			public long getValue() {
+				return queue.size();
+			}
+		});
+	}
+
 	protected void destroyed() {
+		MetricsRegistry.getDefault().remove(getQueueGaugeName());
 		if (!queue.isStopped()) {
-			if (thread != null)
+			if (isDispatching())
 				queue.enqueue(new DisposeEvent());
 			queue.close();
 		}
 	}
 
 	protected void otherChanged(ID otherID, boolean activated) {
-		if (activated && thread != null) {
+		if (activated && isDispatching()) {
 			send(new SharedObjectActivatedEvent(containerID, otherID));
 		} else {
 			send(new SharedObjectDeactivatedEvent(containerID, otherID));
@@ -115,7 +151,7 @@ public class SOWrapper {
 	}
 
 	protected void memberChanged(Member m, boolean add) {
-		if (thread != null) {
+		if (isDispatching()) {
 			if (add) {
 				send(new ContainerConnectedEvent(containerID, m.getID()));
 			} else {
@@ -135,17 +171,7 @@ public class SOWrapper {
 					evt = (Event) queue.dequeue();
 					if (Thread.currentThread().isInterrupted() || evt == null)
 						break;
-					try {
-						if (evt instanceof ProcEvent) {
-							SOWrapper.this.svc(((ProcEvent) evt).getEvent());
-						} else if (evt instanceof DisposeEvent) {
-							SOWrapper.this.doDestroy();
-						} else {
-							SOWrapper.this.svc(evt);
-						}
-					} catch (Throwable t) {
-						handleRuntimeException(t);
-					}
+					dispatch(evt);
 				}
 				if (Thread.currentThread().isInterrupted()) {
 					debug("runner(" + sharedObjectID //$NON-NLS-1$
@@ -158,6 +184,26 @@ public class SOWrapper {
 		});
 	}
 
+	private boolean isDispatching() {
+		return thread != null || dispatching;
+	}
+
+	void dispatch(Event evt) {
+		final long start = System.nanoTime();
+		try {
+			if (evt instanceof ProcEvent) {
+				svc(((ProcEvent) evt).getEvent());
+			} else if (evt instanceof DisposeEvent) {
+				doDestroy();
+			} else {
+				svc(evt);
+			}
+		} catch (Throwable t) {
+			handleRuntimeException(t);
+		}
+		container.getSharedObjectEventTime().recordSince(start);
+	}
+
 	private void send(Event evt) {
 		queue.enqueue(new ProcEvent(evt));
 	}
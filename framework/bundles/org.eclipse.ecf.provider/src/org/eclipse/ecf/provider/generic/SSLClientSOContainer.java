@@ -51,7 +51,7 @@ public class SSLClientSOContainer extends ClientSOContainer {
 	 */
 	protected ISynchAsynchConnection createConnection(ID remoteSpace, Object data) throws ConnectionCreateException {
 		debug("createClientConnection:" + remoteSpace + ":" + data); //$NON-NLS-1$ //$NON-NLS-2$
-		ISynchAsynchConnection conn = new SSLClient(receiver, keepAlive);
+		ISynchAsynchConnection conn = new SSLClient(receiver, keepAlive, getContainerProperties());
 		return conn;
 	}
 
@@ -139,7 +139,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 		} else {
 			final IAsynchConnection conn = getConnectionForID(message.getToContainerID());
 			if (conn != null)
-				conn.sendAsynch(message.getToContainerID(), serialize(message));
+				sendAsynchContainerMessage(conn, message.getToContainerID(), message);
 		}
 	}
 
@@ -159,7 +159,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 					final IAsynchConnection conn = (IAsynchConnection) m.getData();
 					if (conn != null) {
 						try {
-							conn.sendAsynch(oldID, serialize(new ContainerMessage(from, oldID, getNextSequenceNumber(), data.getData())));
+							sendAsynchContainerMessage(conn, oldID, new ContainerMessage(from, oldID, getNextSequenceNumber(), data.getData()));
 						} catch (final IOException e) {
 							traceStack("Exception in forwardExcluding from " //$NON-NLS-1$
 									+ from + " with oldID " + oldID, e); //$NON-NLS-1$
@@ -290,7 +290,7 @@ public class ServerSOContainer extends SOContainer implements ISharedObjectConta
 			final IAsynchConnection conn = (IAsynchConnection) ((Member) members[i]).getData();
 			if (conn != null) {
 				try {
-					conn.sendAsynch(message.getToContainerID(), serialize(message));
+					sendAsynchContainerMessage(conn, message.getToContainerID(), message);
 				} catch (final IOException e) {
 					traceStack("Exception in queueToAll for ContainerMessage " + message, e); //$NON-NLS-1$
 				}
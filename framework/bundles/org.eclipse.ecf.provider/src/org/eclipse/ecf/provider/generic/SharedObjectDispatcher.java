@@ -0,0 +1,281 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.provider.generic;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.ecf.core.sharedobject.util.LockFreeFIFOQueue;
+
+/**
+ * Services the event queues ({@link Mailbox}es) of many shared objects with a
+ * fixed pool of worker threads, instead of one thread per shared object.
+ * Each mailbox is processed by at most one worker at a time, so events for a
+ * given shared object are delivered serially and in enqueue order, exactly as
+ * with a dedicated thread.  A worker processes at most
+ * {@link #getBatchSize()} events of a mailbox before yielding to other
+ * mailboxes, so that a busy shared object cannot starve idle ones.
+ * <p>
+ * Shared object handlers may block, e.g. waiting for a reply that is itself
+ * delivered through a mailbox of this dispatcher.  To keep such a handler from
+ * starving or deadlocking the other mailboxes, a watchdog checks every
+ * {@link #getStallMillis()} ms whether work is waiting while no worker has
+ * completed anything since the last check.  If so, one more worker is added,
+ * up to {@link #getMaxPoolSize()}.  The extra workers are removed again once
+ * the backlog is gone.
+ * </p>
+ *
+ * @since 4.10
+ */
+public class SharedObjectDispatcher {
+
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	public static final int DEFAULT_MAX_POOL_SIZE = 64;
+
+	public static final long DEFAULT_STALL_MILLIS = 500;
+
+	// Shared by all dispatchers, so that stall detection needs no thread per container
+	private static ScheduledExecutorService watchdog;
+
+	private static synchronized ScheduledExecutorService getWatchdog() {
+		if (watchdog == null) {
+			final ScheduledThreadPoolExecutor w = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					final Thread t = new Thread(r, "SharedObjectDispatcher:watchdog"); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			w.setRemoveOnCancelPolicy(true);
+			watchdog = w;
+		}
+		return watchdog;
+	}
+
+	/**
+	 * Processes the events of a mailbox.
+	 */
+	public interface Processor {
+		/**
+		 * @param event the event to process.  Will not be <code>null</code>.
+		 * @return <code>true</code> to continue processing, <code>false</code> if no
+		 * further events should be processed for this mailbox.
+		 */
+		boolean process(Object event);
+	}
+
+	/**
+	 * Event queue of a single shared object.  Events may be enqueued before
+	 * the mailbox is {@link #start(Processor)}ed, they are then processed as soon
+	 * as it is started.
+	 */
+	public class Mailbox extends LockFreeFIFOQueue implements Runnable {
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile Processor processor;
+		private volatile boolean finished;
+
+		Mailbox() {
+			super(UNBOUNDED);
+		}
+
+		public boolean enqueue(Object obj) {
+			if (!super.enqueue(obj))
+				return false;
+			schedule();
+			return true;
+		}
+
+		/**
+		 * Start dispatching events in this mailbox to processor.
+		 * @param p the processor.  Must not be <code>null</code>.
+		 */
+		public void start(Processor p) {
+			this.processor = p;
+			schedule();
+		}
+
+		public boolean isStarted() {
+			return processor != null;
+		}
+
+		private boolean canSchedule() {
+			return processor != null && !finished && !isEmpty();
+		}
+
+		private void schedule() {
+			if (!canSchedule() || !scheduled.compareAndSet(false, true))
+				return;
+			try {
+				executor.execute(this);
+			} catch (final RejectedExecutionException e) {
+				// Dispatcher shut down, so drain remaining events in this thread
+				do {
+					processEvents(Integer.MAX_VALUE);
+				} while (canSchedule() && scheduled.compareAndSet(false, true));
+			}
+		}
+
+		private void processEvents(int max) {
+			final Processor p = processor;
+			try {
+				for (int i = 0; i < max && !finished; i++) {
+					final Object event = removeHead();
+					if (event == null)
+						break;
+					if (!p.process(event))
+						finished = true;
+				}
+			} finally {
+				scheduled.set(false);
+			}
+		}
+
+		public void run() {
+			processEvents(batchSize);
+			// Events may have been enqueued after the last removeHead, or the
+			// batch size was reached
+			schedule();
+		}
+	}
+
+	final ThreadPoolExecutor executor;
+	final int batchSize;
+	final int poolSize;
+	private final long stallMillis;
+	private final ScheduledFuture stallCheck;
+	private long lastCompletedCount = -1;
+
+	/**
+	 * @param name the prefix of the worker thread names.  Must not be <code>null</code>.
+	 * @param group the thread group for the worker threads.  May be <code>null</code>.
+	 * @param poolSize the number of worker threads when no worker is stalled.  Must be > 0.
+	 * @param batchSize the maximum number of events processed for a mailbox before
+	 * other mailboxes are serviced.  Must be > 0.
+	 * @param maxPoolSize the maximum number of worker threads, including the workers added
+	 * while workers are stalled.  Values less than poolSize are treated as poolSize.
+	 * @param stallMillis the interval of the stall check in ms.  If <= 0, no workers are added.
+	 */
+	public SharedObjectDispatcher(final String name, final ThreadGroup group, int poolSize, int batchSize, int maxPoolSize, long stallMillis) {
+		if (poolSize <= 0 || batchSize <= 0)
+			throw new IllegalArgumentException("poolSize and batchSize must be > 0"); //$NON-NLS-1$
+		this.batchSize = batchSize;
+		this.poolSize = poolSize;
+		this.stallMillis = stallMillis;
+		this.executor = new ThreadPoolExecutor(poolSize, Math.max(poolSize, maxPoolSize), 60, TimeUnit.SECONDS, new LinkedBlockingQueue(), new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				final Thread t = new Thread(group, r, name + ":dispatch-" + count.incrementAndGet()); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		// Idle containers should not keep worker threads around
+		this.executor.allowCoreThreadTimeOut(true);
+		if (stallMillis > 0 && getMaxPoolSize() > poolSize) {
+			this.stallCheck = getWatchdog().scheduleWithFixedDelay(new Runnable() {
+				public void run() {
+					checkStalled();
+				}
+			}, stallMillis, stallMillis, TimeUnit.MILLISECONDS);
+		} else
+			this.stallCheck = null;
+	}
+
+	public SharedObjectDispatcher(String name, ThreadGroup group, int poolSize, int batchSize) {
+		this(name, group, poolSize, batchSize, DEFAULT_MAX_POOL_SIZE, DEFAULT_STALL_MILLIS);
+	}
+
+	public SharedObjectDispatcher(String name, ThreadGroup group, int poolSize) {
+		this(name, group, poolSize, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @return a new mailbox serviced by this dispatcher.  Will not be <code>null</code>.
+	 */
+	public Mailbox createMailbox() {
+		return new Mailbox();
+	}
+
+	void checkStalled() {
+		if (executor.isShutdown())
+			return;
+		final long completed = executor.getCompletedTaskCount();
+		final boolean backlog = !executor.getQueue().isEmpty();
+		final int current = executor.getCorePoolSize();
+		if (backlog && completed == lastCompletedCount && executor.getActiveCount() >= current) {
+			// Every worker has been busy with the same mailbox since the last check
+			if (current < getMaxPoolSize())
+				executor.setCorePoolSize(current + 1);
+		} else if (!backlog && current > poolSize) {
+			// Surplus workers terminate when they become idle
+			executor.setCorePoolSize(poolSize);
+		}
+		lastCompletedCount = completed;
+	}
+
+	/**
+	 * @return the number of worker threads when no worker is stalled
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * @return the maximum number of worker threads, including workers added while
+	 * workers are stalled
+	 */
+	public int getMaxPoolSize() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * @return the interval of the stall check in ms, or a value <= 0 if no workers are
+	 * added when workers are stalled
+	 */
+	public long getStallMillis() {
+		return stallMillis;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the number of worker threads currently alive
+	 */
+	public int getActiveThreadCount() {
+		return executor.getPoolSize();
+	}
+
+	/**
+	 * Stop accepting new work.  Mailboxes already scheduled are still processed,
+	 * events enqueued afterwards are processed in the enqueuing thread.
+	 */
+	public void shutdown() {
+		if (stallCheck != null)
+			stallCheck.cancel(false);
+		executor.shutdown();
+	}
+
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("SharedObjectDispatcher["); //$NON-NLS-1$
+		sb.append("poolSize=").append(getPoolSize()); //$NON-NLS-1$
+		sb.append(";maxPoolSize=").append(getMaxPoolSize()); //$NON-NLS-1$
+		sb.append(";threads=").append(getActiveThreadCount()); //$NON-NLS-1$
+		sb.append(";batchSize=").append(batchSize).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return sb.toString();
+	}
+}
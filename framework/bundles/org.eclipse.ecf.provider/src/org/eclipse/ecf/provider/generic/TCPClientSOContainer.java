@@ -48,7 +48,7 @@ public class TCPClientSOContainer extends ClientSOContainer {
 	 */
 	protected ISynchAsynchConnection createConnection(ID remoteSpace, Object data) throws ConnectionCreateException {
 		debug("createClientConnection:" + remoteSpace + ":" + data); //$NON-NLS-1$ //$NON-NLS-2$
-		ISynchAsynchConnection conn = new Client(receiver, keepAlive);
+		ISynchAsynchConnection conn = new Client(receiver, keepAlive, getContainerProperties());
 		return conn;
 	}
 
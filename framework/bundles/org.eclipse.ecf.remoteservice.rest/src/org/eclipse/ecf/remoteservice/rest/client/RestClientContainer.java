@@ -12,6 +12,12 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.rest.client;
 
+import java.io.IOException;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.*;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 import org.eclipse.ecf.remoteservice.IRemoteService;
 import org.eclipse.ecf.remoteservice.client.IRemoteServiceClientContainerAdapter;
 import org.eclipse.ecf.remoteservice.client.RemoteServiceClientRegistration;
@@ -22,6 +28,23 @@ import org.eclipse.ecf.remoteservice.rest.identity.RestID;
  */
 public class RestClientContainer extends AbstractRestClientContainer implements IRemoteServiceClientContainerAdapter {
 
+	/**
+	 * @since 2.8
+	 */
+	public static final int maxConnections = Integer.parseInt(System.getProperty("org.eclipse.ecf.remoteservice.rest.RestClientContainer.maxConnections", "200")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * @since 2.8
+	 */
+	public static final int maxConnectionsPerRoute = Integer.parseInt(System.getProperty("org.eclipse.ecf.remoteservice.rest.RestClientContainer.maxConnectionsPerRoute", "50")); //$NON-NLS-1$ //$NON-NLS-2$
+	/**
+	 * Time in ms idle connections are kept open, if the server does not send a Keep-Alive timeout.
+	 * @since 2.8
+	 */
+	public static final long keepAlive = Long.parseLong(System.getProperty("org.eclipse.ecf.remoteservice.rest.RestClientContainer.keepAlive", "30000")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final Object httpClientLock = new Object();
+	private CloseableHttpClient httpClient;
+
 	public RestClientContainer(RestID id) {
 		super(id);
 	}
@@ -30,4 +53,53 @@ public class RestClientContainer extends AbstractRestClientContainer implements
 		return new RestClientService(this, registration);
 	}
 
+	/**
+	 * Get the http client shared by the remote services of this container.  The
+	 * client keeps a pool of persistent connections, so that calls do not open a
+	 * new connection each.
+	 * 
+	 * @return HttpClient the shared http client.  Will not be <code>null</code>.
+	 * @since 2.8
+	 */
+	public HttpClient getHttpClient() {
+		synchronized (httpClientLock) {
+			if (httpClient == null)
+				httpClient = createHttpClient();
+			return httpClient;
+		}
+	}
+
+	/**
+	 * Create the http client returned by {@link #getHttpClient()}.  Subclasses
+	 * may override to configure the client.
+	 * 
+	 * @return CloseableHttpClient the http client.  Must not be <code>null</code>.
+	 * @since 2.8
+	 */
+	protected CloseableHttpClient createHttpClient() {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		return HttpClientBuilder.create().setConnectionManager(connectionManager).setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				long duration = super.getKeepAliveDuration(response, context);
+				return (duration < 0) ? keepAlive : duration;
+			}
+		}).build();
+	}
+
+	public void dispose() {
+		super.dispose();
+		synchronized (httpClientLock) {
+			if (httpClient != null) {
+				try {
+					httpClient.close();
+				} catch (IOException e) {
+					// ignore
+				}
+				httpClient = null;
+			}
+		}
+	}
+
 }
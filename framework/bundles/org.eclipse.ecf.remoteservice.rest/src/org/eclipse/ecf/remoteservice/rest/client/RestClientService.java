@@ -24,17 +24,20 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.auth.BasicScheme;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.AbstractHttpMessage;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
 import org.eclipse.ecf.core.security.*;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.remoteservice.IRemoteCall;
 import org.eclipse.ecf.remoteservice.IRemoteService;
 import org.eclipse.ecf.remoteservice.client.*;
 import org.eclipse.ecf.remoteservice.rest.IRestCall;
 import org.eclipse.ecf.remoteservice.rest.RestException;
+import org.eclipse.ecf.remoteservice.util.TracingUtil;
 
 /**
  * This class represents a REST service from the client side of view. So a
@@ -59,8 +62,16 @@ public class RestClientService extends AbstractRestClientService {
 		this.httpClient = createHttpClient();
 	}
 
+	/**
+	 * Get the http client used for the calls of this service.  By default, this is
+	 * the pooled client shared by all services of the container.
+	 * 
+	 * @return HttpClient the http client to use.  Must not be <code>null</code>.
+	 * @see RestClientContainer#getHttpClient()
+	 */
 	protected HttpClient createHttpClient() {
-		return HttpClientBuilder.create().build();
+		// The constructor only accepts a RestClientContainer
+		return ((RestClientContainer) container).getHttpClient();
 	}
 
 	private boolean isResponseOk(HttpResponse response) {
@@ -123,6 +134,23 @@ public class RestClientService extends AbstractRestClientService {
 	 *         error occurs.
 	 */
 	protected Object invokeRemoteCall(final IRemoteCall call, final IRemoteCallable callable) throws ECFException {
+		// Current while the request is prepared, so that addRequestHeaders sends its trace context
+		ISpan span = Tracing.startSpan("ecf.rest.call"); //$NON-NLS-1$
+		ISpan previous = Tracing.setCurrentSpan(span);
+		if (span.isRecording())
+			span.setAttribute("method", call.getMethod()); //$NON-NLS-1$
+		try {
+			return doInvokeRemoteCall(call, callable);
+		} catch (ECFException e) {
+			span.setError(e);
+			throw e;
+		} finally {
+			Tracing.restoreCurrentSpan(previous);
+			span.end();
+		}
+	}
+
+	private Object doInvokeRemoteCall(final IRemoteCall call, final IRemoteCallable callable) throws ECFException {
 		trace("invokeRemoteCall", "call=" + call + ";callable=" + callable); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		String endpointUri = prepareEndpointAddress(call, callable);
 		trace("invokeRemoteCall", "prepared endpoint=" + endpointUri); //$NON-NLS-1$ //$NON-NLS-2$
@@ -134,13 +162,27 @@ public class RestClientService extends AbstractRestClientService {
 		byte[] responseBody = null;
 		int responseCode = 500;
 		HttpResponse response = null;
+		Object result = null;
 		try {
 			response = httpClient.execute(httpMethod);
 			trace("invokeRemoteCall", "httpMethod executed. response=" + response); //$NON-NLS-1$ //$NON-NLS-2$
 			responseCode = response.getStatusLine().getStatusCode();
 			if (isResponseOk(response)) {
-				// Get responseBody as String
-				responseBody = getResponseAsBytes(response);
+				Map responseHeaders = convertResponseHeaders(response.getAllHeaders());
+				HttpEntity entity = response.getEntity();
+				if (entity != null && isStreamingResponse()) {
+					trace("processResponse", "httpMethod=" + httpMethod + ";call=" + call + ";callable=" + callable + ";responseHeaders=" + responseHeaders + ";streaming"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+					InputStream ins = entity.getContent();
+					try {
+						result = processResponse(endpointUri, call, callable, responseHeaders, ins);
+					} finally {
+						ins.close();
+					}
+				} else {
+					responseBody = getResponseAsBytes(response);
+					trace("processResponse", "httpMethod=" + httpMethod + ";call=" + call + ";callable=" + callable + ";responseHeaders=" + responseHeaders + ";responseBody=" + responseBody); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+					result = processResponse(endpointUri, call, callable, responseHeaders, responseBody);
+				}
 			} else {
 				// If this method returns true, we should retrieve the response body
 				if (retrieveErrorResponseBody(response)) {
@@ -149,29 +191,36 @@ public class RestClientService extends AbstractRestClientService {
 				// Now pass to the exception handler
 				handleException("Http response not OK.  httpMethod=" + httpMethod + " responseCode=" + Integer.valueOf(responseCode), null, responseCode, responseBody); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-		} catch (IOException e) {
-			handleException("RestClientService transport IOException", e, responseCode); //$NON-NLS-1$
-		}
-		Object result = null;
-		try {
-			Map responseHeaders = convertResponseHeaders(response.getAllHeaders());
-			trace("processResponse", "httpMethod=" + httpMethod + ";call=" + call + ";callable=" + callable + ";responseHeaders=" + responseHeaders + ";responseBody=" + responseBody); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
-			result = processResponse(endpointUri, call, callable, responseHeaders, responseBody);
 		} catch (NotSerializableException e) {
 			handleException("Exception deserializing response.  httpMethod=" + httpMethod + " responseCode=" + Integer.valueOf(responseCode), e, responseCode); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (IOException e) {
+			handleException("RestClientService transport IOException", e, responseCode); //$NON-NLS-1$
+		} finally {
+			// Release the connection to the pool.  Unread content is skipped so that the connection can be reused
+			if (response != null)
+				EntityUtils.consumeQuietly(response.getEntity());
 		}
 		return result;
 	}
 
+	/**
+	 * @return true if the response deserializer of the container reads the
+	 * response body as stream
+	 * @since 2.8
+	 */
+	protected boolean isStreamingResponse() {
+		return getClientContainer().getResponseDeserializer() instanceof IRemoteResponseStreamDeserializer;
+	}
+
 	protected boolean retrieveErrorResponseBody(HttpResponse response) {
 		// XXX this needs to be defined differently for 
 		return false;
 	}
 
 	protected byte[] getResponseAsBytes(HttpResponse response) throws IOException {
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		response.getEntity().writeTo(os);
-		return os.toByteArray();
+		HttpEntity entity = response.getEntity();
+		// No entity e.g. for 204 No Content responses
+		return (entity == null) ? null : EntityUtils.toByteArray(entity);
 	}
 
 	/*
@@ -194,16 +243,21 @@ public class RestClientService extends AbstractRestClientService {
 	}
 
 	protected void addRequestHeaders(AbstractHttpMessage httpMethod, IRemoteCall call, IRemoteCallable callable) {
-		// Add request headers from the callable
-		Map requestHeaders = (callable.getRequestType() instanceof AbstractRequestType) ? ((AbstractRequestType) callable.getRequestType()).getDefaultRequestHeaders() : new HashMap();
-		if (requestHeaders == null)
-			requestHeaders = new HashMap();
+		// Add request headers from the callable.  Copied, as the defaults are shared by all calls
+		Map requestHeaders = new HashMap();
+		Map defaultHeaders = (callable.getRequestType() instanceof AbstractRequestType) ? ((AbstractRequestType) callable.getRequestType()).getDefaultRequestHeaders() : null;
+		if (defaultHeaders != null)
+			requestHeaders.putAll(defaultHeaders);
 
 		if (call instanceof IRestCall) {
 			Map callHeaders = ((IRestCall) call).getRequestHeaders();
 			if (callHeaders != null)
-				requestHeaders.putAll(requestHeaders);
+				requestHeaders.putAll(callHeaders);
 		}
+		// IRemoteCallHeaders and trace context
+		Map tracingHeaders = TracingUtil.getHeaders(call, Tracing.getCurrentSpan());
+		if (tracingHeaders != null)
+			requestHeaders.putAll(tracingHeaders);
 
 		Set keySet = requestHeaders.keySet();
 		Object[] headers = keySet.toArray();
@@ -12,36 +12,53 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.rest.client;
 
-import java.io.NotSerializableException;
-import java.io.StringReader;
+import java.io.*;
 import java.util.Map;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.eclipse.ecf.remoteservice.IRemoteCall;
-import org.eclipse.ecf.remoteservice.client.IRemoteCallable;
-import org.eclipse.ecf.remoteservice.client.IRemoteResponseDeserializer;
-import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
+import org.eclipse.ecf.remoteservice.client.*;
 
 /**
  * This class is a sample implementation of {@link IRemoteResponseDeserializer}. This will be
  * used to create XML Resource representations and will be registered when the
  * API is started.
  */
-public class XMLRemoteResponseDeserializer implements IRemoteResponseDeserializer {
+public class XMLRemoteResponseDeserializer implements IRemoteResponseStreamDeserializer {
+
+	private static final String errorMsg = "XML response can't be parsed: "; //$NON-NLS-1$
+
+	// Looking up the factory implementation is expensive, so it's done once
+	private final DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
 
 	public Object deserializeResponse(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, byte[] responseBody) throws NotSerializableException {
-		DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
-		String errorMsg = "XML response can't be parsed: "; //$NON-NLS-1$
 		try {
-			DocumentBuilder builder = documentFactory.newDocumentBuilder();
-			InputSource src = new InputSource(new StringReader(new String(responseBody)));
-			Document dom = builder.parse(src);
-			return dom;
+			return parse(new ByteArrayInputStream(responseBody));
+		} catch (Exception e) {
+			throw new NotSerializableException(errorMsg + e.getMessage());
+		}
+	}
+
+	/**
+	 * @since 2.8
+	 */
+	public Object deserializeResponse(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws IOException {
+		try {
+			return parse(responseBody);
+		} catch (IOException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new NotSerializableException(errorMsg + e.getMessage());
 		}
+	}
 
+	private Object parse(InputStream ins) throws Exception {
+		DocumentBuilder builder;
+		// DocumentBuilderFactory is not thread safe, DocumentBuilders are not shared
+		synchronized (documentFactory) {
+			builder = documentFactory.newDocumentBuilder();
+		}
+		return builder.parse(ins);
 	}
 
 }
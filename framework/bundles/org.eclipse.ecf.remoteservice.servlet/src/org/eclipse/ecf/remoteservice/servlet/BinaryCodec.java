@@ -0,0 +1,305 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ecf.remoteservice.util.ObjectSerializationUtil;
+
+/**
+ * Compact binary encoding of remote call parameters and responses, used for the
+ * {@link #CONTENT_TYPE} content type.
+ * <p>
+ * Each value is written as a one byte tag followed by its data.  null, Boolean,
+ * Byte, Short, Character, Integer, Long, Float, Double, String, byte[], Object[],
+ * ArrayList, HashMap and LinkedHashMap values have a compact encoding: integers
+ * are written as variable length zig-zag integers, and strings as UTF-8.  Maps
+ * are decoded as LinkedHashMap.  All other values, including typed arrays such
+ * as String[] and other List and Map classes, are embedded in Java serialization
+ * form so that they are decoded with their own class.  They must be Serializable.
+ * </p>
+ * <p>
+ * Arrays, lists and maps may be nested at most {@link #MAX_DEPTH} levels deep.
+ * Decoding does not trust the lengths in the input: storage grows with the data
+ * actually read, so a forged length fails with an {@link EOFException} instead
+ * of allocating a huge array.
+ * </p>
+ * 
+ * @since 1.1
+ */
+public class BinaryCodec {
+
+	/**
+	 * Content type of the binary encoding.
+	 */
+	public static final String CONTENT_TYPE = "application/x-ecf-binary";
+
+	/**
+	 * Maximum nesting depth of arrays, lists and maps.
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	// Largest capacity allocated before the data is read
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private static final int NULL = 0;
+	private static final int TRUE = 1;
+	private static final int FALSE = 2;
+	private static final int BYTE = 3;
+	private static final int SHORT = 4;
+	private static final int CHAR = 5;
+	private static final int INT = 6;
+	private static final int LONG = 7;
+	private static final int FLOAT = 8;
+	private static final int DOUBLE = 9;
+	private static final int STRING = 10;
+	private static final int BYTES = 11;
+	private static final int ARRAY = 12;
+	private static final int LIST = 13;
+	private static final int MAP = 14;
+	private static final int SERIALIZED = 15;
+
+	private static final String UTF8 = "UTF-8";
+
+	private final ObjectSerializationUtil serializationUtil = new ObjectSerializationUtil();
+
+	/**
+	 * Encode value to out.
+	 * @param value the value to encode.  May be <code>null</code>.
+	 * @param out the stream to write to.  Must not be <code>null</code>.  Is not flushed or closed.
+	 * @throws IOException if value cannot be encoded or written
+	 */
+	public void encode(Object value, OutputStream out) throws IOException {
+		encode(value, out, 0);
+	}
+
+	private void encode(Object value, OutputStream out, int depth) throws IOException {
+		if (value == null)
+			out.write(NULL);
+		else if (value instanceof Boolean)
+			out.write(((Boolean) value).booleanValue() ? TRUE : FALSE);
+		else if (value instanceof Byte) {
+			out.write(BYTE);
+			out.write(((Byte) value).byteValue());
+		} else if (value instanceof Short) {
+			out.write(SHORT);
+			writeVarLong(out, zigZag(((Short) value).shortValue()));
+		} else if (value instanceof Character) {
+			out.write(CHAR);
+			writeVarLong(out, ((Character) value).charValue());
+		} else if (value instanceof Integer) {
+			out.write(INT);
+			writeVarLong(out, zigZag(((Integer) value).intValue()));
+		} else if (value instanceof Long) {
+			out.write(LONG);
+			writeVarLong(out, zigZag(((Long) value).longValue()));
+		} else if (value instanceof Float) {
+			out.write(FLOAT);
+			writeFixed(out, Float.floatToIntBits(((Float) value).floatValue()), 4);
+		} else if (value instanceof Double) {
+			out.write(DOUBLE);
+			writeFixed(out, Double.doubleToLongBits(((Double) value).doubleValue()), 8);
+		} else if (value instanceof String) {
+			out.write(STRING);
+			writeBytes(out, ((String) value).getBytes(UTF8));
+		} else if (value instanceof byte[]) {
+			out.write(BYTES);
+			writeBytes(out, (byte[]) value);
+		} else if (value.getClass() == Object[].class) {
+			Object[] array = (Object[]) value;
+			checkDepth(depth);
+			out.write(ARRAY);
+			writeVarLong(out, array.length);
+			for (int i = 0; i < array.length; i++)
+				encode(array[i], out, depth + 1);
+		} else if (value.getClass() == ArrayList.class) {
+			Collection<?> list = (Collection<?>) value;
+			checkDepth(depth);
+			out.write(LIST);
+			writeVarLong(out, list.size());
+			for (Iterator<?> i = list.iterator(); i.hasNext();)
+				encode(i.next(), out, depth + 1);
+		} else if (value.getClass() == LinkedHashMap.class || value.getClass() == HashMap.class) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			checkDepth(depth);
+			out.write(MAP);
+			writeVarLong(out, map.size());
+			for (Iterator<?> i = map.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) i.next();
+				encode(entry.getKey(), out, depth + 1);
+				encode(entry.getValue(), out, depth + 1);
+			}
+		} else {
+			out.write(SERIALIZED);
+			writeBytes(out, serializationUtil.serializeToBytes(value));
+		}
+	}
+
+	/**
+	 * Decode a value from in.
+	 * @param in the stream to read from.  Must not be <code>null</code>.  Is not closed.
+	 * @return Object the decoded value, or <code>null</code> if in is empty
+	 * @throws IOException if no value can be decoded from in
+	 */
+	public Object decode(InputStream in) throws IOException {
+		int tag = in.read();
+		return (tag == -1) ? null : decode(in, tag, 0);
+	}
+
+	private Object decode(InputStream in, int tag, int depth) throws IOException {
+		switch (tag) {
+			case NULL :
+				return null;
+			case TRUE :
+				return Boolean.TRUE;
+			case FALSE :
+				return Boolean.FALSE;
+			case BYTE :
+				return new Byte((byte) readByte(in));
+			case SHORT :
+				return new Short((short) unZigZag(readVarLong(in)));
+			case CHAR :
+				return new Character((char) readVarLong(in));
+			case INT :
+				return new Integer((int) unZigZag(readVarLong(in)));
+			case LONG :
+				return new Long(unZigZag(readVarLong(in)));
+			case FLOAT :
+				return new Float(Float.intBitsToFloat((int) readFixed(in, 4)));
+			case DOUBLE :
+				return new Double(Double.longBitsToDouble(readFixed(in, 8)));
+			case STRING :
+				return new String(readBytes(in), UTF8);
+			case BYTES :
+				return readBytes(in);
+			case ARRAY :
+				checkDepth(depth);
+				return decodeList(in, readLength(in), depth).toArray();
+			case LIST :
+				checkDepth(depth);
+				return decodeList(in, readLength(in), depth);
+			case MAP : {
+				checkDepth(depth);
+				int size = readLength(in);
+				Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+				for (int i = 0; i < size; i++) {
+					Object key = decode(in, readByte(in), depth + 1);
+					map.put(key, decode(in, readByte(in), depth + 1));
+				}
+				return map;
+			}
+			case SERIALIZED :
+				return serializationUtil.deserializeFromBytes(readBytes(in));
+			default :
+				throw new IOException("Invalid tag " + tag);
+		}
+	}
+
+	private List<Object> decodeList(InputStream in, int size, int depth) throws IOException {
+		List<Object> list = new ArrayList<Object>(Math.min(size, MAX_INITIAL_CAPACITY));
+		for (int i = 0; i < size; i++)
+			list.add(decode(in, readByte(in), depth + 1));
+		return list;
+	}
+
+	private static void checkDepth(int depth) throws IOException {
+		if (depth >= MAX_DEPTH)
+			throw new IOException("Values are nested more than " + MAX_DEPTH + " levels deep");
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte(in);
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Invalid variable length integer");
+	}
+
+	private static void writeFixed(OutputStream out, long value, int length) throws IOException {
+		for (int shift = (length - 1) * 8; shift >= 0; shift -= 8)
+			out.write((int) (value >>> shift));
+	}
+
+	private static long readFixed(InputStream in, int length) throws IOException {
+		long value = 0;
+		for (int i = 0; i < length; i++)
+			value = (value << 8) | readByte(in);
+		return value;
+	}
+
+	private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(InputStream in) throws IOException {
+		int length = readLength(in);
+		byte[] bytes = new byte[Math.min(length, MAX_INITIAL_CAPACITY)];
+		int off = 0;
+		while (off < length) {
+			if (off == bytes.length) {
+				byte[] grown = new byte[(int) Math.min(2L * bytes.length, length)];
+				System.arraycopy(bytes, 0, grown, 0, off);
+				bytes = grown;
+			}
+			int n = in.read(bytes, off, bytes.length - off);
+			if (n < 0)
+				throw new EOFException();
+			off += n;
+		}
+		return bytes;
+	}
+
+	private static int readLength(InputStream in) throws IOException {
+		long length = readVarLong(in);
+		if (length < 0 || length > Integer.MAX_VALUE)
+			throw new IOException("Invalid length " + length);
+		return (int) length;
+	}
+
+	private static int readByte(InputStream in) throws IOException {
+		int b = in.read();
+		if (b < 0)
+			throw new EOFException();
+		return b;
+	}
+}
@@ -0,0 +1,42 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Parameter deserializer for the {@link BinaryCodec#CONTENT_TYPE} content type.
+ * Parameters are decoded directly from the request stream.
+ * 
+ * @since 1.1
+ */
+public class BinaryParameterDeserializer extends BinaryCodec implements
+		IRemoteCallParameterDeserializer {
+
+	public Object[] deserializeParameters(HttpServletRequest req)
+			throws IOException, ServletException {
+		BufferPool.PooledInputStream ins = new BufferPool.PooledInputStream(req.getInputStream());
+		Object object;
+		try {
+			object = decode(ins);
+		} finally {
+			ins.close();
+		}
+		if (object instanceof Object[]) return (Object[]) object;
+		return new Object[] { object };
+	}
+
+}
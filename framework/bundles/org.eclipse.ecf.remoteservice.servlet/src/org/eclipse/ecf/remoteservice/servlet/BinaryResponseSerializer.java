@@ -0,0 +1,46 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Response serializer for the {@link BinaryCodec#CONTENT_TYPE} content type.
+ * The response is encoded directly to the response stream.  A response that
+ * fails to encode within the first 64KB (the
+ * <code>org.eclipse.ecf.remoteservice.servlet.responseBufferSize</code> system
+ * property) is not committed, so the failure is reported as an error status.
+ * A later failure truncates a response that has already been committed.
+ * 
+ * @since 1.1
+ */
+public class BinaryResponseSerializer extends BinaryCodec implements
+		IRemoteCallResponseSerializer {
+
+	public void serializeResponse(HttpServletResponse resp,
+			Object responseObject) throws IOException, ServletException {
+		if (responseObject == null) return;
+		BufferPool.PooledOutputStream outs = BufferPool.openResponse(resp);
+		try {
+			encode(responseObject, outs);
+			outs.close();
+		} finally {
+			// Drops a partial response if serialization failed
+			outs.discard();
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Pool of the buffers used to read requests and write responses, so that
+ * calls do not allocate a new buffer each.
+ */
+final class BufferPool {
+
+	static final int BUFFER_SIZE = 8192;
+
+	private static final int MAX_POOLED = Integer.getInteger("org.eclipse.ecf.remoteservice.servlet.maxPooledBuffers", 64).intValue();
+
+	// Size of a response that is held back until it is complete
+	static final int RESPONSE_BUFFER_SIZE = Integer.getInteger("org.eclipse.ecf.remoteservice.servlet.responseBufferSize", 65536).intValue();
+
+	private static final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+	private static final AtomicInteger pooled = new AtomicInteger();
+
+	private BufferPool() {
+		// static methods only
+	}
+
+	static byte[] acquire() {
+		byte[] buffer = buffers.poll();
+		if (buffer == null)
+			return new byte[BUFFER_SIZE];
+		pooled.decrementAndGet();
+		return buffer;
+	}
+
+	static void release(byte[] buffer) {
+		if (pooled.incrementAndGet() <= MAX_POOLED)
+			buffers.offer(buffer);
+		else
+			pooled.decrementAndGet();
+	}
+
+	/**
+	 * Open a pooled stream to the body of resp.  The response buffer of resp is
+	 * raised to at least {@link #RESPONSE_BUFFER_SIZE} first, so a response that
+	 * fails before that many bytes are written is not yet committed, and can
+	 * still be reported as an error.
+	 */
+	static PooledOutputStream openResponse(HttpServletResponse resp) throws IOException {
+		if (resp.getBufferSize() < RESPONSE_BUFFER_SIZE)
+			resp.setBufferSize(RESPONSE_BUFFER_SIZE);
+		return new PooledOutputStream(resp.getOutputStream());
+	}
+
+	/**
+	 * Buffered input stream with a pooled buffer.  close() returns the buffer
+	 * to the pool, but does not close the underlying stream.
+	 */
+	static class PooledInputStream extends InputStream {
+
+		private final InputStream in;
+		private byte[] buffer = acquire();
+		private int pos;
+		private int count;
+
+		PooledInputStream(InputStream in) {
+			this.in = in;
+		}
+
+		private boolean fill() throws IOException {
+			if (buffer == null)
+				throw new IOException("Stream closed");
+			int n = in.read(buffer, 0, buffer.length);
+			if (n <= 0)
+				return false;
+			pos = 0;
+			count = n;
+			return true;
+		}
+
+		public int read() throws IOException {
+			if (pos >= count && !fill())
+				return -1;
+			return buffer[pos++] & 0xff;
+		}
+
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			int available = count - pos;
+			if (available <= 0) {
+				// Large reads bypass the buffer
+				if (len >= BUFFER_SIZE)
+					return in.read(b, off, len);
+				if (!fill())
+					return -1;
+				available = count;
+			}
+			int n = Math.min(available, len);
+			System.arraycopy(buffer, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+
+		public int available() throws IOException {
+			return (count - pos) + in.available();
+		}
+
+		public void close() {
+			if (buffer != null) {
+				release(buffer);
+				buffer = null;
+			}
+		}
+	}
+
+	/**
+	 * Buffered output stream with a pooled buffer.  close() flushes and returns
+	 * the buffer to the pool, but does not close the underlying stream.
+	 */
+	static class PooledOutputStream extends OutputStream {
+
+		private final OutputStream out;
+		private byte[] buffer = acquire();
+		private int count;
+
+		PooledOutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		private void flushBuffer() throws IOException {
+			if (buffer == null)
+				throw new IOException("Stream closed");
+			if (count > 0) {
+				out.write(buffer, 0, count);
+				count = 0;
+			}
+		}
+
+		public void write(int b) throws IOException {
+			if (buffer == null || count >= BUFFER_SIZE)
+				flushBuffer();
+			buffer[count++] = (byte) b;
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len >= BUFFER_SIZE) {
+				// Large writes bypass the buffer
+				flushBuffer();
+				out.write(b, off, len);
+				return;
+			}
+			if (buffer == null || len > BUFFER_SIZE - count)
+				flushBuffer();
+			System.arraycopy(b, off, buffer, count, len);
+			count += len;
+		}
+
+		public void flush() throws IOException {
+			flushBuffer();
+			out.flush();
+		}
+
+		public void close() throws IOException {
+			if (buffer != null) {
+				try {
+					flushBuffer();
+				} finally {
+					discard();
+				}
+			}
+		}
+
+		/**
+		 * Return the buffer to the pool without writing what is still buffered.
+		 * Does nothing if the stream is already closed.
+		 */
+		void discard() {
+			if (buffer != null) {
+				release(buffer);
+				buffer = null;
+				count = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Parameter deserializer that selects the encoding by the Content-Type of the
+ * request.  Requests of the {@link BinaryCodec#CONTENT_TYPE} content type are
+ * decoded by a {@link BinaryParameterDeserializer}, all other requests by an
+ * {@link ObjectSerializationParameterDeserializer}.
+ * 
+ * @since 1.1
+ */
+public class ContentNegotiatingParameterDeserializer implements
+		IRemoteCallParameterDeserializer {
+
+	private final IRemoteCallParameterDeserializer binaryDeserializer = new BinaryParameterDeserializer();
+	private final IRemoteCallParameterDeserializer serializationDeserializer = new ObjectSerializationParameterDeserializer();
+
+	public Object[] deserializeParameters(HttpServletRequest req)
+			throws IOException, ServletException {
+		if (BinaryCodec.CONTENT_TYPE.equals(ContentNegotiatingResponseSerializer.getMediaType(req.getContentType())))
+			return binaryDeserializer.deserializeParameters(req);
+		return serializationDeserializer.deserializeParameters(req);
+	}
+
+}
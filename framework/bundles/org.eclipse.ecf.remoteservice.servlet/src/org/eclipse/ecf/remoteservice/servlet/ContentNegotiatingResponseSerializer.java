@@ -0,0 +1,134 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.IOException;
+import java.util.StringTokenizer;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Response serializer that selects the encoding by content negotiation.  The
+ * response is encoded with {@link BinaryCodec#CONTENT_TYPE} if the client
+ * prefers it in its Accept header, or if the Accept header allows any type and
+ * the request itself was of that content type.  Otherwise, the response is
+ * encoded with Java serialization.  The selected type is set as Content-Type
+ * of the response.
+ * 
+ * @since 1.1
+ */
+public class ContentNegotiatingResponseSerializer implements
+		IRemoteCallResponseSerializer {
+
+	private final IRemoteCallResponseSerializer binarySerializer = new BinaryResponseSerializer();
+	private final IRemoteCallResponseSerializer serializationSerializer = new ObjectSerializationResponseSerializer();
+
+	/**
+	 * Serialize responseObject with the content type selected for req.
+	 * 
+	 * @param req the HttpServletRequest of the call.  Will not be <code>null</code>.
+	 * @param resp the HttpServletResponse object.  Will not be <code>null</code>.
+	 * @param responseObject to serialize to resp
+	 * @throws IOException if resposeObject cannot be serialized
+	 * @throws ServletException if responseObject cannot be serialized
+	 */
+	public void serializeResponse(HttpServletRequest req, HttpServletResponse resp,
+			Object responseObject) throws IOException, ServletException {
+		String contentType = selectContentType(req.getHeader("Accept"), getMediaType(req.getContentType()));
+		resp.setContentType(contentType);
+		serialize(contentType, resp, responseObject);
+	}
+
+	/**
+	 * Serialize responseObject with the Content-Type already set on resp, or with
+	 * Java serialization if none is set.
+	 */
+	public void serializeResponse(HttpServletResponse resp,
+			Object responseObject) throws IOException, ServletException {
+		serialize(getMediaType(resp.getContentType()), resp, responseObject);
+	}
+
+	private void serialize(String contentType, HttpServletResponse resp,
+			Object responseObject) throws IOException, ServletException {
+		if (BinaryCodec.CONTENT_TYPE.equals(contentType))
+			binarySerializer.serializeResponse(resp, responseObject);
+		else
+			serializationSerializer.serializeResponse(resp, responseObject);
+	}
+
+	/**
+	 * Select the response content type.
+	 * 
+	 * @param accept the Accept header of the request.  May be <code>null</code>.
+	 * @param requestType the media type of the request.  May be <code>null</code>.
+	 * @return String the selected content type.  Will not be <code>null</code>.
+	 */
+	protected String selectContentType(String accept, String requestType) {
+		String fallback = BinaryCodec.CONTENT_TYPE.equals(requestType) ? BinaryCodec.CONTENT_TYPE : ObjectSerializationResponseSerializer.CONTENT_TYPE;
+		if (accept == null)
+			return fallback;
+		String selected = null;
+		float selectedQuality = 0;
+		boolean selectedWildcard = false;
+		for (StringTokenizer t = new StringTokenizer(accept, ","); t.hasMoreTokens();) {
+			String range = t.nextToken();
+			String type = getMediaType(range);
+			float quality = getQuality(range);
+			if (BinaryCodec.CONTENT_TYPE.equals(type) || ObjectSerializationResponseSerializer.CONTENT_TYPE.equals(type)) {
+				// An explicit type wins over a wildcard of the same quality
+				if (quality > selectedQuality || (quality == selectedQuality && selectedWildcard)) {
+					selected = type;
+					selectedQuality = quality;
+					selectedWildcard = false;
+				}
+			} else if ("*/*".equals(type) || "application/*".equals(type)) {
+				if (quality > selectedQuality) {
+					selected = fallback;
+					selectedQuality = quality;
+					selectedWildcard = true;
+				}
+			}
+		}
+		// Nothing acceptable: answer with the fallback rather than failing the call
+		return (selected == null) ? fallback : selected;
+	}
+
+	/**
+	 * @param contentType a content type with optional parameters.  May be <code>null</code>.
+	 * @return String the lower case media type without parameters, or <code>null</code> if
+	 * contentType is <code>null</code>
+	 */
+	static String getMediaType(String contentType) {
+		if (contentType == null)
+			return null;
+		int semicolon = contentType.indexOf(';');
+		String type = (semicolon < 0) ? contentType : contentType.substring(0, semicolon);
+		return type.trim().toLowerCase();
+	}
+
+	private static float getQuality(String range) {
+		for (StringTokenizer t = new StringTokenizer(range, ";"); t.hasMoreTokens();) {
+			String param = t.nextToken().trim();
+			if (param.startsWith("q=")) {
+				try {
+					return Float.parseFloat(param.substring(2).trim());
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+}
@@ -24,8 +24,13 @@ public class ObjectSerializationParameterDeserializer extends ObjectSerializatio
 
 	public Object[] deserializeParameters(HttpServletRequest req)
 			throws IOException, ServletException {
-		byte [] inputStreamAsBytes = readToByteArray(req.getInputStream());
-		Object object = deserializeFromBytes(inputStreamAsBytes);
+		BufferPool.PooledInputStream ins = new BufferPool.PooledInputStream(req.getInputStream());
+		Object object;
+		try {
+			object = deserializeFromStream(ins);
+		} finally {
+			ins.close();
+		}
 		if (object instanceof Object[]) return (Object[]) object;
 		return new Object[] { object };
 	}
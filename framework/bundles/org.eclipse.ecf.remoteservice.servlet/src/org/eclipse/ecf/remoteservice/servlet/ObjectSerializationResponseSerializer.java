@@ -13,22 +13,40 @@
 package org.eclipse.ecf.remoteservice.servlet;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.ecf.remoteservice.util.ObjectSerializationUtil;
 
+/**
+ * Response serializer for the {@link #CONTENT_TYPE} content type.  The response
+ * is serialized directly to the response stream.  A response that fails to
+ * serialize within the first 64KB (the
+ * <code>org.eclipse.ecf.remoteservice.servlet.responseBufferSize</code> system
+ * property) is not committed, so the failure is reported as an error status.
+ * A later failure truncates a response that has already been committed.
+ */
 public class ObjectSerializationResponseSerializer extends
 		ObjectSerializationUtil implements IRemoteCallResponseSerializer {
 
+	/**
+	 * Content type of Java serialization.
+	 * @since 1.1
+	 */
+	public static final String CONTENT_TYPE = "application/x-java-serialized-object";
+
 	public void serializeResponse(HttpServletResponse resp,
 			Object responseObject) throws IOException, ServletException {
 		if (responseObject == null) return;
-		byte[] bytes = serializeToBytes(responseObject);
-		OutputStream outs = resp.getOutputStream();
-		writeByteArray(outs, bytes);
+		BufferPool.PooledOutputStream outs = BufferPool.openResponse(resp);
+		try {
+			serializeToStream(responseObject, outs);
+			outs.close();
+		} finally {
+			// Drops a partial response if serialization failed
+			outs.discard();
+		}
 	}
 
 }
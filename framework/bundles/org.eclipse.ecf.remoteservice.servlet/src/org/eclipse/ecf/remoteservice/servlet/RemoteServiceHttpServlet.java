@@ -12,14 +12,19 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.servlet;
 
+import java.io.IOException;
+
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 public class RemoteServiceHttpServlet extends HttpServlet {
 
 	private static final long serialVersionUID = -871598533602636840L;
 
-	private IRemoteCallParameterDeserializer parameterDeserializer;
-	private IRemoteCallResponseSerializer responseSerializer;
+	private IRemoteCallParameterDeserializer parameterDeserializer = new ContentNegotiatingParameterDeserializer();
+	private IRemoteCallResponseSerializer responseSerializer = new ContentNegotiatingResponseSerializer();
 	
 	protected void setRemoteCallParameterDeserializer(IRemoteCallParameterDeserializer parameterDeserializer) {
 		this.parameterDeserializer = parameterDeserializer;
@@ -36,5 +41,38 @@ public class RemoteServiceHttpServlet extends HttpServlet {
 	protected IRemoteCallResponseSerializer getRemoteCallResponseSerializer() {
 		return this.responseSerializer;
 	}
+
+	/**
+	 * Deserialize the call parameters of req with the remote call parameter deserializer.
+	 * 
+	 * @param req the HttpServletRequest.  Must not be <code>null</code>.
+	 * @return Object[] the deserialized parameters.
+	 * @throws IOException if parameters cannot be deserialized
+	 * @throws ServletException if parameters cannot be deserialized
+	 * @since 1.1
+	 */
+	protected Object[] deserializeParameters(HttpServletRequest req) throws IOException, ServletException {
+		return getRemoteCallParameterDeserializer().deserializeParameters(req);
+	}
+
+	/**
+	 * Serialize responseObject to resp with the remote call response serializer.  If the
+	 * serializer is a {@link ContentNegotiatingResponseSerializer}, the content type is
+	 * negotiated with req.
+	 * 
+	 * @param req the HttpServletRequest.  Must not be <code>null</code>.
+	 * @param resp the HttpServletResponse.  Must not be <code>null</code>.
+	 * @param responseObject to serialize to resp
+	 * @throws IOException if responseObject cannot be serialized
+	 * @throws ServletException if responseObject cannot be serialized
+	 * @since 1.1
+	 */
+	protected void serializeResponse(HttpServletRequest req, HttpServletResponse resp, Object responseObject) throws IOException, ServletException {
+		IRemoteCallResponseSerializer serializer = getRemoteCallResponseSerializer();
+		if (serializer instanceof ContentNegotiatingResponseSerializer)
+			((ContentNegotiatingResponseSerializer) serializer).serializeResponse(req, resp, responseObject);
+		else
+			serializer.serializeResponse(resp, responseObject);
+	}
 	
 }
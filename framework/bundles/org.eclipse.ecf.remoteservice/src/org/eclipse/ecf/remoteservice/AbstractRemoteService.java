@@ -18,6 +18,8 @@ import java.util.concurrent.*;
 import java.util.concurrent.TimeoutException;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.jobs.JobsExecutor;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.internal.remoteservice.Activator;
 import org.eclipse.ecf.remoteservice.asyncproxy.*;
@@ -149,9 +151,16 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		IExecutor executor = getIFutureExecutor(call);
 		if (executor == null)
 			throw new ServiceException("iFuture executor is null.  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
+		// Calls made on the executor thread continue the caller's trace
+		final ISpan parentSpan = Tracing.getCurrentSpan();
 		return executor.execute(new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
-				return callSync(call);
+				final ISpan previous = Tracing.setCurrentSpan(parentSpan);
+				try {
+					return callSync(call);
+				} finally {
+					Tracing.restoreCurrentSpan(previous);
+				}
 			}
 		}, null);
 	}
@@ -413,19 +422,7 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 	 * @return IRemoteCall remote call created.  Should not be <code>null</code>
 	 */
 	protected IRemoteCall createRemoteCall(final String callMethod, final Object[] callParameters, final long callTimeout) {
-		return new IRemoteCall() {
-			public String getMethod() {
-				return callMethod;
-			}
-
-			public Object[] getParameters() {
-				return callParameters;
-			}
-
-			public long getTimeout() {
-				return callTimeout;
-			}
-		};
+		return new RemoteCall(callMethod, callParameters, callTimeout);
 	}
 
 	/**
@@ -501,33 +498,48 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		if (resultObject != null)
 			return resultObject;
 
+		// Provider spans of this call are children of the invoke span. For async
+		// methods the invoke span only covers dispatching the call
+		final ISpan span = Tracing.startSpan("ecf.remoteservice.invoke"); //$NON-NLS-1$
+		final ISpan previous = Tracing.setCurrentSpan(span);
+		if (span.isRecording()) {
+			span.setAttribute("method", method.getName()); //$NON-NLS-1$
+			span.setAttribute("remoteServiceID", String.valueOf(getRemoteServiceID())); //$NON-NLS-1$
+		}
 		try {
-			// If return is async type (Future, IFuture, CompletableFuture, CompletionStage)
-			if (isReturnAsync(proxy, method, args)) {
-				if (isInterfaceAsync(method.getDeclaringClass()) && isMethodAsync(method.getName()))
-					return invokeAsync(method, args);
-				// If OSGI Async then invoke method directly
-				if (isOSGIAsync())
-					return invokeReturnAsync(proxy, method, args);
+			try {
+				// If return is async type (Future, IFuture, CompletableFuture, CompletionStage)
+				if (isReturnAsync(proxy, method, args)) {
+					if (isInterfaceAsync(method.getDeclaringClass()) && isMethodAsync(method.getName()))
+						return invokeAsync(method, args);
+					// If OSGI Async then invoke method directly
+					if (isOSGIAsync())
+						return invokeReturnAsync(proxy, method, args);
 
+				}
+			} catch (Throwable t) {
+				span.setError(t);
+				handleProxyException("Exception invoking async method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
 			}
-		} catch (Throwable t) {
-			handleProxyException("Exception invoking async method on remote service proxy=" + getRemoteServiceID(), t); //$NON-NLS-1$
-		}
 
-		// Get the callMethod, callParameters, and callTimeout
-		final String callMethod = getCallMethodNameForProxyInvoke(method, args);
-		final Object[] callParameters = getCallParametersForProxyInvoke(callMethod, method, args);
-		final long callTimeout = getCallTimeoutForProxyInvoke(callMethod, method, args);
-		// Create IRemoteCall instance from method, parameters, and timeout
-		final IRemoteCall remoteCall = createRemoteCall(callMethod, callParameters, callTimeout);
-		// Invoke synchronously
-		try {
-			return invokeSync(remoteCall);
-		} catch (ECFException e) {
-			handleInvokeSyncException(method.getName(), e);
-			// If the above method doesn't throw as it should, we return null
-			return null;
+			// Get the callMethod, callParameters, and callTimeout
+			final String callMethod = getCallMethodNameForProxyInvoke(method, args);
+			final Object[] callParameters = getCallParametersForProxyInvoke(callMethod, method, args);
+			final long callTimeout = getCallTimeoutForProxyInvoke(callMethod, method, args);
+			// Create IRemoteCall instance from method, parameters, and timeout
+			final IRemoteCall remoteCall = createRemoteCall(callMethod, callParameters, callTimeout);
+			// Invoke synchronously
+			try {
+				return invokeSync(remoteCall);
+			} catch (ECFException e) {
+				span.setError(e);
+				handleInvokeSyncException(method.getName(), e);
+				// If the above method doesn't throw as it should, we return null
+				return null;
+			}
+		} finally {
+			Tracing.restoreCurrentSpan(previous);
+			span.end();
 		}
 	}
 
@@ -640,9 +652,15 @@ public abstract class AbstractRemoteService extends AbstractAsyncProxyRemoteServ
 		ExecutorService executorService = getFutureExecutorService(call);
 		if (executorService == null)
 			throw new ServiceException("future executor service is null.  .  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
+		final ISpan parentSpan = Tracing.getCurrentSpan();
 		return executorService.submit(new Callable() {
 			public Object call() throws Exception {
-				return callSync(call);
+				final ISpan previous = Tracing.setCurrentSpan(parentSpan);
+				try {
+					return callSync(call);
+				} finally {
+					Tracing.restoreCurrentSpan(previous);
+				}
 			}
 		});
 	}
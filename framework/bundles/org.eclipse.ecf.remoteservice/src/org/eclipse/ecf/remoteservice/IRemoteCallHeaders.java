@@ -0,0 +1,38 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice;
+
+import java.util.Map;
+
+/**
+ * Optional interface of {@link IRemoteCall} instances that carry headers to
+ * the remote service host, e.g. the trace context of the caller.  Providers
+ * that support headers send them along with the call, and the
+ * {@link IRemoteCall} seen on the host side, e.g. by an
+ * {@link IRemoteServiceCallPolicy}, implements this interface as well.
+ * 
+ * @since 8.15
+ */
+public interface IRemoteCallHeaders {
+
+	/**
+	 * @return Map of header names to values, or <code>null</code> if the call
+	 * has no headers
+	 */
+	public Map<String, String> getHeaders();
+
+	/**
+	 * @param headers the headers to send with the call.  May be <code>null</code>.
+	 */
+	public void setHeaders(Map<String, String> headers);
+}
@@ -13,17 +13,22 @@
 package org.eclipse.ecf.remoteservice;
 
 import java.util.Arrays;
+import java.util.Map;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.remoteservice.asyncproxy.AbstractAsyncProxyRemoteCall;
 
 /**
  * @since 4.0
  */
-public class RemoteCall extends AbstractAsyncProxyRemoteCall implements IRemoteCall {
+public class RemoteCall extends AbstractAsyncProxyRemoteCall implements IRemoteCall, IRemoteCallHeaders {
 
 	protected String method;
 	protected Object[] parameters;
 	protected long timeout;
+	/**
+	 * @since 8.15
+	 */
+	protected Map<String, String> headers;
 
 	public RemoteCall(String method, Object[] parameters, long timeout) {
 		this.method = method;
@@ -52,6 +57,20 @@ public class RemoteCall extends AbstractAsyncProxyRemoteCall implements IRemoteC
 		return timeout;
 	}
 
+	/**
+	 * @since 8.15
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @since 8.15
+	 */
+	public void setHeaders(Map<String, String> headers) {
+		this.headers = headers;
+	}
+
 	public String toString() {
 		StringBuffer buffer = new StringBuffer();
 		buffer.append("RemoteCall[method="); //$NON-NLS-1$
@@ -60,6 +79,10 @@ public class RemoteCall extends AbstractAsyncProxyRemoteCall implements IRemoteC
 		buffer.append(parameters != null ? Arrays.asList(parameters) : null);
 		buffer.append(", timeout="); //$NON-NLS-1$
 		buffer.append(timeout);
+		if (headers != null) {
+			buffer.append(", headers="); //$NON-NLS-1$
+			buffer.append(headers);
+		}
 		buffer.append("]"); //$NON-NLS-1$
 		return buffer.toString();
 	}
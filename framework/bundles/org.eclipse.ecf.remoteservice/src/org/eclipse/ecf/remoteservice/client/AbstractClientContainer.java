@@ -12,7 +12,7 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.client;
 
-import java.io.NotSerializableException;
+import java.io.*;
 import java.util.*;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.AbstractContainer;
@@ -74,6 +74,30 @@ public abstract class AbstractClientContainer extends AbstractContainer implemen
 	 */
 	protected boolean alwaysSendDefaultParameters;
 
+	private RemoteCallExecutor remoteCallExecutor;
+
+	private boolean remoteCallExecutorShutdown;
+
+	/**
+	 * Get the executor for the asynchronous calls of this container's remote
+	 * services.  The executor is created on first use and shut down when this
+	 * container is disposed.  After that, the executor rejects all calls.  Subclasses may override to provide a differently
+	 * configured executor.
+	 * 
+	 * @return RemoteCallExecutor the executor.  Will not be <code>null</code>.
+	 * @since 8.16
+	 */
+	protected RemoteCallExecutor getRemoteCallExecutor() {
+		synchronized (connectLock) {
+			if (remoteCallExecutor == null) {
+				remoteCallExecutor = new RemoteCallExecutor("RemoteCallExecutor[" + containerID.getName() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+				if (remoteCallExecutorShutdown)
+					remoteCallExecutor.shutdown();
+			}
+			return remoteCallExecutor;
+		}
+	}
+
 	public AbstractClientContainer(ID containerID) {
 		this.containerID = containerID;
 		Assert.isNotNull(this.containerID);
@@ -346,6 +370,11 @@ public abstract class AbstractClientContainer extends AbstractContainer implemen
 		synchronized (remoteServiceListeners) {
 			remoteServiceListeners.clear();
 		}
+		synchronized (connectLock) {
+			remoteCallExecutorShutdown = true;
+			if (remoteCallExecutor != null)
+				remoteCallExecutor.shutdown();
+		}
 		super.dispose();
 	}
 
@@ -515,6 +544,33 @@ public abstract class AbstractClientContainer extends AbstractContainer implemen
 		return (deserializer == null) ? null : deserializer.deserializeResponse(uri, call, callable, responseHeaders, responseBody);
 	}
 
+	/**
+	 * Process the response body while it is received.  If the response deserializer
+	 * is an {@link IRemoteResponseStreamDeserializer} it reads responseBody directly,
+	 * otherwise responseBody is read to the end and passed to
+	 * {@link #processResponse(String, IRemoteCall, IRemoteCallable, Map, byte[])}.
+	 * 
+	 * @param uri uri
+	 * @param call call
+	 * @param callable callable
+	 * @param responseHeaders http response headers
+	 * @param responseBody response body.  Must not be <code>null</code>.
+	 * @return Object response deserialized via response deserializer
+	 * @throws IOException if response cannot be read or deserialized for processing
+	 * @since 8.15
+	 */
+	protected Object processResponse(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws IOException {
+		IRemoteResponseDeserializer deserializer = getResponseDeserializer();
+		if (deserializer instanceof IRemoteResponseStreamDeserializer)
+			return ((IRemoteResponseStreamDeserializer) deserializer).deserializeResponse(uri, call, callable, responseHeaders, responseBody);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		int count;
+		while ((count = responseBody.read(buf)) != -1)
+			bos.write(buf, 0, count);
+		return processResponse(uri, call, callable, responseHeaders, bos.toByteArray());
+	}
+
 	/**
 	 * Create a remote service for a given remote service registration.   This method will be 
 	 * called as part of the RemoteServiceAdmin.importService.   
@@ -12,9 +12,10 @@
  *****************************************************************************/
 package org.eclipse.ecf.remoteservice.client;
 
-import java.io.NotSerializableException;
+import java.io.*;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.ecf.core.util.ECFException;
@@ -85,20 +86,139 @@ public abstract class AbstractClientService extends AbstractRemoteService {
 		return nextID++;
 	}
 
-	protected void callAsync(IRemoteCall call, IRemoteCallable restClientCallable, IRemoteCallListener listener) {
-		final AbstractExecutor executor = new ThreadsExecutor();
-		executor.execute(new AsyncResult(call, restClientCallable, listener), null);
+	// Falls back to 100 if the system property is not a number
+	private static final int DEFAULT_MAX_ASYNC_CALLS_IN_PROGRESS = Integer.getInteger("ecf.remoteservice.client.maxAsyncCallsInProgress", 100).intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of asynchronous calls of this remote service that may be in
+	 * progress at the same time.  Further calls fail immediately with a
+	 * {@link RejectedExecutionException}.  If &lt;= 0, there is no limit.
+	 * @since 8.16
+	 */
+	protected int maxAsyncCallsInProgress = DEFAULT_MAX_ASYNC_CALLS_IN_PROGRESS;
+
+	private int asyncCallsInProgress = 0;
+
+	private void beginAsyncCall(IRemoteCall call) throws RejectedExecutionException {
+		synchronized (this) {
+			if (maxAsyncCallsInProgress > 0 && asyncCallsInProgress >= maxAsyncCallsInProgress)
+				throw new RejectedExecutionException("Too many asynchronous calls in progress.  Cannot callAsync remote method=" + call.getMethod()); //$NON-NLS-1$
+			asyncCallsInProgress++;
+		}
+	}
+
+	private void endAsyncCall() {
+		synchronized (this) {
+			asyncCallsInProgress--;
+		}
+	}
+
+	/**
+	 * Get the executor for the asynchronous calls of this remote service.  By default,
+	 * this is the executor shared by all the remote services of the container.
+	 * 
+	 * @param call the call to execute.  Will not be <code>null</code>.
+	 * @return RemoteCallExecutor the executor.  Must not be <code>null</code>.
+	 * @since 8.16
+	 */
+	protected RemoteCallExecutor getRemoteCallExecutor(IRemoteCall call) {
+		return getClientContainer().getRemoteCallExecutor();
+	}
+
+	// Run task on the executor, counting it as in progress until it completes
+	private void executeAsync(IRemoteCall call, final RemoteCallExecutor.Task task) throws RejectedExecutionException {
+		beginAsyncCall(call);
+		try {
+			getRemoteCallExecutor(call).execute(new RemoteCallExecutor.Task() {
+				public void run() {
+					try {
+						task.run();
+					} finally {
+						endAsyncCall();
+					}
+				}
+
+				void reject(RejectedExecutionException e) {
+					try {
+						task.reject(e);
+					} finally {
+						endAsyncCall();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			endAsyncCall();
+			throw e;
+		}
+	}
+
+	protected void callAsync(final IRemoteCall call, IRemoteCallable restClientCallable, final IRemoteCallListener listener) {
+		final AsyncResult asyncResult = new AsyncResult(call, restClientCallable, listener);
+		try {
+			executeAsync(call, new RemoteCallExecutor.Task() {
+				public void run() {
+					try {
+						asyncResult.run(null);
+					} catch (Exception e) {
+						// AsyncResult reports the exceptions of the call to the listener
+					}
+				}
+
+				void reject(RejectedExecutionException e) {
+					fireCallRejected(listener, e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			fireCallRejected(listener, e);
+		}
+	}
+
+	private void fireCallRejected(IRemoteCallListener listener, final RejectedExecutionException e) {
+		if (listener != null) {
+			final long reqID = getNextRequestID();
+			listener.handleEvent(new IRemoteCallCompleteEvent() {
+				public Throwable getException() {
+					return e;
+				}
+
+				public Object getResponse() {
+					return null;
+				}
+
+				public boolean hadException() {
+					return true;
+				}
+
+				public long getRequestId() {
+					return reqID;
+				}
+			});
+		}
 	}
 
 	protected IFuture callAsync(final IRemoteCall call, final IRemoteCallable callable) {
-		final AbstractExecutor executor = new ThreadsExecutor();
-		return executor.execute(new IProgressRunnable() {
+		final IProgressRunnable runnable = new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
 				if (callable == null)
 					throw new ECFException("Callable not found"); //$NON-NLS-1$
 				return invokeRemoteCall(call, callable);
 			}
-		}, null);
+		};
+		final RemoteCallExecutor.RemoteCallFuture future = new RemoteCallExecutor.RemoteCallFuture(null);
+		try {
+			executeAsync(call, new RemoteCallExecutor.Task() {
+				public void run() {
+					future.runWithProgress(runnable);
+				}
+
+				void reject(RejectedExecutionException e) {
+					future.reject(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return RemoteCallExecutor.createRejectedFuture(e);
+		}
+		return future;
 	}
 
 	/**
@@ -219,6 +339,21 @@ public abstract class AbstractClientService extends AbstractRemoteService {
 		return getClientContainer().processResponse(uri, call, callable, responseHeaders, responseBody);
 	}
 
+	/**
+	 * @param uri uri
+	 * @param call call
+	 * @param callable callable
+	 * @param responseHeaders responseHeaders
+	 * @param responseBody responseBody.  Must not be <code>null</code>.
+	 * @return Object processed response
+	 * @throws IOException if response cannot be read or deserialized
+	 * @see AbstractClientContainer#processResponse(String, IRemoteCall, IRemoteCallable, Map, InputStream)
+	 * @since 8.15
+	 */
+	protected Object processResponse(String uri, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws IOException {
+		return getClientContainer().processResponse(uri, call, callable, responseHeaders, responseBody);
+	}
+
 	protected IRemoteServiceID getRemoteServiceID() {
 		return registration.getID();
 	}
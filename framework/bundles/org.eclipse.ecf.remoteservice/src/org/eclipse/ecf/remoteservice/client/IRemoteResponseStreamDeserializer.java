@@ -0,0 +1,46 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+
+/**
+ * Response deserializer that reads the response body while it is received,
+ * rather than from a byte array holding the whole body.  Client services
+ * that support streaming pass the response body to
+ * {@link #deserializeResponse(String, IRemoteCall, IRemoteCallable, Map, InputStream)}
+ * if the container's deserializer implements this interface.
+ * 
+ * @since 8.15
+ */
+public interface IRemoteResponseStreamDeserializer extends IRemoteResponseDeserializer {
+
+	/**
+	 * Deserialize remote response.
+	 * 
+	 * @param endpoint the endpoint.  Should not be <code>null</code>.
+	 * @param call the call associated with the parameter to serialize.  Will not be <code>null</code>.
+	 * @param callable the callable associated with the parameter to serialize.  Will not be <code>null</code>.
+	 * @param responseHeaders response headers associated with the successful remote call.  May be <code>null</code>.
+	 * @param responseBody the response body to deserialize.  Will not be <code>null</code>.
+	 * Closed by the caller, and need not be read to the end.
+	 * @return Object the deserialized response.  May be <code>null</code>.
+	 * @throws IOException thrown if the responseBody cannot be read, or
+	 * {@link java.io.NotSerializableException} if it cannot be deserialized.
+	 */
+	public Object deserializeResponse(String endpoint, IRemoteCall call, IRemoteCallable callable, Map responseHeaders, InputStream responseBody) throws IOException;
+
+}
@@ -0,0 +1,158 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.client;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.concurrent.future.*;
+
+/**
+ * Bounded executor for the asynchronous calls of remote services.  One
+ * instance is shared by all the remote services of a client container, see
+ * {@link AbstractClientContainer#getRemoteCallExecutor()}.  At most
+ * maxThreads calls run at the same time, and at most queueSize further calls
+ * wait for a thread.  When both are exhausted, calls are not queued but fail
+ * immediately with a {@link RejectedExecutionException}.  Calls that are still
+ * waiting for a thread when the executor is shut down fail the same way.
+ * 
+ * @since 8.16
+ */
+public class RemoteCallExecutor extends AbstractExecutor {
+
+	/**
+	 * Default number of threads, used when the
+	 * ecf.remoteservice.client.asyncMaxThreads system property is not set.
+	 */
+	public static final int DEFAULT_MAX_THREADS = 10;
+
+	/**
+	 * Default number of waiting calls, used when the
+	 * ecf.remoteservice.client.asyncQueueSize system property is not set.
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = 500;
+
+	private final ThreadPoolExecutor pool;
+
+	/**
+	 * Create an executor configured by the ecf.remoteservice.client.asyncMaxThreads
+	 * and ecf.remoteservice.client.asyncQueueSize system properties.
+	 * @param name the prefix of the thread names.  Must not be <code>null</code>.
+	 */
+	public RemoteCallExecutor(String name) {
+		this(name, Integer.getInteger("ecf.remoteservice.client.asyncMaxThreads", DEFAULT_MAX_THREADS).intValue(), Integer.getInteger("ecf.remoteservice.client.asyncQueueSize", DEFAULT_QUEUE_SIZE).intValue()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @param name the prefix of the thread names.  Must not be <code>null</code>.
+	 * @param maxThreads the maximum number of calls running at the same time.  Must be &gt; 0.
+	 * @param queueSize the maximum number of calls waiting for a thread.  If 0, calls
+	 * are rejected when all threads are busy.
+	 */
+	public RemoteCallExecutor(final String name, int maxThreads, int queueSize) {
+		final BlockingQueue<Runnable> queue = (queueSize > 0) ? (BlockingQueue<Runnable>) new ArrayBlockingQueue<Runnable>(queueSize) : new SynchronousQueue<Runnable>();
+		// Threads are started on demand, and are kept until shutdown
+		this.pool = new ThreadPoolExecutor(maxThreads, maxThreads, 0L, TimeUnit.MILLISECONDS, queue, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.incrementAndGet()); //$NON-NLS-1$
+				t.setDaemon(true);
+				return t;
+			}
+		}, new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Execute runnable on a pool thread.  If the executor is saturated or shut down,
+	 * runnable is not run and the returned future is done with a
+	 * {@link RejectedExecutionException} as exception.
+	 */
+	public <ResultType> IFuture<ResultType> execute(final IProgressRunnable<? extends ResultType> runnable, IProgressMonitor monitor) {
+		final RemoteCallFuture<ResultType> future = (RemoteCallFuture<ResultType>) createFuture(monitor);
+		try {
+			pool.execute(new Task() {
+				public void run() {
+					future.runWithProgress(runnable);
+				}
+
+				void reject(RejectedExecutionException e) {
+					future.reject(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return createRejectedFuture(e);
+		}
+		return future;
+	}
+
+	/**
+	 * A runnable that is told when it is dropped by {@link RemoteCallExecutor#shutdown()}
+	 * before it ran.
+	 */
+	abstract static class Task implements Runnable {
+		abstract void reject(RejectedExecutionException e);
+	}
+
+	static class RemoteCallFuture<ResultType> extends SingleOperationFuture<ResultType> {
+		RemoteCallFuture(IProgressMonitor monitor) {
+			super(monitor);
+		}
+
+		// Not run through SafeRunner, which would log each rejection as an error
+		void reject(RejectedExecutionException e) {
+			setException(e);
+		}
+	}
+
+	static <ResultType> IFuture<ResultType> createRejectedFuture(RejectedExecutionException e) {
+		final RemoteCallFuture<ResultType> future = new RemoteCallFuture<ResultType>(null);
+		future.reject(e);
+		return future;
+	}
+
+	/**
+	 * Execute runnable on a pool thread.  If the executor is shut down before runnable
+	 * ran, runnable is dropped.
+	 * @param runnable the runnable to execute.  Must not be <code>null</code>.
+	 * @throws RejectedExecutionException if the executor is saturated or shut down
+	 */
+	public void execute(Runnable runnable) throws RejectedExecutionException {
+		pool.execute(runnable);
+	}
+
+	protected AbstractFuture<?> createFuture(IProgressMonitor monitor) {
+		return new RemoteCallFuture<Object>(monitor);
+	}
+
+	/**
+	 * @return int the number of calls running or waiting for a thread
+	 */
+	public int getPendingCount() {
+		return pool.getActiveCount() + pool.getQueue().size();
+	}
+
+	/**
+	 * Stop accepting calls and interrupt the running ones.  The calls that are
+	 * waiting for a thread are not run, their futures are done with a
+	 * {@link RejectedExecutionException} as exception.
+	 */
+	public void shutdown() {
+		final List<Runnable> dropped = pool.shutdownNow();
+		for (Runnable runnable : dropped) {
+			if (runnable instanceof Task)
+				((Task) runnable).reject(new RejectedExecutionException("Executor has been shut down")); //$NON-NLS-1$
+		}
+	}
+}
@@ -48,6 +48,45 @@ public class ObjectSerializationUtil {
 		return result;
 	}
 
+	/**
+	 * Deserialize an object directly from input, without reading it into a byte array first.
+	 * @param input the stream to read from.  Must not be <code>null</code>.  Is not closed.
+	 * @return Object the deserialized object, or <code>null</code> if input is empty
+	 * @throws IOException if the object cannot be deserialized
+	 * @since 8.17
+	 */
+	public Object deserializeFromStream(InputStream input) throws IOException {
+		PushbackInputStream pins = new PushbackInputStream(input, 1);
+		int b = pins.read();
+		if (b == -1)
+			return null;
+		pins.unread(b);
+		ObjectInputStream oins = Activator.getDefault().createObjectInputStream(pins);
+		try {
+			return oins.readObject();
+		} catch (ClassNotFoundException e) {
+			IOException t = new IOException("Class not found when deserializing object"); //$NON-NLS-1$
+			t.setStackTrace(e.getStackTrace());
+			throw t;
+		}
+	}
+
+	/**
+	 * Serialize an object directly to output, without serializing it into a byte array first.
+	 * Nothing is written if object is <code>null</code>.
+	 * @param object the object to serialize.  May be <code>null</code>.
+	 * @param output the stream to write to.  Must not be <code>null</code>.  Is flushed but not closed.
+	 * @throws IOException if the object cannot be serialized
+	 * @since 8.17
+	 */
+	public void serializeToStream(Object object, OutputStream output) throws IOException {
+		if (object == null)
+			return;
+		ObjectOutputStream oos = new ObjectOutputStream(output);
+		oos.writeObject(object);
+		oos.flush();
+	}
+
 	public byte[] serializeToBytes(Object object) throws IOException {
 		if (object == null)
 			return new byte[0];
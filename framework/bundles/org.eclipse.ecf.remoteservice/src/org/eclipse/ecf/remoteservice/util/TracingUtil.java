@@ -0,0 +1,43 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteCallHeaders;
+
+/**
+ * Helpers for providers to propagate headers and trace context with remote calls.
+ * 
+ * @since 8.15
+ */
+public class TracingUtil {
+
+	/**
+	 * Get the headers to send with a remote call: the headers carried by call,
+	 * if it implements {@link IRemoteCallHeaders}, plus the context of span.
+	 * @param call the remote call.  Must not be <code>null</code>.
+	 * @param span the span of the call.  Must not be <code>null</code>.
+	 * @return Map the headers to send, or <code>null</code> if there are none
+	 */
+	public static Map<String, String> getHeaders(IRemoteCall call, ISpan span) {
+		final Map<String, String> callHeaders = (call instanceof IRemoteCallHeaders) ? ((IRemoteCallHeaders) call).getHeaders() : null;
+		if (!span.isRecording())
+			return (callHeaders == null || callHeaders.isEmpty()) ? null : new HashMap<String, String>(callHeaders);
+		final Map<String, String> result = (callHeaders == null) ? new HashMap<String, String>(4) : new HashMap<String, String>(callHeaders);
+		span.inject(result);
+		return result.isEmpty() ? null : result;
+	}
+}
@@ -0,0 +1,51 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Participants filter that also determines how many participants must vote
+ * for a transaction before it is committed. When the participants filter of
+ * an {@link ISharedObjectTransactionConfig} implements this interface,
+ * {@link TransactionSharedObject} uses a {@link ScalableTwoPhaseCommitEventProcessor}
+ * to track the votes.
+ * 
+ * @see QuorumCommitPolicy
+ * @since 2.7
+ */
+public interface ISharedObjectTransactionCommitPolicy extends ISharedObjectTransactionParticipantsFilter {
+	/**
+	 * Return the number of participants that must successfully create their
+	 * replica before the transaction is committed. The commit message is sent
+	 * to the whole group, so participants that respond after the commit have
+	 * already received it and are not sent anything further.
+	 * 
+	 * @param participants
+	 *            the transaction participants, not including the primary
+	 *            container. Will not be <code>null</code>.
+	 * @return the number of required votes. Values less than zero are treated
+	 *         as zero, and values greater than participants.length as
+	 *         participants.length.
+	 */
+	int getRequiredVotes(ID[] participants);
+
+	/**
+	 * @return <code>true</code> if
+	 *         {@link ISharedObjectContainerTransaction#waitToCommit()} should
+	 *         return without waiting for the votes. The outcome of the
+	 *         transaction is then reported to
+	 *         {@link ISharedObjectTransactionListener}s.
+	 */
+	boolean isAsynchronous();
+}
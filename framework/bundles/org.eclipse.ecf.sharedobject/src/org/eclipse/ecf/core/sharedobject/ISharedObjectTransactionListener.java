@@ -0,0 +1,41 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject;
+
+/**
+ * Listener for the outcome of a shared object creation transaction.
+ * Listeners are notified on the thread that completes the transaction, and
+ * should not block.
+ * 
+ * @see TransactionSharedObject#addTransactionListener(ISharedObjectTransactionListener)
+ * @since 2.7
+ */
+public interface ISharedObjectTransactionListener {
+	/**
+	 * The transaction has been committed.
+	 * 
+	 * @param transaction
+	 *            the committed transaction. Will not be <code>null</code>.
+	 */
+	void transactionCommitted(ISharedObjectContainerTransaction transaction);
+
+	/**
+	 * The transaction has been aborted, and the shared object destroyed.
+	 * 
+	 * @param transaction
+	 *            the aborted transaction. Will not be <code>null</code>.
+	 * @param exception
+	 *            the reason for the abort. Will not be <code>null</code>.
+	 */
+	void transactionAborted(ISharedObjectContainerTransaction transaction, SharedObjectAddAbortException exception);
+}
@@ -0,0 +1,82 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Commit policy that commits a transaction once a quorum of the participants
+ * has voted. With a quorum of 0.5, for example, the creation latency of a
+ * transactional shared object follows the median group member rather than
+ * the slowest one.
+ * 
+ * @since 2.7
+ */
+public class QuorumCommitPolicy implements ISharedObjectTransactionCommitPolicy {
+
+	public static final float ALL = 1.0f;
+
+	public static final float MAJORITY = 0.5f;
+
+	protected float quorum = ALL;
+
+	protected ISharedObjectTransactionParticipantsFilter participantsFilter = null;
+
+	protected boolean asynchronous = false;
+
+	public QuorumCommitPolicy(float quorum) {
+		this(quorum, null, false);
+	}
+
+	/**
+	 * @param quorum
+	 *            the fraction of participants, between 0.0 and 1.0, that must
+	 *            vote before the transaction commits.
+	 * @param filter
+	 *            filter selecting the participants. May be <code>null</code>,
+	 *            in which case all group members participate.
+	 * @param asynchronous
+	 *            <code>true</code> if waitToCommit should not wait for the
+	 *            votes
+	 */
+	public QuorumCommitPolicy(float quorum, ISharedObjectTransactionParticipantsFilter filter, boolean asynchronous) {
+		if (quorum < 0.0f || quorum > 1.0f)
+			throw new IllegalArgumentException("quorum must be between 0.0 and 1.0"); //$NON-NLS-1$
+		this.quorum = quorum;
+		this.participantsFilter = filter;
+		this.asynchronous = asynchronous;
+	}
+
+	public ID[] filterParticipants(ID[] currentGroup) {
+		return (participantsFilter == null) ? null : participantsFilter.filterParticipants(currentGroup);
+	}
+
+	public int getRequiredVotes(ID[] participants) {
+		return (int) Math.ceil(quorum * participants.length);
+	}
+
+	public boolean isAsynchronous() {
+		return asynchronous;
+	}
+
+	public float getQuorum() {
+		return quorum;
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer("QuorumCommitPolicy["); //$NON-NLS-1$
+		buf.append("quorum=").append(quorum); //$NON-NLS-1$
+		buf.append(";asynchronous=").append(asynchronous).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
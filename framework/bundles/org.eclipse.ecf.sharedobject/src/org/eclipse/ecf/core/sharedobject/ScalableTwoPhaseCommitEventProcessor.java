@@ -0,0 +1,314 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.ecf.core.events.IContainerConnectedEvent;
+import org.eclipse.ecf.core.events.IContainerDisconnectedEvent;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.sharedobject.events.ISharedObjectActivatedEvent;
+import org.eclipse.ecf.core.sharedobject.events.ISharedObjectCreateResponseEvent;
+
+/**
+ * Two-phase commit for large groups. Votes are tracked in a concurrent set of
+ * pending participants and atomic counters, so a response or a late joiner
+ * costs constant time rather than a scan of all participants. The
+ * transaction commits as soon as the number of votes required by the
+ * {@link ISharedObjectTransactionCommitPolicy} is reached, and aborts as soon
+ * as enough participants have failed that the required votes can no longer
+ * be reached. Participants that respond after the commit already received it
+ * with the commit message sent to the group.
+ * <p>
+ * If the policy is asynchronous, {@link #waitToCommit()} returns immediately,
+ * and the transaction is committed or aborted on the shared object's event
+ * thread (or on a timer thread if it times out).
+ * {@link ISharedObjectTransactionListener}s are notified of the outcome.
+ * </p>
+ * 
+ * @see TransactionSharedObject#createTransactionEventProcessor(ISharedObjectTransactionConfig)
+ * @since 2.7
+ */
+public class ScalableTwoPhaseCommitEventProcessor extends TwoPhaseCommitEventProcessor {
+
+	private static Timer timeoutTimer;
+
+	protected ISharedObjectTransactionCommitPolicy commitPolicy;
+
+	// Participants that have not yet responded, used as a concurrent set
+	private final ConcurrentMap pending = new ConcurrentHashMap();
+
+	private final ConcurrentMap failures = new ConcurrentHashMap();
+
+	private final AtomicInteger participantCount = new AtomicInteger();
+
+	private final AtomicInteger votes = new AtomicInteger();
+
+	private volatile int requiredVotes;
+
+	private volatile byte state = ISharedObjectContainerTransaction.ACTIVE;
+
+	private final AtomicBoolean votingCompleted = new AtomicBoolean();
+
+	private final CountDownLatch votingDone = new CountDownLatch(1);
+
+	private volatile SharedObjectAddAbortException abortException;
+
+	// Guarded by lock
+	private boolean commitSent = false;
+
+	private TimerTask timeoutTask;
+
+	public ScalableTwoPhaseCommitEventProcessor(BaseSharedObject bse, ISharedObjectTransactionConfig config) {
+		super(bse, config);
+		if (participantsFilter instanceof ISharedObjectTransactionCommitPolicy)
+			commitPolicy = (ISharedObjectTransactionCommitPolicy) participantsFilter;
+		else
+			commitPolicy = new QuorumCommitPolicy(QuorumCommitPolicy.ALL, participantsFilter, false);
+	}
+
+	private static synchronized Timer getTimeoutTimer() {
+		if (timeoutTimer == null)
+			timeoutTimer = new Timer("TwoPhaseCommitTimeout", true); //$NON-NLS-1$
+		return timeoutTimer;
+	}
+
+	protected boolean isAsynchronous() {
+		return commitPolicy.isAsynchronous();
+	}
+
+	/**
+	 * @return the number of votes required to commit
+	 */
+	public int getRequiredVotes() {
+		return requiredVotes;
+	}
+
+	/**
+	 * @return the number of participants that have successfully voted
+	 */
+	public int getVotes() {
+		return votes.get();
+	}
+
+	public byte getTransactionState() {
+		return state;
+	}
+
+	protected void setTransactionState(byte state) {
+		this.state = state;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void addParticipants(ID[] ids) {
+		if (ids != null) {
+			for (int i = 0; i < ids.length; i++) {
+				trace("addParticipant(" + ids[i] + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+				if (!getHomeID().equals(ids[i]) && pending.putIfAbsent(ids[i], Boolean.TRUE) == null)
+					participantCount.incrementAndGet();
+			}
+		}
+	}
+
+	protected void removeParticipant(ID id) {
+		if (id != null) {
+			trace("removeParticipant(" + id + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			pending.remove(id);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void addFailed(ID remote, Throwable failure) {
+		if (remote != null && failure != null) {
+			trace("addFailed(" + remote + "," + failure + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			failures.put(remote, failure);
+		}
+	}
+
+	protected void handleActivated(ISharedObjectActivatedEvent event) {
+		trace("handleActivated(" + event + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (isPrimary())
+			handlePrimaryActivated(event);
+		else
+			handleReplicaActivated(event);
+	}
+
+	protected void handlePrimaryActivated(ISharedObjectActivatedEvent event) {
+		super.handlePrimaryActivated(event);
+		if (getTransactionState() == ISharedObjectContainerTransaction.VOTING) {
+			final ID[] participants = (ID[]) pending.keySet().toArray(new ID[pending.size()]);
+			requiredVotes = Math.max(0, Math.min(participants.length, commitPolicy.getRequiredVotes(participants)));
+			trace("handlePrimaryActivated:participants=" + participants.length + ",requiredVotes=" + requiredVotes); //$NON-NLS-1$ //$NON-NLS-2$
+			if (isAsynchronous())
+				scheduleTimeout();
+			checkVotes();
+		} else if (isAsynchronous()) {
+			// Not connected, so committed without voting
+			fireTransactionCommitted();
+		}
+	}
+
+	private synchronized void scheduleTimeout() {
+		timeoutTask = new TimerTask() {
+			public void run() {
+				completeVoting(createTimeoutException());
+			}
+		};
+		getTimeoutTimer().schedule(timeoutTask, getTimeout());
+	}
+
+	private synchronized void cancelTimeout() {
+		if (timeoutTask != null) {
+			timeoutTask.cancel();
+			timeoutTask = null;
+		}
+	}
+
+	SharedObjectAddAbortException createTimeoutException() {
+		return new SharedObjectAddAbortException("Timeout adding " + getSharedObject().getID() + " to " + getHomeID(), (Throwable) null, getTimeout()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	protected void handleJoined(IContainerConnectedEvent event) {
+		trace("handleJoined(" + event + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (isPrimary() && getTransactionState() == ISharedObjectContainerTransaction.VOTING) {
+			// Replicate to the new member unless the commit has already been
+			// sent, as the new member would then never receive it
+			synchronized (lock) {
+				if (!commitSent) {
+					ID[] newMember = new ID[] {event.getTargetID()};
+					replicateTo(newMember);
+					addParticipants(newMember);
+				}
+			}
+		}
+	}
+
+	protected void handleCreateResponse(ISharedObjectCreateResponseEvent event) {
+		trace("handleCreateResponse(" + event + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (!isPrimary() || getTransactionState() == ISharedObjectContainerTransaction.ABORTED)
+			return;
+		final Throwable except = event.getException();
+		final ID remoteID = event.getRemoteContainerID();
+		if (!votingCompleted.get()) {
+			if (pending.remove(remoteID) != null) {
+				if (except == null)
+					votes.incrementAndGet();
+				else
+					addFailed(remoteID, except);
+				checkVotes();
+			}
+		} else if (pending.remove(remoteID) != null) {
+			// Participant was sent the commit with the rest of the group
+			if (except != null)
+				handlePostCommitFailure(remoteID, except, event.getSequence());
+		} else
+			handleVotingCompletedCreateResponse(remoteID, except, event.getSequence());
+	}
+
+	protected void handleDeparted(IContainerDisconnectedEvent event) {
+		trace("handleDeparted(" + event + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (isPrimary() && !votingCompleted.get()) {
+			final ID remoteID = event.getTargetID();
+			// Only participants that have not yet voted count as failed
+			if (pending.remove(remoteID) != null) {
+				addFailed(remoteID, new Exception("Container " + remoteID + " left")); //$NON-NLS-1$ //$NON-NLS-2$
+				checkVotes();
+			}
+		}
+	}
+
+	protected void checkVotes() {
+		final int required = requiredVotes;
+		if (votes.get() >= required) {
+			trace("checkVotes:commit:votes=" + votes.get() + ",required=" + required); //$NON-NLS-1$ //$NON-NLS-2$
+			completeVoting(null);
+		} else if (failures.size() > participantCount.get() - required) {
+			trace("checkVotes:aborting:failed=" + failures); //$NON-NLS-1$
+			completeVoting(new SharedObjectAddAbortException("SharedObject add aborted", new ArrayList(pending.keySet()), new HashMap(failures), getTimeout())); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Complete voting with the given outcome. Only the first call has an
+	 * effect.
+	 * 
+	 * @param except
+	 *            <code>null</code> to commit, or the reason to abort.
+	 * @return <code>true</code> if this call completed voting,
+	 *         <code>false</code> if voting was already completed.
+	 */
+	protected boolean completeVoting(SharedObjectAddAbortException except) {
+		if (!votingCompleted.compareAndSet(false, true))
+			return false;
+		cancelTimeout();
+		abortException = except;
+		if (isAsynchronous()) {
+			try {
+				if (except == null)
+					doTMCommit();
+				else
+					doTMAbort(except);
+			} catch (SharedObjectAddAbortException e) {
+				// Already reported to transaction listeners
+				trace("completeVoting:aborted:" + e); //$NON-NLS-1$
+			}
+		}
+		votingDone.countDown();
+		return true;
+	}
+
+	public void waitToCommit() throws SharedObjectAddAbortException {
+		if (getTransactionState() == ISharedObjectContainerTransaction.COMMITTED)
+			return;
+		if (isAsynchronous()) {
+			// Outcome is reported to transaction listeners, unless already aborted
+			final SharedObjectAddAbortException except = abortException;
+			if (except != null)
+				throw except;
+			return;
+		}
+		boolean interrupted = false;
+		try {
+			if (!votingDone.await(getTimeout(), TimeUnit.MILLISECONDS))
+				completeVoting(createTimeoutException());
+		} catch (InterruptedException e) {
+			interrupted = true;
+			completeVoting(new SharedObjectAddAbortException("Interrupted adding " + getSharedObject().getID(), e, getTimeout())); //$NON-NLS-1$
+		}
+		// Whichever thread completed voting is about to release the latch
+		while (votingDone.getCount() > 0) {
+			try {
+				votingDone.await();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (abortException != null)
+			doTMAbort(abortException);
+		doTMCommit();
+	}
+
+	protected void doTMCommit() throws SharedObjectAddAbortException {
+		trace("doTMCommit"); //$NON-NLS-1$
+		synchronized (lock) {
+			if (getSharedObject().getConnectedID() != null)
+				sendCommit();
+			commitSent = true;
+		}
+		localCommitted();
+	}
+}
@@ -12,6 +12,10 @@
  *****************************************************************************/
 package org.eclipse.ecf.core.sharedobject;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Superclass for shared object classes that replicate themselves
  * transactionally.
@@ -23,6 +27,8 @@ public class TransactionSharedObject extends BaseSharedObject {
 
 	protected ISharedObjectTransactionConfig configuration = null;
 
+	private final List transactionListeners = new CopyOnWriteArrayList();
+
 	public TransactionSharedObject() {
 		super();
 		configuration = new TransactionSharedObjectConfiguration();
@@ -52,12 +58,58 @@ public class TransactionSharedObject extends BaseSharedObject {
 	protected void initialize() throws SharedObjectInitException {
 		super.initialize();
 		if (configuration != null) {
-			TwoPhaseCommitEventProcessor trans = new TwoPhaseCommitEventProcessor(this, configuration);
+			TwoPhaseCommitEventProcessor trans = createTransactionEventProcessor(configuration);
+			for (Iterator i = transactionListeners.iterator(); i.hasNext();)
+				trans.addTransactionListener((ISharedObjectTransactionListener) i.next());
 			addEventProcessor(trans);
 			transaction = trans;
 		}
 	}
 
+	/**
+	 * Create the event processor that runs the creation transaction. If the
+	 * participants filter of config is an
+	 * {@link ISharedObjectTransactionCommitPolicy}, a
+	 * {@link ScalableTwoPhaseCommitEventProcessor} is created.
+	 * 
+	 * @param config
+	 *            the transaction configuration. Will not be <code>null</code>.
+	 * @return TwoPhaseCommitEventProcessor the event processor. Must not be
+	 *         <code>null</code>.
+	 * @since 2.7
+	 */
+	protected TwoPhaseCommitEventProcessor createTransactionEventProcessor(ISharedObjectTransactionConfig config) {
+		if (config.getParticipantsFilter() instanceof ISharedObjectTransactionCommitPolicy)
+			return new ScalableTwoPhaseCommitEventProcessor(this, config);
+		return new TwoPhaseCommitEventProcessor(this, config);
+	}
+
+	/**
+	 * Add a listener for the outcome of the creation transaction. Listeners
+	 * should be added before this shared object is added to a container.
+	 * 
+	 * @param listener
+	 *            the listener to add. Must not be <code>null</code>.
+	 * @since 2.7
+	 */
+	@SuppressWarnings("unchecked")
+	public void addTransactionListener(ISharedObjectTransactionListener listener) {
+		transactionListeners.add(listener);
+		if (transaction instanceof TwoPhaseCommitEventProcessor)
+			((TwoPhaseCommitEventProcessor) transaction).addTransactionListener(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to remove. Must not be <code>null</code>.
+	 * @since 2.7
+	 */
+	public void removeTransactionListener(ISharedObjectTransactionListener listener) {
+		transactionListeners.remove(listener);
+		if (transaction instanceof TwoPhaseCommitEventProcessor)
+			((TwoPhaseCommitEventProcessor) transaction).removeTransactionListener(listener);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.ecf.core.sharedobject.BaseSharedObject#getAdapter(java.lang.Class)
 	 */
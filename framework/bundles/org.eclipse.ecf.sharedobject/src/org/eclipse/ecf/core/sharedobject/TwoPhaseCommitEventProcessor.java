@@ -13,6 +13,7 @@
 package org.eclipse.ecf.core.sharedobject;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.eclipse.ecf.core.events.IContainerConnectedEvent;
 import org.eclipse.ecf.core.events.IContainerDisconnectedEvent;
 import org.eclipse.ecf.core.identity.ID;
@@ -48,6 +49,8 @@ public class TwoPhaseCommitEventProcessor implements IEventProcessor, ISharedObj
 
 	ISharedObjectTransactionParticipantsFilter participantsFilter = null;
 
+	List transactionListeners = new CopyOnWriteArrayList();
+
 	public TwoPhaseCommitEventProcessor(BaseSharedObject bse, ISharedObjectTransactionConfig config) {
 		this.sharedObject = bse;
 		if (config == null) {
@@ -111,6 +114,54 @@ public class TwoPhaseCommitEventProcessor implements IEventProcessor, ISharedObj
 		}
 	}
 
+	/**
+	 * @param listener
+	 *            the listener to notify when this transaction commits or
+	 *            aborts. Must not be <code>null</code>.
+	 * @since 2.7
+	 */
+	@SuppressWarnings("unchecked")
+	public void addTransactionListener(ISharedObjectTransactionListener listener) {
+		transactionListeners.add(listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to remove. Must not be <code>null</code>.
+	 * @since 2.7
+	 */
+	public void removeTransactionListener(ISharedObjectTransactionListener listener) {
+		transactionListeners.remove(listener);
+	}
+
+	/**
+	 * @since 2.7
+	 */
+	protected void fireTransactionCommitted() {
+		for (Iterator i = transactionListeners.iterator(); i.hasNext();) {
+			try {
+				((ISharedObjectTransactionListener) i.next()).transactionCommitted(this);
+			} catch (Exception e) {
+				traceStack("Exception in transactionCommitted", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * @param exception
+	 *            the reason for the abort
+	 * @since 2.7
+	 */
+	protected void fireTransactionAborted(SharedObjectAddAbortException exception) {
+		for (Iterator i = transactionListeners.iterator(); i.hasNext();) {
+			try {
+				((ISharedObjectTransactionListener) i.next()).transactionAborted(this, exception);
+			} catch (Exception e) {
+				traceStack("Exception in transactionAborted", e); //$NON-NLS-1$
+			}
+		}
+	}
+
 	protected ISharedObjectContext getContext() {
 		return getSharedObject().getContext();
 	}
@@ -344,10 +395,10 @@ public class TwoPhaseCommitEventProcessor implements IEventProcessor, ISharedObj
 		// Send destroy message here so all remotes get destroyed, and we remove
 		// ourselves from local space as well.
 		getSharedObject().destroySelf();
+		final SharedObjectAddAbortException abortException = (except instanceof SharedObjectAddAbortException) ? (SharedObjectAddAbortException) except : new SharedObjectAddAbortException("Shared object add aborted", except, getTimeout()); //$NON-NLS-1$
+		fireTransactionAborted(abortException);
 		// throw so caller gets exception and can deal with it
-		if (except instanceof SharedObjectAddAbortException)
-			throw (SharedObjectAddAbortException) except;
-		throw new SharedObjectAddAbortException("Shared object add aborted", except, getTimeout()); //$NON-NLS-1$
+		throw abortException;
 	}
 
 	protected void doTMCommit() throws SharedObjectAddAbortException {
@@ -365,6 +416,7 @@ public class TwoPhaseCommitEventProcessor implements IEventProcessor, ISharedObj
 		// Set state variable to committed.
 		setTransactionState(ISharedObjectContainerTransaction.COMMITTED);
 		getSharedObject().creationCompleted();
+		fireTransactionCommitted();
 	}
 
 	protected boolean isVotingCompleted() throws SharedObjectAddAbortException {
@@ -0,0 +1,98 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.core.sharedobject.model;
+
+import java.io.Serializable;
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * A single change to a {@link SharedModel} property, as sent to the other
+ * members of the group. Each delta carries the version of the property after
+ * the change, so receivers can discard deltas older than the value they
+ * already have, and the ID of the container that made the change, which
+ * orders deltas with the same version.
+ * 
+ * @since 2.7
+ */
+public class PropertyDelta implements Serializable {
+
+	private static final long serialVersionUID = 3906522451823095631L;
+
+	public static final byte ADD = 0;
+
+	public static final byte REMOVE = 1;
+
+	public static final byte CHANGE = 2;
+
+	private final byte type;
+	private final String name;
+	private final Object value;
+	private final long version;
+	private final ID origin;
+
+	public PropertyDelta(byte type, String name, Object value, long version, ID origin) {
+		if (name == null)
+			throw new NullPointerException("name cannot be null"); //$NON-NLS-1$
+		this.type = type;
+		this.name = name;
+		this.value = value;
+		this.version = version;
+		this.origin = origin;
+	}
+
+	public PropertyDelta(byte type, String name, Object value, long version) {
+		this(type, name, value, version, null);
+	}
+
+	/**
+	 * @return one of {@link #ADD}, {@link #REMOVE} or {@link #CHANGE}
+	 */
+	public byte getType() {
+		return type;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the new value of the property. Always <code>null</code> for
+	 *         {@link #REMOVE}.
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return the ID of the container that made the change. Of two deltas
+	 *         with the same version, the one whose origin has the greater name
+	 *         wins. May be <code>null</code>, in which case the sender of the
+	 *         delta is used.
+	 */
+	public ID getOrigin() {
+		return origin;
+	}
+
+	public String toString() {
+		StringBuffer buf = new StringBuffer("PropertyDelta["); //$NON-NLS-1$
+		buf.append("type=").append(type); //$NON-NLS-1$
+		buf.append(";name=").append(name); //$NON-NLS-1$
+		buf.append(";version=").append(version); //$NON-NLS-1$
+		buf.append(";origin=").append(origin).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
@@ -15,15 +15,93 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.ecf.core.events.IContainerConnectedEvent;
 import org.eclipse.ecf.core.identity.ID;
-import org.eclipse.ecf.core.sharedobject.OptimisticSharedObject;
-import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.sharedobject.*;
+import org.eclipse.ecf.core.util.Event;
+import org.eclipse.ecf.core.util.IEventProcessor;
 
 /**
+ * Shared object holding a set of named properties.
+ * <p>
+ * If delta replication is enabled (see {@link #setDeltaReplication(boolean)}),
+ * each property add, remove and value change is sent to the group as a
+ * {@link PropertyDelta} carrying the property's version number, and a
+ * container that joins the group is sent the current properties by the
+ * primary in chunks of {@link #getStateTransferChunkSize()} properties.
+ * Receivers apply a delta only if it is newer than the version they have. If
+ * two members change a property concurrently to the same version, the change
+ * originating from the container whose ID has the greater name wins, so that
+ * all members converge to the same value. Removed properties are remembered
+ * with their version (as tombstones), so that an older add or change that
+ * arrives after the remove does not bring the property back.
+ * </p>
+ * <p>
+ * Listeners are notified after the properties lock has been released.
+ * </p>
+ * 
  * @since 2.4
  */
 public class SharedModel extends OptimisticSharedObject {
 
+	/**
+	 * @since 2.7
+	 */
+	public static final int DEFAULT_STATE_TRANSFER_CHUNK_SIZE = 128;
+
+	private volatile boolean deltaReplication = false;
+
+	/**
+	 * @return <code>true</code> if property changes are sent to the group as
+	 *         deltas
+	 * @since 2.7
+	 */
+	public boolean isDeltaReplication() {
+		return deltaReplication;
+	}
+
+	/**
+	 * Enable or disable delta replication. Should be set before this model is
+	 * added to a container, on the primary and on the replicas.
+	 * 
+	 * @param deltaReplication
+	 *            <code>true</code> to send property changes to the group as
+	 *            deltas
+	 * @since 2.7
+	 */
+	protected void setDeltaReplication(boolean deltaReplication) {
+		this.deltaReplication = deltaReplication;
+	}
+
+	/**
+	 * @return the maximum number of properties sent per message when
+	 *         transferring state to a joining container
+	 * @since 2.7
+	 */
+	protected int getStateTransferChunkSize() {
+		return DEFAULT_STATE_TRANSFER_CHUNK_SIZE;
+	}
+
+	@Override
+	protected void initialize() throws SharedObjectInitException {
+		super.initialize();
+		addEventProcessor(new IEventProcessor() {
+			public boolean processEvent(Event event) {
+				if (event instanceof IContainerConnectedEvent && isPrimary() && isDeltaReplication()) {
+					ID targetID = ((IContainerConnectedEvent) event).getTargetID();
+					if (!targetID.equals(getLocalContainerID())) {
+						try {
+							sendStateTo(targetID);
+						} catch (IOException e) {
+							log("sendStateTo", e); //$NON-NLS-1$
+						}
+					}
+				}
+				return false;
+			}
+		});
+	}
+
 	private List<ISharedModelListener> listeners = new ArrayList<ISharedModelListener>();
 
 	public boolean addListener(ISharedModelListener listener) {
@@ -70,6 +148,47 @@ public class SharedModel extends OptimisticSharedObject {
 
 	private Map<String, Property> properties = new HashMap<String, Property>();
 
+	// REMOVE deltas of removed properties, by name.  Only kept with delta replication
+	private Map<String, PropertyDelta> tombstones = new HashMap<String, PropertyDelta>();
+
+	/**
+	 * Deltas to send and events to fire once the properties lock is released
+	 */
+	class Changes {
+		private final List<PropertyDelta> deltas = new ArrayList<PropertyDelta>(1);
+		private final List<ISharedModelEvent> events = new ArrayList<ISharedModelEvent>(1);
+
+		void add(PropertyDelta delta, ISharedModelEvent event) {
+			if (delta != null)
+				deltas.add(delta);
+			if (event != null)
+				events.add(event);
+		}
+
+		void publish() {
+			for (PropertyDelta delta : deltas)
+				sendDelta(delta);
+			for (ISharedModelEvent event : events)
+				fireListeners(event);
+		}
+	}
+
+	/**
+	 * Compare two property versions. Versions with the same number are
+	 * ordered by the name of the originating container ID.
+	 */
+	static int compareVersions(long version1, ID origin1, long version2, ID origin2) {
+		if (version1 != version2)
+			return (version1 < version2) ? -1 : 1;
+		String n1 = (origin1 == null) ? "" : origin1.getName(); //$NON-NLS-1$
+		String n2 = (origin2 == null) ? "" : origin2.getName(); //$NON-NLS-1$
+		return n1.compareTo(n2);
+	}
+
+	ID getOriginID() {
+		return (getConfig() == null) ? null : getLocalContainerID();
+	}
+
 	protected Collection<Property> copyProperties() {
 		List<Property> results = new ArrayList<Property>();
 		synchronized (properties) {
@@ -84,25 +203,46 @@ public class SharedModel extends OptimisticSharedObject {
 	}
 
 	protected Property addProperty(String name, Object value) {
+		Changes changes = new Changes();
+		Property p;
 		synchronized (properties) {
-			Property p = getProperty(name);
-			if (p != null)
+			if (getProperty(name) != null)
 				return null;
 			p = new Property(this, name, value);
-			addProperty(p);
-			return p;
+			addProperty(p, true, changes);
 		}
+		changes.publish();
+		return p;
 	}
 
 	protected Property addProperty(final Property property) {
 		if (property == null)
 			throw new NullPointerException("property cannot be null"); //$NON-NLS-1$
-		Property oldProperty = null;
+		Changes changes = new Changes();
+		Property oldProperty;
 		synchronized (properties) {
-			oldProperty = properties.put(property.getName(), property);
+			oldProperty = addProperty(property, true, changes);
+		}
+		changes.publish();
+		return oldProperty;
+	}
+
+	// Must be called holding the properties lock
+	private Property addProperty(final Property property, boolean replicate, Changes changes) {
+		final Property oldProperty = properties.put(property.getName(), property);
+		final PropertyDelta tombstone = tombstones.remove(property.getName());
+		PropertyDelta delta = null;
+		if (replicate) {
+			long version = Math.max(property.version, 1);
+			if (oldProperty != null)
+				version = Math.max(version, oldProperty.version + 1);
+			if (tombstone != null)
+				version = Math.max(version, tombstone.getVersion() + 1);
+			property.version = version;
+			property.origin = getOriginID();
+			delta = new PropertyDelta(PropertyDelta.ADD, property.getName(), property.getValue(), property.version, property.origin);
 		}
-		final Property op = oldProperty;
-		fireListeners(new ISharedModelPropertyAddEvent() {
+		changes.add(delta, new ISharedModelPropertyAddEvent() {
 			public SharedModel getSource() {
 				return SharedModel.this;
 			}
@@ -112,30 +252,40 @@ public class SharedModel extends OptimisticSharedObject {
 			}
 
 			public Property getPreAddedProperty() {
-				return op;
+				return oldProperty;
 			}
 		});
-		return op;
+		return oldProperty;
 	}
 
 	protected Property removeProperty(String propertyName) {
 		if (propertyName == null)
 			throw new NullPointerException("propertyName cannot be null"); //$NON-NLS-1$
-		Property oldProperty = null;
+		Changes changes = new Changes();
+		Property oldProperty;
 		synchronized (properties) {
 			oldProperty = properties.remove(propertyName);
+			if (oldProperty != null) {
+				PropertyDelta delta = new PropertyDelta(PropertyDelta.REMOVE, propertyName, null, oldProperty.version + 1, getOriginID());
+				if (isDeltaReplication())
+					tombstones.put(propertyName, delta);
+				changes.add(delta, createRemoveEvent(oldProperty));
+			}
 		}
-		final Property op = oldProperty;
-		fireListeners(new ISharedModelPropertyRemoveEvent() {
+		changes.publish();
+		return oldProperty;
+	}
+
+	private ISharedModelEvent createRemoveEvent(final Property oldProperty) {
+		return new ISharedModelPropertyRemoveEvent() {
 			public SharedModel getSource() {
 				return SharedModel.this;
 			}
 
 			public Property getRemovedProperty() {
-				return op;
+				return oldProperty;
 			}
-		});
-		return op;
+		};
 	}
 
 	protected Property getProperty(String propertyName) {
@@ -149,30 +299,47 @@ public class SharedModel extends OptimisticSharedObject {
 	protected Property getOrAddProperty(String propertyName) {
 		if (propertyName == null)
 			throw new NullPointerException("propertyName cannot be null"); //$NON-NLS-1$
+		Changes changes = new Changes();
+		Property p;
 		synchronized (properties) {
-			Property p = getProperty(propertyName);
+			p = getProperty(propertyName);
 			if (p != null)
 				return p;
-			return addProperty(propertyName);
+			p = new Property(this, propertyName, null);
+			addProperty(p, true, changes);
 		}
+		changes.publish();
+		return p;
 	}
 
 	protected Property setOrAddProperty(String propertyName, Object value) {
 		if (propertyName == null)
 			throw new NullPointerException("propertyName cannot be null"); //$NON-NLS-1$
+		Changes changes = new Changes();
+		Property p;
 		synchronized (properties) {
-			Property p = getProperty(propertyName);
-			if (p != null) {
-				p.setValue(value);
-				return p;
-			}
-			return addProperty(propertyName, value);
+			p = setOrAddProperty(propertyName, value, changes);
 		}
+		changes.publish();
+		return p;
+	}
+
+	// Must be called holding the properties lock
+	private Property setOrAddProperty(String propertyName, Object value, Changes changes) {
+		Property p = getProperty(propertyName);
+		if (p != null) {
+			p.setValue(value, changes);
+		} else {
+			p = new Property(this, propertyName, value);
+			addProperty(p, true, changes);
+		}
+		return p;
 	}
 
 	protected void removeAllProperties() {
 		synchronized (properties) {
 			properties.clear();
+			tombstones.clear();
 		}
 	}
 
@@ -193,19 +360,13 @@ public class SharedModel extends OptimisticSharedObject {
 	protected void setPropertiesFromMap(Map<String, ?> map) {
 		if (map == null)
 			return;
+		Changes changes = new Changes();
 		synchronized (properties) {
-			for (String key : map.keySet()) {
-				Property p = getProperty(key);
-				// If the property already exists, change/set it's value
-				Object val = map.get(key);
-				if (p != null) {
-					p.setValue(val);
-				} else {
-					// add property
-					addProperty(key, val);
-				}
-			}
+			// If a property already exists, change/set it's value, otherwise add it
+			for (String key : map.keySet())
+				setOrAddProperty(key, map.get(key), changes);
 		}
+		changes.publish();
 	}
 
 	protected final String SEND_PROPERTY_TO_MSG = ".sendPropertyTo."; //$NON-NLS-1$
@@ -217,6 +378,9 @@ public class SharedModel extends OptimisticSharedObject {
 		private SharedModel model;
 		private String name;
 		private Object value;
+		long version;
+		// container that made the change with this version
+		ID origin;
 
 		public Property(SharedModel model, String name, Object value) {
 			Assert.isNotNull(model);
@@ -242,10 +406,50 @@ public class SharedModel extends OptimisticSharedObject {
 			return value;
 		}
 
+		/**
+		 * @return the version of this property, incremented each time it is
+		 *         changed. Only maintained if delta replication is enabled.
+		 * @since 2.7
+		 */
+		public long getVersion() {
+			return version;
+		}
+
 		public Object setValue(Object newValue) {
+			Changes changes = getModel().new Changes();
+			Object previousValue;
+			synchronized (getModel().properties) {
+				previousValue = setValue(newValue, changes);
+			}
+			changes.publish();
+			return previousValue;
+		}
+
+		// Must be called holding the properties lock
+		Object setValue(Object newValue, Changes changes) {
 			final Object previousValue = this.value;
 			this.value = newValue;
-			getModel().fireListeners(new ISharedModelPropertyValueChangeEvent() {
+			PropertyDelta delta = null;
+			if (getModel().isDeltaReplication()) {
+				version++;
+				origin = getModel().getOriginID();
+				delta = new PropertyDelta(PropertyDelta.CHANGE, name, newValue, version, origin);
+			}
+			changes.add(delta, createValueChangeEvent(previousValue));
+			return previousValue;
+		}
+
+		// Must be called holding the properties lock
+		void setValue(Object newValue, long newVersion, ID newOrigin, Changes changes) {
+			final Object previousValue = this.value;
+			this.value = newValue;
+			this.version = newVersion;
+			this.origin = newOrigin;
+			changes.add(null, createValueChangeEvent(previousValue));
+		}
+
+		private ISharedModelEvent createValueChangeEvent(final Object previousValue) {
+			return new ISharedModelPropertyValueChangeEvent() {
 
 				public SharedModel getSource() {
 					return getModel();
@@ -262,8 +466,7 @@ public class SharedModel extends OptimisticSharedObject {
 				public Object getValue() {
 					return SharedModel.Property.this.getValue();
 				}
-			});
-			return previousValue;
+			};
 		}
 
 		public String toString() {
@@ -271,6 +474,7 @@ public class SharedModel extends OptimisticSharedObject {
 			buf.append("modelid=" + getModel().getID()); //$NON-NLS-1$
 			buf.append(";name=" + getName()); //$NON-NLS-1$
 			buf.append(";value=" + getValue()); //$NON-NLS-1$
+			buf.append(";version=" + getVersion()); //$NON-NLS-1$
 			return buf.toString();
 		}
 	}
@@ -285,9 +489,136 @@ public class SharedModel extends OptimisticSharedObject {
 		sendPropertyTo(target, property.getName(), property);
 	}
 
+	/**
+	 * @since 2.7
+	 */
+	protected static final String PROPERTY_DELTA_MSG = ".propertyDelta"; //$NON-NLS-1$
+
+	/**
+	 * @since 2.7
+	 */
+	protected static final String STATE_CHUNK_MSG = ".stateChunk"; //$NON-NLS-1$
+
+	void sendDelta(PropertyDelta delta) {
+		if (delta == null || !isDeltaReplication() || getConfig() == null || !isConnected())
+			return;
+		try {
+			sendSharedObjectMsgTo(null, SharedObjectMsg.createMsg(SharedModel.class.getName(), PROPERTY_DELTA_MSG, delta));
+		} catch (IOException e) {
+			log("sendDelta", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Send the current properties to the given container, in chunks of at
+	 * most {@link #getStateTransferChunkSize()} properties. Each chunk is
+	 * copied while holding the properties lock, so that the whole model is
+	 * never copied or sent at once. Tombstones of removed properties are sent
+	 * as well. Changes made during the transfer are sent as deltas and applied
+	 * by version.
+	 * 
+	 * @param targetID
+	 *            the container to send the properties to. Must not be
+	 *            <code>null</code>.
+	 * @throws IOException
+	 *             if a chunk cannot be sent
+	 * @since 2.7
+	 */
+	protected void sendStateTo(ID targetID) throws IOException {
+		String[] names;
+		synchronized (properties) {
+			Set<String> all = new LinkedHashSet<String>(properties.keySet());
+			all.addAll(tombstones.keySet());
+			names = all.toArray(new String[all.size()]);
+		}
+		final int chunkSize = Math.max(1, getStateTransferChunkSize());
+		int i = 0;
+		do {
+			final int end = Math.min(names.length, i + chunkSize);
+			List<PropertyDelta> chunk = new ArrayList<PropertyDelta>(end - i);
+			synchronized (properties) {
+				for (; i < end; i++) {
+					Property p = properties.get(names[i]);
+					if (p != null) {
+						chunk.add(new PropertyDelta(PropertyDelta.ADD, p.getName(), p.getValue(), p.getVersion(), p.origin));
+					} else {
+						PropertyDelta tombstone = tombstones.get(names[i]);
+						if (tombstone != null)
+							chunk.add(tombstone);
+					}
+				}
+			}
+			sendSharedObjectMsgTo(targetID, SharedObjectMsg.createMsg(SharedModel.class.getName(), STATE_CHUNK_MSG, chunk.toArray(new PropertyDelta[chunk.size()]), Boolean.valueOf(i >= names.length)));
+		} while (i < names.length);
+	}
+
+	/**
+	 * Apply a delta received from another member of the group. The delta is
+	 * ignored unless it is newer than the local property or tombstone (see
+	 * {@link PropertyDelta#getOrigin()} for how equal versions are ordered).
+	 * Listeners are notified after the properties lock has been released.
+	 * 
+	 * @param fromID
+	 *            the container that sent the delta. Used as the origin of
+	 *            deltas that do not carry one.
+	 * @param delta
+	 *            the delta to apply. Must not be <code>null</code>.
+	 * @since 2.7
+	 */
+	protected void handlePropertyDelta(ID fromID, PropertyDelta delta) {
+		final String name = delta.getName();
+		final ID origin = (delta.getOrigin() == null) ? fromID : delta.getOrigin();
+		Changes changes = new Changes();
+		synchronized (properties) {
+			Property p = properties.get(name);
+			PropertyDelta tombstone = (p == null) ? tombstones.get(name) : null;
+			if (p != null && compareVersions(delta.getVersion(), origin, p.version, p.origin) <= 0)
+				return;
+			if (tombstone != null && compareVersions(delta.getVersion(), origin, tombstone.getVersion(), tombstone.getOrigin()) <= 0)
+				return;
+			if (delta.getType() == PropertyDelta.REMOVE) {
+				if (p != null) {
+					properties.remove(name);
+					changes.add(null, createRemoveEvent(p));
+				}
+				tombstones.put(name, new PropertyDelta(PropertyDelta.REMOVE, name, null, delta.getVersion(), origin));
+			} else if (p == null) {
+				p = new Property(this, name, delta.getValue());
+				p.version = delta.getVersion();
+				p.origin = origin;
+				addProperty(p, false, changes);
+			} else
+				p.setValue(delta.getValue(), delta.getVersion(), origin, changes);
+		}
+		changes.publish();
+	}
+
+	/**
+	 * Called when the last chunk of the state transfer from the primary has
+	 * been applied. Subclasses may override.
+	 * 
+	 * @param fromID
+	 *            the container that sent the state
+	 * @since 2.7
+	 */
+	protected void stateTransferCompleted(ID fromID) {
+		// Do nothing by default
+	}
+
 	protected boolean handleSharedObjectMsg(ID fromID, SharedObjectMsg msg) {
 		if (SharedModel.class.getName().equals(msg.getClassName())) {
 			String methodName = msg.getMethod();
+			if (PROPERTY_DELTA_MSG.equals(methodName)) {
+				handlePropertyDelta(fromID, (PropertyDelta) msg.getParameters()[0]);
+				return true;
+			} else if (STATE_CHUNK_MSG.equals(methodName)) {
+				PropertyDelta[] chunk = (PropertyDelta[]) msg.getParameters()[0];
+				for (int i = 0; i < chunk.length; i++)
+					handlePropertyDelta(fromID, chunk[i]);
+				if (((Boolean) msg.getParameters()[1]).booleanValue())
+					stateTransferCompleted(fromID);
+				return true;
+			}
 			if (methodName != null && methodName.startsWith(SEND_PROPERTY_TO_MSG))
 				return handlePropertyTo(fromID, methodName.substring(0, SEND_PROPERTY_TO_MSG.length() - 1), (Property) msg.getParameters()[0]);
 		}
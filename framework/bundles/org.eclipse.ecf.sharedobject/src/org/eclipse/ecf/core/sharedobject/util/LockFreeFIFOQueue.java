@@ -0,0 +1,368 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.sharedobject.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer/single-consumer FIFO queue. Producers enqueue without locking:
+ * an enqueue is an atomic exchange of the tail plus atomic updates of the size
+ * and enqueue count. A consumer waiting for an item is parked rather than
+ * waiting on a monitor shared with producers.
+ * <p>
+ * The queue may be bounded. When a bounded queue is full, {@link #enqueue(Object)}
+ * blocks until space is available or the queue is stopped, so that fast
+ * producers are slowed to the rate of the consumer (backpressure). Blocked
+ * producers wait on a monitor that is notified as items are removed; the
+ * monitor is only used once the queue is full.
+ * {@link #offer(Object, long)} may be used to give up after a timeout.
+ * </p>
+ * <p>
+ * Queue depth and (optionally) queue latency, i.e. the time between enqueue and
+ * removal of an item, are recorded and available via the getters of this class.
+ * </p>
+ * <p>
+ * The consumer side methods ({@link #peekQueue()}, {@link #removeHead()},
+ * {@link #dequeue()}, {@link #flush()}) are intended to be called by a single
+ * thread. They are nevertheless safe to call from multiple threads, at the
+ * cost of an (uncontended in the single consumer case) consumer lock.
+ * </p>
+ * @since 2.7
+ */
+public class LockFreeFIFOQueue extends SimpleFIFOQueue {
+
+	/**
+	 * Capacity value for an unbounded queue.
+	 */
+	public static final int UNBOUNDED = 0;
+
+	static final class Node {
+		Object value;
+		long enqueueTime;
+		volatile Node next;
+
+		Node(Object value) {
+			this.value = value;
+		}
+	}
+
+	private final int capacity;
+	private final boolean recordLatency;
+
+	// producers swap themselves in at the tail
+	private final AtomicReference tail;
+	// head is a stub node whose next is the first item, accessed by consumer only
+	private Node head;
+	private final Object consumerLock = new Object();
+	private volatile Thread waitingConsumer;
+	private volatile boolean stopped;
+	// producers blocked on a full queue wait on fullLock
+	private final Object fullLock = new Object();
+	private volatile int waitingProducers;
+
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicLong enqueueCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+	private volatile int maxSize;
+	private volatile long dequeueCount;
+	private volatile long totalLatencyNanos;
+	private volatile long maxLatencyNanos;
+
+	/**
+	 * @param capacity the maximum number of items in the queue, or {@link #UNBOUNDED}.
+	 * @param recordLatency <code>true</code> if the latency of each item should be recorded.
+	 */
+	public LockFreeFIFOQueue(int capacity, boolean recordLatency) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("capacity must be >= 0"); //$NON-NLS-1$
+		this.capacity = capacity;
+		this.recordLatency = recordLatency;
+		this.head = new Node(null);
+		this.tail = new AtomicReference(head);
+	}
+
+	public LockFreeFIFOQueue(int capacity) {
+		this(capacity, false);
+	}
+
+	public LockFreeFIFOQueue() {
+		this(UNBOUNDED, false);
+	}
+
+	public boolean enqueue(final Object obj) {
+		return offer(obj, -1);
+	}
+
+	/**
+	 * Enqueue given object, waiting at most timeoutMS for space if this queue is bounded and full.
+	 * @param obj the Object to enqueue.  If <code>null</code>, nothing is enqueued.
+	 * @param timeoutMS the maximum time to wait for space.  If negative, wait until space is available
+	 * or the queue is stopped.
+	 * @return true if enqueued, false if the queue is stopped or no space became available in time
+	 */
+	public boolean offer(final Object obj, long timeoutMS) {
+		if (stopped || obj == null)
+			return false;
+		if (!reserve(timeoutMS)) {
+			rejectedCount.incrementAndGet();
+			return false;
+		}
+		final Node node = new Node(obj);
+		if (recordLatency)
+			node.enqueueTime = System.nanoTime();
+		final Node prev = (Node) tail.getAndSet(node);
+		prev.next = node;
+		enqueueCount.incrementAndGet();
+		final Thread consumer = waitingConsumer;
+		if (consumer != null)
+			LockSupport.unpark(consumer);
+		return true;
+	}
+
+	private boolean reserve(long timeoutMS) {
+		if (capacity == UNBOUNDED) {
+			updateMaxSize(size.incrementAndGet());
+			return true;
+		}
+		final long deadline = (timeoutMS < 0) ? 0 : System.nanoTime() + timeoutMS * 1000000;
+		for (;;) {
+			final int current = size.get();
+			if (current < capacity) {
+				if (size.compareAndSet(current, current + 1)) {
+					updateMaxSize(current + 1);
+					return true;
+				}
+				continue;
+			}
+			if (stopped || Thread.currentThread().isInterrupted())
+				return false;
+			long waitMS = 0;
+			if (timeoutMS >= 0) {
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return false;
+				waitMS = Math.max(1, remaining / 1000000);
+			}
+			synchronized (fullLock) {
+				waitingProducers++;
+				try {
+					// Check again after publishing the waiting producer to not miss a notify
+					if (size.get() >= capacity && !stopped)
+						fullLock.wait(waitMS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				} finally {
+					waitingProducers--;
+				}
+			}
+		}
+	}
+
+	private void notifyProducers(boolean all) {
+		synchronized (fullLock) {
+			if (all)
+				fullLock.notifyAll();
+			else
+				fullLock.notify();
+		}
+	}
+
+	private void updateMaxSize(int newSize) {
+		// Racy, but only used for statistics
+		if (newSize > maxSize)
+			maxSize = newSize;
+	}
+
+	public Object dequeue() {
+		synchronized (consumerLock) {
+			final Object val = peekQueue();
+			if (val != null) {
+				removeHead();
+			}
+			return val;
+		}
+	}
+
+	public Object peekQueue() {
+		return peekQueue(0);
+	}
+
+	/**
+	 * Peek at the head of the queue, waiting at most waitMS for an item.
+	 * As for {@link SimpleFIFOQueue#peekQueue(long)} a waitMS of 0 waits until an item is
+	 * available or the queue is stopped.  If the waiting thread is interrupted, its interrupt
+	 * status is cleared and <code>null</code> is returned.
+	 */
+	public Object peekQueue(final long waitMS) {
+		// Not synchronized on consumerLock while parked, so that close and flush
+		// from other threads are never blocked by a waiting consumer
+		final long deadline = System.nanoTime() + (waitMS > 0 ? waitMS * 1000000 : 0);
+		for (;;) {
+			final Node first = head.next;
+			if (first != null)
+				return first.value;
+			if (stopped)
+				return null;
+			waitingConsumer = Thread.currentThread();
+			try {
+				// Check again after publishing the waiting consumer to not miss an unpark
+				if (head.next == null && !stopped) {
+					if (waitMS <= 0) {
+						LockSupport.park(this);
+					} else {
+						final long remaining = deadline - System.nanoTime();
+						if (remaining <= 0)
+							return null;
+						LockSupport.parkNanos(this, remaining);
+					}
+				}
+			} finally {
+				waitingConsumer = null;
+			}
+			if (Thread.interrupted())
+				return null;
+		}
+	}
+
+	public Object removeHead() {
+		synchronized (consumerLock) {
+			final Node first = head.next;
+			if (first == null)
+				return null;
+			final Object val = first.value;
+			// first becomes the new stub
+			first.value = null;
+			head = first;
+			size.decrementAndGet();
+			if (waitingProducers > 0)
+				notifyProducers(false);
+			if (recordLatency) {
+				final long latency = System.nanoTime() - first.enqueueTime;
+				totalLatencyNanos += latency;
+				if (latency > maxLatencyNanos)
+					maxLatencyNanos = latency;
+			}
+			dequeueCount++;
+			return val;
+		}
+	}
+
+	public boolean isEmpty() {
+		return head.next == null;
+	}
+
+	public void stop() {
+		stopped = true;
+		if (waitingProducers > 0)
+			notifyProducers(true);
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	public Object[] flush() {
+		final List out = new ArrayList();
+		synchronized (consumerLock) {
+			Object val;
+			while ((val = removeHead()) != null)
+				out.add(val);
+		}
+		close();
+		return out.toArray();
+	}
+
+	public void close() {
+		stop();
+		final Thread consumer = waitingConsumer;
+		if (consumer != null)
+			LockSupport.unpark(consumer);
+	}
+
+	/**
+	 * @return the capacity of this queue, or {@link #UNBOUNDED}
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the largest number of items that have been in this queue at once
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return the number of items enqueued since this queue was created
+	 */
+	public long getEnqueueCount() {
+		return enqueueCount.get();
+	}
+
+	/**
+	 * @return the number of items removed since this queue was created
+	 */
+	public long getDequeueCount() {
+		return dequeueCount;
+	}
+
+	/**
+	 * @return the number of items not enqueued because the queue was stopped, full or the
+	 * producer was interrupted
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * @return the average time in nanoseconds between enqueue and removal of an item, or 0 if
+	 * latency is not recorded or no item has been removed
+	 */
+	public long getAverageLatencyNanos() {
+		final long count = dequeueCount;
+		return (!recordLatency || count == 0) ? 0 : totalLatencyNanos / count;
+	}
+
+	/**
+	 * @return the largest time in nanoseconds between enqueue and removal of an item, or 0 if
+	 * latency is not recorded
+	 */
+	public long getMaxLatencyNanos() {
+		return maxLatencyNanos;
+	}
+
+	public String toString() {
+		final StringBuffer sb = new StringBuffer("LockFreeFIFOQueue["); //$NON-NLS-1$
+		sb.append("size=").append(size()); //$NON-NLS-1$
+		sb.append(";capacity=").append(capacity); //$NON-NLS-1$
+		sb.append(";maxSize=").append(maxSize); //$NON-NLS-1$
+		sb.append(";enqueued=").append(getEnqueueCount()); //$NON-NLS-1$
+		sb.append(";dequeued=").append(dequeueCount); //$NON-NLS-1$
+		if (recordLatency)
+			sb.append(";avgLatencyNanos=").append(getAverageLatencyNanos()); //$NON-NLS-1$
+		sb.append("]"); //$NON-NLS-1$
+		return sb.toString();
+	}
+}
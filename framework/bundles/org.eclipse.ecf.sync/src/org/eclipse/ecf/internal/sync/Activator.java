@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.ecf.core.util.LogHelper;
 import org.eclipse.ecf.core.util.PlatformHelper;
 import org.eclipse.ecf.internal.sync.doc.cola.ColaSynchronizationStrategyFactory;
+import org.eclipse.ecf.internal.sync.doc.compact.CompactSynchronizationStrategyFactory;
 import org.eclipse.ecf.internal.sync.doc.identity.IdentitySynchronizationStrategyFactory;
 import org.eclipse.ecf.sync.IServiceConstants;
 import org.eclipse.ecf.sync.doc.IDocumentSynchronizationStrategyFactory;
@@ -35,13 +36,21 @@ public class Activator implements BundleActivator {
 
 	public static final String PLUGIN_ID = "org.eclipse.ecf.sync";
 
+	// Service ranking of the cola synchronization strategy, the default
+	private static final int COLA_RANKING = 1;
+	// Service ranking of the compact synchronization strategy, 0 by default.  Set to a value greater than
+	// COLA_RANKING (i.e. 2 or more) to use it instead of cola, on equal ranking cola is used as it is registered first
+	private static final String COMPACT_RANKING_PROP = "org.eclipse.ecf.sync.doc.compact.ranking"; //$NON-NLS-1$
+
 	private static Activator bundle;
 	private ServiceRegistration colaServiceRegistration;
 	private ServiceRegistration identityServiceRegistration;
+	private ServiceRegistration compactServiceRegistration;
 	private BundleContext context;
 
 	IdentitySynchronizationStrategyFactory identity;
 	ColaSynchronizationStrategyFactory cola;
+	CompactSynchronizationStrategyFactory compact;
 	
 	private ServiceTracker adapterManagerTracker = null;
 	private ServiceTracker logServiceTracker = null;
@@ -90,6 +99,7 @@ public class Activator implements BundleActivator {
 		this.context = ctxt;
 		this.identity = new IdentitySynchronizationStrategyFactory();
 		this.cola = new ColaSynchronizationStrategyFactory();
+		this.compact = new CompactSynchronizationStrategyFactory();
 		// Register identity synchronizer service
 		final Dictionary identityServiceProps = new Properties();
 		identityServiceProps.put(IServiceConstants.SYNCSTRATEGY_TYPE_PROPERTY, IdentitySynchronizationStrategyFactory.SYNCHSTRATEGY_TYPE);
@@ -98,10 +108,16 @@ public class Activator implements BundleActivator {
 		// Register cola synchronizer service
 		final Dictionary colaServiceProps = new Properties();
 		//OSGi container will return the service with the highest ranking, so by default the Cola SynchStrategie is returned
-		colaServiceProps.put(Constants.SERVICE_RANKING, Integer.valueOf(1));
+		colaServiceProps.put(Constants.SERVICE_RANKING, Integer.valueOf(COLA_RANKING));
 		colaServiceProps.put(IServiceConstants.SYNCSTRATEGY_TYPE_PROPERTY, ColaSynchronizationStrategyFactory.SYNCHSTRATEGY_TYPE);
 		colaServiceProps.put(IServiceConstants.SYNCSTRATEGY_PROVIDER_PROPETY, ColaSynchronizationStrategyFactory.SYNCHSTRATEGY_PROVIDER);
 		colaServiceRegistration = this.context.registerService(IDocumentSynchronizationStrategyFactory.class.getName(), this.cola, colaServiceProps);
+		// Register compact synchronizer service
+		final Dictionary compactServiceProps = new Properties();
+		compactServiceProps.put(Constants.SERVICE_RANKING, Integer.getInteger(COMPACT_RANKING_PROP, 0));
+		compactServiceProps.put(IServiceConstants.SYNCSTRATEGY_TYPE_PROPERTY, CompactSynchronizationStrategyFactory.SYNCHSTRATEGY_TYPE);
+		compactServiceProps.put(IServiceConstants.SYNCSTRATEGY_PROVIDER_PROPETY, CompactSynchronizationStrategyFactory.SYNCHSTRATEGY_PROVIDER);
+		compactServiceRegistration = this.context.registerService(IDocumentSynchronizationStrategyFactory.class.getName(), this.compact, compactServiceProps);
 	}
 
 	/*
@@ -109,6 +125,10 @@ public class Activator implements BundleActivator {
 	 * @see org.osgi.framework.BundleActivator#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		if (compactServiceRegistration != null) {
+			compactServiceRegistration.unregister();
+			compactServiceRegistration = null;
+		}
 		if (colaServiceRegistration != null) {
 			colaServiceRegistration.unregister();
 			colaServiceRegistration = null;
@@ -125,6 +145,10 @@ public class Activator implements BundleActivator {
 			this.cola.dispose();
 			this.cola = null;
 		}
+		if (this.compact != null) {
+			this.compact.dispose();
+			this.compact = null;
+		}
 		if (logServiceTracker != null) {
 			logServiceTracker.close();
 			logServiceTracker = null;
@@ -0,0 +1,59 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.internal.sync.doc.compact;
+
+import org.eclipse.ecf.sync.doc.DocumentChangeMessage;
+
+/**
+ * Document change message sent by {@link CompactSynchronizationStrategy}. A
+ * message carries either an insertion or a deletion, together with the number
+ * of operations the sending site had generated and received when the change
+ * was made.
+ */
+public class CompactDocumentChangeMessage extends DocumentChangeMessage {
+
+	private static final long serialVersionUID = -1290863622420165338L;
+
+	private final long localOperationsCount;
+	private final long remoteOperationsCount;
+
+	public CompactDocumentChangeMessage(TextOperation operation, long localOperationsCount, long remoteOperationsCount) {
+		super(operation.getOffset(), operation.isInsertion() ? 0 : operation.getLength(), operation.getText());
+		this.localOperationsCount = localOperationsCount;
+		this.remoteOperationsCount = remoteOperationsCount;
+	}
+
+	public long getLocalOperationsCount() {
+		return localOperationsCount;
+	}
+
+	public long getRemoteOperationsCount() {
+		return remoteOperationsCount;
+	}
+
+	TextOperation toOperation() {
+		if (getLengthOfReplacedText() > 0)
+			return TextOperation.delete(getOffset(), getLengthOfReplacedText());
+		return TextOperation.insert(getOffset(), getText());
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("CompactDocumentChangeMessage["); //$NON-NLS-1$
+		buf.append("offset=").append(getOffset()); //$NON-NLS-1$
+		buf.append(";length=").append(getLengthOfReplacedText()).append(";text=").append(getText()); //$NON-NLS-1$ //$NON-NLS-2$
+		buf.append(";operationsCount[local=").append(localOperationsCount); //$NON-NLS-1$
+		buf.append(";remote=").append(remoteOperationsCount).append("]]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
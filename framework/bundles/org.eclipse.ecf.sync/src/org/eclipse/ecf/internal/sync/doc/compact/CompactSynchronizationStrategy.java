@@ -0,0 +1,258 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.internal.sync.doc.compact;
+
+import java.util.*;
+import org.eclipse.core.runtime.IAdapterManager;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.util.Trace;
+import org.eclipse.ecf.internal.sync.Activator;
+import org.eclipse.ecf.internal.sync.SyncDebugOptions;
+import org.eclipse.ecf.sync.*;
+import org.eclipse.ecf.sync.doc.DocumentChangeMessage;
+import org.eclipse.ecf.sync.doc.IDocumentChange;
+
+/**
+ * Operational transform synchronization strategy for two sites, suited for
+ * long histories of unacknowledged local operations (high latency, or one site
+ * typing much faster than the other one is editing).
+ * <p>
+ * Like the cola strategy, every local operation is kept until the remote site
+ * acknowledges it implicitly by sending an operation generated after having
+ * received it. Different to the cola strategy, adjacent local operations are
+ * composed into a single history entry, so the history grows with the number
+ * of separate edit locations rather than with the number of keystrokes.
+ * Composed entries are only expanded again when a concurrent remote operation
+ * overlaps them. An incoming operation is transformed against the whole history
+ * in a single pass, and acknowledged entries are dropped from the front of an
+ * array backed history.
+ * </p>
+ * <p>
+ * Both sites must use this strategy, messages are not compatible with those of
+ * the cola strategy.
+ * </p>
+ */
+public class CompactSynchronizationStrategy implements IModelSynchronizationStrategy {
+
+	/**
+	 * Maximum number of characters composed into a single history entry.
+	 */
+	public static final int DEFAULT_MAX_COMPOSED_LENGTH = 4096;
+
+	// Number of acknowledged entries before the history array is compacted
+	private static final int COMPACT_THRESHOLD = 32;
+
+	// <HistoryEntry>, entries before head have been acknowledged
+	private final ArrayList history;
+	private int head;
+	private final boolean isInitiator;
+	private final int maxComposedLength;
+	private long localOperationsCount;
+	private long remoteOperationsCount;
+
+	// <ID, CompactSynchronizationStrategy>
+	private static Map sessionStrategies = new HashMap();
+
+	CompactSynchronizationStrategy(boolean isInitiator, int maxComposedLength) {
+		this.isInitiator = isInitiator;
+		this.maxComposedLength = maxComposedLength;
+		this.history = new ArrayList();
+		this.head = 0;
+		this.localOperationsCount = 0;
+		this.remoteOperationsCount = 0;
+	}
+
+	public static synchronized CompactSynchronizationStrategy getInstanceFor(ID client, boolean isInitiator) {
+		CompactSynchronizationStrategy existingStrategy = (CompactSynchronizationStrategy) sessionStrategies.get(client);
+		if (existingStrategy != null && existingStrategy.isInitiator == isInitiator)
+			return existingStrategy;
+		existingStrategy = new CompactSynchronizationStrategy(isInitiator, DEFAULT_MAX_COMPOSED_LENGTH);
+		sessionStrategies.put(client, existingStrategy);
+		return existingStrategy;
+	}
+
+	public static synchronized void cleanUpFor(ID client) {
+		sessionStrategies.remove(client);
+	}
+
+	public static synchronized void dispose() {
+		sessionStrategies.clear();
+	}
+
+	/**
+	 * @return the number of history entries not yet acknowledged by the remote
+	 *         site
+	 */
+	public int getHistorySize() {
+		return history.size() - head;
+	}
+
+	/**
+	 * @return the number of local operations not yet acknowledged by the
+	 *         remote site
+	 */
+	public long getUnacknowledgedOperationsCount() {
+		if (getHistorySize() == 0)
+			return 0;
+		return localOperationsCount - ((HistoryEntry) history.get(head)).getFirstCount();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.ecf.sync.IModelSynchronizationStrategy#registerLocalChange(org.eclipse.ecf.sync.IModelChange)
+	 */
+	public IModelChangeMessage[] registerLocalChange(IModelChange localChange) {
+		if (!(localChange instanceof IDocumentChange))
+			return new IModelChangeMessage[0];
+		Trace.entering(Activator.PLUGIN_ID, SyncDebugOptions.METHODS_ENTERING, this.getClass(), "registerLocalChange", localChange); //$NON-NLS-1$
+		final IDocumentChange docChange = (IDocumentChange) localChange;
+		final List results = new ArrayList(2);
+		// replacements are sent as a deletion followed by an insertion
+		if (docChange.getLengthOfReplacedText() > 0)
+			results.add(registerLocalOperation(TextOperation.delete(docChange.getOffset(), docChange.getLengthOfReplacedText())));
+		if (docChange.getText().length() > 0)
+			results.add(registerLocalOperation(TextOperation.insert(docChange.getOffset(), docChange.getText())));
+		final IModelChangeMessage[] messages = (IModelChangeMessage[]) results.toArray(new IModelChangeMessage[results.size()]);
+		Trace.exiting(Activator.PLUGIN_ID, SyncDebugOptions.METHODS_EXITING, this.getClass(), "registerLocalChange", messages); //$NON-NLS-1$
+		return messages;
+	}
+
+	private CompactDocumentChangeMessage registerLocalOperation(TextOperation operation) {
+		final CompactDocumentChangeMessage message = new CompactDocumentChangeMessage(operation, localOperationsCount, remoteOperationsCount);
+		final HistoryEntry last = (getHistorySize() == 0) ? null : (HistoryEntry) history.get(history.size() - 1);
+		if (last == null || !last.compose(operation, maxComposedLength))
+			history.add(new HistoryEntry(localOperationsCount, operation));
+		localOperationsCount++;
+		return message;
+	}
+
+	/**
+	 * Transform an incoming <code>CompactDocumentChangeMessage</code> against
+	 * all unacknowledged local operations.
+	 * 
+	 * @param remoteMsg
+	 *            the message received from the remote site
+	 * @return List of <code>DocumentChangeMessage</code>s ready for sequential
+	 *         application to the document
+	 */
+	public List transformIncomingMessage(DocumentChangeMessage remoteMsg) {
+		if (!(remoteMsg instanceof CompactDocumentChangeMessage))
+			throw new IllegalArgumentException("DocumentChangeMessage is incompatible with Compact SynchronizationStrategy"); //$NON-NLS-1$
+		Trace.entering(Activator.PLUGIN_ID, SyncDebugOptions.METHODS_ENTERING, this.getClass(), "transformIncomingMessage", remoteMsg); //$NON-NLS-1$
+		final CompactDocumentChangeMessage remote = (CompactDocumentChangeMessage) remoteMsg;
+		remoteOperationsCount++;
+		acknowledge(remote.getRemoteOperationsCount());
+
+		final List remoteOps = new ArrayList(2);
+		remoteOps.add(remote.toOperation());
+		// The initiator's insertions come first at equal offsets
+		final boolean remoteWins = !isInitiator;
+		for (int i = head; i < history.size() && !remoteOps.isEmpty();) {
+			final HistoryEntry entry = (HistoryEntry) history.get(i);
+			if (!entry.isComposite()) {
+				TextOperation.transform(remoteOps, entry.getOperations(), remoteWins);
+				i++;
+				continue;
+			}
+			final TextOperation composed = entry.getOperation();
+			final List transformedRemoteOps = new ArrayList(remoteOps);
+			final List transformedComposed = new ArrayList(2);
+			transformedComposed.add(composed);
+			TextOperation.transform(transformedRemoteOps, transformedComposed, remoteWins);
+			if (transformedComposed.size() == 1 && composed.hasSameExtent((TextOperation) transformedComposed.get(0))) {
+				// composed entry only moved, keep it composed
+				entry.setOperation((TextOperation) transformedComposed.get(0));
+				remoteOps.clear();
+				remoteOps.addAll(transformedRemoteOps);
+				i++;
+			} else {
+				// remote operation overlaps, transform against each operation
+				// of the entry
+				final HistoryEntry[] expanded = entry.expand();
+				history.set(i, expanded[0]);
+				history.addAll(i + 1, Arrays.asList(expanded).subList(1, expanded.length));
+			}
+		}
+
+		final List results = new ArrayList(remoteOps.size());
+		for (final Iterator it = remoteOps.iterator(); it.hasNext();) {
+			final TextOperation op = (TextOperation) it.next();
+			results.add(new DocumentChangeMessage(op.getOffset(), op.isInsertion() ? 0 : op.getLength(), op.getText()));
+		}
+		Trace.exiting(Activator.PLUGIN_ID, SyncDebugOptions.METHODS_EXITING, this.getClass(), "transformIncomingMessage", results); //$NON-NLS-1$
+		return results;
+	}
+
+	/**
+	 * Drop the local operations the remote site had received when it
+	 * generated an operation.
+	 * 
+	 * @param count
+	 *            the number of local operations received by the remote site
+	 */
+	private void acknowledge(long count) {
+		while (head < history.size()) {
+			final HistoryEntry entry = (HistoryEntry) history.get(head);
+			if (entry.getLastCount() < count) {
+				history.set(head++, null);
+			} else {
+				if (entry.getFirstCount() < count)
+					entry.acknowledge((int) (count - entry.getFirstCount()));
+				break;
+			}
+		}
+		if (head == history.size()) {
+			history.clear();
+			head = 0;
+		} else if (head > COMPACT_THRESHOLD && head * 2 > history.size()) {
+			history.subList(0, head).clear();
+			head = 0;
+		}
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("CompactSynchronizationStrategy"); //$NON-NLS-1$
+		return buf.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.ecf.sync.IModelSynchronizationStrategy#deserializeRemoteChange(byte[])
+	 */
+	public IModelChange deserializeRemoteChange(byte[] bytes) throws SerializationException {
+		return DocumentChangeMessage.deserialize(bytes);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.ecf.sync.IModelSynchronizationStrategy#transformRemoteChange(org.eclipse.ecf.sync.IModelChange)
+	 */
+	public IModelChange[] transformRemoteChange(IModelChange remoteChange) {
+		if (!(remoteChange instanceof DocumentChangeMessage))
+			return new IDocumentChange[0];
+		final List l = transformIncomingMessage((DocumentChangeMessage) remoteChange);
+		return (IDocumentChange[]) l.toArray(new IDocumentChange[l.size()]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.eclipse.core.runtime.IAdaptable#getAdapter(java.lang.Class)
+	 */
+	public Object getAdapter(Class adapter) {
+		if (adapter == null)
+			return null;
+		IAdapterManager manager = Activator.getDefault().getAdapterManager();
+		if (manager == null)
+			return null;
+		return manager.loadAdapter(this, adapter.getName());
+	}
+}
@@ -0,0 +1,184 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.internal.sync.doc.compact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry of the unacknowledged local operation history. An entry stands for one
+ * or more consecutive local operations. Runs of adjacent insertions (typing)
+ * or adjacent deletions (backspace, delete) are composed into a single
+ * operation, while the extent of each original operation is remembered so that
+ * a partially acknowledged entry can be shortened and an entry can be expanded
+ * again if a concurrent remote operation overlaps it.
+ */
+final class HistoryEntry {
+
+	private long firstCount;
+	private int components;
+	// length of each composed operation
+	private int[] lengths;
+	// for composed deletions: offset of each operation relative to the offset
+	// of the composed deletion
+	private int[] deltas;
+	// <TextOperation> in current document coordinates
+	private List operations;
+
+	HistoryEntry(long count, TextOperation operation) {
+		this.firstCount = count;
+		this.components = 1;
+		this.lengths = new int[] {operation.getLength()};
+		this.deltas = new int[] {0};
+		this.operations = new ArrayList(2);
+		this.operations.add(operation);
+	}
+
+	long getFirstCount() {
+		return firstCount;
+	}
+
+	long getLastCount() {
+		return firstCount + components - 1;
+	}
+
+	int getComponentCount() {
+		return components;
+	}
+
+	boolean isComposite() {
+		return components > 1;
+	}
+
+	List getOperations() {
+		return operations;
+	}
+
+	/**
+	 * @return the single operation of a composite entry
+	 */
+	TextOperation getOperation() {
+		return (TextOperation) operations.get(0);
+	}
+
+	void setOperation(TextOperation operation) {
+		operations.set(0, operation);
+	}
+
+	/**
+	 * Compose the next local operation into this entry, if it is adjacent.
+	 * 
+	 * @param next
+	 *            the local operation following this entry
+	 * @param maxLength
+	 *            maximum length of the composed operation
+	 * @return true if next has been composed into this entry, false if a new
+	 *         entry is needed
+	 */
+	boolean compose(TextOperation next, int maxLength) {
+		if (operations.size() != 1)
+			return false;
+		final TextOperation current = getOperation();
+		if (current.isInsertion() != next.isInsertion() || current.getLength() + next.getLength() > maxLength)
+			return false;
+		// a single operation may have been shortened by a remote deletion since
+		// it was registered
+		if (components == 1)
+			lengths[0] = current.getLength();
+		if (current.isInsertion()) {
+			// typing continues at the end of the inserted text
+			if (next.getOffset() != current.getEnd())
+				return false;
+			addComponent(next.getLength(), 0);
+			setOperation(TextOperation.insert(current.getOffset(), current.getText() + next.getText()));
+		} else if (next.getOffset() == current.getOffset()) {
+			// forward deletion at the same position
+			addComponent(next.getLength(), 0);
+			setOperation(TextOperation.delete(current.getOffset(), current.getLength() + next.getLength()));
+		} else if (next.getEnd() == current.getOffset()) {
+			// backspace, composed deletion now starts at next
+			for (int i = 0; i < components; i++)
+				deltas[i] += next.getLength();
+			addComponent(next.getLength(), 0);
+			setOperation(TextOperation.delete(next.getOffset(), current.getLength() + next.getLength()));
+		} else
+			return false;
+		return true;
+	}
+
+	private void addComponent(int length, int delta) {
+		if (components == lengths.length) {
+			final int[] newLengths = new int[components * 2];
+			final int[] newDeltas = new int[components * 2];
+			System.arraycopy(lengths, 0, newLengths, 0, components);
+			System.arraycopy(deltas, 0, newDeltas, 0, components);
+			lengths = newLengths;
+			deltas = newDeltas;
+		}
+		lengths[components] = length;
+		deltas[components] = delta;
+		components++;
+	}
+
+	/**
+	 * Remove the first <code>count</code> operations of a composite entry, as
+	 * they have been acknowledged by the remote site.
+	 * 
+	 * @param count
+	 *            number of acknowledged operations, must be > 0 and less than
+	 *            the number of composed operations
+	 */
+	void acknowledge(int count) {
+		int removed = 0;
+		for (int i = 0; i < count; i++)
+			removed += lengths[i];
+		final TextOperation current = getOperation();
+		if (current.isInsertion())
+			setOperation(TextOperation.insert(current.getOffset() + removed, current.getText().substring(removed)));
+		else
+			// the remaining deletions are still adjacent to the offset
+			setOperation(TextOperation.delete(current.getOffset(), current.getLength() - removed));
+		components -= count;
+		System.arraycopy(lengths, count, lengths, 0, components);
+		System.arraycopy(deltas, count, deltas, 0, components);
+		firstCount += count;
+	}
+
+	/**
+	 * @return one entry for each operation composed into this entry
+	 */
+	HistoryEntry[] expand() {
+		final TextOperation current = getOperation();
+		final HistoryEntry[] result = new HistoryEntry[components];
+		int textOffset = 0;
+		for (int i = 0; i < components; i++) {
+			TextOperation op;
+			if (current.isInsertion())
+				op = TextOperation.insert(current.getOffset() + textOffset, current.getText().substring(textOffset, textOffset + lengths[i]));
+			else
+				op = TextOperation.delete(current.getOffset() + deltas[i], lengths[i]);
+			textOffset += lengths[i];
+			result[i] = new HistoryEntry(firstCount + i, op);
+		}
+		return result;
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("HistoryEntry["); //$NON-NLS-1$
+		buf.append("firstCount=").append(firstCount); //$NON-NLS-1$
+		buf.append(";components=").append(components); //$NON-NLS-1$
+		buf.append(";operations=").append(operations).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
@@ -0,0 +1,186 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.internal.sync.doc.compact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable primitive text operation, either an insertion of text or a
+ * deletion of a range of characters. Lists of operations are applied
+ * sequentially, i.e. the offsets of an operation are relative to the document
+ * state after all preceding operations in the list have been applied.
+ */
+public final class TextOperation {
+
+	private final int offset;
+	private final int length;
+	private final String text;
+
+	private TextOperation(int offset, int length, String text) {
+		this.offset = offset;
+		this.length = length;
+		this.text = text;
+	}
+
+	public static TextOperation insert(int offset, String text) {
+		return new TextOperation(offset, 0, text);
+	}
+
+	public static TextOperation delete(int offset, int length) {
+		return new TextOperation(offset, length, ""); //$NON-NLS-1$
+	}
+
+	public boolean isInsertion() {
+		return length == 0;
+	}
+
+	public boolean isDeletion() {
+		return length > 0;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return the number of characters deleted for a deletion, or the number
+	 *         of characters inserted for an insertion
+	 */
+	public int getLength() {
+		return isInsertion() ? text.length() : length;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	int getEnd() {
+		return offset + getLength();
+	}
+
+	TextOperation moveTo(int newOffset) {
+		return (newOffset == offset) ? this : new TextOperation(newOffset, length, text);
+	}
+
+	boolean hasSameExtent(TextOperation other) {
+		return other.isInsertion() == isInsertion() && other.getLength() == getLength();
+	}
+
+	/**
+	 * Transforms the sequence <code>a</code> against the sequence
+	 * <code>b</code>, both generated on the same document state. On return
+	 * <code>a</code> holds the operations to apply after <code>b</code> and
+	 * <code>b</code> holds the operations to apply after <code>a</code>. Both
+	 * orders result in the same document.
+	 * 
+	 * @param a
+	 *            List of TextOperation, modified in place
+	 * @param b
+	 *            List of TextOperation, modified in place
+	 * @param aWins
+	 *            if true, insertions of <code>a</code> are placed before
+	 *            insertions of <code>b</code> at the same offset
+	 */
+	public static void transform(List a, List b, boolean aWins) {
+		final List result = new ArrayList(a.size() + 1);
+		for (int i = 0; i < a.size(); i++)
+			transform((TextOperation) a.get(i), b, aWins, result);
+		a.clear();
+		a.addAll(result);
+	}
+
+	private static void transform(TextOperation op, List b, boolean opWins, List result) {
+		List ops = new ArrayList(2);
+		ops.add(op);
+		for (int j = 0; j < b.size();) {
+			final List others = new ArrayList(2);
+			if (ops.size() == 1) {
+				final List transformed = new ArrayList(2);
+				transform((TextOperation) ops.get(0), (TextOperation) b.get(j), opWins, transformed, others);
+				ops = transformed;
+			} else {
+				// op has been split up, transform the parts together
+				others.add(b.get(j));
+				transform(ops, others, opWins);
+			}
+			b.remove(j);
+			b.addAll(j, others);
+			j += others.size();
+		}
+		result.addAll(ops);
+	}
+
+	private static void transform(TextOperation a, TextOperation b, boolean aWins, List aResult, List bResult) {
+		if (a.isInsertion()) {
+			if (b.isInsertion()) {
+				if (a.offset < b.offset || (a.offset == b.offset && aWins)) {
+					aResult.add(a);
+					bResult.add(b.moveTo(b.offset + a.getLength()));
+				} else {
+					aResult.add(a.moveTo(a.offset + b.getLength()));
+					bResult.add(b);
+				}
+			} else
+				transformInsertDelete(a, b, aResult, bResult);
+		} else if (b.isInsertion())
+			transformInsertDelete(b, a, bResult, aResult);
+		else {
+			addDeleteTransform(a, b, aResult);
+			addDeleteTransform(b, a, bResult);
+		}
+	}
+
+	private static void transformInsertDelete(TextOperation ins, TextOperation del, List insResult, List delResult) {
+		if (ins.offset <= del.offset) {
+			insResult.add(ins);
+			delResult.add(del.moveTo(del.offset + ins.getLength()));
+		} else if (ins.offset >= del.getEnd()) {
+			insResult.add(ins.moveTo(ins.offset - del.length));
+			delResult.add(del);
+		} else {
+			// insertion inside of deleted range, keep the inserted text and
+			// delete the parts left and right of it
+			insResult.add(ins.moveTo(del.offset));
+			delResult.add(delete(del.offset, ins.offset - del.offset));
+			delResult.add(delete(del.offset + ins.getLength(), del.getEnd() - ins.offset));
+		}
+	}
+
+	private static void addDeleteTransform(TextOperation del, TextOperation applied, List result) {
+		final int overlap = Math.min(del.getEnd(), applied.getEnd()) - Math.max(del.offset, applied.offset);
+		final int remaining = (overlap > 0) ? del.length - overlap : del.length;
+		// completely deleted by applied already
+		if (remaining == 0)
+			return;
+		int newOffset = del.offset;
+		if (del.offset >= applied.getEnd())
+			newOffset = del.offset - applied.length;
+		else if (del.offset > applied.offset)
+			newOffset = applied.offset;
+		result.add(new TextOperation(newOffset, remaining, del.text));
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("TextOperation["); //$NON-NLS-1$
+		buf.append(isInsertion() ? "insert" : "delete"); //$NON-NLS-1$ //$NON-NLS-2$
+		buf.append(";offset=").append(offset); //$NON-NLS-1$
+		if (isInsertion())
+			buf.append(";text=").append(text); //$NON-NLS-1$
+		else
+			buf.append(";length=").append(length); //$NON-NLS-1$
+		buf.append("]"); //$NON-NLS-1$
+		return buf.toString();
+	}
+}
@@ -0,0 +1,42 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link ICounter} implementation.
+ * 
+ * @since 3.11
+ */
+public class Counter implements ICounter {
+
+	private final AtomicLong count = new AtomicLong();
+
+	public void increment() {
+		count.incrementAndGet();
+	}
+
+	public void add(long delta) {
+		count.addAndGet(delta);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public String toString() {
+		return String.valueOf(getCount());
+	}
+}
@@ -0,0 +1,136 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Default {@link IHistogram} implementation with log-linear buckets, in the
+ * manner of HDR histograms. Values below 64 are counted exactly. Above that,
+ * each power of two range is split in 32 buckets of equal width, so percentile
+ * values are accurate within about 3% over the whole range of long values.
+ * Recording updates a fixed array of atomic counts and does not allocate or
+ * lock.
+ * 
+ * @since 3.11
+ */
+public class Histogram implements IHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+	// values < SUB_BUCKETS are exact, then HALF_SUB_BUCKETS buckets for each
+	// remaining power of two up to 2^62
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		final int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		final int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+		final long top = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+		return ((top + 1) << shift) - 1;
+	}
+
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+		counts.incrementAndGet(bucketIndex(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current = min.get();
+		while (value < current && !min.compareAndSet(current, value))
+			current = min.get();
+		current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+			current = max.get();
+	}
+
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getMin() {
+		final long result = min.get();
+		return (result == Long.MAX_VALUE) ? 0 : result;
+	}
+
+	public long getMax() {
+		final long result = max.get();
+		return (result == Long.MIN_VALUE) ? 0 : result;
+	}
+
+	public double getMean() {
+		final long c = count.get();
+		return (c == 0) ? 0 : (double) sum.get() / c;
+	}
+
+	public long getValueAtPercentile(double percentile) {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			total += counts.get(i);
+		if (total == 0)
+			return 0;
+		final double p = Math.min(Math.max(percentile, 0.0), 100.0);
+		final long target = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+		long cumulative = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += counts.get(i);
+			if (cumulative >= target)
+				return Math.min(bucketUpperBound(i), getMax());
+		}
+		return getMax();
+	}
+
+	/**
+	 * Discard all recorded values.  Values recorded concurrently with reset
+	 * may be partially kept.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts.set(i, 0);
+		count.set(0);
+		sum.set(0);
+		min.set(Long.MAX_VALUE);
+		max.set(Long.MIN_VALUE);
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("Histogram["); //$NON-NLS-1$
+		buf.append("count=").append(getCount()); //$NON-NLS-1$
+		buf.append(";min=").append(getMin()); //$NON-NLS-1$
+		buf.append(";mean=").append((long) getMean()); //$NON-NLS-1$
+		buf.append(";p50=").append(getValueAtPercentile(50)); //$NON-NLS-1$
+		buf.append(";p99=").append(getValueAtPercentile(99)); //$NON-NLS-1$
+		buf.append(";max=").append(getMax()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
@@ -0,0 +1,39 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+/**
+ * Monotonically increasing count, e.g. of messages sent or received.
+ * Implementations must be thread safe and must not allocate when counting.
+ * 
+ * @since 3.11
+ */
+public interface ICounter extends IMetric {
+
+	/**
+	 * Add one to the count.
+	 */
+	public void increment();
+
+	/**
+	 * Add delta to the count.
+	 * @param delta the amount to add.  Should be >= 0.
+	 */
+	public void add(long delta);
+
+	/**
+	 * @return long the current count
+	 */
+	public long getCount();
+}
@@ -0,0 +1,29 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+/**
+ * Instantaneous value, e.g. the current depth of a queue. Gauges are
+ * implemented by the reporting component and are only called when the value
+ * is read, so the reporting component does not pay for unused gauges.
+ * 
+ * @since 3.11
+ */
+public interface IGauge extends IMetric {
+
+	/**
+	 * @return long the current value.  Will be called from arbitrary threads.
+	 */
+	public long getValue();
+}
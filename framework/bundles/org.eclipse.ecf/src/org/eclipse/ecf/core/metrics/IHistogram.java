@@ -0,0 +1,69 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+/**
+ * Distribution of recorded values, typically latencies in nanoseconds.
+ * Implementations must be thread safe and must not allocate when recording, so
+ * that recording can be done on message paths.
+ * 
+ * @since 3.11
+ */
+public interface IHistogram extends IMetric {
+
+	/**
+	 * Record a value.
+	 * @param value the value to record.  Negative values are recorded as 0.
+	 */
+	public void record(long value);
+
+	/**
+	 * Record the time elapsed since startNanos.
+	 * @param startNanos a value previously returned by {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos);
+
+	/**
+	 * @return long the number of values recorded
+	 */
+	public long getCount();
+
+	/**
+	 * @return long the smallest value recorded, or 0 if no values have been recorded
+	 */
+	public long getMin();
+
+	/**
+	 * @return long the largest value recorded, or 0 if no values have been recorded
+	 */
+	public long getMax();
+
+	/**
+	 * @return double the mean of all values recorded, or 0 if no values have been recorded
+	 */
+	public double getMean();
+
+	/**
+	 * Get the value at a given percentile.  The result is accurate within the
+	 * precision of the implementation.
+	 * @param percentile the percentile, between 0.0 and 100.0
+	 * @return long the value at or below which percentile percent of the recorded values fall
+	 */
+	public long getValueAtPercentile(double percentile);
+
+	/**
+	 * Discard all recorded values.
+	 */
+	public void reset();
+}
@@ -0,0 +1,25 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+/**
+ * Common super interface of all metrics kept in an {@link IMetricsRegistry}.
+ * Clients should implement one of the sub interfaces {@link ICounter},
+ * {@link IGauge} or {@link IHistogram}.
+ * 
+ * @since 3.11
+ */
+public interface IMetric {
+	// no methods
+}
@@ -0,0 +1,76 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+import java.util.SortedMap;
+
+/**
+ * Registry of named metrics. Components obtain their counters and histograms
+ * once (e.g. when they are created) and then record into them on their message
+ * paths. Names are dot separated, with the reporting component first, e.g.
+ * <code>ecf.container.&lt;containerID&gt;.messages.sent</code>. Components
+ * should remove the metrics of an instance when the instance is disposed, see
+ * {@link #removeAll(String)}.
+ * 
+ * @since 3.11
+ */
+public interface IMetricsRegistry {
+
+	/**
+	 * @return boolean true if metrics are recorded, false if this registry
+	 * hands out metrics that discard what is recorded
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Get or create the counter with the given name.
+	 * @param name the name of the counter.  Must not be <code>null</code>.
+	 * @return ICounter the counter.  Will not be <code>null</code>.
+	 * @throws IllegalArgumentException if a metric with the given name exists and is not a counter
+	 */
+	public ICounter counter(String name);
+
+	/**
+	 * Get or create the histogram with the given name.
+	 * @param name the name of the histogram.  Must not be <code>null</code>.
+	 * @return IHistogram the histogram.  Will not be <code>null</code>.
+	 * @throws IllegalArgumentException if a metric with the given name exists and is not a histogram
+	 */
+	public IHistogram histogram(String name);
+
+	/**
+	 * Register a gauge, replacing any metric with the same name.
+	 * @param name the name of the gauge.  Must not be <code>null</code>.
+	 * @param gauge the gauge.  Must not be <code>null</code>.
+	 */
+	public void gauge(String name, IGauge gauge);
+
+	/**
+	 * Remove the metric with the given name.
+	 * @param name the name of the metric to remove.  Must not be <code>null</code>.
+	 */
+	public void remove(String name);
+
+	/**
+	 * Remove all metrics with names starting with the given prefix.
+	 * @param prefix the prefix of the metrics to remove.  Must not be <code>null</code>.
+	 */
+	public void removeAll(String prefix);
+
+	/**
+	 * @return SortedMap of metric name to {@link IMetric}, a copy of the metrics
+	 * currently registered.  Will not be <code>null</code>.
+	 */
+	public SortedMap<String, IMetric> getMetrics();
+}
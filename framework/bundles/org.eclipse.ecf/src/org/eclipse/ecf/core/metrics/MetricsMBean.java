@@ -0,0 +1,148 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+import java.util.*;
+import javax.management.*;
+
+/**
+ * Dynamic MBean exposing the metrics of an {@link IMetricsRegistry} as read
+ * only JMX attributes. Counters and gauges are exposed as one attribute with
+ * the metric name, histograms as attributes
+ * <code>&lt;name&gt;.count</code>, <code>.min</code>, <code>.max</code>,
+ * <code>.mean</code>, <code>.p50</code>, <code>.p90</code>, <code>.p99</code>
+ * and <code>.p999</code>. The attribute list is computed from the registry
+ * each time the MBean info is requested, so metrics added later are exposed
+ * as well.
+ * <p>
+ * The ECF core bundle registers an instance for the default registry with the
+ * platform MBean server under {@link #DEFAULT_OBJECT_NAME} if the system property
+ * {@link #JMX_EXPORT_PROP} is set to "true".
+ * </p>
+ * 
+ * @since 3.11
+ */
+public class MetricsMBean implements DynamicMBean {
+
+	public static final String JMX_EXPORT_PROP = "org.eclipse.ecf.core.metrics.jmx"; //$NON-NLS-1$
+
+	public static final String DEFAULT_OBJECT_NAME = "org.eclipse.ecf:type=Metrics"; //$NON-NLS-1$
+
+	private static final String[] HISTOGRAM_STATS = new String[] {"count", "min", "max", "mean", "p50", "p90", "p99", "p999"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+	private static final double[] HISTOGRAM_PERCENTILES = new double[] {50.0, 90.0, 99.0, 99.9};
+
+	private final IMetricsRegistry registry;
+
+	public MetricsMBean(IMetricsRegistry registry) {
+		if (registry == null)
+			throw new NullPointerException("registry cannot be null"); //$NON-NLS-1$
+		this.registry = registry;
+	}
+
+	/**
+	 * Register a MetricsMBean for the given registry.
+	 * @param server the MBean server to register with.  Must not be <code>null</code>.
+	 * @param registry the registry to expose.  Must not be <code>null</code>.
+	 * @param objectName the object name to register under.  Must not be <code>null</code>.
+	 * @return ObjectName the registered name
+	 * @throws JMException if the MBean cannot be registered
+	 */
+	public static ObjectName register(MBeanServer server, IMetricsRegistry registry, String objectName) throws JMException {
+		return server.registerMBean(new MetricsMBean(registry), new ObjectName(objectName)).getObjectName();
+	}
+
+	private Object getValue(IMetric metric, String stat) {
+		if (stat == null) {
+			if (metric instanceof ICounter)
+				return Long.valueOf(((ICounter) metric).getCount());
+			if (metric instanceof IGauge)
+				return Long.valueOf(((IGauge) metric).getValue());
+			return null;
+		}
+		if (!(metric instanceof IHistogram))
+			return null;
+		final IHistogram histogram = (IHistogram) metric;
+		if (stat.equals(HISTOGRAM_STATS[0]))
+			return Long.valueOf(histogram.getCount());
+		if (stat.equals(HISTOGRAM_STATS[1]))
+			return Long.valueOf(histogram.getMin());
+		if (stat.equals(HISTOGRAM_STATS[2]))
+			return Long.valueOf(histogram.getMax());
+		if (stat.equals(HISTOGRAM_STATS[3]))
+			return Double.valueOf(histogram.getMean());
+		for (int i = 0; i < HISTOGRAM_PERCENTILES.length; i++)
+			if (stat.equals(HISTOGRAM_STATS[4 + i]))
+				return Long.valueOf(histogram.getValueAtPercentile(HISTOGRAM_PERCENTILES[i]));
+		return null;
+	}
+
+	public Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException, ReflectionException {
+		final Map<String, IMetric> metrics = registry.getMetrics();
+		Object result = null;
+		final IMetric metric = metrics.get(attribute);
+		if (metric != null)
+			result = getValue(metric, null);
+		else {
+			final int dot = attribute.lastIndexOf('.');
+			if (dot > 0) {
+				final IMetric histogram = metrics.get(attribute.substring(0, dot));
+				if (histogram != null)
+					result = getValue(histogram, attribute.substring(dot + 1));
+			}
+		}
+		if (result == null)
+			throw new AttributeNotFoundException(attribute);
+		return result;
+	}
+
+	public AttributeList getAttributes(String[] attributes) {
+		final AttributeList result = new AttributeList();
+		for (int i = 0; i < attributes.length; i++) {
+			try {
+				result.add(new Attribute(attributes[i], getAttribute(attributes[i])));
+			} catch (final JMException e) {
+				// metric removed since the attribute list was read, leave out
+			}
+		}
+		return result;
+	}
+
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metrics attributes are read only"); //$NON-NLS-1$
+	}
+
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	public MBeanInfo getMBeanInfo() {
+		final List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		for (final Map.Entry<String, IMetric> entry : registry.getMetrics().entrySet()) {
+			final String name = entry.getKey();
+			final IMetric metric = entry.getValue();
+			if (metric instanceof IHistogram) {
+				for (int i = 0; i < HISTOGRAM_STATS.length; i++) {
+					final String type = (i == 3) ? Double.class.getName() : Long.class.getName();
+					attributes.add(new MBeanAttributeInfo(name + "." + HISTOGRAM_STATS[i], type, name, true, false, false)); //$NON-NLS-1$
+				}
+			} else
+				attributes.add(new MBeanAttributeInfo(name, Long.class.getName(), name, true, false, false));
+		}
+		return new MBeanInfo(getClass().getName(), "ECF metrics", attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,158 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Default {@link IMetricsRegistry} implementation. The ECF providers report
+ * into the registry returned by {@link #getDefault()}. Recording can be
+ * switched off with the system property {@link #ENABLED_PROP}, in which case
+ * the default registry hands out metrics that discard recorded values.
+ * 
+ * @since 3.11
+ */
+public class MetricsRegistry implements IMetricsRegistry {
+
+	/**
+	 * System property to disable metrics recording in the default registry.
+	 * Value "false" disables recording.  Default is "true".
+	 */
+	public static final String ENABLED_PROP = "org.eclipse.ecf.core.metrics.enabled"; //$NON-NLS-1$
+
+	private static final MetricsRegistry defaultRegistry = new MetricsRegistry(Boolean.valueOf(System.getProperty(ENABLED_PROP, "true")).booleanValue()); //$NON-NLS-1$
+
+	static final ICounter NOOP_COUNTER = new ICounter() {
+		public void increment() {
+			// discard
+		}
+
+		public void add(long delta) {
+			// discard
+		}
+
+		public long getCount() {
+			return 0;
+		}
+	};
+
+	static final IHistogram NOOP_HISTOGRAM = new IHistogram() {
+		public void record(long value) {
+			// discard
+		}
+
+		public void recordSince(long startNanos) {
+			// discard
+		}
+
+		public long getCount() {
+			return 0;
+		}
+
+		public long getMin() {
+			return 0;
+		}
+
+		public long getMax() {
+			return 0;
+		}
+
+		public double getMean() {
+			return 0;
+		}
+
+		public long getValueAtPercentile(double percentile) {
+			return 0;
+		}
+
+		public void reset() {
+			// nothing recorded
+		}
+	};
+
+	private final boolean enabled;
+	private final ConcurrentMap<String, IMetric> metrics = new ConcurrentHashMap<String, IMetric>();
+
+	/**
+	 * @return IMetricsRegistry the registry the ECF providers report into.  Will not be <code>null</code>.
+	 */
+	public static IMetricsRegistry getDefault() {
+		return defaultRegistry;
+	}
+
+	public MetricsRegistry() {
+		this(true);
+	}
+
+	public MetricsRegistry(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	private IMetric getOrCreate(String name, Class<? extends IMetric> type) {
+		IMetric metric = metrics.get(name);
+		if (metric == null) {
+			final IMetric newMetric = (type == ICounter.class) ? (IMetric) new Counter() : new Histogram();
+			metric = metrics.putIfAbsent(name, newMetric);
+			if (metric == null)
+				metric = newMetric;
+		}
+		if (!type.isInstance(metric))
+			throw new IllegalArgumentException("Metric " + name + " is not a " + type.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+		return metric;
+	}
+
+	public ICounter counter(String name) {
+		if (!enabled)
+			return NOOP_COUNTER;
+		return (ICounter) getOrCreate(name, ICounter.class);
+	}
+
+	public IHistogram histogram(String name) {
+		if (!enabled)
+			return NOOP_HISTOGRAM;
+		return (IHistogram) getOrCreate(name, IHistogram.class);
+	}
+
+	public void gauge(String name, IGauge gauge) {
+		if (enabled)
+			metrics.put(name, gauge);
+	}
+
+	public void remove(String name) {
+		metrics.remove(name);
+	}
+
+	public void removeAll(String prefix) {
+		for (final Iterator<String> i = metrics.keySet().iterator(); i.hasNext();)
+			if (i.next().startsWith(prefix))
+				i.remove();
+	}
+
+	public SortedMap<String, IMetric> getMetrics() {
+		return new TreeMap<String, IMetric>(metrics);
+	}
+
+	public String toString() {
+		final StringBuffer buf = new StringBuffer("MetricsRegistry["); //$NON-NLS-1$
+		buf.append("enabled=").append(enabled); //$NON-NLS-1$
+		buf.append(";size=").append(metrics.size()).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+		return buf.toString();
+	}
+}
@@ -0,0 +1,58 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.tracing;
+
+import java.util.Map;
+
+/**
+ * A timed operation, e.g. one stage of a remote call. Spans are started with
+ * {@link Tracing#startSpan(String)} or {@link Tracing#startSpan(String, Map)}
+ * and must be ended with {@link #end()}, typically in a finally block.
+ * 
+ * @since 3.11
+ */
+public interface ISpan {
+
+	/**
+	 * @return boolean true if this span is recorded.  When false, all other
+	 * methods do nothing, and callers can skip computing attribute values.
+	 */
+	public boolean isRecording();
+
+	/**
+	 * Set an attribute of this span.
+	 * @param key the attribute key.  Must not be <code>null</code>.
+	 * @param value the attribute value.  May be <code>null</code>.
+	 */
+	public void setAttribute(String key, String value);
+
+	/**
+	 * Mark this span as failed.
+	 * @param t the cause of the failure.  Must not be <code>null</code>.
+	 */
+	public void setError(Throwable t);
+
+	/**
+	 * Write the context of this span to headers, so that spans started on the
+	 * remote side with {@link ITracer#startSpan(String, Map)} are children of
+	 * this span.
+	 * @param headers the headers to write to.  Must not be <code>null</code>.
+	 */
+	public void inject(Map<String, String> headers);
+
+	/**
+	 * End this span.  Subsequent calls have no effect.
+	 */
+	public void end();
+}
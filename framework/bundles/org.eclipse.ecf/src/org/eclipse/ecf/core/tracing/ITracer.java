@@ -0,0 +1,47 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.tracing;
+
+import java.util.Map;
+
+/**
+ * Tracer service provider interface.  Implementations create and export
+ * spans, e.g. to a distributed tracing system.  A tracer is installed with
+ * {@link Tracing#setTracer(ITracer)}, or by registering it as an OSGi service
+ * under this interface.  Implementations must be thread safe.
+ * 
+ * @since 3.11
+ */
+public interface ITracer {
+
+	/**
+	 * Start a span.
+	 * @param name the name of the span.  Must not be <code>null</code>.
+	 * @param parent the parent span, or <code>null</code> to start a new trace
+	 * @return ISpan the started span.  Must not be <code>null</code>, but may be
+	 * {@link Tracing#NOOP_SPAN} if the span is not recorded.
+	 */
+	public ISpan startSpan(String name, ISpan parent);
+
+	/**
+	 * Start a span that continues a trace propagated from a remote process.
+	 * @param name the name of the span.  Must not be <code>null</code>.
+	 * @param headers headers written by {@link ISpan#inject(Map)} on the remote
+	 * side.  Must not be <code>null</code>.  If they do not contain a context
+	 * understood by this tracer a new trace should be started.
+	 * @return ISpan the started span.  Must not be <code>null</code>, but may be
+	 * {@link Tracing#NOOP_SPAN} if the span is not recorded.
+	 */
+	public ISpan startSpan(String name, Map<String, String> headers);
+}
@@ -0,0 +1,196 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.core.tracing;
+
+import java.util.Map;
+
+/**
+ * Entry point for recording spans.  The ECF providers start their spans with
+ * the static methods of this class, which delegate to the installed
+ * {@link ITracer}.  When no tracer is installed, all methods return
+ * {@link #NOOP_SPAN} without allocating or touching thread state, so tracing
+ * costs a volatile read per span when it is disabled.
+ * <p>
+ * Spans can be made the current span of a thread, so that spans started
+ * further down the call stack become its children:
+ * </p>
+ * <pre>
+ * ISpan span = Tracing.startSpan("name");
+ * ISpan previous = Tracing.setCurrentSpan(span);
+ * try {
+ *     ...
+ * } finally {
+ *     Tracing.restoreCurrentSpan(previous);
+ *     span.end();
+ * }
+ * </pre>
+ * 
+ * @since 3.11
+ */
+public final class Tracing {
+
+	/**
+	 * Span that is not recorded.
+	 */
+	public static final ISpan NOOP_SPAN = new NoopSpan();
+
+	// Returned by setCurrentSpan when the current span was not changed
+	private static final ISpan UNCHANGED = new NoopSpan();
+
+	private static final ITracer NOOP_TRACER = new ITracer() {
+		public ISpan startSpan(String name, ISpan parent) {
+			return NOOP_SPAN;
+		}
+
+		public ISpan startSpan(String name, Map<String, String> headers) {
+			return NOOP_SPAN;
+		}
+	};
+
+	private static volatile ITracer tracer = NOOP_TRACER;
+
+	private static final ThreadLocal<ISpan> currentSpan = new ThreadLocal<ISpan>();
+
+	static class NoopSpan implements ISpan {
+		public boolean isRecording() {
+			return false;
+		}
+
+		public void setAttribute(String key, String value) {
+			// not recorded
+		}
+
+		public void setError(Throwable t) {
+			// not recorded
+		}
+
+		public void inject(Map<String, String> headers) {
+			// nothing to propagate
+		}
+
+		public void end() {
+			// not recorded
+		}
+	}
+
+	private Tracing() {
+		// static methods only
+	}
+
+	/**
+	 * Install the tracer.
+	 * @param t the tracer to install, or <code>null</code> to disable tracing
+	 */
+	public static void setTracer(ITracer t) {
+		tracer = (t == null) ? NOOP_TRACER : t;
+	}
+
+	/**
+	 * @return ITracer the installed tracer, or <code>null</code> if tracing is disabled
+	 */
+	public static ITracer getTracer() {
+		final ITracer t = tracer;
+		return (t == NOOP_TRACER) ? null : t;
+	}
+
+	/**
+	 * @return boolean true if a tracer is installed
+	 */
+	public static boolean isEnabled() {
+		return tracer != NOOP_TRACER;
+	}
+
+	/**
+	 * Start a span as child of the current span of the calling thread, or as
+	 * the root of a new trace if there is no current span.
+	 * @param name the name of the span.  Must not be <code>null</code>.
+	 * @return ISpan the started span.  Will not be <code>null</code>.
+	 */
+	public static ISpan startSpan(String name) {
+		final ITracer t = tracer;
+		if (t == NOOP_TRACER)
+			return NOOP_SPAN;
+		return t.startSpan(name, currentSpan.get());
+	}
+
+	/**
+	 * Start a span as child of parent.  No span is recorded if parent is not
+	 * recording, e.g. when it was started before tracing was enabled.
+	 * @param name the name of the span.  Must not be <code>null</code>.
+	 * @param parent the parent span.  Must not be <code>null</code>.
+	 * @return ISpan the started span.  Will not be <code>null</code>.
+	 */
+	public static ISpan startSpan(String name, ISpan parent) {
+		final ITracer t = tracer;
+		if (t == NOOP_TRACER || !parent.isRecording())
+			return NOOP_SPAN;
+		return t.startSpan(name, parent);
+	}
+
+	/**
+	 * Start a span continuing the trace propagated in headers.  If headers is
+	 * <code>null</code> or empty, this is the same as {@link #startSpan(String)}.
+	 * @param name the name of the span.  Must not be <code>null</code>.
+	 * @param headers propagated headers.  May be <code>null</code>.
+	 * @return ISpan the started span.  Will not be <code>null</code>.
+	 */
+	public static ISpan startSpan(String name, Map<String, String> headers) {
+		final ITracer t = tracer;
+		if (t == NOOP_TRACER)
+			return NOOP_SPAN;
+		if (headers == null || headers.isEmpty())
+			return t.startSpan(name, currentSpan.get());
+		return t.startSpan(name, headers);
+	}
+
+	/**
+	 * @return ISpan the current span of the calling thread, or {@link #NOOP_SPAN}
+	 * if there is none.  Will not be <code>null</code>.
+	 */
+	public static ISpan getCurrentSpan() {
+		if (tracer == NOOP_TRACER)
+			return NOOP_SPAN;
+		final ISpan span = currentSpan.get();
+		return (span == null) ? NOOP_SPAN : span;
+	}
+
+	/**
+	 * Make span the current span of the calling thread.  Spans that are not
+	 * recording are ignored.
+	 * @param span the span.  Must not be <code>null</code>.
+	 * @return ISpan value to pass to {@link #restoreCurrentSpan(ISpan)} when
+	 * span is no longer current.  Will not be <code>null</code>.
+	 */
+	public static ISpan setCurrentSpan(ISpan span) {
+		if (!span.isRecording())
+			return UNCHANGED;
+		final ISpan previous = currentSpan.get();
+		currentSpan.set(span);
+		return (previous == null) ? NOOP_SPAN : previous;
+	}
+
+	/**
+	 * Restore the current span of the calling thread.
+	 * @param previous the value returned by {@link #setCurrentSpan(ISpan)}.
+	 * Must not be <code>null</code>.
+	 */
+	public static void restoreCurrentSpan(ISpan previous) {
+		if (previous == UNCHANGED)
+			return;
+		if (previous == NOOP_SPAN)
+			currentSpan.remove();
+		else
+			currentSpan.set(previous);
+	}
+}
@@ -11,13 +11,19 @@
  *****************************************************************************/
 package org.eclipse.ecf.internal.core;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import javax.management.ObjectName;
 import org.eclipse.core.runtime.*;
 import org.eclipse.ecf.core.*;
 import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.metrics.MetricsMBean;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
 import org.eclipse.ecf.core.provider.IContainerInstantiator;
 import org.eclipse.ecf.core.start.ECFStartJob;
 import org.eclipse.ecf.core.start.IECFStart;
+import org.eclipse.ecf.core.tracing.ITracer;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.internal.core.identity.Activator;
 import org.osgi.framework.*;
@@ -92,6 +98,8 @@ public class ECFPlugin implements BundleActivator {
 
 	private BundleActivator ecfTrustManager;
 
+	private ObjectName metricsMBeanName;
+
 	/**
 	 * Returns the shared instance.
 	 * @return ECFPlugin
@@ -173,6 +181,28 @@ public class ECFPlugin implements BundleActivator {
 			containerTypeDescriptionTracker.open();
 		}
 
+		// Install the highest ranked ITracer service for remote call tracing
+		tracerTracker = new ServiceTracker(this.context, ITracer.class.getName(), new ServiceTrackerCustomizer() {
+			public Object addingService(ServiceReference reference) {
+				final Object service = context.getService(reference);
+				// Called before reference is tracked, so compare with the current best
+				final ServiceReference best = tracerTracker.getServiceReference();
+				if (service != null && (best == null || reference.compareTo(best) > 0))
+					Tracing.setTracer((ITracer) service);
+				return service;
+			}
+
+			public void modifiedService(ServiceReference reference, Object service) {
+				Tracing.setTracer((ITracer) tracerTracker.getService());
+			}
+
+			public void removedService(ServiceReference reference, Object service) {
+				Tracing.setTracer((ITracer) tracerTracker.getService());
+				context.ungetService(reference);
+			}
+		});
+		tracerTracker.open();
+
 		SafeRunner.run(new ExtensionRegistryRunnable(this.context) {
 			protected void runWithRegistry(IExtensionRegistry registry) throws Exception {
 				if (registry != null) {
@@ -265,10 +295,32 @@ public class ECFPlugin implements BundleActivator {
 				ECFPlugin.this.context.registerService(ContainerTypeDescription.class, new ContainerTypeDescription(BaseContainer.Instantiator.NAME, new BaseContainer.Instantiator()), null);
 			}
 		});
+
+		if (Boolean.getBoolean(MetricsMBean.JMX_EXPORT_PROP))
+			registerMetricsMBean();
+	}
+
+	private void registerMetricsMBean() {
+		try {
+			metricsMBeanName = MetricsMBean.register(ManagementFactory.getPlatformMBeanServer(), MetricsRegistry.getDefault(), MetricsMBean.DEFAULT_OBJECT_NAME);
+		} catch (final Throwable t) {
+			log(new Status(IStatus.WARNING, PLUGIN_ID, "Could not register metrics MBean", t)); //$NON-NLS-1$
+		}
+	}
+
+	private void unregisterMetricsMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsMBeanName);
+		} catch (final Exception e) {
+			// already unregistered
+		}
+		metricsMBeanName = null;
 	}
 
 	private ServiceTracker containerTypeDescriptionTracker;
 
+	private ServiceTracker tracerTracker;
+
 	public void initializeExtensions() {
 		SafeRunner.run(new ExtensionRegistryRunnable(this.context) {
 			protected void runWithRegistry(IExtensionRegistry registry) throws Exception {
@@ -287,6 +339,8 @@ public class ECFPlugin implements BundleActivator {
 	}
 
 	public void stop(BundleContext ctxt) throws Exception {
+		if (metricsMBeanName != null)
+			unregisterMetricsMBean();
 		fireDisposables();
 		this.disposables = null;
 		SafeRunner.run(new ExtensionRegistryRunnable(ctxt) {
@@ -300,6 +354,10 @@ public class ECFPlugin implements BundleActivator {
 			containerTypeDescriptionTracker.close();
 			containerTypeDescriptionTracker = null;
 		}
+		if (tracerTracker != null) {
+			tracerTracker.close();
+			tracerTracker = null;
+		}
 		if (ecfTrustManager != null) {
 			ecfTrustManager.stop(ctxt);
 			ecfTrustManager = null;
@@ -30,6 +30,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.ecf.core.ContainerFactory;
 import org.eclipse.ecf.core.ContainerTypeDescription;
 import org.eclipse.ecf.core.IContainerManager;
+import org.eclipse.ecf.core.metrics.IGauge;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
 import org.eclipse.ecf.core.util.LogHelper;
 import org.eclipse.ecf.core.util.SystemLogService;
 import org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescription;
@@ -106,6 +108,9 @@ public class Activator implements BundleActivator {
 
 	private BundleContext proxyServiceFactoryBundleContext;
 
+	private static final String EXPORTED_REGISTRATIONS_METRIC = "ecf.rsa.exported.registrations"; //$NON-NLS-1$
+	private static final String IMPORTED_REGISTRATIONS_METRIC = "ecf.rsa.imported.registrations"; //$NON-NLS-1$
+
 	private Collection<ExportRegistration> exportedRegistrations;
 	private Collection<ImportRegistration> importedRegistrations;
 
@@ -255,6 +260,26 @@ public class Activator implements BundleActivator {
 		Activator.instance = this;
 		this.exportedRegistrations = new ArrayList<ExportRegistration>();
 		this.importedRegistrations = new ArrayList<ImportRegistration>();
+		MetricsRegistry.getDefault().gauge(EXPORTED_REGISTRATIONS_METRIC, new IGauge() {
+			public long getValue() {
+				Collection<ExportRegistration> regs = exportedRegistrations;
+				if (regs == null)
+					return 0;
+				synchronized (regs) {
+					return regs.size();
+				}
+			}
+		});
+		MetricsRegistry.getDefault().gauge(IMPORTED_REGISTRATIONS_METRIC, new IGauge() {
+			public long getValue() {
+				Collection<ImportRegistration> regs = importedRegistrations;
+				if (regs == null)
+					return 0;
+				synchronized (regs) {
+					return regs.size();
+				}
+			}
+		});
 		// start dependent bundles first
 		initializeDependents();
 		// initialize the RSA proxy service factory bundle...so that we
@@ -390,6 +415,8 @@ public class Activator implements BundleActivator {
 			}
 		}
 		stopProxyServiceFactoryBundle();
+		MetricsRegistry.getDefault().remove(EXPORTED_REGISTRATIONS_METRIC);
+		MetricsRegistry.getDefault().remove(IMPORTED_REGISTRATIONS_METRIC);
 
 		synchronized (importedRegistrations) {
 			if (importedRegistrations != null) {
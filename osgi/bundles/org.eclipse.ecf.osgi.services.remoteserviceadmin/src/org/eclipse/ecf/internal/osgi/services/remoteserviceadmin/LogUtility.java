@@ -27,7 +27,7 @@ public class LogUtility {
 	public static void logInfo(String methodName, String debugOption,
 			Class clazz, String message) {
 		trace(methodName, debugOption, clazz, "INFO:" + message); //$NON-NLS-1$
-		Activator.getDefault().log(
+		log(
 				new Status(IStatus.INFO, Activator.PLUGIN_ID, IStatus.INFO,
 						clazz.getName() + ":" //$NON-NLS-1$
 								+ ((methodName == null) ? "<unknown>" //$NON-NLS-1$
@@ -39,7 +39,7 @@ public class LogUtility {
 	public static void logWarning(String methodName, String debugOption,
 			Class clazz, String message) {
 		trace(methodName, debugOption, clazz, "WARNING:" + message); //$NON-NLS-1$
-		Activator.getDefault().log(
+		log(
 				new Status(IStatus.WARNING, Activator.PLUGIN_ID,
 						IStatus.WARNING, clazz.getName() + ":" //$NON-NLS-1$
 								+ ((methodName == null) ? "<unknown>" //$NON-NLS-1$
@@ -54,7 +54,7 @@ public class LogUtility {
 			traceException(methodName, debugOption, clazz, message, t);
 		else
 			trace(methodName, debugOption, clazz, message);
-		Activator.getDefault().log(
+		log(
 				new Status(IStatus.ERROR, Activator.PLUGIN_ID, IStatus.ERROR,
 						clazz.getName() + ":" //$NON-NLS-1$
 								+ ((methodName == null) ? "<unknown>" //$NON-NLS-1$
@@ -69,7 +69,7 @@ public class LogUtility {
 			traceException(methodName, debugOption, clazz, message, t);
 		else
 			trace(methodName, debugOption, clazz, message);
-		Activator.getDefault().log(
+		log(
 				new Status(IStatus.WARNING, Activator.PLUGIN_ID,
 						IStatus.WARNING, clazz.getName() + ":" //$NON-NLS-1$
 								+ ((methodName == null) ? "<unknown>" //$NON-NLS-1$
@@ -86,7 +86,7 @@ public class LogUtility {
 					t);
 		else
 			trace(methodName, debugOption, clazz, status.getMessage());
-		Activator.getDefault().log(status);
+		log(status);
 	}
 
 	public static void logWarning(String methodName, String debugOption,
@@ -94,6 +94,13 @@ public class LogUtility {
 		logError(methodName, debugOption, clazz, status);
 	}
 
+	private static void log(IStatus status) {
+		Activator a = Activator.getDefault();
+		// null when used outside of a running framework
+		if (a != null)
+			a.log(status);
+	}
+
 	public static void trace(String methodName, String debugOptions,
 			Class clazz, String message) {
 		Trace.trace(Activator.PLUGIN_ID, debugOptions, clazz, methodName,
@@ -41,6 +41,9 @@ import org.eclipse.ecf.core.ContainerTypeDescription;
 import org.eclipse.ecf.core.IContainer;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.identity.StringID;
+import org.eclipse.ecf.core.metrics.ICounter;
+import org.eclipse.ecf.core.metrics.IHistogram;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
 import org.eclipse.ecf.core.util.ECFException;
 import org.eclipse.ecf.internal.osgi.services.remoteserviceadmin.Activator;
 import org.eclipse.ecf.internal.osgi.services.remoteserviceadmin.DebugOptions;
@@ -135,6 +138,14 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 
 	private ServiceRegistration eventListenerHookRegistration;
 
+	// Metrics of all RemoteServiceAdmin instances
+	private static final ICounter exportsCounter = MetricsRegistry.getDefault().counter("ecf.rsa.exports"); //$NON-NLS-1$
+	private static final ICounter exportFailuresCounter = MetricsRegistry.getDefault().counter("ecf.rsa.exports.failed"); //$NON-NLS-1$
+	private static final IHistogram exportTime = MetricsRegistry.getDefault().histogram("ecf.rsa.export.time"); //$NON-NLS-1$
+	private static final ICounter importsCounter = MetricsRegistry.getDefault().counter("ecf.rsa.imports"); //$NON-NLS-1$
+	private static final ICounter importFailuresCounter = MetricsRegistry.getDefault().counter("ecf.rsa.imports.failed"); //$NON-NLS-1$
+	private static final IHistogram importTime = MetricsRegistry.getDefault().histogram("ecf.rsa.import.time"); //$NON-NLS-1$
+
 	/**
 	 * @return List of exported registrations
 	 * @since 4.2
@@ -253,6 +264,7 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			final ServiceReference<?> serviceReference, Map<String, ?> op) {
 		trace("exportService", "serviceReference=" + serviceReference //$NON-NLS-1$ //$NON-NLS-2$
 				+ ",properties=" + op); //$NON-NLS-1$
+		final long exportStart = System.nanoTime();
 
 		final Map<String, ?> overridingProperties = PropertiesUtil.mergeProperties(serviceReference,
 				op == null ? Collections.EMPTY_MAP : new HashMap<String,Object>(op));
@@ -382,9 +394,14 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			}
 		}
 
+		exportTime.recordSince(exportStart);
 		// publish all activeExportRegistrations
-		for (ExportRegistration exportReg : resultRegistrations)
+		for (ExportRegistration exportReg : resultRegistrations) {
+			exportsCounter.increment();
+			if (exportReg.getException() != null)
+				exportFailuresCounter.increment();
 			publishExportEvent(exportReg);
+		}
 
 		trace("exportService", "exported registrations=" + resultRegistrations); //$NON-NLS-1$ //$NON-NLS-2$
 
@@ -396,6 +413,7 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			org.osgi.service.remoteserviceadmin.EndpointDescription endpointDescription) {
 
 		trace("importService", "endpointDescription=" + endpointDescription); //$NON-NLS-1$ //$NON-NLS-2$
+		final long importStart = System.nanoTime();
 		// First, make sure that the client bundle has the IMPORT endpoint
 		// permission
 		checkEndpointPermission(endpointDescription, EndpointPermission.IMPORT);
@@ -447,6 +465,10 @@ public class RemoteServiceAdmin implements org.osgi.service.remoteserviceadmin.R
 			}
 			addImportRegistration(importRegistration);
 		}
+		importTime.recordSince(importStart);
+		importsCounter.increment();
+		if (importRegistration.getException() != null)
+			importFailuresCounter.increment();
 		// publish import event
 		publishImportEvent(importRegistration);
 		trace("importService", "importRegistration=" + importRegistration); //$NON-NLS-1$ //$NON-NLS-2$
@@ -47,6 +47,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.ecf.core.metrics.ICounter;
+import org.eclipse.ecf.core.metrics.IGauge;
+import org.eclipse.ecf.core.metrics.IHistogram;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.remoteservice.asyncproxy.AsyncReturnUtil;
 import org.objectweb.asm.Type;
 import org.osgi.framework.Bundle;
@@ -198,6 +204,33 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 
 	private ArrayList workQueue = new ArrayList();
 
+	/**
+	 * metrics of all channel endpoints.
+	 */
+	private static final ICounter messagesSent = MetricsRegistry.getDefault()
+			.counter("ecf.r_osgi.messages.sent"); //$NON-NLS-1$
+	private static final ICounter messagesReceived = MetricsRegistry
+			.getDefault().counter("ecf.r_osgi.messages.received"); //$NON-NLS-1$
+	private static final ICounter callFailures = MetricsRegistry.getDefault()
+			.counter("ecf.r_osgi.calls.failed"); //$NON-NLS-1$
+	private static final IHistogram callTime = MetricsRegistry.getDefault()
+			.histogram("ecf.r_osgi.call.time"); //$NON-NLS-1$
+	private static final IHistogram invokeTime = MetricsRegistry.getDefault()
+			.histogram("ecf.r_osgi.invoke.time"); //$NON-NLS-1$
+
+	/**
+	 * send the trace context with remote calls. Off by default, as peers with
+	 * R-OSGi versions before 1.2.700 cannot read remote call messages with
+	 * headers.
+	 */
+	private static final boolean TRACE_HEADERS = Boolean.parseBoolean(System
+			.getProperty("ch.ethz.iks.r_osgi.traceHeaders", "false")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * name of the work queue size gauge of this endpoint.
+	 */
+	private String workQueueMetric;
+
 	/**
 	 * used by the multiplexer and serves as a marker whether or not the channel
 	 * may dispose itself when the connection went down.
@@ -262,6 +295,15 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 	 * initialize the thread pool
 	 */
 	private void initThreadPool() {
+		workQueueMetric = "ecf.r_osgi.endpoint." //$NON-NLS-1$
+				+ networkChannel.getRemoteAddress() + ".workqueue.size"; //$NON-NLS-1$
+		MetricsRegistry.getDefault().gauge(workQueueMetric, new IGauge() {
+			public long getValue() {
+				synchronized (workQueue) {
+					return workQueue.size();
+				}
+			}
+		});
 		// TODO: tradeoff, could as well be central for all endpoints...
 		final ThreadGroup threadPool = new ThreadGroup("WorkerThreads"
 				+ toString());
@@ -302,6 +344,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			dispose();
 			return;
 		}
+		messagesReceived.increment();
 		final Integer xid = Integer.valueOf(msg.getXID());
 		final WaitingCallback callback;
 		synchronized (callbacks) {
@@ -311,9 +354,29 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			callback.result(msg);
 			return;
 		} else {
+			// remote calls continue the trace of the caller, the queue span
+			// covers the wait for the worker thread
+			final ISpan span;
+			final ISpan queueSpan;
+			if (msg instanceof RemoteCallMessage) {
+				span = Tracing.startSpan("ecf.r_osgi.execute", //$NON-NLS-1$
+						((RemoteCallMessage) msg).getHeaders());
+				queueSpan = Tracing.startSpan("ecf.r_osgi.queue", span); //$NON-NLS-1$
+			} else {
+				span = Tracing.NOOP_SPAN;
+				queueSpan = Tracing.NOOP_SPAN;
+			}
 			final Runnable r = new Runnable() {
 				public void run() {
-					final RemoteOSGiMessage reply = handleMessage(msg);
+					queueSpan.end();
+					final RemoteOSGiMessage reply;
+					final ISpan previous = Tracing.setCurrentSpan(span);
+					try {
+						reply = handleMessage(msg);
+					} finally {
+						Tracing.restoreCurrentSpan(previous);
+						span.end();
+					}
 					if (reply != null) {
 
 						try {
@@ -373,11 +436,20 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		invokeMsg.setServiceID(URI.create(service).getFragment());
 		invokeMsg.setMethodSignature(methodSignature);
 		invokeMsg.setArgs(args);
+		final ISpan span = startCallSpan(invokeMsg);
 
+		final long start = System.nanoTime();
 		try {
 			// send the message and get a MethodResultMessage in return
-			final RemoteCallResultMessage resultMsg = (RemoteCallResultMessage) sendAndWait(invokeMsg);
+			final RemoteCallResultMessage resultMsg;
+			try {
+				resultMsg = (RemoteCallResultMessage) sendAndWait(invokeMsg);
+			} finally {
+				callTime.recordSince(start);
+			}
 			if (resultMsg.causedException()) {
+				callFailures.increment();
+				span.setError(resultMsg.getException());
 				throw resultMsg.getException();
 			}
 			final Object result = resultMsg.getResult();
@@ -395,9 +467,34 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 				return result;
 			}
 		} catch (final RemoteOSGiException e) {
+			callFailures.increment();
+			span.setError(e);
 			throw new RemoteOSGiException("Method invocation of " //$NON-NLS-1$
 					+ service + " " + methodSignature + " failed.", e); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			span.end();
+		}
+	}
+
+	/**
+	 * start the client span of a remote call and, if enabled, add its trace
+	 * context to the message.
+	 * 
+	 * @param invokeMsg
+	 *            the remote call message.
+	 * @return the span.
+	 */
+	private ISpan startCallSpan(final RemoteCallMessage invokeMsg) {
+		final ISpan span = Tracing.startSpan("ecf.r_osgi.call"); //$NON-NLS-1$
+		if (span.isRecording()) {
+			span.setAttribute("method", invokeMsg.getMethodSignature()); //$NON-NLS-1$
+			if (TRACE_HEADERS) {
+				final Map<String, String> headers = new HashMap<String, String>();
+				span.inject(headers);
+				invokeMsg.setHeaders(headers);
+			}
 		}
+		return span;
 	}
 
 	void asyncRemoteCall(final String fragment, final String methodSignature,
@@ -415,11 +512,24 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 		}
 
 		final Integer xid = Integer.valueOf(RemoteOSGiServiceImpl.nextXid());
+		final RemoteCallMessage invokeMsg = new RemoteCallMessage();
+		invokeMsg.setServiceID(fragment);
+		invokeMsg.setMethodSignature(methodSignature);
+		invokeMsg.setArgs(args);
+		invokeMsg.setXID(xid.shortValue());
+		final ISpan span = startCallSpan(invokeMsg);
+		final long start = System.nanoTime();
 
 		synchronized (callbacks) {
 			callbacks.put(xid, new AsyncCallback() {
 				public void result(final RemoteOSGiMessage msg) {
+					callTime.recordSince(start);
 					final RemoteCallResultMessage resultMsg = (RemoteCallResultMessage) msg;
+					if (resultMsg.causedException()) {
+						callFailures.increment();
+						span.setError(resultMsg.getException());
+					}
+					span.end();
 					if (resultMsg.causedException()) {
 						callback.remoteCallResult(false, resultMsg
 								.getException());
@@ -438,16 +548,13 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			});
 		}
 
-		final RemoteCallMessage invokeMsg = new RemoteCallMessage();
-		invokeMsg.setServiceID(fragment);
-		invokeMsg.setMethodSignature(methodSignature);
-		invokeMsg.setArgs(args);
-		invokeMsg.setXID(xid.shortValue());
-
 		try {
 			send(invokeMsg);
 		} catch (final RemoteOSGiException e) {
 			callbacks.remove(xid);
+			callFailures.increment();
+			span.setError(e);
+			span.end();
 			callback
 					.remoteCallResult(
 							false,
@@ -559,6 +666,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 
 		RemoteOSGiServiceImpl.unregisterChannelEndpoint(getRemoteAddress()
 				.toString());
+		MetricsRegistry.getDefault().remove(workQueueMetric);
 		if (handlerReg != null) {
 			handlerReg.unregister();
 		}
@@ -1087,6 +1195,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			try {
 				trace("send(msg="+msg+";remoteAddress="+networkChannel.getRemoteAddress()+")");
 				networkChannel.sendMessage(msg);
+				messagesSent.increment();
 				return;
 			} catch (final IOException ioe) {
 				// TimeOffsetMessages have to be handled differently
@@ -1268,9 +1377,17 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 						.getMethodSignature());
 
 				// invoke method
+				final long start = System.nanoTime();
+				final ISpan span = Tracing.startSpan("ecf.r_osgi.invoke"); //$NON-NLS-1$
 				try {
-					Object result = method.invoke(serv.getServiceObject(),
-							arguments);
+					Object result;
+					try {
+						result = method.invoke(serv.getServiceObject(),
+								arguments);
+					} finally {
+						invokeTime.recordSince(start);
+						span.end();
+					}
 					final RemoteCallResultMessage m = new RemoteCallResultMessage();
 					m.setXID(invMsg.getXID());
 					Class returnType = method.getReturnType();
@@ -1292,6 +1409,7 @@ public final class ChannelEndpointImpl implements ChannelEndpoint {
 			} catch (final Throwable t) {
 				// TODO: send to log
 				t.printStackTrace();
+				Tracing.getCurrentSpan().setError(t);
 				final RemoteCallResultMessage m = new RemoteCallResultMessage();
 				m.setXID(invMsg.getXID());
 				m.setException(t);
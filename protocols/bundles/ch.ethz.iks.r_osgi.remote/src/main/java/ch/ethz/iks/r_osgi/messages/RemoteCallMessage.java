@@ -32,6 +32,9 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * <p>
@@ -58,6 +61,12 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 	 */
 	private Object[] arguments;
 
+	/**
+	 * the call headers, e.g. trace context. Only sent with version 2 of the
+	 * message.
+	 */
+	private Map<String, String> headers;
+
 	/**
 	 * creates a new InvokeMethodMessage.
 	 */
@@ -80,6 +89,8 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 	 *      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 	 *      |   number of param blocks      |     Param blocks (if any)     \
 	 *      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+	 *      |   number of headers (v2)      |  key/value Strings (if any)   \
+	 *      +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 	 * </pre>
 	 * 
 	 * .
@@ -87,12 +98,14 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 	 * @param input
 	 *            an <code>ObjectInputStream</code> that provides the body of a
 	 *            R-OSGi network packet.
+	 * @param version
+	 *            the version of the message format.
 	 * @throws IOException
 	 *             in case of IO failures.
 	 * @throws ClassNotFoundException
 	 */
-	RemoteCallMessage(final ObjectInputStream input) throws IOException,
-			ClassNotFoundException {
+	RemoteCallMessage(final ObjectInputStream input, final int version)
+			throws IOException, ClassNotFoundException {
 		super(REMOTE_CALL);
 
 		serviceID = input.readUTF();
@@ -102,6 +115,20 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 		for (short i = 0; i < argLength; i++) {
 			arguments[i] = input.readObject();
 		}
+		if (version >= 2) {
+			final short headerLength = input.readShort();
+			headers = new HashMap<String, String>(headerLength * 2);
+			for (short i = 0; i < headerLength; i++) {
+				headers.put(input.readUTF(), input.readUTF());
+			}
+		}
+	}
+
+	/**
+	 * @see ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage#getVersion()
+	 */
+	protected int getVersion() {
+		return (headers == null || headers.isEmpty()) ? 1 : 2;
 	}
 
 	/**
@@ -119,6 +146,15 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 		for (short i = 0; i < arguments.length; i++) {
 			out.writeObject(arguments[i]);
 		}
+		if (getVersion() >= 2) {
+			out.writeShort(headers.size());
+			for (final Iterator<Map.Entry<String, String>> i = headers
+					.entrySet().iterator(); i.hasNext();) {
+				final Map.Entry<String, String> header = i.next();
+				out.writeUTF(header.getKey());
+				out.writeUTF(header.getValue());
+			}
+		}
 	}
 
 	/**
@@ -159,6 +195,29 @@ public final class RemoteCallMessage extends RemoteOSGiMessage {
 		this.arguments = arguments;
 	}
 
+	/**
+	 * get the call headers.
+	 * 
+	 * @return the headers, or <code>null</code> if the caller did not send
+	 *         any.
+	 * @since 1.1
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * set the call headers. Peers that do not read version 2 of the message
+	 * cannot parse a message with headers.
+	 * 
+	 * @param headers
+	 *            the headers, or <code>null</code>.
+	 * @since 1.1
+	 */
+	public void setHeaders(final Map<String, String> headers) {
+		this.headers = headers;
+	}
+
 	/**
 	 * get the method signature.
 	 * 
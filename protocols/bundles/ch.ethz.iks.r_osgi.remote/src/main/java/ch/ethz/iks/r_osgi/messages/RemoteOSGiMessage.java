@@ -191,7 +191,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public static RemoteOSGiMessage parse(final ObjectInputStream input)
 			throws IOException, ClassNotFoundException {
-		input.readByte(); // version, currently unused
+		final byte version = input.readByte();
 		final short funcID = input.readByte();
 		final int xid = input.readInt();
 		RemoteOSGiMessage msg;
@@ -206,7 +206,7 @@ public abstract class RemoteOSGiMessage {
 			msg = new DeliverServiceMessage(input);
 			break;
 		case REMOTE_CALL:
-			msg = new RemoteCallMessage(input);
+			msg = new RemoteCallMessage(input, version);
 			break;
 		case REMOTE_CALL_RESULT:
 			msg = new RemoteCallResultMessage(input);
@@ -254,7 +254,7 @@ public abstract class RemoteOSGiMessage {
 	 */
 	public final void send(final ObjectOutputStream out) throws IOException {
 		synchronized (out) {
-			out.write(1);
+			out.write(getVersion());
 			out.write(funcID);
 			out.writeInt(xid);
 			writeBody(out);
@@ -263,6 +263,18 @@ public abstract class RemoteOSGiMessage {
 		}
 	}
 
+	/**
+	 * get the version of the message format written by {@link #writeBody}.
+	 * Messages that extend their body must only write a higher version if
+	 * the peer is known to read it.
+	 * 
+	 * @return the version.
+	 * @since 1.1
+	 */
+	protected int getVersion() {
+		return 1;
+	}
+
 	/**
 	 * write the body of a RemoteOSGiMessage.
 	 * 
@@ -70,6 +70,7 @@ public class Activator implements BundleActivator {
 	 * @see org.osgi.framework.BundleActivator#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(final BundleContext context) throws Exception {
-
+		// close the sockets shared by outgoing requests and end their threads
+		SLPCore.shutdown();
 	}
 }
@@ -124,6 +124,7 @@ public final class AdvertiserImpl implements Advertiser {
 			throw new ServiceLocationException((short) ack.errorCode,
 					"Registration failed");
 		}
+		SLPCore.registrationChanged();
 	}
 
 	/**
@@ -169,6 +170,7 @@ public final class AdvertiserImpl implements Advertiser {
 			throw new ServiceLocationException((short) ack.errorCode,
 					"Deregistration failed");
 		}
+		SLPCore.registrationChanged();
 	}
 
 	/**
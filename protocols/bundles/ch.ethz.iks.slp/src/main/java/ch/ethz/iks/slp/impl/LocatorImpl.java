@@ -38,6 +38,11 @@ import ch.ethz.iks.slp.ServiceURL;
  * @since 0.1
  */
 public final class LocatorImpl implements Locator {
+	/**
+	 * the results of recent lookups, shared by all instances.
+	 */
+	private static final ResultCache resultCache = new ResultCache();
+
 	/**
 	 * 
 	 */
@@ -97,7 +102,8 @@ public final class LocatorImpl implements Locator {
 			throws ServiceLocationException {
 		RequestMessage srvTypeReq = new ServiceTypeRequest(namingAuthority,
 				scopes, locale);
-		return new ServiceLocationEnumerationImpl(sendRequest(srvTypeReq,
+		return new ServiceLocationEnumerationImpl(sendRequest("SRVTYPE "
+				+ namingAuthority + " " + scopes + " " + locale, srvTypeReq,
 				scopes));
 	}
 
@@ -121,8 +127,9 @@ public final class LocatorImpl implements Locator {
 		try {
 			RequestMessage srvReq = new ServiceRequest(type, scopes,
 					searchFilter, locale);
-			return new ServiceLocationEnumerationImpl(sendRequest(srvReq,
-					scopes));
+			return new ServiceLocationEnumerationImpl(sendRequest("SRV "
+					+ type + " " + scopes + " " + searchFilter + " " + locale,
+					srvReq, scopes));
 		} catch (IllegalArgumentException ise) {
 			throw new ServiceLocationException(
 					ServiceLocationException.INTERNAL_SYSTEM_ERROR, ise
@@ -149,8 +156,9 @@ public final class LocatorImpl implements Locator {
 	public ServiceLocationEnumeration findAttributes(final ServiceURL url,
 			final List scopes, final List attributeIds)
 			throws ServiceLocationException {
-		return findAttributes(new AttributeRequest(url, scopes, attributeIds,
-				locale));
+		return findAttributes("ATTR " + url + " " + scopes + " "
+				+ attributeIds + " " + locale, new AttributeRequest(url, scopes,
+				attributeIds, locale));
 	}
 
 	/**
@@ -171,28 +179,65 @@ public final class LocatorImpl implements Locator {
 	public ServiceLocationEnumeration findAttributes(final ServiceType type,
 			final List scopes, final List attributeIds)
 			throws ServiceLocationException {
-		return findAttributes(new AttributeRequest(type, scopes, attributeIds,
-				locale));
+		return findAttributes("ATTR " + type + " " + scopes + " "
+				+ attributeIds + " " + locale, new AttributeRequest(type, scopes,
+				attributeIds, locale));
 	}
 
 	/**
 	 * common method that handles a predefined AttributeRequest.
 	 * 
+	 * @param key
+	 *            the key of the request in the result cache.
 	 * @param attReq
 	 *            the AttributeRequest.
 	 * @return the resulting Attributes as String.
 	 * @throws ServiceLocationException
 	 *             in case of network errors.
 	 */
-	private ServiceLocationEnumeration findAttributes(
+	private ServiceLocationEnumeration findAttributes(final String key,
 			final AttributeRequest attReq) throws ServiceLocationException {
-		return new ServiceLocationEnumerationImpl(sendRequest(attReq,
+		return new ServiceLocationEnumerationImpl(sendRequest(key, attReq,
 				attReq.scopeList));
 	}
 
 	/**
-	 * send a request. Uses direct communication to a DA or multicast
-	 * convergence, if no DA is known for the specific scope.
+	 * send a request, or return the cached result of the same request if it
+	 * has been sent recently and no local service has been registered or
+	 * deregistered since.
+	 * 
+	 * @param key
+	 *            the key of the request in the result cache.
+	 * @param req
+	 *            the request.
+	 * @param scopeList
+	 *            the scopes.
+	 * @return the list of results.
+	 * @throws ServiceLocationException
+	 *             if something goes wrong.
+	 */
+	private List sendRequest(final String key, final RequestMessage req,
+			final List scopeList) throws ServiceLocationException {
+		final int cacheTime = SLPCore.CONFIG.getLocatorCacheTime();
+		if (cacheTime <= 0) {
+			return sendRequest(req, scopeList);
+		}
+		final int registrationChanges = SLPCore.registrationChanges;
+		final List cached = resultCache.get(key, registrationChanges, System
+				.currentTimeMillis());
+		if (cached != null) {
+			return cached;
+		}
+		final List result = sendRequest(req, scopeList);
+		final long now = System.currentTimeMillis();
+		resultCache.put(key, result, registrationChanges, now, now + cacheTime);
+		return result;
+	}
+
+	/**
+	 * send a request. Uses direct communication to the DAs of the scopes, and
+	 * a single multicast convergence for all scopes for which no DA is known
+	 * or reachable.
 	 * 
 	 * @param req
 	 *            the request.
@@ -207,19 +252,20 @@ public final class LocatorImpl implements Locator {
 		List scopes = scopeList != null ? scopeList : Arrays
 				.asList(new String[] { "default" });
 
-		ArrayList result = new ArrayList();
-		for (Iterator scopeIter = scopes.iterator(); scopeIter.hasNext();) {
-			String scope = (String) scopeIter.next();
-			scope = scope.toLowerCase();
-			List dAs = (List) SLPCore.dAs.get(scope);
-
-			SLPCore.platform
-						.logDebug("DAS FOR SCOPE " + scope + ": " + dAs);
-
-			// no DA for the scope known ?
-			// try to find one
-			if ((dAs == null || dAs.isEmpty()) && !SLPCore.noDiscovery) {
-				SLPCore.daLookup(Arrays.asList(new String[] { scope }));
+		// no DA for the scopes known ?
+		// try to find them with one lookup
+		if (!SLPCore.noDiscovery) {
+			final List unknown = new ArrayList();
+			for (Iterator scopeIter = scopes.iterator(); scopeIter.hasNext();) {
+				final String scope = ((String) scopeIter.next()).toLowerCase();
+				final List dAs = (List) SLPCore.dAs.get(scope);
+				if (dAs == null || dAs.isEmpty()) {
+					unknown.add(scope);
+				}
+			}
+			if (!unknown.isEmpty()) {
+				SLPCore.platform.logDebug("NO DAS FOR SCOPES " + unknown);
+				SLPCore.daLookup(unknown);
 
 				// wait a short time for incoming replies
 				synchronized (SLPCore.dAs) {
@@ -231,17 +277,32 @@ public final class LocatorImpl implements Locator {
 						Thread.currentThread().interrupt();
 					}
 				}
-				dAs = (List) SLPCore.dAs.get(scope);
 			}
+		}
+
+		ArrayList result = new ArrayList();
+		final List multicastScopes = new ArrayList();
+		final List contacted = new ArrayList();
+		for (Iterator scopeIter = scopes.iterator(); scopeIter.hasNext();) {
+			String scope = (String) scopeIter.next();
+			scope = scope.toLowerCase();
+			List dAs = (List) SLPCore.dAs.get(scope);
+
+			SLPCore.platform
+						.logDebug("DAS FOR SCOPE " + scope + ": " + dAs);
 
 			if (dAs != null && !dAs.isEmpty()) {
 				// a DA is known for this scope, so contact it
+				// unless it has already been asked for another scope
+				if (contacted.containsAll(dAs)) {
+					continue;
+				}
 				try {
 					result.addAll(sendRequestToDA(req, dAs));
+					contacted.addAll(dAs);
 				} catch (ServiceLocationException slp) {
-					result.addAll(SLPCore.multicastConvergence(req));
+					multicastScopes.add(scope);
 				}
-				continue;
 			} else {
 				if (SLPCore.noDiscovery) {
 					throw new ServiceLocationException(
@@ -250,9 +311,16 @@ public final class LocatorImpl implements Locator {
 				}
 
 				// still no DA available, use multicast
-				result.addAll(SLPCore.multicastConvergence(req));
+				multicastScopes.add(scope);
 			}
 		}
+
+		// one multicast convergence for all remaining scopes, SAs reply if
+		// they support any of them
+		if (!multicastScopes.isEmpty()) {
+			req.scopeList = multicastScopes;
+			result.addAll(SLPCore.multicastConvergence(req));
+		}
 		return result;
 	}
 
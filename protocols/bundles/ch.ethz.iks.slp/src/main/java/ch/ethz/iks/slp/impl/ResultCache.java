@@ -0,0 +1,110 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the results of recent lookups of the <code>Locator</code>. A result is
+ * reused until it expires or until a local service is registered or
+ * deregistered. Registrations and deregistrations of other peers are not
+ * noticed, so the cache is only used if
+ * <code>ch.ethz.iks.slp.locatorCacheTime</code> is set.
+ * 
+ * @since 1.6
+ */
+final class ResultCache {
+
+	/**
+	 * String key -> CachedResult.
+	 */
+	private final Map results = new HashMap();
+
+	/**
+	 * a cached lookup result.
+	 */
+	private static final class CachedResult {
+		final List result;
+		final long expires;
+		final int registrationChanges;
+
+		CachedResult(final List result, final long expires,
+				final int registrationChanges) {
+			this.result = result;
+			this.expires = expires;
+			this.registrationChanges = registrationChanges;
+		}
+	}
+
+	/**
+	 * get a cached result.
+	 * 
+	 * @param key
+	 *            the key of the request.
+	 * @param registrationChanges
+	 *            the current number of local registration changes.
+	 * @param now
+	 *            the current time.
+	 * @return a copy of the result, or <code>null</code> if there is no
+	 *         valid result for the key.
+	 */
+	synchronized List get(final String key, final int registrationChanges,
+			final long now) {
+		final CachedResult cached = (CachedResult) results.get(key);
+		if (cached != null && cached.expires > now
+				&& cached.registrationChanges == registrationChanges) {
+			return new ArrayList(cached.result);
+		}
+		return null;
+	}
+
+	/**
+	 * cache a result, and drop the results that are no longer valid.
+	 * 
+	 * @param key
+	 *            the key of the request.
+	 * @param result
+	 *            the result.
+	 * @param registrationChanges
+	 *            the number of local registration changes when the request
+	 *            was sent.
+	 * @param now
+	 *            the current time.
+	 * @param expires
+	 *            the time at which the result expires.
+	 */
+	synchronized void put(final String key, final List result,
+			final int registrationChanges, final long now, final long expires) {
+		for (Iterator iter = results.values().iterator(); iter.hasNext();) {
+			final CachedResult cached = (CachedResult) iter.next();
+			if (cached.expires <= now
+					|| cached.registrationChanges != registrationChanges) {
+				iter.remove();
+			}
+		}
+		results.put(key, new CachedResult(new ArrayList(result), expires,
+				registrationChanges));
+	}
+
+	/**
+	 * @return the number of cached results.
+	 */
+	synchronized int size() {
+		return results.size();
+	}
+}
@@ -116,6 +116,10 @@ class SLPConfiguration {
 	private static final String CONVERGENCE_FAILERCOUNT_PROP = "net.slp.failercount";
 	
 	private static final String DEBUG_ENABLED_PROP = "ch.ethz.iks.slp.debug";
+
+	private static final String LOCATOR_CACHE_TIME_PROP = "ch.ethz.iks.slp.locatorCacheTime";
+
+	private static final String LOCATOR_CACHE_TIME_DEFAULT = "0";
 	
 	private static String[] INTERFACES;
 
@@ -160,6 +164,8 @@ class SLPConfiguration {
 	private static int CONVERGENCE_FAILERCOUNT;
 
 	private static boolean DEBUG_ENABLED;
+
+	private static int LOCATOR_CACHE_TIME;
 	
 	/**
 	 * create a new SLPConfiguration from properties.
@@ -246,6 +252,9 @@ class SLPConfiguration {
 
 		DEBUG_ENABLED = new Boolean(props.getProperty(DEBUG_ENABLED_PROP,
 		"false")).booleanValue();
+
+		LOCATOR_CACHE_TIME = Integer.parseInt(props.getProperty(
+				LOCATOR_CACHE_TIME_PROP, LOCATOR_CACHE_TIME_DEFAULT));
 		
 		if (SECURITY_ENABLED) {
 			PUBLIC_KEY_CACHE = new HashMap(0);
@@ -507,6 +516,18 @@ class SLPConfiguration {
 		return DEBUG_ENABLED;
 	}
 
+	/**
+	 * get the time that the results of a lookup are reused by the
+	 * <code>Locator</code>. Caching is off by default, since a cached result
+	 * does not reflect registrations and deregistrations of other peers until
+	 * it expires.
+	 * 
+	 * @return the time in milliseconds, 0 if results are not cached.
+	 */
+	int getLocatorCacheTime() {
+		return LOCATOR_CACHE_TIME;
+	}
+
 	/**
 	 * @return int defining when a TCP send should time out
 	 */
@@ -20,7 +20,6 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InterruptedIOException;
 import java.lang.reflect.Constructor;
 import java.net.BindException;
 import java.net.DatagramPacket;
@@ -31,6 +30,7 @@ import java.net.MulticastSocket;
 import java.net.ProtocolException;
 import java.net.Socket;
 import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -39,6 +39,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import ch.ethz.iks.slp.ServiceLocationException;
 import ch.ethz.iks.slp.ServiceType;
@@ -149,9 +150,68 @@ public abstract class SLPCore {
 	private static short nextXid;
 
 	/**
-	 * used to asynchronously receive replies. query XID -> reply queue (List)
+	 * used to asynchronously receive replies. query XID -> ReplyQueue
 	 */
-	private static Map replyListeners = new HashMap();
+	private static final Map replyQueues = new ConcurrentHashMap();
+
+	/**
+	 * the sockets shared by all outgoing UDP requests. interface IP ->
+	 * MulticastSocket, the empty String for the unicast socket.
+	 */
+	private static final Map udpSockets = new HashMap();
+
+	/**
+	 * the receiver threads of the shared sockets. Guarded by udpSockets.
+	 */
+	private static final List udpReceivers = new ArrayList();
+
+	/**
+	 * the queue of replies to an outstanding request.
+	 */
+	static final class ReplyQueue {
+		private final List replies = new ArrayList();
+
+		synchronized void add(final Object reply) {
+			replies.add(reply);
+			notifyAll();
+		}
+
+		/**
+		 * wait for replies.
+		 * 
+		 * @param deadline
+		 *            the time to wait for replies until.
+		 * @return the replies that have been received since the last call,
+		 *         empty if none arrived until the deadline.
+		 * @throws InterruptedException
+		 *             if the waiting thread was interrupted.
+		 */
+		synchronized List take(final long deadline)
+				throws InterruptedException {
+			long remaining;
+			while (replies.isEmpty()
+					&& (remaining = deadline - System.currentTimeMillis()) > 0) {
+				wait(remaining);
+			}
+			final List result = new ArrayList(replies);
+			replies.clear();
+			return result;
+		}
+	}
+
+	/**
+	 * a reply that did not fit into a datagram. The request has to be repeated
+	 * over TCP.
+	 */
+	static final class Overflow {
+		final InetAddress address;
+		final int port;
+
+		Overflow(final InetAddress address, final int port) {
+			this.address = address;
+			this.port = port;
+		}
+	}
 
 	/**
 	 * Map of DAs:
@@ -169,6 +229,12 @@ public abstract class SLPCore {
 
 	static InetAddress LOCALHOST;
 
+	/**
+	 * counts the registrations and deregistrations of local services. Used to
+	 * invalidate cached lookup results.
+	 */
+	static volatile int registrationChanges;
+
 	/**
 	 * initialize the core class.
 	 */
@@ -401,6 +467,13 @@ public abstract class SLPCore {
 		}
 	}
 
+	/**
+	 * note that a local service has been registered or deregistered.
+	 */
+	static synchronized void registrationChanged() {
+		registrationChanges++;
+	}
+
 	/**
 	 * get my own IP.
 	 * 
@@ -444,6 +517,16 @@ public abstract class SLPCore {
 		platform.logTraceMessage("RECEIVED (" + message.address + ":"
 					+ message.port + ") " + message);
 
+		// replies to our own requests are handed to the waiting thread
+		if (message instanceof ReplyMessage) {
+			final ReplyQueue queue = (ReplyQueue) replyQueues.get(Integer
+					.valueOf(message.xid));
+			if (queue != null) {
+				queue.add(message);
+				return null;
+			}
+		}
+
 		switch (message.funcID) {
 		case SLPMessage.DAADVERT:
 			// drop message, if noDADiscovery is set
@@ -516,23 +599,10 @@ public abstract class SLPCore {
 		case SLPMessage.ATTRRPLY:
 		case SLPMessage.SRVRPLY:
 		case SLPMessage.SRVTYPERPLY:
-			synchronized (replyListeners) {
-				List queue = (List) replyListeners
-						.get(Integer.valueOf(message.xid));
-
-				if (queue != null) {
-					synchronized (queue) {
-						queue.add(message);
-						queue.notifyAll();
-					}
-					return null;
-				} else {
-					platform.logTraceReg("SRVTYPEREPLY recieved ("
-							+ message.address + ":" + message.port + ") "
-							+ message.toString()
-							+ " but not replyListeners present anymore");
-				}
-			}
+			platform.logTraceReg("SRVTYPEREPLY recieved ("
+					+ message.address + ":" + message.port + ") "
+					+ message.toString()
+					+ " but not replyListeners present anymore");
 			return null;
 
 			// request messages
@@ -583,7 +653,7 @@ public abstract class SLPCore {
 	 * 
 	 * @return the next XID.
 	 */
-	static short nextXid() {
+	static synchronized short nextXid() {
 		if (nextXid == 0) {
 			nextXid = 1;
 		}
@@ -607,9 +677,8 @@ public abstract class SLPCore {
 			// used 1.4 SocketAddress
 			// altered by Jan to be backwards compatible with Java 2
 			for (; i < myIPs.length; i++) {
-				// create a socket bound to the next ip address
-				final InetAddress addr = InetAddress.getByName(myIPs[i]);
-				DatagramSocket socket = new DatagramSocket(0, addr);
+				// use the socket of the next ip address
+				final DatagramSocket socket = getUDPSocket(myIPs[i]);
 
 				ServiceRequest sreq = new ServiceRequest(new ServiceType(
 						SLP_DA_TYPE), scopes, null, SLPCore.DEFAULT_LOCALE);
@@ -621,7 +690,6 @@ public abstract class SLPCore {
 				DatagramPacket d = new DatagramPacket(bytes, bytes.length,
 						MCAST_ADDRESS, SLP_PORT);
 				platform.logTraceMessage("SENT " + sreq + "(udp multicast)");
-				setupReceiverThread(socket, CONFIG.getWaitTime(), sreq);
 				try {
 					socket.send(d);
 				} catch (SocketException se) {
@@ -632,6 +700,7 @@ public abstract class SLPCore {
 					remaining.remove(faulty);
 					myIPs = (String[]) remaining.toArray(new String[remaining
 							.size()]);
+					closeUDPSocket(faulty, socket);
 					platform.logDebug("Blacklisting IP " + faulty);
 				}
 			}
@@ -699,23 +768,20 @@ public abstract class SLPCore {
 			return sendMessageTCP(msg);
 		}
 
+		final ReplyQueue queue = expectReply ? registerReplyQueue(msg.xid)
+				: null;
 		try {
-			DatagramSocket dsocket = new DatagramSocket();
-			dsocket.setSoTimeout(CONFIG.getDatagramMaxWait());
+			final DatagramSocket socket = getUDPSocket("");
 
 			byte[] bytes = msg.getBytes();
 
 			DatagramPacket packet = new DatagramPacket(bytes, bytes.length,
 					msg.address, msg.port);
 
-			byte[] receivedBytes = new byte[CONFIG.getMTU()];
-			DatagramPacket received = new DatagramPacket(receivedBytes,
-					receivedBytes.length);
-
-			dsocket.send(packet);
+			socket.send(packet);
 
 			platform.logTraceMessage("SENT (" + msg.address + ":" + msg.port + ") "
-						+ msg + " (via udp port " + dsocket.getLocalPort()
+						+ msg + " (via udp port " + socket.getLocalPort()
 						+ ")");
 
 			// if no reply is expected, return
@@ -723,34 +789,48 @@ public abstract class SLPCore {
 				return null;
 			}
 
-			dsocket.receive(received);
-			dsocket.close();
-			final DataInputStream in = new DataInputStream(
-					new ByteArrayInputStream(received.getData()));
-			ReplyMessage reply = (ReplyMessage) SLPMessage.parse(received
-					.getAddress(), received.getPort(), in, false);
-			return reply;
+			final List replies = queue.take(System.currentTimeMillis()
+					+ CONFIG.getDatagramMaxWait());
+			if (replies.isEmpty()) {
+				throw new SocketTimeoutException("No reply from "
+						+ msg.address + ":" + msg.port + " within "
+						+ CONFIG.getDatagramMaxWait() + " ms");
+			}
+			if (replies.get(0) instanceof Overflow) {
+				// Overflow, retry with TCP
+				return sendMessageTCP(msg);
+			}
+			return (ReplyMessage) replies.get(0);
 		} catch (SocketException se) {
 			throw new ServiceLocationException(
 					ServiceLocationException.NETWORK_INIT_FAILED, se
 							.getMessage());
-		} catch (ProtocolException pe) {
-			// Overflow, retry with TCP
-			return sendMessageTCP(msg);
 		} catch (IOException ioe) {
 			platform.logError("Exception during sending of " + msg);
 			platform.logError("to " + msg.address + ":" + msg.port);
 			platform.logError("Exception:", ioe);
 			throw new ServiceLocationException(
 					ServiceLocationException.NETWORK_ERROR, ioe.getMessage());
+		} catch (InterruptedException ie) {
+			// Restore the interrupted status
+			Thread.currentThread().interrupt();
+			throw new ServiceLocationException(
+					ServiceLocationException.NETWORK_ERROR, ie.getMessage());
+		} catch (ServiceLocationException sle) {
+			throw sle;
 		} catch (Throwable t) {
 			platform.logDebug(t.getMessage(), t);
 			throw new ServiceLocationException((short) 1, t.getMessage());
+		} finally {
+			if (queue != null) {
+				replyQueues.remove(Integer.valueOf(msg.xid));
+			}
 		}
 	}
 
 	/**
-	 * send a request via multicast convergence algorithm.
+	 * send a request via multicast convergence algorithm. The request is sent
+	 * on all interfaces at once, the replies are collected as they arrive.
 	 * 
 	 * @param msg
 	 *            the message.
@@ -764,7 +844,6 @@ public abstract class SLPCore {
 
 			long start = System.currentTimeMillis();
 
-			List replyQueue = new ArrayList();
 			List responders = new ArrayList();
 			List responses = new ArrayList();
 
@@ -773,54 +852,41 @@ public abstract class SLPCore {
 			}
 
 			// register the reply queue as listener
-			Integer queryXID = Integer.valueOf(msg.xid);
-			synchronized (replyListeners) {
-				replyListeners.put(queryXID, replyQueue);
-			}
-
-			msg.port = SLPCore.SLP_PORT;
-			msg.prevRespList = new ArrayList();
-			msg.multicast = true;
-
-			// send to localhost, in case the OS does not support multicast over
-			// loopback which can fail if no SA is running locally
-			msg.address = LOCALHOST;
+			final ReplyQueue replyQueue = registerReplyQueue(msg.xid);
 			try {
-				replyQueue.add(sendMessageTCP(msg));
-			} catch (ServiceLocationException e) {
-				if(e.getErrorCode() != ServiceLocationException.NETWORK_ERROR) {
-					throw e;
-				}
-			}
+				msg.port = SLPCore.SLP_PORT;
+				msg.prevRespList = new ArrayList();
+				msg.multicast = true;
 
-			msg.address = MCAST_ADDRESS;
-			ReplyMessage reply;
+				// send to localhost, in case the OS does not support multicast over
+				// loopback which can fail if no SA is running locally
+				msg.address = LOCALHOST;
+				try {
+					replyQueue.add(sendMessageTCP(msg));
+				} catch (ServiceLocationException e) {
+					if(e.getErrorCode() != ServiceLocationException.NETWORK_ERROR) {
+						throw e;
+					}
+				}
 
-			for (int i = 0; i < myIPs.length; i++) {
-				// create a socket bound to the next ip address
-				final InetAddress addr = InetAddress.getByName(myIPs[i]);
-				final MulticastSocket socket = new MulticastSocket();
-				socket.setInterface(addr);
-				socket.setTimeToLive(CONFIG.getMcastTTL());
+				msg.address = MCAST_ADDRESS;
 
-				setupReceiverThread(socket, CONFIG.getMcastMaxWait(), msg);
+				// the sockets bound to the ip addresses
+				final DatagramSocket[] sockets = new DatagramSocket[myIPs.length];
+				for (int i = 0; i < sockets.length; i++) {
+					sockets[i] = getUDPSocket(myIPs[i]);
+				}
 
 				// the multicast convergence algorithm
 				long totalTimeout = System.currentTimeMillis()
 						+ CONFIG.getMcastMaxWait();
 				int[] transmissionSchedule = SLPCore.CONFIG.getMcastTimeouts();
 				int retryCounter = 0;
-				long nextTimeout;
 				int failCounter = 0;
-				boolean seenNew = false;
 				boolean seenLocalResponse = false;
 
-				nextTimeout = System.currentTimeMillis()
-						+ transmissionSchedule[retryCounter];
-
 				while (!Thread.currentThread().isInterrupted()
 						&& totalTimeout > System.currentTimeMillis()
-						&& nextTimeout > System.currentTimeMillis()
 						&& retryCounter < transmissionSchedule.length
 						&& failCounter < CONFIG.getConvergenceFailerCount()) {
 
@@ -832,14 +898,19 @@ public abstract class SLPCore {
 						break;
 					}
 
-					// send the message
-					DatagramPacket p = new DatagramPacket(message,
-							message.length, InetAddress
-									.getByName(SLP_MCAST_ADDRESS), SLP_PORT);
-
-					try {
-						socket.send(p);
-					} catch (IOException ioe) {
+					// send the message on all interfaces
+					boolean sent = false;
+					for (int i = 0; i < sockets.length; i++) {
+						DatagramPacket p = new DatagramPacket(message,
+								message.length, MCAST_ADDRESS, SLP_PORT);
+						try {
+							sockets[i].send(p);
+							sent = true;
+						} catch (IOException ioe) {
+							platform.logDebug(ioe.getMessage(), ioe);
+						}
+					}
+					if (!sent) {
 						break;
 					}
 
@@ -850,26 +921,30 @@ public abstract class SLPCore {
 					 *       Thanks to Richard Reid for figuring out the problem
 					 *       with multicast replies and proposing the fix
 					 */
-					try {
-						Thread.sleep(transmissionSchedule[retryCounter]);
-					} catch (InterruptedException dontcare) {
-						// Restore the interrupted status
-						Thread.currentThread().interrupt();
-					}
-
-					synchronized (replyQueue) {
-						// did something else wake us up ?
-						if (replyQueue.isEmpty()) {
-							failCounter++;
-							nextTimeout = System.currentTimeMillis()
-									+ transmissionSchedule[retryCounter++];
-							continue;
+					final long nextTimeout = Math.min(totalTimeout, System
+							.currentTimeMillis()
+							+ transmissionSchedule[retryCounter++]);
+					boolean seenNew = false;
+					while (System.currentTimeMillis() < nextTimeout) {
+						final List replies;
+						try {
+							replies = replyQueue.take(nextTimeout);
+						} catch (InterruptedException dontcare) {
+							// Restore the interrupted status
+							Thread.currentThread().interrupt();
+							break;
 						}
-						while (!replyQueue.isEmpty()) {
-							reply = (ReplyMessage) replyQueue.remove(0);
+						for (Iterator iter = replies.iterator(); iter.hasNext();) {
+							Object next = iter.next();
+							if (next instanceof Overflow) {
+								next = sendMessageTCP(msg, (Overflow) next);
+								if (next == null) {
+									continue;
+								}
+							}
+							final ReplyMessage reply = (ReplyMessage) next;
 							// silently drop duplicate responses, process only
-							// new
-							// results
+							// new results
 							if (!responders.contains(reply.address
 									.getHostAddress())) {
 								if (isLocalResponder(reply.address)) {
@@ -884,21 +959,15 @@ public abstract class SLPCore {
 								responses.addAll(reply.getResult());
 							}
 						}
+					}
 
-						if (!seenNew) {
-							failCounter++;
-						} else {
-							seenNew = false;
-						}
+					if (!seenNew) {
+						failCounter++;
 					}
-					nextTimeout = System.currentTimeMillis()
-							+ transmissionSchedule[retryCounter++];
 				}
-			}
-
-			// we are done, remove the listener queue
-			synchronized (replyListeners) {
-				replyListeners.remove(queryXID);
+			} finally {
+				// we are done, remove the listener queue
+				replyQueues.remove(Integer.valueOf(msg.xid));
 			}
 
 			platform.logDebug("convergence for xid=" + msg.xid
@@ -913,6 +982,36 @@ public abstract class SLPCore {
 		}
 	}
 
+	/**
+	 * repeat a multicast request over TCP to a responder whose reply did not
+	 * fit into a datagram.
+	 * 
+	 * @param msg
+	 *            the multicast request.
+	 * @param overflow
+	 *            the responder.
+	 * @return the reply, or <code>null</code> if the responder could not be
+	 *         reached.
+	 */
+	private static ReplyMessage sendMessageTCP(final RequestMessage msg,
+			final Overflow overflow) {
+		final InetAddress address = msg.address;
+		final int port = msg.port;
+		msg.address = overflow.address;
+		msg.port = overflow.port;
+		msg.multicast = false;
+		try {
+			return sendMessageTCP(msg);
+		} catch (ServiceLocationException e) {
+			platform.logDebug(e.getMessage(), e);
+			return null;
+		} finally {
+			msg.address = address;
+			msg.port = port;
+			msg.multicast = true;
+		}
+	}
+
 	private static boolean isLocalResponder(InetAddress addr) {
 		for (int i = 0; i < SLPCore.myIPs.length; i++) {
 			if (addr.getHostAddress().equals(SLPCore.myIPs[i])) {
@@ -923,72 +1022,159 @@ public abstract class SLPCore {
 	}
 
 	/**
-	 * setup a new receiver thread for a socket.
+	 * register a queue for the replies to a request.
+	 * 
+	 * @param xid
+	 *            the XID of the request.
+	 * @return the queue.
+	 */
+	private static ReplyQueue registerReplyQueue(final short xid) {
+		final ReplyQueue queue = new ReplyQueue();
+		replyQueues.put(Integer.valueOf(xid), queue);
+		return queue;
+	}
+
+	/**
+	 * get the shared socket for outgoing UDP requests on an interface. The
+	 * socket and its receiver thread are created on first use, and are shared
+	 * by all requests.
+	 * 
+	 * @param ip
+	 *            the ip address of the interface, or the empty String for
+	 *            unicast requests.
+	 * @return the socket.
+	 * @throws IOException
+	 *             if the socket cannot be created.
+	 */
+	static DatagramSocket getUDPSocket(final String ip)
+			throws IOException {
+		synchronized (udpSockets) {
+			MulticastSocket socket = (MulticastSocket) udpSockets.get(ip);
+			if (socket == null) {
+				socket = new MulticastSocket();
+				if (ip.length() > 0) {
+					socket.setInterface(InetAddress.getByName(ip));
+				}
+				socket.setTimeToLive(CONFIG.getMcastTTL());
+				udpSockets.put(ip, socket);
+				setupReceiverThread(socket, ip);
+			}
+			return socket;
+		}
+	}
+
+	/**
+	 * close a shared socket, a new one is created on next use.
+	 * 
+	 * @param ip
+	 *            the ip address of the interface.
+	 * @param socket
+	 *            the socket.
+	 */
+	private static void closeUDPSocket(final String ip,
+			final DatagramSocket socket) {
+		synchronized (udpSockets) {
+			if (udpSockets.get(ip) == socket) {
+				udpSockets.remove(ip);
+			}
+		}
+		socket.close();
+	}
+
+	/**
+	 * close the shared sockets of outgoing UDP requests and wait for their
+	 * receiver threads to end. Sockets are created again on next use.
+	 */
+	static void shutdown() {
+		final Thread[] threads;
+		synchronized (udpSockets) {
+			for (final Iterator i = udpSockets.values().iterator(); i.hasNext();) {
+				((DatagramSocket) i.next()).close();
+			}
+			udpSockets.clear();
+			threads = (Thread[]) udpReceivers.toArray(new Thread[udpReceivers
+					.size()]);
+			udpReceivers.clear();
+		}
+		for (int i = 0; i < threads.length; i++) {
+			try {
+				threads[i].join(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * setup the receiver thread for a shared socket. The thread hands all
+	 * received messages to <code>handleMessage</code>, which passes replies on
+	 * to the queue of the request with the same XID.
 	 * 
 	 * @param socket
 	 *            the <code>DatagramSocket</code> for which the receiver
 	 *            thread is set up.
-	 * @param minLifetime
-	 *            the minimum lifetime of the receiver thread.
+	 * @param ip
+	 *            the ip address of the interface of the socket.
 	 */
 	private static void setupReceiverThread(final DatagramSocket socket,
-			final long minLifetime, final SLPMessage msg) {
-		new Thread() {
+			final String ip) {
+		final Thread thread = new Thread("jSLP UDP Receiver "
+				+ (ip.length() > 0 ? ip : "unicast")) {
 			public void run() {
+				try {
+					receive();
+				} finally {
+					synchronized (udpSockets) {
+						udpReceivers.remove(this);
+					}
+				}
+			}
+
+			private void receive() {
 
 				// prepare an empty datagram for receiving
 				DatagramPacket packet;
 				byte[] bytes = new byte[SLPCore.CONFIG.getMTU()];
 
-				// calculate the end of lifetime
-				long timeout = System.currentTimeMillis() + minLifetime + 1000;
-
-				// while lifetime is not expired
-				while (System.currentTimeMillis() < timeout) {
-					// set socket timeout
-					try {
-						long l = timeout - System.currentTimeMillis();
-						int soTimeout = (int) (l < 0 ? 1 : l);
-						socket.setSoTimeout(soTimeout);
-					} catch (SocketException e1) {
-						platform.logError(
-									"Exception in mcast receiver thread", e1);
-						return;
-					}
-
+				while (!socket.isClosed()) {
 					packet = new DatagramPacket(bytes, bytes.length);
 					try {
 						// try to receive a datagram packet
 						socket.receive(packet);
-					} catch (InterruptedIOException iioe) {
-						continue;
 					} catch (IOException e) {
-						platform.logDebug(e.getMessage(), e);
+						if (!socket.isClosed()) {
+							platform.logDebug(e.getMessage(), e);
+							closeUDPSocket(ip, socket);
+						}
 						return;
 					}
 					final DataInputStream in = new DataInputStream(
-							new ByteArrayInputStream(packet.getData()));
+							new ByteArrayInputStream(packet.getData(), 0,
+									packet.getLength()));
 					try {
 						// and delegate it to the SLPCore
 						handleMessage(SLPMessage.parse(packet.getAddress(),
 								packet.getPort(), in, false));
 					} catch (ProtocolException pe) {
-						// Overflow, try to use TCP
-						try {
-							msg.address = packet.getAddress();
-							msg.port = packet.getPort();
-							msg.multicast = false;
-							handleMessage(sendMessageTCP(msg));
-						} catch (ServiceLocationException e) {
+						// Overflow, let the waiting request use TCP
+						final short xid = (short) (((bytes[10] & 0xFF) << 8) | (bytes[11] & 0xFF));
+						final ReplyQueue queue = (ReplyQueue) replyQueues
+								.get(Integer.valueOf(xid));
+						if (queue != null) {
+							queue.add(new Overflow(packet.getAddress(), packet
+									.getPort()));
 						}
 					} catch (ServiceLocationException e) {
 						platform.logDebug(e.getMessage(), e);
+					} catch (RuntimeException e) {
+						platform.logError("Exception in UDP receiver thread", e);
 					}
 				}
-
-				// close the socket
-				socket.close();
 			}
-		}.start();
+		};
+		thread.setDaemon(true);
+		udpReceivers.add(thread);
+		thread.start();
 	}
 }
@@ -54,7 +54,7 @@ public final class SLPDaemonImpl implements SLPDaemon {
 	/**
 	 * Map of registered services:
 	 * 
-	 * String scope -> List of ServiceURLs services.
+	 * String scope -> ServiceIndex services.
 	 */
 	private Map registeredServices = new HashMap();
 
@@ -94,7 +94,13 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			String scope = (String) scopeIter.next();
 			scope = scope.toLowerCase();
 			synchronized (registeredServices) {
-				SLPUtils.addValue(registeredServices, scope, service);
+				ServiceIndex services = (ServiceIndex) registeredServices
+						.get(scope);
+				if (services == null) {
+					services = new ServiceIndex();
+					registeredServices.put(scope, services);
+				}
+				services.add(service);
 			}
 			if (reg.url.getLifetime() > ServiceURL.LIFETIME_PERMANENT) {
 				synchronized (serviceDisposalQueue) {
@@ -175,12 +181,17 @@ public final class SLPDaemonImpl implements SLPDaemon {
 	private void deregisterService(final ServiceDeregistration dereg)
 			throws ServiceLocationException {
 
-		final String[] scopes = (String[]) registeredServices.keySet().toArray(
-				new String[registeredServices.size()]);
+		final String[] scopes;
+		synchronized (registeredServices) {
+			scopes = (String[]) registeredServices.keySet().toArray(
+					new String[registeredServices.size()]);
+		}
 		for (int i = 0; i < scopes.length; i++) {
-			final List tmp = (List) registeredServices.get(scopes[i]);
-			final Service[] services = (Service[]) tmp.toArray(new Service[tmp
-					.size()]);
+			final ServiceIndex index = getServices(scopes[i]);
+			if (index == null) {
+				continue;
+			}
+			final Service[] services = index.getServices();
 
 			for (int j = 0; j < services.length; j++) {
 				if (dereg.url.matches(services[j].url)) {
@@ -214,8 +225,11 @@ public final class SLPDaemonImpl implements SLPDaemon {
 						}
 					}
 					synchronized (registeredServices) {
-						SLPUtils.removeValue(registeredServices, scopes[i],
-								services[j]);
+						index.remove(services[j]);
+						if (index.isEmpty()
+								&& registeredServices.get(scopes[i]) == index) {
+							registeredServices.remove(scopes[i]);
+						}
 					}
 					break;
 				}
@@ -223,6 +237,19 @@ public final class SLPDaemonImpl implements SLPDaemon {
 		}
 	}
 
+	/**
+	 * get the services registered in a scope.
+	 * 
+	 * @param scope
+	 *            the scope.
+	 * @return the services, or <code>null</code> if there are none.
+	 */
+	private ServiceIndex getServices(final String scope) {
+		synchronized (registeredServices) {
+			return (ServiceIndex) registeredServices.get(scope.toLowerCase());
+		}
+	}
+
 	/**
 	 * all incoming messages are handled here.
 	 * 
@@ -253,22 +280,17 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			List results = new ArrayList();
 			for (Iterator scopes = req.scopeList.iterator(); scopes.hasNext();) {
 				String scope = (String) scopes.next();
-				List services = (List) registeredServices.get(scope.toLowerCase());
+				ServiceIndex services = getServices(scope);
 				if (services == null) {
 					continue;
 				}
 
-				for (Iterator srvs = services.iterator(); srvs.hasNext();) {
+				// only the services of the type that have the values of the
+				// equality terms of the predicate are matched
+				for (Iterator srvs = services.find(req.serviceType,
+						req.predicate).iterator(); srvs.hasNext();) {
 					Service service = (Service) srvs.next();
-					if (service.url.getServiceType().matches(req.serviceType)) {
-						if (req.predicate == null) {
-							results.add(service.url);
-							continue;
-						}
-						if (req.predicate.match(service.attributes)) {
-							results.add(service.url);
-						}
-					}
+					results.add(service.url);
 				}
 			}
 
@@ -296,7 +318,7 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			for (Iterator scopes = attreq.scopeList.iterator(); scopes
 					.hasNext();) {
 				String scope = (String) scopes.next();
-				List services = (List) registeredServices.get(scope.toLowerCase());
+				ServiceIndex services = getServices(scope);
 				if (services == null) {
 					continue;
 				}
@@ -314,8 +336,9 @@ public final class SLPDaemonImpl implements SLPDaemon {
 				// the tag list has to be empty
 				if (attreq.spi.equals("")
 						|| (fullurl && attreq.tagList.isEmpty())) {
-					for (Iterator srvs = services.iterator(); srvs.hasNext();) {
-						Service service = (Service) srvs.next();
+					final Service[] srvs = services.getServices();
+					for (int i = 0; i < srvs.length; i++) {
+						Service service = srvs[i];
 						if (service.url.matches(reqService)) {
 							attResult.addAll(SLPUtils.findMatches(
 									attreq.tagList, service.attributes));
@@ -340,16 +363,15 @@ public final class SLPDaemonImpl implements SLPDaemon {
 			for (Iterator scopeIter = streq.scopeList.iterator(); scopeIter
 					.hasNext();) {
 
-				// iterate over the registered services
+				// iterate over the types of the registered services
 				String scope = (String) scopeIter.next();
-				List services = ((List) registeredServices
-						.get(scope.toLowerCase()));
+				ServiceIndex services = getServices(scope);
 				if (services == null) {
 					continue;
 				}
-				for (Iterator iter = services.iterator(); iter.hasNext();) {
-					Service service = (Service) iter.next();
-					ServiceType type = service.url.getServiceType();
+				final ServiceType[] types = services.getServiceTypes();
+				for (int i = 0; i < types.length; i++) {
+					ServiceType type = types[i];
 					if (streq.namingAuthority.equals("*")
 							|| streq.namingAuthority.equals("")
 							|| type.getNamingAuthority().equals(
@@ -407,13 +429,13 @@ public final class SLPDaemonImpl implements SLPDaemon {
 		// so find all services within the scopes of the new DA:
 		for (Iterator iter = advert.scopeList.iterator(); iter.hasNext();) {
 			String scope = (String) iter.next();
-			List services = (List) registeredServices.get(scope.toLowerCase());
-			if (services != null) {
-				for (Iterator serviceIter = services.iterator(); serviceIter
-						.hasNext();) {
+			ServiceIndex index = getServices(scope);
+			if (index != null) {
+				final Service[] services = index.getServices();
+				for (int i = 0; i < services.length; i++) {
 					// and try to register it with the new DA
 					try {
-						Service service = (Service) serviceIter.next();
+						Service service = services[i];
 						ServiceRegistration reg = new ServiceRegistration(
 								service.url, service.url.getServiceType(),
 								Arrays.asList(new Object[] { scope }), SLPUtils
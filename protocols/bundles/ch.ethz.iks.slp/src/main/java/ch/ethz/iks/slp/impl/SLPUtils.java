@@ -20,10 +20,14 @@ import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import ch.ethz.iks.slp.impl.filter.CompiledFilter;
+import ch.ethz.iks.slp.impl.filter.Filter;
+
 /**
  * Utility class.
  * 
@@ -32,6 +36,22 @@ import java.util.Set;
  */
 final class SLPUtils {
 
+	/**
+	 * the maximum number of compiled filters that are kept.
+	 */
+	private static final int FILTER_CACHE_SIZE = 256;
+
+	/**
+	 * the recently used compiled filters. String filter -> CompiledFilter
+	 */
+	private static final Map filterCache = new LinkedHashMap(16, 0.75f, true) {
+		private static final long serialVersionUID = 4520766387532208375L;
+
+		protected boolean removeEldestEntry(final Map.Entry eldest) {
+			return size() > FILTER_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * hidden constructor.
 	 */
@@ -155,6 +175,31 @@ final class SLPUtils {
 		}
 	}
 
+	/**
+	 * get the compiled filter for a filter string. Filters are compiled only
+	 * once as long as they are used frequently.
+	 * 
+	 * @param filterStr
+	 *            the filter string.
+	 * @return the filter.
+	 * @throws IllegalArgumentException
+	 *             if the filter is not well-formed.
+	 */
+	static Filter createFilter(final String filterStr) {
+		synchronized (filterCache) {
+			final Filter filter = (Filter) filterCache.get(filterStr);
+			if (filter != null) {
+				return filter;
+			}
+		}
+		final Filter filter = new CompiledFilter(SLPCore.platform
+				.createFilter(filterStr));
+		synchronized (filterCache) {
+			filterCache.put(filterStr, filter);
+		}
+		return filter;
+	}
+
 	/**
 	 * get the current timestamp as defined in RFC 2608.
 	 * 
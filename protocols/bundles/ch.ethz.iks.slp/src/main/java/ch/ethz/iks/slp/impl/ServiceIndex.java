@@ -0,0 +1,283 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ch.ethz.iks.slp.ServiceType;
+import ch.ethz.iks.slp.impl.filter.CompiledFilter;
+import ch.ethz.iks.slp.impl.filter.Filter;
+
+/**
+ * the services registered in one scope, indexed by service type and by the
+ * values of their attributes. Used by the daemon to answer service requests
+ * by evaluating the predicate only for the candidates that have the requested
+ * type and the values of the equality terms of the predicate.
+ * 
+ * @since 1.6
+ */
+final class ServiceIndex {
+
+	/**
+	 * the services in registration order.
+	 */
+	private final Set services = new LinkedHashSet();
+
+	/**
+	 * ServiceType type -> Set of Services with that type.
+	 */
+	private final Map byType = new HashMap();
+
+	/**
+	 * String abstract type name -> Set of Services with a concrete type of the
+	 * abstract type.
+	 */
+	private final Map byAbstractType = new HashMap();
+
+	/**
+	 * String attribute name (lower case) -> Map of String value (lower case)
+	 * -> Set of Services. Services with values that are not Strings are kept
+	 * under the value <code>null</code>, they are candidates for every value.
+	 */
+	private final Map byAttribute = new HashMap();
+
+	/**
+	 * add a service.
+	 * 
+	 * @param service
+	 *            the service.
+	 */
+	synchronized void add(final Service service) {
+		if (!services.add(service)) {
+			return;
+		}
+		final ServiceType type = service.url.getServiceType();
+		addValue(byType, type, service);
+		if (type.isAbstractType()) {
+			addValue(byAbstractType, type.getAbstractTypeName(), service);
+		}
+		for (Enumeration keys = service.attributes.keys(); keys
+				.hasMoreElements();) {
+			final String key = (String) keys.nextElement();
+			final Object[] values = getValues(service.attributes.get(key));
+			Map index = (Map) byAttribute.get(key.toLowerCase());
+			if (index == null) {
+				index = new HashMap();
+				byAttribute.put(key.toLowerCase(), index);
+			}
+			for (int i = 0; i < values.length; i++) {
+				addValue(index, indexValue(values[i]), service);
+			}
+		}
+	}
+
+	/**
+	 * remove a service.
+	 * 
+	 * @param service
+	 *            the service.
+	 * @return true if the service was registered.
+	 */
+	synchronized boolean remove(final Service service) {
+		if (!services.remove(service)) {
+			return false;
+		}
+		final ServiceType type = service.url.getServiceType();
+		removeValue(byType, type, service);
+		if (type.isAbstractType()) {
+			removeValue(byAbstractType, type.getAbstractTypeName(), service);
+		}
+		for (Enumeration keys = service.attributes.keys(); keys
+				.hasMoreElements();) {
+			final String key = (String) keys.nextElement();
+			final Object[] values = getValues(service.attributes.get(key));
+			final Map index = (Map) byAttribute.get(key.toLowerCase());
+			if (index == null) {
+				continue;
+			}
+			for (int i = 0; i < values.length; i++) {
+				removeValue(index, indexValue(values[i]), service);
+			}
+			if (index.isEmpty()) {
+				byAttribute.remove(key.toLowerCase());
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if no service is registered.
+	 */
+	synchronized boolean isEmpty() {
+		return services.isEmpty();
+	}
+
+	/**
+	 * get all services.
+	 * 
+	 * @return a snapshot of the services in registration order.
+	 */
+	synchronized Service[] getServices() {
+		return (Service[]) services.toArray(new Service[services.size()]);
+	}
+
+	/**
+	 * get the service types of the registered services.
+	 * 
+	 * @return a snapshot of the service types.
+	 */
+	synchronized ServiceType[] getServiceTypes() {
+		return (ServiceType[]) byType.keySet().toArray(
+				new ServiceType[byType.size()]);
+	}
+
+	/**
+	 * find the services that match a service request.
+	 * 
+	 * @param type
+	 *            the requested service type.
+	 * @param predicate
+	 *            the predicate, or <code>null</code>.
+	 * @return the list of matching services.
+	 */
+	List find(final ServiceType type, final Filter predicate) {
+		final Collection candidates;
+		synchronized (this) {
+			candidates = getCandidates(type, predicate);
+		}
+		final List result = new ArrayList();
+		for (Iterator iter = candidates.iterator(); iter.hasNext();) {
+			final Service service = (Service) iter.next();
+			if (service.url.getServiceType().matches(type)
+					&& (predicate == null || predicate
+							.match(service.attributes))) {
+				result.add(service);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * get the smallest set of candidates for a service request.
+	 * 
+	 * @param type
+	 *            the requested service type.
+	 * @param predicate
+	 *            the predicate, or <code>null</code>.
+	 * @return a snapshot of the candidates.
+	 */
+	private Collection getCandidates(final ServiceType type,
+			final Filter predicate) {
+		final Set concrete = (Set) byType.get(type);
+		final Set abstracts = (Set) byAbstractType.get(type.toString());
+		Collection candidates;
+		if (abstracts == null) {
+			candidates = concrete;
+		} else if (concrete == null) {
+			candidates = abstracts;
+		} else {
+			candidates = new ArrayList(concrete);
+			candidates.addAll(abstracts);
+		}
+		if (candidates == null) {
+			return new ArrayList();
+		}
+
+		if (predicate instanceof CompiledFilter) {
+			final CompiledFilter filter = (CompiledFilter) predicate;
+			for (int i = 0; i < filter.getEqualityTermCount(); i++) {
+				final Map index = (Map) byAttribute.get(filter
+						.getEqualityTermKey(i));
+				if (index == null) {
+					// no service has the attribute
+					return new ArrayList();
+				}
+				final Set matching = (Set) index.get(filter
+						.getEqualityTermValue(i));
+				final Set others = (Set) index.get(null);
+				final int size = (matching == null ? 0 : matching.size())
+						+ (others == null ? 0 : others.size());
+				if (size < candidates.size()) {
+					candidates = new ArrayList(size);
+					if (matching != null) {
+						candidates.addAll(matching);
+					}
+					if (others != null) {
+						candidates.addAll(others);
+					}
+				}
+			}
+		}
+		return new ArrayList(candidates);
+	}
+
+	/**
+	 * get the values of an attribute.
+	 * 
+	 * @param value
+	 *            the attribute value, an array or Collection for multi-valued
+	 *            attributes.
+	 * @return the values.
+	 */
+	private static Object[] getValues(final Object value) {
+		if (value instanceof Object[]) {
+			return (Object[]) value;
+		} else if (value instanceof Collection) {
+			return ((Collection) value).toArray();
+		}
+		return new Object[] { value };
+	}
+
+	/**
+	 * get the key of an attribute value in the attribute index.
+	 * 
+	 * @param value
+	 *            the value.
+	 * @return the value in lower case, or <code>null</code> if it is not a
+	 *         String.
+	 */
+	private static String indexValue(final Object value) {
+		return value instanceof String ? ((String) value).trim().toLowerCase()
+				: null;
+	}
+
+	private static void addValue(final Map map, final Object key,
+			final Service service) {
+		Set set = (Set) map.get(key);
+		if (set == null) {
+			set = new LinkedHashSet();
+			map.put(key, set);
+		}
+		set.add(service);
+	}
+
+	private static void removeValue(final Map map, final Object key,
+			final Service service) {
+		final Set set = (Set) map.get(key);
+		if (set != null) {
+			set.remove(service);
+			if (set.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
+}
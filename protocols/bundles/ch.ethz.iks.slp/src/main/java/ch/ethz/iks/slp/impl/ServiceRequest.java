@@ -67,7 +67,7 @@ class ServiceRequest extends RequestMessage {
 		funcID = SRVRQST;
 		prevRespList = new ArrayList();
 		serviceType = type;
-		predicate = filterStr == null ? null : SLPCore.platform
+		predicate = filterStr == null ? null : SLPUtils
 				.createFilter(filterStr);
 		scopeList = scopes;
 		if (scopeList == null) {
@@ -96,7 +96,7 @@ class ServiceRequest extends RequestMessage {
 		scopeList = stringToList(input.readUTF(), ",");
 		try {
 			final String filterStr = input.readUTF();
-			predicate = "".equals(filterStr) ? null : SLPCore.platform
+			predicate = "".equals(filterStr) ? null : SLPUtils
 					.createFilter(filterStr);
 		} catch (IllegalArgumentException ise) {
 			SLPCore.platform.logError("Invalid filter in incoming message "
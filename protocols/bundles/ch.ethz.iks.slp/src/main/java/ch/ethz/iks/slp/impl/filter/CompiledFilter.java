@@ -0,0 +1,189 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package ch.ethz.iks.slp.impl.filter;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.List;
+
+/**
+ * a filter that has been compiled once for its predicate string. Besides
+ * delegating to the platform filter, it knows the equality terms
+ * <code>(attr=value)</code> that every matching set of attributes has to
+ * satisfy, i.e., the terms of the filter that are not nested in an
+ * <code>|</code> or <code>!</code> expression. These can be looked up in an
+ * attribute index to find the candidates for the filter.
+ * 
+ * @since 1.6
+ */
+public final class CompiledFilter implements Filter {
+
+	/**
+	 * the platform filter.
+	 */
+	private final Filter filter;
+
+	/**
+	 * the attribute names of the equality terms, in lower case.
+	 */
+	private final String[] keys;
+
+	/**
+	 * the values of the equality terms, in lower case.
+	 */
+	private final String[] values;
+
+	/**
+	 * create a new compiled filter.
+	 * 
+	 * @param filter
+	 *            the platform filter.
+	 */
+	public CompiledFilter(final Filter filter) {
+		this.filter = filter;
+		final List terms = new ArrayList();
+		final String str = filter.toString();
+		if (str.startsWith("(") && str.endsWith(")")) {
+			collectTerms(str, 0, str.length(), terms);
+		}
+		keys = new String[terms.size() / 2];
+		values = new String[terms.size() / 2];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = (String) terms.get(2 * i);
+			values[i] = (String) terms.get(2 * i + 1);
+		}
+	}
+
+	/**
+	 * collect the equality terms of the expression between start and end.
+	 * 
+	 * @param str
+	 *            the filter string.
+	 * @param start
+	 *            the index of the opening parenthesis.
+	 * @param end
+	 *            the index after the closing parenthesis.
+	 * @param terms
+	 *            the list to add attribute names and values to.
+	 */
+	private static void collectTerms(final String str, final int start,
+			final int end, final List terms) {
+		final char op = str.charAt(start + 1);
+		if (op == '&') {
+			int pos = start + 2;
+			while (pos < end - 1 && str.charAt(pos) == '(') {
+				final int close = findClose(str, pos);
+				if (close == -1 || close >= end) {
+					return;
+				}
+				collectTerms(str, pos, close + 1, terms);
+				pos = close + 1;
+			}
+			return;
+		}
+		if (op == '|' || op == '!') {
+			return;
+		}
+		final String item = str.substring(start + 1, end - 1);
+		final int eq = item.indexOf('=');
+		if (eq < 1) {
+			return;
+		}
+		final char c = item.charAt(eq - 1);
+		if (c == '~' || c == '<' || c == '>') {
+			return;
+		}
+		final String value = item.substring(eq + 1);
+		// wildcards and escaped characters are left to the platform filter
+		if (value.indexOf('*') != -1 || value.indexOf('\\') != -1) {
+			return;
+		}
+		terms.add(item.substring(0, eq).trim().toLowerCase());
+		terms.add(value.trim().toLowerCase());
+	}
+
+	/**
+	 * find the closing parenthesis of an expression.
+	 * 
+	 * @param str
+	 *            the filter string.
+	 * @param pos
+	 *            the index of the opening parenthesis.
+	 * @return the index of the closing parenthesis, or -1.
+	 */
+	private static int findClose(final String str, int pos) {
+		int depth = 0;
+		for (; pos < str.length(); pos++) {
+			switch (str.charAt(pos)) {
+			case '\\':
+				pos++;
+				break;
+			case '(':
+				depth++;
+				break;
+			case ')':
+				if (--depth == 0) {
+					return pos;
+				}
+				break;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @see ch.ethz.iks.slp.impl.filter.Filter#match(java.util.Dictionary)
+	 */
+	public boolean match(final Dictionary attributes) {
+		return filter.match(attributes);
+	}
+
+	/**
+	 * get the number of equality terms.
+	 * 
+	 * @return the number of equality terms.
+	 */
+	public int getEqualityTermCount() {
+		return keys.length;
+	}
+
+	/**
+	 * get the attribute name of an equality term.
+	 * 
+	 * @param i
+	 *            the index of the term.
+	 * @return the attribute name in lower case.
+	 */
+	public String getEqualityTermKey(final int i) {
+		return keys[i];
+	}
+
+	/**
+	 * get the value of an equality term.
+	 * 
+	 * @param i
+	 *            the index of the term.
+	 * @return the value in lower case.
+	 */
+	public String getEqualityTermValue(final int i) {
+		return values[i];
+	}
+
+	/**
+	 * @see ch.ethz.iks.slp.impl.filter.Filter#toString()
+	 */
+	public String toString() {
+		return filter.toString();
+	}
+}
@@ -0,0 +1,89 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ResultCacheTest extends TestCase {
+
+	private static final List RESULT = Arrays.asList(new String[] { "a", "b" });
+
+	public ResultCacheTest() {
+		super("ResultCacheTest");
+	}
+
+	public void testCacheOffByDefault() {
+		final String old = System.getProperty("ch.ethz.iks.slp.locatorCacheTime");
+		try {
+			System.getProperties().remove("ch.ethz.iks.slp.locatorCacheTime");
+			assertEquals(0, new SLPConfiguration().getLocatorCacheTime());
+			System.setProperty("ch.ethz.iks.slp.locatorCacheTime", "500");
+			assertEquals(500, new SLPConfiguration().getLocatorCacheTime());
+		} finally {
+			if (old == null) {
+				System.getProperties().remove("ch.ethz.iks.slp.locatorCacheTime");
+			} else {
+				System.setProperty("ch.ethz.iks.slp.locatorCacheTime", old);
+			}
+			new SLPConfiguration();
+		}
+	}
+
+	public void testHit() {
+		final ResultCache cache = new ResultCache();
+		assertNull(cache.get("key", 0, 1000));
+		cache.put("key", RESULT, 0, 1000, 2000);
+		assertEquals(RESULT, cache.get("key", 0, 1999));
+		assertNull(cache.get("other", 0, 1999));
+	}
+
+	public void testExpired() {
+		final ResultCache cache = new ResultCache();
+		cache.put("key", RESULT, 0, 1000, 2000);
+		assertNull(cache.get("key", 0, 2000));
+	}
+
+	public void testInvalidatedByRegistrationChange() {
+		final ResultCache cache = new ResultCache();
+		cache.put("key", RESULT, 0, 1000, 2000);
+		assertNull(cache.get("key", 1, 1500));
+	}
+
+	public void testResultCopied() {
+		final ResultCache cache = new ResultCache();
+		final List result = new ArrayList(RESULT);
+		cache.put("key", result, 0, 1000, 2000);
+		result.clear();
+		final List cached = cache.get("key", 0, 1500);
+		assertEquals(RESULT, cached);
+		cached.clear();
+		assertEquals(RESULT, cache.get("key", 0, 1500));
+	}
+
+	public void testInvalidResultsDropped() {
+		final ResultCache cache = new ResultCache();
+		cache.put("expired", RESULT, 0, 1000, 1500);
+		cache.put("valid", RESULT, 0, 1000, 3000);
+		assertEquals(2, cache.size());
+		cache.put("key", RESULT, 0, 2000, 4000);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("expired", 0, 2000));
+		assertEquals(RESULT, cache.get("valid", 0, 2000));
+		cache.put("changed", RESULT, 1, 2000, 4000);
+		assertEquals(1, cache.size());
+	}
+}
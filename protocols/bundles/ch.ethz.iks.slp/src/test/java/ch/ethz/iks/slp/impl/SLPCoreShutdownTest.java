@@ -0,0 +1,57 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.net.DatagramSocket;
+
+import junit.framework.TestCase;
+
+public class SLPCoreShutdownTest extends TestCase {
+
+	public SLPCoreShutdownTest() {
+		super("SLPCoreShutdownTest");
+	}
+
+	private static Thread findThread(final String name) {
+		final Thread[] threads = new Thread[Thread.activeCount() + 10];
+		final int count = Thread.enumerate(threads);
+		for (int i = 0; i < count; i++) {
+			if (threads[i].getName().equals(name)) {
+				return threads[i];
+			}
+		}
+		return null;
+	}
+
+	public void testShutdownClosesSockets() throws Exception {
+		final DatagramSocket socket = SLPCore.getUDPSocket("");
+		assertSame(socket, SLPCore.getUDPSocket(""));
+		final Thread receiver = findThread("jSLP UDP Receiver unicast");
+		assertNotNull(receiver);
+		assertTrue(receiver.isDaemon());
+
+		SLPCore.shutdown();
+		assertTrue(socket.isClosed());
+		assertFalse(receiver.isAlive());
+		assertNull(findThread("jSLP UDP Receiver unicast"));
+
+		// a new socket is created on next use
+		final DatagramSocket next = SLPCore.getUDPSocket("");
+		assertNotSame(socket, next);
+		assertFalse(next.isClosed());
+		SLPCore.shutdown();
+		assertTrue(next.isClosed());
+		// nothing left to close
+		SLPCore.shutdown();
+	}
+}
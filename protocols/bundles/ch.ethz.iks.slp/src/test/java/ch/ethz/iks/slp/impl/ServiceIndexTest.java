@@ -0,0 +1,105 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package ch.ethz.iks.slp.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.osgi.framework.FrameworkUtil;
+
+import ch.ethz.iks.slp.ServiceType;
+import ch.ethz.iks.slp.ServiceURL;
+import ch.ethz.iks.slp.impl.filter.CompiledFilter;
+import ch.ethz.iks.slp.impl.filter.Filter;
+
+public class ServiceIndexTest extends TestCase {
+
+	private int matches;
+
+	public ServiceIndexTest() {
+		super("ServiceIndexTest");
+		System.setProperty("net.slp.port", "10427");
+	}
+
+	private CompiledFilter createFilter(String filterStr) throws Exception {
+		final org.osgi.framework.Filter filter = FrameworkUtil.createFilter(filterStr);
+		return new CompiledFilter(new Filter() {
+			public boolean match(Dictionary values) {
+				matches++;
+				return filter.match(values);
+			}
+
+			public String toString() {
+				return filter.toString();
+			}
+		});
+	}
+
+	private Service createService(String url, String[] attributes) throws Exception {
+		final ServiceURL serviceURL = new ServiceURL(url, ServiceURL.LIFETIME_PERMANENT);
+		return new Service(new ServiceRegistration(serviceURL, serviceURL.getServiceType(), null, new ArrayList(Arrays.asList(attributes)), null));
+	}
+
+	public void testEqualityTerms() throws Exception {
+		CompiledFilter filter = createFilter("(&(Color=Red)(|(a=1)(b=2))(size>=3)(name=x*)(&(shape=round)))");
+		assertEquals(2, filter.getEqualityTermCount());
+		assertEquals("color", filter.getEqualityTermKey(0));
+		assertEquals("red", filter.getEqualityTermValue(0));
+		assertEquals("shape", filter.getEqualityTermKey(1));
+		assertEquals("round", filter.getEqualityTermValue(1));
+
+		assertEquals(0, createFilter("(|(a=1)(b=2))").getEqualityTermCount());
+		assertEquals(0, createFilter("(!(a=1))").getEqualityTermCount());
+		assertEquals(1, createFilter("(a=1)").getEqualityTermCount());
+	}
+
+	public void testFind() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		for (int i = 0; i < 100; i++) {
+			index.add(createService("service:printer:lpr://host" + i, new String[] {"(color=" + (i % 2 == 0 ? "red" : "blue") + ")", "(id=" + i + ")"}));
+			index.add(createService("service:scanner://host" + i, new String[] {"(id=" + i + ")"}));
+		}
+
+		List result = index.find(new ServiceType("service:printer:lpr"), createFilter("(id=7)"));
+		assertEquals(1, result.size());
+		assertEquals("service:printer:lpr://host7", ((Service) result.get(0)).url.toString());
+		assertEquals(1, matches);
+
+		// the abstract type finds the concrete services
+		matches = 0;
+		result = index.find(new ServiceType("service:printer"), createFilter("(&(color=red)(id=*))"));
+		assertEquals(50, result.size());
+		assertEquals(50, matches);
+
+		assertEquals(100, index.find(new ServiceType("service:scanner"), null).size());
+		assertEquals(0, index.find(new ServiceType("service:scanner"), createFilter("(color=red)")).size());
+		assertEquals(2, index.getServiceTypes().length);
+	}
+
+	public void testRemove() throws Exception {
+		final ServiceIndex index = new ServiceIndex();
+		final Service service = createService("service:printer:lpr://host", new String[] {"(id=1)"});
+		index.add(service);
+		index.add(service);
+		assertEquals(1, index.getServices().length);
+		assertTrue(index.remove(service));
+		assertFalse(index.remove(service));
+		assertTrue(index.isEmpty());
+		assertEquals(0, index.find(new ServiceType("service:printer:lpr"), createFilter("(id=1)")).size());
+		assertEquals(0, index.getServiceTypes().length);
+	}
+}
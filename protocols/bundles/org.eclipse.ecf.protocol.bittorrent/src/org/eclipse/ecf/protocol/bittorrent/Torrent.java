@@ -13,7 +13,6 @@
 package org.eclipse.ecf.protocol.bittorrent;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.nio.channels.SocketChannel;
 import java.util.Properties;
 
@@ -60,10 +59,11 @@ public class Torrent {
 	 * 
 	 * @param channel
 	 *            the channel to connect to
-	 * @throws UnsupportedEncodingException
-	 *             If the <code>ISO-8859-1</code> encoding is not supported
+	 * @throws IOException
+	 *             If the <code>ISO-8859-1</code> encoding is not supported or
+	 *             the connection could not be handed over to the peer engine
 	 */
-	void connectTo(SocketChannel channel) throws UnsupportedEncodingException {
+	void connectTo(SocketChannel channel) throws IOException {
 		manager.connectTo(channel);
 	}
 
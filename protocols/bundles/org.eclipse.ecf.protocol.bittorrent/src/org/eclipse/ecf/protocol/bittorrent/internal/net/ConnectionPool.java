@@ -12,16 +12,15 @@
  *****************************************************************************/
 package org.eclipse.ecf.protocol.bittorrent.internal.net;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
-import java.util.LinkedList;
 import java.util.Random;
 import java.util.Vector;
 
 /**
- * A pool of threads to be allocated when a connection needs to be made with a
- * peer.
+ * A pool of connections with peers. All of the connections are serviced by a
+ * single {@link PeerEngine}.
  */
 class ConnectionPool {
 
@@ -44,8 +43,6 @@ class ConnectionPool {
 
 	private final Vector connections;
 
-	private final LinkedList targets;
-
 	/**
 	 * The manager associated with this pool.
 	 */
@@ -53,6 +50,11 @@ class ConnectionPool {
 
 	private Thread unchokingThread;
 
+	/**
+	 * The engine that services the connections of this pool.
+	 */
+	private PeerEngine engine;
+
 	/**
 	 * The maximum number of connections that this pool should be managing. This
 	 * can be set with the {@link #setMaxConnections(int)} method, but should be
@@ -60,25 +62,18 @@ class ConnectionPool {
 	 */
 	private int maxConnections = 50;
 
-	/**
-	 * The number of active connections.
-	 */
-	private int size = 0;
-
 	/**
 	 * The number of unchoked peers.
 	 */
 	private int unchokedPeers = 0;
 
-	private boolean connected = false;
-
 	ConnectionPool(TorrentManager manager) {
 		this.manager = manager;
 		connections = new Vector(maxConnections);
-		targets = new LinkedList();
 	}
 
 	private synchronized void unchoke() {
+		int size = connections.size();
 		if (size <= MAX_UNCHOKED_PEERS || unchokedPeers < MAX_UNCHOKED_PEERS) {
 			return;
 		}
@@ -102,77 +97,75 @@ class ConnectionPool {
 
 	/**
 	 * Creates a connection to the specified ip at the given port. If the
-	 * current number of active threads is equal to the maximum number of
-	 * allowed connections, <code>false</code> will be returned.
+	 * current number of connections is equal to the maximum number of allowed
+	 * connections, no connection will be created.
 	 * 
 	 * @param ip
 	 *            the IP of the peer
 	 * @param port
 	 *            the port that the peer is listening on
-	 * @throws UnsupportedEncodingException
-	 *             If the <code>ISO-8859-1</code> encoding is not supported
+	 * @throws IOException
+	 *             If the <code>ISO-8859-1</code> encoding is not supported or
+	 *             the engine could not be started
 	 */
-	void connectTo(String ip, int port) throws UnsupportedEncodingException {
-		if (unchokingThread == null) {
-			unchokingThread = new OptimisticUnchokingThread();
-			unchokingThread.start();
-		} else if (size == maxConnections) {
+	synchronized void connectTo(String ip, int port) throws IOException {
+		if (connections.size() >= maxConnections) {
 			return;
 		}
-		connected = true;
-
-		synchronized (this) {
-			for (int i = 0; i < connections.size(); i++) {
-				PeerConnection connection = (PeerConnection) connections.get(i);
-				if (connection.isInitialized()
-						&& connection.isConnectedTo(ip, port)) {
-					return;
-				}
+		for (int i = 0; i < connections.size(); i++) {
+			PeerConnection connection = (PeerConnection) connections.get(i);
+			if (connection.isInitialized()
+					&& connection.isConnectedTo(ip, port)) {
+				return;
 			}
+		}
 
-			targets.add(new ConnectionInfo(ip, port));
-			for (int i = 0; i < connections.size(); i++) {
-				if (!((PeerConnection) connections.get(i)).isInitialized()) {
-					notify();
-					return;
-				}
+		PeerConnection connection = new PeerConnection(this, manager);
+		connection.setAddress(ip, port);
+		add(connection);
+	}
+
+	synchronized void connectTo(SocketChannel channel) throws IOException {
+		Socket socket = channel.socket();
+		String ip = socket.getInetAddress().getHostAddress();
+		int port = socket.getPort();
+		boolean accept = connections.size() < maxConnections;
+		for (int i = 0; accept && i < connections.size(); i++) {
+			PeerConnection connection = (PeerConnection) connections.get(i);
+			if (connection.isInitialized()
+					&& connection.isConnectedTo(ip, port)) {
+				accept = false;
 			}
-			PeerConnection connection = new PeerConnection(this, manager);
-			connections.add(connection);
-			connection.start();
 		}
+		if (!accept) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// ignored
+			}
+			return;
+		}
+
+		PeerConnection connection = new PeerConnection(this, manager);
+		connection.setChannel(channel);
+		add(connection);
 	}
 
-	void connectTo(SocketChannel channel) throws UnsupportedEncodingException {
+	private void add(PeerConnection connection) throws IOException {
+		if (engine == null || !engine.isRunning()) {
+			// the previous engine may have stopped because its selector failed
+			engine = new PeerEngine(this, manager.getTorrentFile().getName());
+			engine.start();
+		}
 		if (unchokingThread == null) {
 			unchokingThread = new OptimisticUnchokingThread();
 			unchokingThread.start();
-		} else if (size == maxConnections) {
-			return;
 		}
-		connected = true;
-
-		Socket socket = channel.socket();
-		String ip = socket.getLocalAddress().getHostAddress();
-		int port = socket.getLocalPort();
-		synchronized (this) {
-			for (int i = 0; i < connections.size(); i++) {
-				PeerConnection connection = (PeerConnection) connections.get(i);
-				if (connection.isConnectedTo(ip, port)) {
-					return;
-				}
-			}
-
-			targets.add(new ConnectionInfo(channel));
-			for (int i = 0; i < connections.size(); i++) {
-				if (!((PeerConnection) connections.get(i)).isInitialized()) {
-					notify();
-					return;
-				}
-			}
-			PeerConnection connection = new PeerConnection(this, manager);
-			connections.add(connection);
-			connection.start();
+		connections.add(connection);
+		if (!engine.register(connection)) {
+			connections.remove(connection);
+			connection.disconnect();
+			throw new IOException("The peer engine has stopped"); //$NON-NLS-1$
 		}
 	}
 
@@ -180,22 +173,13 @@ class ConnectionPool {
 	 * Closes all of the channels that are currently active.
 	 */
 	synchronized void close() {
-		connected = false;
 		for (int i = 0; i < connections.size(); i++) {
 			((PeerConnection) connections.get(i)).close();
 		}
-		targets.clear();
-		notifyAll();
-	}
-
-	synchronized boolean isConnected() {
-		return connected;
-	}
-
-	ConnectionInfo dequeue() {
-		synchronized (targets) {
-			return targets.isEmpty() ? null : (ConnectionInfo) targets
-					.removeFirst();
+		if (engine != null) {
+			// the engine closes its connections before it stops
+			engine.shutdown();
+			engine = null;
 		}
 	}
 
@@ -204,7 +188,7 @@ class ConnectionPool {
 	 * the downloading has completed successfully since it is no longer
 	 * necessary to be connected to seeds since no pieces will be requested.
 	 */
-	void disconnectSeeds() {
+	synchronized void disconnectSeeds() {
 		for (int i = 0; i < connections.size(); i++) {
 			PeerConnection connection = (PeerConnection) connections.get(i);
 			if (connection.isInitialized() && connection.isSeed()) {
@@ -218,7 +202,7 @@ class ConnectionPool {
 	 * now been choked. This allows for another peer to be unchoked permanently
 	 * during the next rotation.
 	 */
-	void unchokedPeerCleared() {
+	synchronized void unchokedPeerCleared() {
 		unchokedPeers--;
 	}
 
@@ -231,22 +215,9 @@ class ConnectionPool {
 	synchronized void setMaxConnections(int maxConnections) {
 		if (this.maxConnections < maxConnections) {
 			connections.ensureCapacity(maxConnections);
-		} else if (this.maxConnections > maxConnections) {
-			// push back all active connections
-			for (int i = 0; i < maxConnections; i++) {
-				if (!((PeerConnection) connections.get(i)).isInitialized()) {
-					for (int j = connections.size(); j > i; j--) {
-						PeerConnection conn = (PeerConnection) connections
-								.get(j);
-						if (conn.isInitialized()) {
-							connections.remove(i);
-							connections.add(i, connections.remove(j - 1));
-						}
-					}
-				}
-			}
+		} else {
 			// close all extraneous connections
-			for (int i = maxConnections; i < this.maxConnections; i++) {
+			for (int i = maxConnections; i < connections.size(); i++) {
 				((PeerConnection) connections.get(i)).close();
 			}
 		}
@@ -261,44 +232,38 @@ class ConnectionPool {
 		return true;
 	}
 
-	void connectionCreated() {
-		size++;
-	}
-
 	/**
-	 * Indicates to the pool that a connection has ended. This means that one of
-	 * the {@link PeerConnection}s are no longer running.
+	 * Indicates to the pool that a connection has been closed by the engine.
+	 * 
+	 * @param connection
+	 *            the connection that has been closed
 	 */
-	void connectionClosed() {
-		size--;
-		if (size == 0 && unchokingThread != null) {
+	synchronized void connectionClosed(PeerConnection connection) {
+		connections.remove(connection);
+		if (connections.isEmpty() && unchokingThread != null) {
 			unchokingThread.interrupt();
 			unchokingThread = null;
 		}
 	}
 
-	void connectionDestroyed(PeerConnection connection) {
-		connections.remove(connection);
-	}
-
 	/**
 	 * Retrieves the current number of active connections.
 	 * 
 	 * @return the number of active connections of this pool
 	 */
 	int getConnected() {
-		return size;
+		return connections.size();
 	}
 
 	/**
-	 * Instructs all running threads to send a have message of the specified
-	 * piece to the connected peer.
+	 * Instructs all connections to send a have message of the specified piece
+	 * to the connected peer.
 	 * 
 	 * @param piece
 	 *            the number of the piece that the have message should
 	 *            correspond to
 	 */
-	void queueHaveMessage(int piece) {
+	synchronized void queueHaveMessage(int piece) {
 		for (int i = 0; i < connections.size(); i++) {
 			PeerConnection connection = (PeerConnection) connections.get(i);
 			if (connection.isInitialized()) {
@@ -311,6 +276,14 @@ class ConnectionPool {
 		return connections.isEmpty();
 	}
 
+	synchronized int getUnchokedPeers() {
+		return unchokedPeers;
+	}
+
+	synchronized PeerEngine getEngine() {
+		return engine;
+	}
+
 	private class OptimisticUnchokingThread extends Thread {
 
 		public OptimisticUnchokingThread() {
@@ -326,11 +299,13 @@ class ConnectionPool {
 					} catch (InterruptedException e) {
 						return;
 					}
-					for (int j = 0; j < connections.size(); j++) {
-						PeerConnection conn = (PeerConnection) connections
-								.get(j);
-						if (conn.isInitialized()) {
-							conn.queueSpeeds();
+					synchronized (ConnectionPool.this) {
+						for (int j = 0; j < connections.size(); j++) {
+							PeerConnection conn = (PeerConnection) connections
+									.get(j);
+							if (conn.isInitialized()) {
+								conn.queueSpeeds();
+							}
 						}
 					}
 				}
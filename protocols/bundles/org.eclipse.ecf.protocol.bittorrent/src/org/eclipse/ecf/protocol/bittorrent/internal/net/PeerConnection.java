@@ -16,22 +16,35 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
 
 import org.eclipse.ecf.protocol.bittorrent.TorrentConfiguration;
 import org.eclipse.ecf.protocol.bittorrent.TorrentFile;
 import org.eclipse.ecf.protocol.bittorrent.internal.encode.Decode;
 import org.eclipse.ecf.protocol.bittorrent.internal.encode.Encode;
 import org.eclipse.ecf.protocol.bittorrent.internal.torrent.Piece;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceSet;
 
 /**
- * An extension of the <code>Thread</code> class to manage a connection with a
- * peer.
+ * The state of a connection with a peer. A connection does not have a thread
+ * of its own, its channel is non-blocking and is serviced by the
+ * {@link PeerEngine} of the owning {@link ConnectionPool}. All methods that
+ * are not documented as being safe to call from other threads must only be
+ * called by the engine's thread.
+ * <p>
+ * Incoming messages are read into a direct buffer that is large enough to hold
+ * the largest message that is accepted from a peer and are parsed in place.
+ * Outgoing messages are collected in a second direct buffer and written out
+ * whenever the channel is writable.
+ * </p>
  */
-class PeerConnection extends Thread {
+class PeerConnection {
 
 	private static final byte[] CHOKE = { 0x00, 0x00, 0x00, 0x01, 0x00 };
 
@@ -56,20 +69,54 @@ class PeerConnection extends Thread {
 			116, 111, 99, 111, 108, 0, 0, 0, 0, 0, 0, 0, 0 });
 
 	/**
-	 * The amount of space allocated for the <code>ByteBuffer</code>s. The
-	 * value is 1024.
+	 * The length of a handshake message. The value is 68.
 	 */
-	private static final int BUFFER_MAXIMUM = 1024;
+	private static final int HANDSHAKE_LENGTH = 68;
+
+	/**
+	 * The size of the blocks that are requested from peers. The value is
+	 * 16384, which is equal to 2^14.
+	 */
+	private static final int BLOCK_SIZE = 16384;
+
+	/**
+	 * The maximum number of bytes of a block that a peer may request. The
+	 * value is 131072, which is equal to 2^17.
+	 */
+	private static final int MAX_REQUEST_SIZE = 131072;
+
+	/**
+	 * The number of requests that are sent to a peer without waiting for the
+	 * blocks to arrive. The value is 5.
+	 */
+	private static final int MAX_OUTSTANDING_REQUESTS = 5;
+
+	/**
+	 * Additional space in {@link #sendBuffer} for queueing up messages besides
+	 * the handshake and the bitfield. The value is 1024.
+	 */
+	private static final int SEND_BUFFER_EXTRA = 1024;
 
 	/**
 	 * The <code>ByteBuffer</code> that is used to read data from the peer.
 	 */
-	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_MAXIMUM);
+	private final ByteBuffer readBuffer;
 
 	/**
 	 * The <code>ByteBuffer</code> that is for sending data to the peer.
 	 */
-	private final ByteBuffer sendBuffer = ByteBuffer.allocate(BUFFER_MAXIMUM);
+	private final ByteBuffer sendBuffer;
+
+	/**
+	 * Holds the header of the piece message that is currently being uploaded.
+	 */
+	private final ByteBuffer blockInfo = ByteBuffer.allocateDirect(13);
+
+	/**
+	 * Receives the data of a piece message before it is handed over to the
+	 * {@link TorrentManager}.
+	 */
+	private final byte[] block;
 
 	private final ConnectionPool pool;
 
@@ -87,26 +134,43 @@ class PeerConnection extends Thread {
 	private final byte[] request = { 0x00, 0x00, 0x00, 0x0d, 0x06, 0x00, 0x00,
 			0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x20, 0x00 };
 
-	private final byte[] blockInfo = { 0x00, 0x00, 0x00, 0x09, 0x07, 0x00,
-			0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 };
-
 	private final boolean[] haveMessages;
 
+	/**
+	 * The blocks that the peer has requested and that have not been sent yet,
+	 * stored as <code>int[]</code>s of the piece number, the index within
+	 * the piece and the length.
+	 */
+	private final LinkedList requests = new LinkedList();
+
+	/**
+	 * The blocks that have been requested from the peer and have not arrived
+	 * yet, stored in the same form as {@link #requests}.
+	 */
+	private final LinkedList outstandingRequests = new LinkedList();
+
 	private SocketChannel channel;
 
+	private SelectionKey key;
+
 	private InetSocketAddress address;
 
 	/**
-	 * An array of <code>boolean</code>s that keeps track of what pieces this
-	 * peer has.
+	 * The data of the piece message that is currently being uploaded, or
+	 * <code>null</code> if no piece is being uploaded.
 	 */
-	private boolean[] peerPieces;
+	private ByteBuffer upload;
+
+	/**
+	 * The pieces that this peer has.
+	 */
+	private final PieceSet peerPieces;
 
 	/**
 	 * The name and version of the BitTorrent client that this peer is currently
 	 * using or <code>"Unknown"</code> if it is not known.
 	 */
-	private String clientName;
+	private String clientName = "Unknown"; //$NON-NLS-1$
 
 	/**
 	 * The peer's IP address.
@@ -138,12 +202,19 @@ class PeerConnection extends Thread {
 	 */
 	private int queuePosition = 0;
 
+
 	/**
 	 * Whether the client is currently choking this peer. This value is
-	 * <code>true</code> in the beginning.
+	 * <code>true</code> in the beginning. A change is sent to the peer with
+	 * the next choke or unchoke message that fits into the send buffer.
 	 */
 	private boolean isChoking = true;
 
+	/**
+	 * The choke state that has last been sent to the peer.
+	 */
+	private boolean chokingSent = true;
+
 	/**
 	 * Whether this client is interested in a piece that this peer currently
 	 * has. This value is <code>false</code> in the beginning.
@@ -167,15 +238,30 @@ class PeerConnection extends Thread {
 	 */
 	private boolean peerIsSeed = false;
 
-	private boolean initialized = true;
+	/**
+	 * Whether the channel has finished connecting to the peer.
+	 */
+	private boolean connected = false;
+
+	/**
+	 * Whether the peer's handshake has been received.
+	 */
+	private boolean handshakeReceived = false;
+
+	/**
+	 * Set when this connection should be closed by the engine.
+	 */
+	private volatile boolean closeRequested = false;
 
 	/**
-	 * Indicates whether a choke message should be sent to the peer.
+	 * Indicates whether the unchoking thread has asked for the peer to be
+	 * choked.
 	 */
 	private boolean sendChoke = false;
 
 	/**
-	 * Indicates whether an unchoke message should be sent to the peer.
+	 * Indicates whether the unchoking thread has asked for the peer to be
+	 * unchoked.
 	 */
 	private boolean sendUnchoke = false;
 
@@ -190,10 +276,21 @@ class PeerConnection extends Thread {
 			buffer.append(manager.getPeerID());
 		}
 		handshake = buffer.toString().getBytes("ISO-8859-1"); //$NON-NLS-1$
-		peerPieces = new boolean[torrent.getNumPieces()];
-		haveMessages = new boolean[peerPieces.length];
-		Arrays.fill(peerPieces, false);
+		peerPieces = new PieceSet(torrent.getNumPieces());
+		haveMessages = new boolean[peerPieces.size()];
 		Arrays.fill(haveMessages, false);
+
+		int bitfieldLength = manager.getBitfield().length;
+		// a piece message with a requested block or a bitfield message,
+		// whichever one is larger
+		int capacity = Math.max(13 + BLOCK_SIZE, 5 + bitfieldLength);
+		readBuffer = ByteBuffer.allocateDirect(Math.max(HANDSHAKE_LENGTH,
+				capacity));
+		sendBuffer = ByteBuffer.allocateDirect(HANDSHAKE_LENGTH + 5
+				+ bitfieldLength + SEND_BUFFER_EXTRA);
+		block = new byte[readBuffer.capacity()];
+		// no piece message is being uploaded yet
+		blockInfo.flip();
 	}
 
 	void setAddress(String ip, int port) {
@@ -205,395 +302,158 @@ class PeerConnection extends Thread {
 	void setChannel(SocketChannel channel) {
 		this.channel = channel;
 		Socket socket = channel.socket();
-		this.ip = socket.getLocalAddress().getHostAddress();
-		this.port = socket.getLocalPort();
+		this.ip = socket.getInetAddress().getHostAddress();
+		this.port = socket.getPort();
 	}
 
 	/**
-	 * Connect to the peer and exchange handshakes as necessary. A new
-	 * connection may be created depending on whether an incoming or outgoing
-	 * connection is being established.
+	 * Registers this connection's channel with the provided selector. A new
+	 * connection to the peer is started if no channel has been set with
+	 * {@link #setChannel(SocketChannel)}.
+	 * 
+	 * @param selector
+	 *            the selector of the engine that services this connection
+	 * @throws IOException
+	 *             If an I/O error occurs while opening or registering the
+	 *             channel
 	 */
-	private void connect() {
-		try {
-			if (channel == null) {
-				call();
+	void open(Selector selector) throws IOException {
+		if (channel == null) {
+			channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			key = channel.register(selector, 0, this);
+			if (channel.connect(address)) {
+				connected();
 			} else {
-				answer();
+				key.interestOps(SelectionKey.OP_CONNECT);
 			}
-		} catch (IOException e) {
-			String message = e.getMessage();
-			TorrentConfiguration.debug("The connection with " + ip + ":" + port //$NON-NLS-1$ //$NON-NLS-2$
-					+ " has been closed" //$NON-NLS-1$
-					+ (message == null ? "." : ": " + message)); //$NON-NLS-1$ //$NON-NLS-2$
-		} catch (RuntimeException e) {
-			close();
-			throw e;
+		} else {
+			// the handshake of an incoming connection has already been read
+			// by the TorrentServer
+			channel.configureBlocking(false);
+			key = channel.register(selector, 0, this);
+			connected = true;
+			handshakeReceived = true;
+			TorrentConfiguration.debug("Established incoming connection from " //$NON-NLS-1$
+					+ ip + ":" + port); //$NON-NLS-1$
+			sendHandshake();
+			sendBitfield();
+			write();
 		}
-		close();
 	}
 
-	private void call() throws IOException {
-		try {
-			channel = SocketChannel.open(address);
-			address = null;
-		} catch (SocketException e) {
-			TorrentConfiguration.debug("Unable to connect to " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
-					+ port + " - " + e.getMessage()); //$NON-NLS-1$
-			return;
-		}
-		TorrentConfiguration.debug("Established outgoing connection with " + ip //$NON-NLS-1$
-				+ ":" + port); //$NON-NLS-1$
-
-		sendHandshake();
-		int read = 0;
-		int ret = 0;
-		// a return handshake is 68 bytes long, read until at least that many
-		// bytes has been retrieved
-		while (read < 68) {
-			if (channel == null) {
-				return;
-			}
-			ret = channel.read(buffer);
-			if (ret == -1) {
-				TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-				return;
-			}
-			read += ret;
-		}
-		TorrentConfiguration.debug("Received [BT_HANDSHAKE] message from " + ip //$NON-NLS-1$
-				+ ":" + port); //$NON-NLS-1$
-		byte[] client = new byte[20];
-		System.arraycopy(buffer.array(), 48, client, 0, 20);
-		processClientName(new String(client));
-
-		// check to see if data besides the return handshake was sent
-		if (read != 68) {
-			// keep reading until four additional bytes are read
-			while (read < 72) {
-				if (channel == null) {
-					return;
-				}
-				ret = channel.read(buffer);
-				if (ret == -1) {
-					TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-					return;
-				}
-				read += ret;
-			}
-			if (buffer.get(71) != 0) {
-				while (read < 73) {
-					if (channel == null) {
-						return;
-					}
-					ret = channel.read(buffer);
-					if (ret == -1) {
-						TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-						return;
-					}
-					read += ret;
-				}
-				// check to see if part of what was read is a bitfield
-				if (buffer.get(72) == 5) {
-					int length = 68 + 4 + buffer.get(71);
-					// keep reading until the entire bitfield has been read in
-					while (read < length) {
-						if (channel == null) {
-							return;
-						}
-						ret = channel.read(buffer);
-						if (ret == -1) {
-							TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-							return;
-						}
-						read += ret;
-					}
-					buffer.flip();
-					byte[] array = new byte[read];
-					buffer.get(array, 0, read);
-					processBitfield(array, 73, 72 + array[71]);
-					if (read == length) {
-						sendBitfield();
-					}
-				} else if (buffer.get(71) == 1) {
-					byte[] bytes = null;
-					buffer.get(bytes, 0, read);
-					byte[] array = new byte[5];
-					System.arraycopy(bytes, 68, array, 0, 5);
-					if (!processMessage(array)) {
-						return;
-					}
-				}
-			} else if (buffer.get(78) == 0 && buffer.get(79) == 0
-					&& buffer.get(80) == 0) {
-				TorrentConfiguration
-						.debug("Received [BT_KEEPALIVE] message from " + ip //$NON-NLS-1$
-								+ ":" + port); //$NON-NLS-1$
-			} else {
-				TorrentConfiguration
-						.debug("Received an unidentifiable message from " + ip //$NON-NLS-1$
-								+ ":" + port); //$NON-NLS-1$
-				return;
-			}
-		} else {
-			sendBitfield();
+	/**
+	 * Completes the connection to the peer once the channel has become
+	 * connectable.
+	 * 
+	 * @throws IOException
+	 *             If the connection could not be established
+	 */
+	void finishConnect() throws IOException {
+		if (channel.finishConnect()) {
+			connected();
 		}
-		buffer.clear();
-		// enter the main loop
-		query();
 	}
 
-	private void answer() throws IOException {
-		TorrentConfiguration.debug("Established incoming connection from " + ip //$NON-NLS-1$
+	private void connected() throws IOException {
+		connected = true;
+		address = null;
+		TorrentConfiguration.debug("Established outgoing connection with " + ip //$NON-NLS-1$
 				+ ":" + port); //$NON-NLS-1$
 		sendHandshake();
-		sendBitfield();
-		query();
+		write();
 	}
 
-	private void query() throws IOException {
-		TorrentConfiguration.debug("Entering the main loop with " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
-				+ port);
-		byte[] array = null;
-		int read = 0;
-		int ret = 0;
-		while (channel != null && channel.isConnected()) {
-			buffer.clear();
-			sendQueuedMessages();
-			if (read != 0) {
-				byte[] bufferArray = buffer.array();
-				byte[] bytes = new byte[bufferArray.length];
-				System.arraycopy(bufferArray, read, bytes, 0,
-						bufferArray.length - read);
-				buffer.put(bytes);
-				buffer.position(read);
-			}
-			int request = sendRequest(manager.request(peerPieces));
-			int length = request == -1 ? 4 : request;
-			resetBuffer();
-			while (read < 4) {
-				if (channel == null) {
-					return;
-				}
-				ret = channel.read(buffer);
-				if (ret == -1) {
-					TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-					return;
-				}
-				manager.updateDownloadRequestSpeed(ret);
-				limitBuffer(manager.getDownloadRequestSpeed());
-				read += ret;
-			}
-			buffer.limit(BUFFER_MAXIMUM);
-			buffer.rewind();
-
-			if (array == null) {
-				array = new byte[read];
-				buffer.get(array, 0, read);
-			} else {
-				byte[] bytes = new byte[array.length + read];
-				System.arraycopy(array, 0, bytes, 0, array.length);
-				buffer.get(bytes, array.length, read);
-				array = bytes;
-			}
-
-			if (array[0] == 0 && array[1] == 0 && array[2] == 0
-					&& array[3] == 0) {
-				TorrentConfiguration.debug("Received [BT_KEEPALIVE] from " + ip //$NON-NLS-1$
-						+ ":" + port); //$NON-NLS-1$
-				array = truncate(array, 4);
-				read -= 4;
-			}
-
-			while (array != null && array.length > 4) {
-				if (0 <= array[4] && array[4] <= 3) {
-					if (!processMessage(array)) {
-						return;
-					}
-					array = truncate(array, 5);
-					read -= 5;
-				} else if (array[3] == 5 && array[4] == 4) {
-					if (array.length < 9) {
-						buffer.clear();
-						while (read < 9) {
-							if (channel == null) {
-								return;
-							}
-							ret = channel.read(buffer);
-							if (ret == -1) {
-								TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
-										+ port);
-								return;
-							}
-							read += ret;
-						}
-						byte[] bytes = new byte[read];
-						System.arraycopy(array, 0, bytes, 0, array.length);
-						buffer.flip();
-						buffer.get(bytes, array.length, read - array.length);
-						array = bytes;
-					}
-					processHaveMessage(array);
-					array = truncate(array, 9);
-					read -= 9;
-				} else if (array[4] == 5) {
-					length = 4 + array[3];
-					while (read < length) {
-						if (channel == null) {
-							return;
-						}
-						ret = channel.read(buffer);
-						if (ret == -1) {
-							TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-							return;
-						}
-						read += ret;
-					}
-
-					if (array.length < read) {
-						byte[] bytes = new byte[read];
-						System.arraycopy(array, 0, bytes, 0, array.length);
-						buffer.flip();
-						buffer.get(bytes, array.length, read - array.length);
-						array = bytes;
-					}
-
-					processBitfield(array, 5, length);
-					array = truncate(array, length);
-					read -= length;
-				} else if (array[3] == 13 && array[4] == 6) {
-					if (array.length < 17) {
-						buffer.clear();
-						while (read < 17) {
-							if (channel == null) {
-								return;
-							}
-							ret = channel.read(buffer);
-							if (ret == -1) {
-								TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
-										+ port);
-								return;
-							}
-							read += ret;
-						}
-						byte[] bytes = new byte[read];
-						System.arraycopy(array, 0, bytes, 0, array.length);
-						buffer.flip();
-						buffer.get(bytes, array.length, read - array.length);
-						array = bytes;
-					}
-					if (!processRequest(array)) {
-						// an improper request was sent
-						close();
-						return;
-					}
-					array = truncate(array, 17);
-					read -= 17;
-				} else if (array[4] == 7) {
-					byte[] bufferArray = buffer.array();
-					length = Decode.decodeFourByteNumber(array, 0) + 4;
-					int offset = array.length;
-					if (offset < length) {
-						byte[] bytes = new byte[length];
-						System.arraycopy(array, 0, bytes, 0, offset);
-						array = bytes;
-					}
-
-					resetBuffer();
-					buffer.clear();
-					int start = read;
-					while (read < length) {
-						if (channel == null) {
-							return;
-						}
-						ret = channel.read(buffer);
-						if (ret == -1) {
-							TorrentConfiguration.debug("End of stream has been reached with " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-							return;
-						}
-
-						// expand the array's length if necessary
-						if (offset + ret > array.length) {
-							byte[] bytes = new byte[offset + ret];
-							System.arraycopy(array, 0, bytes, 0, array.length);
-							array = bytes;
-						}
-
-						System.arraycopy(bufferArray, 0, array, offset, ret);
-						manager.updateDownloadRequestSpeed(ret);
-						buffer.rewind();
-						limitBuffer(manager.getDownloadRequestSpeed());
-						offset += ret;
-						read += ret;
-					}
-					buffer.limit(BUFFER_MAXIMUM);
-
-					if (array.length < read) {
-						byte[] bytes = new byte[read];
-						System.arraycopy(array, 0, bytes, 0, array.length);
-						buffer.position(start);
-						buffer.get(bytes, array.length, read - array.length);
-						array = bytes;
-					}
+	/**
+	 * Reads what is available from the channel and processes all of the
+	 * messages that have been received completely.
+	 * 
+	 * @throws IOException
+	 *             If an I/O error occurs, the end of the stream has been
+	 *             reached or the peer has sent a malformed message
+	 */
+	void read() throws IOException {
+		long maximum = manager.getDownloadRequestSpeed();
+		if (maximum == 0) {
+			// wait for the next tick once the allowance has been refilled
+			updateInterestOps();
+			return;
+		}
+		if (maximum != -1 && maximum < readBuffer.remaining()) {
+			readBuffer.limit(readBuffer.position() + (int) maximum);
+		}
+		int read = channel.read(readBuffer);
+		readBuffer.limit(readBuffer.capacity());
+		if (read == -1) {
+			throw new IOException("End of stream has been reached"); //$NON-NLS-1$
+		}
+		manager.updateDownloadRequestSpeed(read);
 
-					processPiece(array);
-					array = truncate(array, length);
-					read -= length;
-				} else if (array[4] == 8) {
-					// TODO: implement the processing of BT_CANCEL messages
-					array = truncate(array, 17);
-					read -= 17;
-				} else if (array[4] == 9) {
-					// TODO: implement the processing of BT_PORT messages
-					array = truncate(array, 9);
-					read -= 9;
-				} else {
-					TorrentConfiguration.debug("An ID of " + array[4] //$NON-NLS-1$
-							+ " has been encountered. Closing connection with " //$NON-NLS-1$
-							+ ip + ":" + port); //$NON-NLS-1$
+		readBuffer.flip();
+		try {
+			if (!handshakeReceived) {
+				if (readBuffer.remaining() < HANDSHAKE_LENGTH) {
 					return;
 				}
+				processHandshake();
 			}
+			processMessages();
+		} finally {
+			readBuffer.compact();
 		}
-	}
 
-	private byte[] truncate(byte[] array, int length) {
-		if (array.length == length) {
-			return null;
-		} else {
-			byte[] bytes = new byte[array.length - length];
-			System.arraycopy(array, length, bytes, 0, bytes.length);
-			return bytes;
+		if (!closeRequested) {
+			sendRequests();
+			write();
 		}
 	}
 
-	private void resetBuffer() {
-		long maximum = manager.getDownloadRequestSpeed();
-		if (maximum == -1) {
-			return;
+	private void processHandshake() throws IOException {
+		int start = readBuffer.position();
+		if (readBuffer.get(start) != handshake[0]) {
+			throw new IOException("Received an unidentifiable handshake"); //$NON-NLS-1$
 		}
-		buffer.limit(0);
-		limitBuffer(maximum);
+		// the info hash is located after the protocol string
+		for (int i = 28; i < 48; i++) {
+			if (readBuffer.get(start + i) != handshake[i]) {
+				throw new IOException("Received a handshake for a different torrent"); //$NON-NLS-1$
+			}
+		}
+		TorrentConfiguration.debug("Received [BT_HANDSHAKE] message from " + ip //$NON-NLS-1$
+				+ ":" + port); //$NON-NLS-1$
+		byte[] client = new byte[20];
+		readBuffer.position(start + 48);
+		readBuffer.get(client);
+		processClientName(new String(client));
+		handshakeReceived = true;
+		sendBitfield();
 	}
 
-	private void limitBuffer(long maximum) {
-		if (maximum != 0) {
-			int currentLimit = buffer.limit();
-			if (maximum + currentLimit > BUFFER_MAXIMUM) {
-				buffer.limit(BUFFER_MAXIMUM);
-			} else {
-				buffer.limit(currentLimit + (int) maximum);
-			}
-		} else {
-			try {
-				buffer.limit(0);
-				// sleep for a short while here since if it's zero, chances are
-				// that the next rotation will return a zero also, causing an
-				// unnecessarily long loop
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-				// ignored
+	/**
+	 * Processes all of the complete messages in {@link #readBuffer}. The
+	 * buffer's position is left at the start of the first incomplete message.
+	 * 
+	 * @throws IOException
+	 *             If a malformed message has been received or an I/O error
+	 *             occurs while writing a received block
+	 */
+	private void processMessages() throws IOException {
+		while (!closeRequested && readBuffer.remaining() >= 4) {
+			int start = readBuffer.position();
+			int length = readBuffer.getInt(start);
+			if (length == 0) {
+				TorrentConfiguration.debug("Received [BT_KEEPALIVE] from " + ip //$NON-NLS-1$
+						+ ":" + port); //$NON-NLS-1$
+				readBuffer.position(start + 4);
+				continue;
+			} else if (length < 0 || length + 4 > readBuffer.capacity()) {
+				throw new IOException("A message with a length of " + length //$NON-NLS-1$
+						+ " bytes has been received"); //$NON-NLS-1$
+			} else if (readBuffer.remaining() < length + 4) {
+				return;
 			}
+			processMessage(start + 4, length);
+			readBuffer.position(start + 4 + length);
 		}
 	}
 
@@ -691,12 +551,27 @@ class PeerConnection extends Thread {
 		}
 	}
 
-	private boolean processMessage(byte[] array) throws IOException {
-		switch (array[4]) {
+
+	/**
+	 * Processes a single message that has been received completely.
+	 * 
+	 * @param offset
+	 *            the position of the message's ID within {@link #readBuffer}
+	 * @param length
+	 *            the length of the message including its ID
+	 * @throws IOException
+	 *             If the message is malformed or an I/O error occurs while
+	 *             writing a received block
+	 */
+	private void processMessage(int offset, int length) throws IOException {
+		byte id = readBuffer.get(offset);
+		switch (id) {
 		case 0:
 			TorrentConfiguration.debug("Received [BT_CHOKE] message from " + ip //$NON-NLS-1$
 					+ ":" + port); //$NON-NLS-1$
 			peerIsChoking = true;
+			// the peer discards all requests that have not been answered yet
+			outstandingRequests.clear();
 			break;
 		case 1:
 			TorrentConfiguration.debug("Received [BT_UNCHOKE] message from " //$NON-NLS-1$
@@ -710,7 +585,8 @@ class PeerConnection extends Thread {
 				break;
 			}
 			peerIsInterested = true;
-			if (pool.checkUnchoke()) {
+			// an optimistically unchoked peer does not take another slot
+			if (isChoking && pool.checkUnchoke()) {
 				sendUnchoke();
 			}
 			break;
@@ -727,162 +603,301 @@ class PeerConnection extends Thread {
 			}
 			sendChoke();
 			break;
+		case 4:
+			checkLength(id, length, 5);
+			processHaveMessage(readBuffer.getInt(offset + 1));
+			break;
+		case 5:
+			processBitfield(offset + 1, offset + length);
+			break;
+		case 6:
+			checkLength(id, length, 13);
+			processRequest(readBuffer.getInt(offset + 1), readBuffer
+					.getInt(offset + 5), readBuffer.getInt(offset + 9));
+			break;
+		case 7:
+			if (length < 9) {
+				throw new IOException("Received a malformed [BT_PIECE] message"); //$NON-NLS-1$
+			}
+			processPiece(offset, length - 9);
+			break;
+		case 8:
+			checkLength(id, length, 13);
+			processCancel(readBuffer.getInt(offset + 1), readBuffer
+					.getInt(offset + 5), readBuffer.getInt(offset + 9));
+			break;
+		case 9:
+			// TODO: implement the processing of BT_PORT messages
+			break;
 		default:
-			return false;
+			TorrentConfiguration.debug("Ignoring a message with an ID of " + id //$NON-NLS-1$
+					+ " from " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
+			break;
+		}
+	}
+
+	private void checkLength(byte id, int length, int expected)
+			throws IOException {
+		if (length != expected) {
+			throw new IOException("A message with an ID of " + id //$NON-NLS-1$
+					+ " has a length of " + length + " instead of " + expected); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private void checkPiece(int piece) throws IOException {
+		if (piece < 0 || piece >= peerPieces.size()) {
+			throw new IOException("The piece number " + piece //$NON-NLS-1$
+					+ " does not exist"); //$NON-NLS-1$
 		}
-		return true;
 	}
 
-	private void processBitfield(byte[] array, int offset, int end) {
-		boolean[] hasPiece = new boolean[(end - offset) * 8];
+	private void processBitfield(int offset, int end) throws IOException {
+		if ((end - offset) * 8 < peerPieces.size()) {
+			throw new IOException("Received a [BT_BITFIELD] message that is too short"); //$NON-NLS-1$
+		}
+		// drop the availability of any pieces that this peer has announced
+		// before
+		manager.removePieceAvailability(peerPieces);
 		int count = 0;
 		// iterate over the retrieved bytes and keep track of the pieces that
 		// this peer has
-		for (int i = offset; i < end; i++) {
-			int bit = Decode.decodeSignedByte(array[i]);
-			hasPiece[count++] = (bit & 1) != 0;
-			hasPiece[count++] = (bit & 2) != 0;
-			hasPiece[count++] = (bit & 4) != 0;
-			hasPiece[count++] = (bit & 8) != 0;
-			hasPiece[count++] = (bit & 16) != 0;
-			hasPiece[count++] = (bit & 32) != 0;
-			hasPiece[count++] = (bit & 64) != 0;
-			hasPiece[count++] = (bit & 128) != 0;
+		int size = peerPieces.size();
+		for (int i = offset; i < end && count < size; i++) {
+			int bit = Decode.decodeSignedByte(readBuffer.get(i));
+			for (int mask = 1; mask < 256 && count < size; mask <<= 1) {
+				peerPieces.set(count++, (bit & mask) != 0);
+			}
 		}
-		System.arraycopy(hasPiece, 0, peerPieces, 0, peerPieces.length);
 		TorrentConfiguration.debug("Received [BT_BITFIELD] message from " + ip //$NON-NLS-1$
 				+ ":" + port); //$NON-NLS-1$
 		manager.addPieceAvailability(peerPieces);
-
-		for (int i = 0; i < peerPieces.length; i++) {
-			if (!peerPieces[i]) {
-				return;
-			}
-		}
-		peerIsSeed = true;
+		checkSeed();
 	}
 
-	private void processHaveMessage(byte[] array) {
-		int piece = Decode.decodeFourByteNumber(array, 5);
-		if (!peerPieces[piece]) {
-			peerPieces[piece] = true;
+	private void processHaveMessage(int piece) throws IOException {
+		checkPiece(piece);
+		if (peerPieces.set(piece)) {
 			manager.updatePieceAvailability(piece);
 		}
 		TorrentConfiguration.debug("Received [BT_HAVE piece #" + piece //$NON-NLS-1$
 				+ "] message from " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
+		checkSeed();
+	}
 
-		for (int i = 0; i < peerPieces.length; i++) {
-			if (!peerPieces[i]) {
-				return;
-			}
+	private void checkSeed() {
+		if (peerPieces.isFull()) {
+			peerIsSeed = true;
 		}
-		peerIsSeed = true;
 	}
 
-	private void processPiece(byte[] array) throws IOException {
-		int piece = Decode.decodeFourByteNumber(array, 5);
-		int index = Decode.decodeFourByteNumber(array, 9);
-		int length = Decode.decodeFourByteNumber(array, 0) - 9;
+	private void processPiece(int offset, int length) throws IOException {
+		int piece = readBuffer.getInt(offset + 1);
+		int index = readBuffer.getInt(offset + 5);
+		checkPiece(piece);
 
-		manager.write(piece, index, array, 13, length);
+		readBuffer.position(offset + 9);
+		readBuffer.get(block, 0, length);
+		manager.write(piece, index, block, 0, length);
 		downloaded += length;
+		removeRequest(outstandingRequests, piece, index, length);
 		TorrentConfiguration.debug("Received [BT_PIECE data for #" + piece //$NON-NLS-1$
 				+ ": " + index + "->" + (length + index - 1) //$NON-NLS-1$ //$NON-NLS-2$
 				+ "] message from " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
-	private boolean processRequest(byte[] array) throws IOException {
-		int piece = Decode.decodeFourByteNumber(array, 5);
-		int index = Decode.decodeFourByteNumber(array, 9);
-		int length = Decode.decodeFourByteNumber(array, 13);
+	private void processRequest(int piece, int index, int length)
+			throws IOException {
 		if (isChoking) {
 			TorrentConfiguration.debug("Ignoring [BT_REQUEST piece #" + piece //$NON-NLS-1$
 					+ ": " + index + "->" + (index + length - 1) //$NON-NLS-1$ //$NON-NLS-2$
 					+ "] message from " + ip + ":" + port //$NON-NLS-1$ //$NON-NLS-2$
 					+ " as this peer is currently choked"); //$NON-NLS-1$
-			return true;
+			return;
 		}
 		TorrentConfiguration.debug("Received [BT_REQUEST piece #" + piece //$NON-NLS-1$
 				+ ": " + index + "->" + (index + length - 1) //$NON-NLS-1$ //$NON-NLS-2$
 				+ "] message from " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
 
-		if (length > 131072) {
-			TorrentConfiguration.debug("The requesting of " + length //$NON-NLS-1$
-					+ " bytes violates the standard maximum amount of 131072, the connection to " + ip + ":" + port //$NON-NLS-1$ //$NON-NLS-2$
-					+ " will be closed."); //$NON-NLS-1$
-			return false;
+		if (length > MAX_REQUEST_SIZE) {
+			throw new IOException("The requesting of " + length //$NON-NLS-1$
+					+ " bytes violates the standard maximum amount of " //$NON-NLS-1$
+					+ MAX_REQUEST_SIZE);
 		}
+		checkPiece(piece);
+		requests.add(new int[] { piece, index, length });
+	}
 
-		byte[] block = manager.getPieceData(piece, index, length);
-		if (block == null) {
-			return false;
-		}
+	private void processCancel(int piece, int index, int length) {
+		TorrentConfiguration.debug("Received [BT_CANCEL piece #" + piece //$NON-NLS-1$
+				+ ": " + index + "->" + (index + length - 1) //$NON-NLS-1$ //$NON-NLS-2$
+				+ "] message from " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
+		removeRequest(requests, piece, index, length);
+	}
 
-		Encode.putIntegerAsFourBytes(blockInfo, length + 9, 0);
-		Encode.putIntegerAsFourBytes(blockInfo, piece, 5);
-		Encode.putIntegerAsFourBytes(blockInfo, index, 9);
-		sendBuffer.put(blockInfo);
-
-		int blockLength = block.length;
-		int offset = 0;
-		int remaining = sendBuffer.remaining();
-		long write = manager.getUploadRequestSpeed();
-		if (write != 0) {
-			if (write == -1) {
-				// since no limit has been set, simply set the amount to write
-				// as the length of the block
-				write = blockLength;
-			} else {
-				write = write < blockLength ? write : blockLength;
+	private boolean removeRequest(LinkedList list, int piece, int index,
+			int length) {
+		for (Iterator it = list.iterator(); it.hasNext();) {
+			int[] information = (int[]) it.next();
+			if (information[0] == piece && information[1] == index
+					&& information[2] == length) {
+				it.remove();
+				return true;
 			}
-			write = remaining < write ? remaining : write;
 		}
-		while (offset < blockLength) {
-			if (write == 0) {
-				try {
-					Thread.sleep(500);
-				} catch (InterruptedException e) {
-					// ignored
+		return false;
+	}
+
+	/**
+	 * Starts uploading the next block that the peer has requested.
+	 * 
+	 * @return <code>true</code> if an upload has been started,
+	 *         <code>false</code> if there are no pending requests
+	 * @throws IOException
+	 *             If the block could not be read from the local files
+	 */
+	private boolean startUpload() throws IOException {
+		if (isChoking || requests.isEmpty()) {
+			return false;
+		}
+		int[] information = (int[]) requests.removeFirst();
+		byte[] data;
+		try {
+			data = manager.getPieceData(information[0], information[1],
+					information[2]);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage());
+		}
+		if (data == null) {
+			throw new IOException("The requested piece #" + information[0] //$NON-NLS-1$
+					+ " is not available"); //$NON-NLS-1$
+		}
+		blockInfo.clear();
+		blockInfo.putInt(data.length + 9);
+		blockInfo.put((byte) 7);
+		blockInfo.putInt(information[0]);
+		blockInfo.putInt(information[1]);
+		blockInfo.flip();
+		upload = ByteBuffer.wrap(data);
+		TorrentConfiguration.debug("Sending [BT_PIECE data for #" //$NON-NLS-1$
+				+ information[0] + ": " + information[1] + "->" //$NON-NLS-1$ //$NON-NLS-2$
+				+ (information[1] + information[2] - 1) + "] message to " + ip //$NON-NLS-1$
+				+ ":" + port); //$NON-NLS-1$
+		return true;
+	}
+
+	/**
+	 * Writes as much of the queued up messages and the block that is being
+	 * uploaded as the channel accepts and the upload speed permits.
+	 * 
+	 * @throws IOException
+	 *             If an I/O error occurs while writing to the channel
+	 */
+	void write() throws IOException {
+		while (true) {
+			if (upload == null) {
+				if (sendBuffer.position() != 0) {
+					sendBuffer.flip();
+					channel.write(sendBuffer);
+					sendBuffer.compact();
+					if (sendBuffer.position() != 0) {
+						break;
+					}
+				}
+				if (!startUpload()) {
+					break;
 				}
-			} else {
-				sendBuffer.put(block, offset, (int) write);
-				sendBuffer.flip();
-				channel.write(sendBuffer);
-				sendBuffer.clear();
-				offset += write;
-				manager.updateUploadRequestSpeed((int) write);
-				uploaded += write;
-				manager.addToUploaded(write);
 			}
-			write = manager.getUploadRequestSpeed();
-			if (write != 0) {
-				remaining = blockLength - offset;
-				if (write == -1) {
-					write = remaining;
-				} else {
-					write = write < remaining ? write : remaining;
+
+			if (blockInfo.hasRemaining()) {
+				channel.write(blockInfo);
+				if (blockInfo.hasRemaining()) {
+					break;
 				}
-				remaining = sendBuffer.remaining();
-				write = remaining < write ? remaining : write;
 			}
+
+			long write = manager.getUploadRequestSpeed();
+			if (write == 0) {
+				break;
+			}
+			int limit = upload.limit();
+			if (write != -1 && write < upload.remaining()) {
+				upload.limit(upload.position() + (int) write);
+			}
+			int written = channel.write(upload);
+			upload.limit(limit);
+			manager.updateUploadRequestSpeed(written);
+			uploaded += written;
+			manager.addToUploaded(written);
+			if (upload.hasRemaining()) {
+				break;
+			}
+			upload = null;
 		}
+		updateInterestOps();
+	}
 
-		TorrentConfiguration.debug("Sent [BT_PIECE data for #" + piece + ": " //$NON-NLS-1$ //$NON-NLS-2$
-				+ index + "->" + (length + index - 1) + "] message to " + ip //$NON-NLS-1$ //$NON-NLS-2$
-				+ ":" + port); //$NON-NLS-1$
+	/**
+	 * Called by the engine after each round of selection. Queued up messages
+	 * are moved into the send buffer and, if <code>periodic</code> is set,
+	 * further blocks are requested from the peer.
+	 * 
+	 * @param periodic
+	 *            <code>true</code> if this is the periodic tick of the engine
+	 * @throws IOException
+	 *             If an I/O error occurs while writing to the channel
+	 */
+	void tick(boolean periodic) throws IOException {
+		if (!connected) {
+			return;
+		}
+		if (handshakeReceived) {
+			sendQueuedMessages();
+			if (periodic) {
+				sendRequests();
+			}
+		}
+		write();
+	}
+
+	private void updateInterestOps() {
+		int ops = 0;
+		if (manager.getDownloadRequestSpeed() != 0) {
+			ops |= SelectionKey.OP_READ;
+		}
+		if (sendBuffer.position() != 0
+				|| blockInfo.hasRemaining()
+				|| ((upload != null || (!isChoking && !requests.isEmpty())) && manager
+						.getUploadRequestSpeed() != 0)) {
+			ops |= SelectionKey.OP_WRITE;
+		}
+		if (key.interestOps() != ops) {
+			key.interestOps(ops);
+		}
+	}
+
+	/**
+	 * Places the specified message into the send buffer.
+	 * 
+	 * @param message
+	 *            the message to send
+	 * @return <code>true</code> if the message has been queued,
+	 *         <code>false</code> if there is currently no room for it
+	 */
+	private boolean send(byte[] message) {
+		if (sendBuffer.remaining() < message.length) {
+			return false;
+		}
+		sendBuffer.put(message);
 		return true;
 	}
 
-	private void sendHandshake() throws IOException {
-		sendBuffer.put(handshake);
-		sendBuffer.flip();
-		channel.write(sendBuffer);
-		sendBuffer.clear();
+	private void sendHandshake() {
+		send(handshake);
 		TorrentConfiguration.debug("Sent [BT_HANDSHAKE] message to " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
 				+ port);
 	}
 
-	private void sendBitfield() throws IOException {
+	private void sendBitfield() {
 		byte[] bitfield = manager.getBitfield();
 		boolean hasPiece = false;
 		for (int i = 0; i < bitfield.length; i++) {
@@ -897,69 +912,82 @@ class PeerConnection extends Thread {
 			return;
 		}
 
-		byte[] header = { 0x00, 0x00, 0x00, 0x00, 0x05 };
-		Encode.putIntegerAsFourBytes(header, bitfield.length + 1, 0);
-		sendBuffer.put(header);
-		sendBuffer.put(manager.getBitfield());
-		sendBuffer.flip();
-		channel.write(sendBuffer);
-		sendBuffer.clear();
+		sendBuffer.putInt(bitfield.length + 1);
+		sendBuffer.put((byte) 5);
+		sendBuffer.put(bitfield);
 		TorrentConfiguration.debug("Sent [BT_BITFIELD] message to " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
 				+ port);
 	}
 
-	private int sendRequest(Piece piece) throws IOException {
-		if (piece == null) {
+	/**
+	 * Requests blocks from the peer until {@link #MAX_OUTSTANDING_REQUESTS}
+	 * requests are waiting to be answered, or tells the peer whether it has
+	 * anything of interest if the peer is choking this client.
+	 */
+	private void sendRequests() {
+		if (outstandingRequests.size() >= MAX_OUTSTANDING_REQUESTS
+				|| sendBuffer.remaining() < request.length) {
+			return;
+		}
+		// check before picking a piece, as picking starts the piece and a
+		// choking peer would hold it back
+		if (!manager.isInteresting(peerPieces)) {
 			sendNotInterested();
-			return -1;
+			return;
 		} else if (peerIsChoking) {
 			sendInterested();
-			return -1;
+			return;
 		}
 
-		int[] information = piece.getRequestInformation();
-		while (information == null) {
-			piece = manager.request(peerPieces);
+		while (outstandingRequests.size() < MAX_OUTSTANDING_REQUESTS
+				&& sendBuffer.remaining() >= request.length) {
+			Piece piece = manager.request(peerPieces);
 			if (piece == null) {
 				sendNotInterested();
-				return -1;
+				return;
 			}
-			information = piece.getRequestInformation();
-		}
 
-		Encode.placeRequestInformation(request, information);
-		sendBuffer.put(request);
-		sendBuffer.flip();
-		channel.write(sendBuffer);
-		sendBuffer.clear();
-		TorrentConfiguration.debug("Sent [BT_REQUEST piece #" + information[0] //$NON-NLS-1$
-				+ ": " + information[1] + "->" //$NON-NLS-1$ //$NON-NLS-2$
-				+ (information[1] + information[2] - 1) + "] message to " + ip //$NON-NLS-1$
-				+ ":" + port); //$NON-NLS-1$
+			int[] information = piece.getRequestInformation();
+			while (information == null) {
+				piece = manager.request(peerPieces);
+				if (piece == null) {
+					sendNotInterested();
+					return;
+				}
+				information = piece.getRequestInformation();
+			}
+			if (isOutstanding(information)) {
+				// all blocks of the piece have been requested already, wait
+				// for them to arrive instead of requesting them again
+				return;
+			}
 
-		return information[2] + 13;
+			Encode.placeRequestInformation(request, information);
+			sendBuffer.put(request);
+			outstandingRequests.add(information);
+			TorrentConfiguration.debug("Sent [BT_REQUEST piece #" //$NON-NLS-1$
+					+ information[0] + ": " + information[1] + "->" //$NON-NLS-1$ //$NON-NLS-2$
+					+ (information[1] + information[2] - 1) + "] message to " //$NON-NLS-1$
+					+ ip + ":" + port); //$NON-NLS-1$
+		}
 	}
 
-	/**
-	 * Sends the queued up messages to the connected peer to inform.
-	 * 
-	 * @throws IOException
-	 *             If an I/O error occurs while sending the messages to the peer
-	 */
-	private synchronized void sendQueuedMessages() throws IOException {
-		for (int i = 0; i < haveMessages.length; i++) {
-			if (haveMessages[i]) {
-				Encode.putIntegerAsFourBytes(have, i, 5);
-				sendBuffer.put(have);
-				sendBuffer.flip();
-				channel.write(sendBuffer);
-				sendBuffer.clear();
-				TorrentConfiguration.debug("Sent [BT_HAVE PIECE #" + i //$NON-NLS-1$
-						+ "] message to " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
-				haveMessages[i] = false;
+	private boolean isOutstanding(int[] information) {
+		for (int i = 0; i < outstandingRequests.size(); i++) {
+			int[] outstanding = (int[]) outstandingRequests.get(i);
+			if (outstanding[0] == information[0]
+					&& outstanding[1] == information[1]) {
+				return true;
 			}
 		}
+		return false;
+	}
 
+	/**
+	 * Moves the queued up messages into the send buffer. Messages that do not
+	 * fit into the buffer stay queued until the next call.
+	 */
+	private synchronized void sendQueuedMessages() {
 		if (sendChoke) {
 			sendChoke();
 			sendChoke = false;
@@ -967,21 +995,27 @@ class PeerConnection extends Thread {
 			sendUnchoke();
 			sendUnchoke = false;
 		}
+		sendChokeState();
+
+		for (int i = 0; i < haveMessages.length; i++) {
+			if (haveMessages[i]) {
+				Encode.putIntegerAsFourBytes(have, i, 5);
+				if (!send(have)) {
+					return;
+				}
+				TorrentConfiguration.debug("Sent [BT_HAVE PIECE #" + i //$NON-NLS-1$
+						+ "] message to " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
+				haveMessages[i] = false;
+			}
+		}
 	}
 
 	/**
 	 * Sends a message to the peer that this client is interested in something
 	 * that the peer has to offer.
-	 * 
-	 * @throws IOException
-	 *             If an I/O error occurs while sending the message
 	 */
-	private void sendInterested() throws IOException {
-		if (!isInterested) {
-			sendBuffer.put(INTERESTED);
-			sendBuffer.flip();
-			channel.write(sendBuffer);
-			sendBuffer.clear();
+	private void sendInterested() {
+		if (!isInterested && send(INTERESTED)) {
 			isInterested = true;
 			TorrentConfiguration.debug("Sent [BT_INTERESTED] message to " + ip //$NON-NLS-1$
 					+ ":" + port); //$NON-NLS-1$
@@ -991,16 +1025,9 @@ class PeerConnection extends Thread {
 	/**
 	 * Sends a message to the peer that this client is not interested in
 	 * anything that the peer currently has to offer.
-	 * 
-	 * @throws IOException
-	 *             If an I/O error occurs while sending the message
 	 */
-	private void sendNotInterested() throws IOException {
-		if (isInterested) {
-			sendBuffer.put(NOT_INTERESTED);
-			sendBuffer.flip();
-			channel.write(sendBuffer);
-			sendBuffer.clear();
+	private void sendNotInterested() {
+		if (isInterested && send(NOT_INTERESTED)) {
 			isInterested = false;
 			TorrentConfiguration.debug("Sent [BT_NOT_INTERESTED] message to " //$NON-NLS-1$
 					+ ip + ":" + port); //$NON-NLS-1$
@@ -1008,91 +1035,79 @@ class PeerConnection extends Thread {
 	}
 
 	/**
-	 * Sends a choke message to the peer which indicates to them that any piece
-	 * requests will be ignored and discarded.
-	 * 
-	 * @throws IOException
-	 *             If an I/O error occurs while writing the message to the peer
+	 * Chokes the peer, any piece requests will be ignored and discarded from
+	 * now on. The choke message is sent to the peer as soon as there is room
+	 * for it in the send buffer.
 	 */
-	private void sendChoke() throws IOException {
+	private void sendChoke() {
 		if (!isChoking) {
-			sendBuffer.put(CHOKE);
-			sendBuffer.flip();
-			channel.write(sendBuffer);
-			sendBuffer.clear();
 			isChoking = true;
-			TorrentConfiguration.debug("Sent [BT_CHOKE] message to " + ip + ":" //$NON-NLS-1$ //$NON-NLS-2$
-					+ port);
+			requests.clear();
 		}
+		sendChokeState();
 	}
 
 	/**
-	 * Sends an unchoke message to the peer to inform them that piece requests
-	 * will now be honoured.
-	 * 
-	 * @throws IOException
-	 *             If an I/O error occurs whilst writing the message to the peer
+	 * Unchokes the peer. The unchoke message is sent to the peer as soon as
+	 * there is room for it in the send buffer.
 	 */
-	private void sendUnchoke() throws IOException {
-		if (isChoking) {
-			sendBuffer.put(UNCHOKE);
-			sendBuffer.flip();
-			channel.write(sendBuffer);
-			sendBuffer.clear();
-			isChoking = false;
-			TorrentConfiguration.debug("Sent [BT_UNCHOKE] message to " + ip //$NON-NLS-1$
-					+ ":" + port); //$NON-NLS-1$
-		}
+	private void sendUnchoke() {
+		isChoking = false;
+		sendChokeState();
 	}
 
 	/**
-	 * Resets instance values so that a new connection that is bridged by this
-	 * thread will not have remnants of information from the last connection.
+	 * Sends a choke or unchoke message if the peer has not been told about the
+	 * current choke state yet.
 	 */
-	private void reset() {
-		queuePosition = 0;
-		downloaded = 0;
-		uploaded = 0;
-		Arrays.fill(downloads, 0);
-		Arrays.fill(uploads, 0);
-
-		isInterested = false;
-		isChoking = true;
-		peerIsInterested = false;
-		peerIsChoking = true;
-		peerIsSeed = false;
-		Arrays.fill(peerPieces, false);
-
-		sendChoke = false;
-		sendUnchoke = false;
-		Arrays.fill(haveMessages, false);
-
-		clientName = "Unknown"; //$NON-NLS-1$
-	}
-
-	private void cleanup() {
-		pool.connectionClosed();
-		if (!isChoking) {
-			pool.unchokedPeerCleared();
+	private void sendChokeState() {
+		if (isChoking == chokingSent) {
+			return;
+		}
+		if (send(isChoking ? CHOKE : UNCHOKE)) {
+			chokingSent = isChoking;
+			TorrentConfiguration.debug("Sent [" //$NON-NLS-1$
+					+ (isChoking ? "BT_CHOKE" : "BT_UNCHOKE") //$NON-NLS-1$ //$NON-NLS-2$
+					+ "] message to " + ip + ":" + port); //$NON-NLS-1$ //$NON-NLS-2$
 		}
-		initialized = false;
 	}
 
 	/**
-	 * Closes this connection. Any <code>IOException</code>s that may be
-	 * thrown will closing the connection with the peer will be ignored.
+	 * Closes the channel of this connection and releases the piece availability
+	 * and the unchoked slot that it held. This must only be called by the
+	 * engine.
 	 */
-	void close() {
+	void disconnect() {
+		closeRequested = true;
 		if (channel != null) {
-			reset();
 			try {
 				channel.close();
 			} catch (IOException e) {
 				// ignored
 			}
 			channel = null;
+			key = null;
 			manager.removePieceAvailability(peerPieces);
+			peerPieces.clear();
+			if (!isChoking) {
+				pool.unchokedPeerCleared();
+			}
 		}
+		upload = null;
+		requests.clear();
+		outstandingRequests.clear();
+	}
+
+	/**
+	 * Requests this connection to be closed. The connection will be closed by
+	 * the engine's thread. This method may be called from any thread.
+	 */
+	void close() {
+		closeRequested = true;
+	}
+
+	boolean isCloseRequested() {
+		return closeRequested;
 	}
 
 	boolean isChoking() {
@@ -1118,7 +1133,7 @@ class PeerConnection extends Thread {
 
 	/**
 	 * Queues up the specified piece as needing a corresponding HAVE message to
-	 * be sent to the connected peer.
+	 * be sent to the connected peer. This method may be called from any thread.
 	 * 
 	 * @param number
 	 *            the number of the piece that has just been completed
@@ -1126,20 +1141,21 @@ class PeerConnection extends Thread {
 	 *             If a negative piece number or a piece number that is over the
 	 *             number of available pieces has been set
 	 */
-	void queueHaveMessage(int number) throws IllegalArgumentException {
+	synchronized void queueHaveMessage(int number)
+			throws IllegalArgumentException {
 		if (number < 0) {
 			throw new IllegalArgumentException("The piece number cannot be negative"); //$NON-NLS-1$
-		} else if (number >= peerPieces.length) {
+		} else if (number >= peerPieces.size()) {
 			throw new IllegalArgumentException("The piece number is greater than the number of pieces"); //$NON-NLS-1$
 		}
 		haveMessages[number] = true;
 	}
 
-	void queueChokeMessage() {
+	synchronized void queueChokeMessage() {
 		sendUnchoke = true;
 	}
 
-	void queueUnchokeMessage() {
+	synchronized void queueUnchokeMessage() {
 		sendChoke = true;
 	}
 
@@ -1183,55 +1199,11 @@ class PeerConnection extends Thread {
 	}
 
 	boolean isInitialized() {
-		return initialized;
-	}
-
-	protected void finalize() {
-		close();
+		return !closeRequested;
 	}
 
-	public void run() {
-		ConnectionInfo info = pool.dequeue();
-		if (info == null) {
-			pool.connectionDestroyed(this);
-			return;
-		}
-
-		while (true) {
-			try {
-				initialized = true;
-				if (info.isChannel()) {
-					setChannel(info.getChannel());
-				} else {
-					setAddress(info.getIP(), info.getPort());
-				}
-				pool.connectionCreated();
-				connect();
-				cleanup();
-
-				if (!pool.isConnected()) {
-					return;
-				}
-
-				try {
-					synchronized (pool) {
-						pool.wait();
-					}
-				} catch (InterruptedException e) {
-					pool.connectionDestroyed(this);
-					return;
-				}
-				info = pool.dequeue();
-				if (info == null) {
-					pool.connectionDestroyed(this);
-					return;
-				}
-			} catch (RuntimeException e) {
-				cleanup();
-				pool.connectionDestroyed(this);
-				throw e;
-			}
-		}
+	public String toString() {
+		return ip + ":" + port; //$NON-NLS-1$
 	}
 
 }
@@ -0,0 +1,221 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.net;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.eclipse.ecf.protocol.bittorrent.TorrentConfiguration;
+
+/**
+ * A single thread that drives all of the {@link PeerConnection}s of a
+ * {@link ConnectionPool} with one <code>Selector</code>. Connections are
+ * registered with {@link #register(PeerConnection)} and are then only ever
+ * touched by this thread, other threads merely queue up messages or request
+ * for a connection to be closed.
+ */
+class PeerEngine extends Thread {
+
+	/**
+	 * The number of milliseconds between two calls to
+	 * {@link PeerConnection#tick(boolean)} on every registered connection. This also
+	 * bounds how long a connection that has run out of its download or upload
+	 * allowance waits before it is serviced again.
+	 */
+	private static final long TICK_INTERVAL = 100;
+
+	private final ConnectionPool pool;
+
+	private final Selector selector;
+
+	/**
+	 * Connections that have been registered but not yet been picked up by the
+	 * selecting thread.
+	 */
+	private final LinkedList pending = new LinkedList();
+
+	/**
+	 * The connections that are currently being serviced. Only accessed by the
+	 * selecting thread.
+	 */
+	private final ArrayList active = new ArrayList();
+
+	private volatile boolean running = true;
+
+	PeerEngine(ConnectionPool pool, String name) throws IOException {
+		super("Peer Engine - " + name); //$NON-NLS-1$
+		this.pool = pool;
+		selector = Selector.open();
+		setDaemon(true);
+	}
+
+	/**
+	 * Hands the specified connection over to this engine. The connection will
+	 * be opened and registered with the selector by the selecting thread.
+	 * 
+	 * @param connection
+	 *            the connection to service
+	 * @return <code>true</code> if the connection has been handed over,
+	 *         <code>false</code> if this engine has stopped
+	 */
+	boolean register(PeerConnection connection) {
+		synchronized (pending) {
+			if (!running) {
+				return false;
+			}
+			pending.add(connection);
+		}
+		selector.wakeup();
+		return true;
+	}
+
+	/**
+	 * Stops this engine. All connections that are being serviced will be
+	 * closed by the selecting thread before it exits.
+	 */
+	void shutdown() {
+		running = false;
+		selector.wakeup();
+	}
+
+	boolean isRunning() {
+		return running;
+	}
+
+	private void registerPending() {
+		Object[] connections;
+		synchronized (pending) {
+			if (pending.isEmpty()) {
+				return;
+			}
+			connections = pending.toArray();
+			pending.clear();
+		}
+		for (int i = 0; i < connections.length; i++) {
+			PeerConnection connection = (PeerConnection) connections[i];
+			try {
+				connection.open(selector);
+				active.add(connection);
+			} catch (IOException e) {
+				TorrentConfiguration.debug("Unable to connect to " //$NON-NLS-1$
+						+ connection + " - " + e.getMessage()); //$NON-NLS-1$
+				close(connection);
+			} catch (RuntimeException e) {
+				TorrentConfiguration.debug("Unable to connect to " //$NON-NLS-1$
+						+ connection + " - " + e); //$NON-NLS-1$
+				close(connection);
+			}
+		}
+	}
+
+	private void process(SelectionKey key) {
+		PeerConnection connection = (PeerConnection) key.attachment();
+		try {
+			if (key.isConnectable()) {
+				connection.finishConnect();
+			}
+			if (key.isValid() && key.isReadable()) {
+				connection.read();
+			}
+			if (key.isValid() && key.isWritable()) {
+				connection.write();
+			}
+		} catch (IOException e) {
+			String message = e.getMessage();
+			TorrentConfiguration.debug("The connection with " + connection //$NON-NLS-1$
+					+ " has been closed" //$NON-NLS-1$
+					+ (message == null ? "." : ": " + message)); //$NON-NLS-1$ //$NON-NLS-2$
+			connection.close();
+		} catch (RuntimeException e) {
+			// do not let a single connection take down the other ones
+			TorrentConfiguration.debug("The connection with " + connection //$NON-NLS-1$
+					+ " has failed: " + e); //$NON-NLS-1$
+			connection.close();
+		}
+	}
+
+	private void close(PeerConnection connection) {
+		connection.disconnect();
+		pool.connectionClosed(connection);
+	}
+
+	private void tick(boolean periodic) {
+		for (Iterator it = active.iterator(); it.hasNext();) {
+			PeerConnection connection = (PeerConnection) it.next();
+			if (!connection.isCloseRequested()) {
+				try {
+					connection.tick(periodic);
+				} catch (IOException e) {
+					TorrentConfiguration.debug("The connection with " //$NON-NLS-1$
+							+ connection + " has been closed: " //$NON-NLS-1$
+							+ e.getMessage());
+					connection.close();
+				}
+			}
+			if (connection.isCloseRequested()) {
+				it.remove();
+				close(connection);
+			}
+		}
+	}
+
+	public void run() {
+		long lastTick = System.currentTimeMillis();
+		try {
+			while (running) {
+				selector.select(TICK_INTERVAL);
+				registerPending();
+				for (Iterator it = selector.selectedKeys().iterator(); it
+						.hasNext();) {
+					SelectionKey key = (SelectionKey) it.next();
+					it.remove();
+					if (key.isValid()) {
+						process(key);
+					}
+				}
+				long now = System.currentTimeMillis();
+				boolean periodic = now - lastTick >= TICK_INTERVAL;
+				if (periodic) {
+					lastTick = now;
+				}
+				tick(periodic);
+			}
+		} catch (IOException e) {
+			TorrentConfiguration.debug("The peer engine has stopped: " //$NON-NLS-1$
+					+ e.getMessage());
+		} catch (RuntimeException e) {
+			TorrentConfiguration.debug("The peer engine has failed: " + e); //$NON-NLS-1$
+		} finally {
+			synchronized (pending) {
+				// no connection can be registered from now on
+				running = false;
+				active.addAll(pending);
+				pending.clear();
+			}
+			for (int i = 0; i < active.size(); i++) {
+				close((PeerConnection) active.get(i));
+			}
+			active.clear();
+			try {
+				selector.close();
+			} catch (IOException e) {
+				// ignored
+			}
+		}
+	}
+
+}
@@ -20,15 +20,9 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLEncoder;
-import java.nio.ByteBuffer;
-import java.nio.channels.ClosedByInterruptException;
-import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
@@ -47,8 +41,13 @@ import org.eclipse.ecf.protocol.bittorrent.internal.encode.BEncodedDictionary;
 import org.eclipse.ecf.protocol.bittorrent.internal.encode.Decode;
 import org.eclipse.ecf.protocol.bittorrent.internal.encode.Encode;
 import org.eclipse.ecf.protocol.bittorrent.internal.torrent.DataFile;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.IPieceVerificationListener;
 import org.eclipse.ecf.protocol.bittorrent.internal.torrent.Piece;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PiecePicker;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceSet;
 import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceState;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceStorage;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceVerifier;
 
 /**
  * The <code>TorrentManager</code> class is used to handle all of the
@@ -60,7 +59,17 @@ public class TorrentManager {
 
 	private static final String UP_SPEED_KEY = "up.speed"; //$NON-NLS-1$
 
-	private static MessageDigest shaDigest;
+	/**
+	 * The minimum number of milliseconds between two saves of the pieces'
+	 * states while blocks are being written. The value is 1000.
+	 */
+	private static final long STATE_SAVE_INTERVAL = 1000;
+
+	/**
+	 * The maximum number of bytes that are read ahead of the threads that
+	 * are hashing the pieces during a hash check. The value is 8388608 (8 MB).
+	 */
+	private static final int HASH_CHECK_READ_AHEAD = 8388608;
 
 	private static File statePath;
 
@@ -72,6 +81,27 @@ public class TorrentManager {
 	 */
 	private final DataFile[] files;
 
+	/**
+	 * Reads and writes the data of the pieces from and to {@link #files}.
+	 */
+	private final PieceStorage storage;
+
+	private final PieceVerifier verifier;
+
+	/**
+	 * Receives the results of the hash checks of pieces that have been
+	 * completed while downloading.
+	 */
+	private final IPieceVerificationListener completionListener = new IPieceVerificationListener() {
+		public void verified(int number, boolean valid) {
+			try {
+				pieceVerified(number, valid);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	};
+
 	private final Vector stateListeners;
 
 	private final Vector progressListeners;
@@ -100,30 +130,17 @@ public class TorrentManager {
 	private final Vector pieces;
 
 	/**
-	 * A collection of {@link Piece}s that has had a portion of its bytes
-	 * completed.
-	 */
-	private final Vector incompletePieces;
-
-	/**
-	 * An integer array that stores the number of peers that possesses a
-	 * specific piece. This is used to determine which piece is a rare piece.
+	 * Selects the pieces to request from peers based on their availability
+	 * amongst the connected peers and the files that should be downloaded.
 	 */
-	private final int[] pieceAvailability;
+	private final PiecePicker picker;
 
 	private final byte[] bitfield;
 
 	/**
-	 * A boolean array that indicates whether a specific piece has been
-	 * downloaded successfully or not.
+	 * The pieces that have been downloaded and verified successfully.
 	 */
-	private final boolean[] hasPiece;
-
-	private final boolean[] priorityPieces;
-
-	private final boolean[] interestedPieces;
-
-	private final boolean[] uninterestedPieces;
+	private final PieceSet hasPiece;
 
 	private final String infoHash;
 
@@ -258,24 +275,14 @@ public class TorrentManager {
 	 */
 	private boolean isCompleted = false;
 
-	/**
-	 * Indicates whether the user is deciding to not download some files.
-	 */
-	private boolean isSelective = false;
-
-	private boolean isPrioritizing = false;
-
 	private boolean isWaitingToStart = false;
 
 	private boolean isHashChecking = false;
 
-	static {
-		try {
-			shaDigest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
-		} catch (NoSuchAlgorithmException e) {
-			throw new RuntimeException(e);
-		}
-	}
+	/**
+	 * The time at which the pieces' states have last been saved.
+	 */
+	private long lastSaved = 0;
 
 	public static void setStatePath(File path) {
 		statePath = path;
@@ -333,12 +340,8 @@ public class TorrentManager {
 		}
 		bitfield = new byte[numPieces % 8 != 0 ? (numPieces / 8) + 1
 				: (numPieces / 8)];
-		hasPiece = new boolean[numPieces];
-		pieceAvailability = new int[numPieces];
-		priorityPieces = new boolean[numPieces];
-		interestedPieces = new boolean[numPieces];
-		uninterestedPieces = new boolean[numPieces];
-		incompletePieces = new Vector();
+		hasPiece = new PieceSet(numPieces);
+		picker = new PiecePicker(numPieces);
 		stateListeners = new Vector();
 		errorListeners = new Vector();
 		pieceListeners = new Vector();
@@ -373,8 +376,14 @@ public class TorrentManager {
 		((Piece) pieces.get(numPieces - 1))
 				.setLength((int) (total % pieceLength));
 
+		storage = new PieceStorage(files, pieceLength,
+				PieceStorage.DEFAULT_CACHE_SIZE);
+		for (int i = 0; i < numPieces; i++) {
+			((Piece) pieces.get(i)).setStorage(storage);
+		}
+		verifier = new PieceVerifier(torrent.getName(), storage, torrent
+				.getPieces(), HASH_CHECK_READ_AHEAD);
 		checkFile();
-		setPieces();
 	}
 
 	private void checkFile() {
@@ -497,28 +506,6 @@ public class TorrentManager {
 		}
 	}
 
-	private void setPieces() {
-		int count = 0;
-		int pieceLen = pieceLength;
-		for (int i = 0; i < files.length; i++) {
-			long length = files[i].length();
-			if (pieceLen == 0) {
-				pieceLen = pieceLength;
-			}
-			while (pieceLen < length) {
-				Piece piece = (Piece) pieces.get(count);
-				piece.addFile(files[i], pieceLen);
-				count++;
-				length -= pieceLen;
-				if (pieceLen < pieceLength) {
-					pieceLen = pieceLength;
-				}
-			}
-			pieceLen -= length;
-			((Piece) pieces.get(count)).addFile(files[i], (int) length);
-		}
-	}
-
 	private void restore(Properties properties) {
 		String value = properties.getProperty(DOWN_SPEED_KEY);
 		requestDownSpeed = value != null ? Long.parseLong(value) : -1;
@@ -534,7 +521,7 @@ public class TorrentManager {
 
 	private void updateBitfield() {
 		int count = 0;
-		int size = hasPiece.length;
+		int size = hasPiece.size();
 		// iterate over all the pieces by multiples of 8
 		char[] bits = new char[8];
 		for (int i = 0; i < size; i += 8) {
@@ -542,7 +529,7 @@ public class TorrentManager {
 			// iterate over the 8 (or less) pieces within this segment
 			for (int j = i; j < (i + 8) && j < size; j++) {
 				// if we have this piece, flag it so
-				if (hasPiece[j]) {
+				if (hasPiece.get(j)) {
 					bits[j - i] = '1';
 				}
 			}
@@ -556,8 +543,8 @@ public class TorrentManager {
 		int offset = piece / 8;
 		char[] bits = new char[8];
 		Arrays.fill(bits, '0');
-		for (int i = offset; i < (offset + 8) && i < hasPiece.length; i++) {
-			if (hasPiece[i]) {
+		for (int i = offset; i < (offset + 8) && i < hasPiece.size(); i++) {
+			if (hasPiece.get(i)) {
 				bits[i - offset] = '1';
 			}
 		}
@@ -605,7 +592,7 @@ public class TorrentManager {
 	public void stop() throws IOException {
 		isWaitingToStart = false;
 		if (hashCheckThread != null && hashCheckThread.isAlive()) {
-			hashCheckThread.interrupt();
+			hashCheckThread.cancel();
 			isHashChecking = false;
 			hashCheckThread = null;
 			fireStateChangedEvent(ITorrentStateListener.STOPPED);
@@ -620,6 +607,9 @@ public class TorrentManager {
 		speedMonitoringThread = null;
 		running = false;
 		connectionPool.close();
+		// states are saved periodically while downloading, make sure the
+		// last written blocks are recorded
+		saveState();
 		queryTracker("stopped"); //$NON-NLS-1$
 		fireStateChangedEvent(ITorrentStateListener.STOPPED);
 		store();
@@ -647,11 +637,10 @@ public class TorrentManager {
 		remaining = total;
 		seeders = -1;
 		peers = -1;
-		Arrays.fill(priorityPieces, false);
-		Arrays.fill(interestedPieces, false);
-		Arrays.fill(uninterestedPieces, false);
 		for (int i = 0; i < pieces.size(); i++) {
 			((Piece) pieces.get(i)).reset();
+			picker.setWanted(i, true, false);
+			picker.setDone(i, false);
 		}
 	}
 
@@ -714,111 +703,59 @@ public class TorrentManager {
 		}
 	}
 
-	public void connectTo(SocketChannel channel)
-			throws UnsupportedEncodingException {
+	public void connectTo(SocketChannel channel) throws IOException {
 		connectionPool.connectTo(channel);
 	}
 
 	/**
-	 * Retrieves the block of data that corresponds to the specified piece.
+	 * Retrieves a block of data of a piece that has been completed and
+	 * verified.
 	 * 
-	 * @param piece
+	 * @param number
 	 *            the interested piece's number
-	 * @return an array of bytes corresponding to the data that is encompassed
-	 *         by the specified piece, or <code>null</code> if no data is
-	 *         available
+	 * @param offset
+	 *            the position within the piece that the block starts at
+	 * @param length
+	 *            the length of the block
+	 * @return the block's data, or <code>null</code> if the piece has not
+	 *         been completed yet
 	 * @throws IllegalArgumentException
-	 *             If <code>piece</code> is negative or if it is not one of
-	 *             the piece numbers
+	 *             If the piece does not exist or the block goes beyond the
+	 *             range of the piece
 	 * @throws IOException
-	 *             If an I/O/ error occurs while reading the data from the local
+	 *             If an I/O error occurs while reading the data from the local
 	 *             files
 	 */
-	private byte[] getPiece(int piece) throws IOException {
-		if (piece < 0) {
-			throw new IllegalArgumentException("The piece number cannot be negative"); //$NON-NLS-1$
-		} else if (piece >= hasPiece.length) {
-			throw new IllegalArgumentException("The piece number " + piece //$NON-NLS-1$
-					+ " does not exist"); //$NON-NLS-1$
-		}
-
-		byte[][] data = new byte[files.length][0];
-		Arrays.fill(data, null);
-		for (int i = 0; i < files.length; i++) {
-			if (files[i].containsPiece(piece)) {
-				data[i] = files[i].getData(piece);
-			}
-		}
-
-		boolean empty = true;
-		for (int i = 0; i < data.length; i++) {
-			if (data[i] != null && data[i].length != 0) {
-				empty = false;
-				break;
-			}
-		}
-
-		if (empty) {
-			return null;
-		}
-
-		byte[] bytes = new byte[((Piece) pieces.get(piece)).getLength()];
-		int offset = 0;
-		for (int i = 0; i < data.length; i++) {
-			if (data[i] != null) {
-				System.arraycopy(data[i], 0, bytes, offset, data[i].length);
-				offset += data[i].length;
-			}
-		}
-		return bytes;
-	}
-
 	byte[] getPieceData(int number, int offset, int length)
 			throws IllegalArgumentException, IOException {
-		byte[] piece = getPiece(number);
-		if (piece == null) {
-			return null;
+		if (number < 0 || number >= hasPiece.size()) {
+			throw new IllegalArgumentException("The piece number " + number //$NON-NLS-1$
+					+ " does not exist"); //$NON-NLS-1$
 		}
-		if (offset + length > piece.length) {
-			throw new IllegalArgumentException("The block of data that is being requested goes beyond the range of the requested piece"); //$NON-NLS-1$
+		synchronized (this) {
+			if (!hasPiece.get(number)) {
+				return null;
+			}
 		}
-		byte[] block = new byte[length];
-		System.arraycopy(piece, offset, block, 0, length);
-		return block;
-	}
-
-	/**
-	 * Performs a hash check on the specified piece number to see whether the
-	 * data is corrupt or not.
-	 * 
-	 * @param piece
-	 *            the number of the piece to check
-	 * @return <code>true</code> if the SHA-1 hash of the particular piece's
-	 *         data matches the torrent file's hash, <code>false</code>
-	 *         otherwise
-	 * @throws IllegalArgumentException
-	 *             If the specified piece has not been completed
-	 * @throws IOException
-	 *             If an I/O error occurs while retrieving the piece's data from
-	 *             a particular file
-	 */
-	private boolean hashCheck(int piece) throws IllegalArgumentException,
-			IOException {
-		byte[] data = getPiece(piece);
-		return data == null ? false : torrent.getPieces()[piece]
-				.equals(new String(shaDigest.digest(data), "ISO-8859-1")); //$NON-NLS-1$
+		// verified pieces are usually requested block by block, so cache them
+		return storage.read(number, offset, length, true);
 	}
 
-	private void saveState() throws IOException {
+	private synchronized void saveState() throws IOException {
 		BufferedWriter writer = new BufferedWriter(new FileWriter(torrentState,
 				false));
-		writer.write(Long.toString(targetFile.lastModified()));
-		writer.newLine();
-		for (int i = 0; i < states.length; i++) {
-			writer.write(states[i].toString());
+		try {
+			writer.write(Long.toString(targetFile.lastModified()));
 			writer.newLine();
+			for (int i = 0; i < states.length; i++) {
+				writer.write(states[i].toString());
+				writer.newLine();
+			}
+			writer.flush();
+		} finally {
+			writer.close();
 		}
-		writer.flush();
+		lastSaved = System.currentTimeMillis();
 	}
 
 	/**
@@ -841,41 +778,63 @@ public class TorrentManager {
 	 *             state information, performing a hash check, or querying the
 	 *             tracker
 	 */
-	synchronized void write(int number, int index, byte[] data, int offset,
-			int length) throws IOException {
+	void write(int number, int index, byte[] data, int offset, int length)
+			throws IOException {
 		Piece piece = (Piece) pieces.get(number);
-		if (!hasPiece[number] && piece.write(index, data, offset, length)) {
-			remaining -= length;
-			downloaded += length;
-			saveState();
-			fireBlockDownloadedEvent(number, index, length);
-			if (!incompletePieces.contains(piece)) {
-				incompletePieces.add(piece);
+		boolean complete;
+		// blocks of different pieces are written concurrently, only the
+		// piece's own bookkeeping needs to be guarded while writing, blocks of
+		// completed pieces are rejected by the piece itself
+		synchronized (piece) {
+			if (!piece.write(index, data, offset, length)) {
+				return;
 			}
+			complete = piece.isComplete();
+		}
 
-			if (piece.isComplete()) {
-				incompletePieces.remove(piece);
-				checkCompletedPiece(piece, number);
+		boolean save;
+		synchronized (this) {
+			remaining -= length;
+			downloaded += length;
+			if (complete) {
+				picker.setDone(number, true);
+			} else {
+				picker.setStarted(number);
 			}
+			save = complete
+					|| System.currentTimeMillis() - lastSaved >= STATE_SAVE_INTERVAL;
+		}
+		if (save) {
+			saveState();
+		}
+		fireBlockDownloadedEvent(number, index, length);
+		if (complete) {
+			// hash the piece on the verifier's threads so that the peer
+			// connections are not held up
+			verifier.verify(number, completionListener);
 		}
 	}
 
-	private void checkCompletedPiece(Piece piece, int number)
-			throws IOException {
-		if (hashCheck(number)) {
+	private void pieceVerified(int number, boolean valid) throws IOException {
+		Piece piece = (Piece) pieces.get(number);
+		if (valid) {
 			TorrentConfiguration
 					.debug("Piece " + number + " passed hash check"); //$NON-NLS-1$ //$NON-NLS-2$
-			hasPiece[number] = true;
-			updateBitfield(number);
-			firePieceCompletedEvent(++completedPieces);
+			int completed;
+			boolean finished;
+			synchronized (this) {
+				hasPiece.set(number);
+				updateBitfield(number);
+				completed = ++completedPieces;
+				finished = hasPiece.isFull();
+				isCompleted = finished;
+			}
+			firePieceCompletedEvent(completed);
 			connectionPool.queueHaveMessage(number);
-			for (int i = 0; i < hasPiece.length; i++) {
-				if (!hasPiece[i]) {
-					return;
-				}
+			if (!finished) {
+				return;
 			}
 
-			isCompleted = true;
 			fireStateChangedEvent(ITorrentStateListener.FINISHED);
 			connectionPool.disconnectSeeds();
 			// let the tracker know that the download has completed
@@ -883,127 +842,63 @@ public class TorrentManager {
 		} else {
 			TorrentConfiguration.debug("Piece " + number //$NON-NLS-1$
 					+ " has failed the hash check"); //$NON-NLS-1$
-			piece.reset();
+			synchronized (piece) {
+				piece.reset();
+			}
 			int pieceLength = piece.getLength();
-			discarded += pieceLength;
-			remaining += (remaining == total) ? 0 : pieceLength;
+			synchronized (this) {
+				picker.setDone(number, false);
+				discarded += pieceLength;
+				remaining += (remaining == total) ? 0 : pieceLength;
+			}
 			firePieceDiscardEvent(number, pieceLength);
 		}
 	}
 
-	synchronized Piece request(boolean[] peerPieces) {
-		if (isCompleted) {
-			return null;
-		}
-
-		Piece request = null;
-		if (!isSelective) {
-			request = request(hasPiece, peerPieces);
-		} else if (isPrioritizing) {
-			request = request(priorityPieces, peerPieces);
-			if (request == null) {
-				request = request(interestedPieces, peerPieces);
-			}
-		} else {
-			request = request(interestedPieces, peerPieces);
-		}
-		return request;
+	/**
+	 * Returns whether the peer has any piece that this client needs. Unlike
+	 * {@link #request(PieceSet)}, this does not start a piece.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @return <code>true</code> if the peer has a needed piece
+	 */
+	synchronized boolean isInteresting(PieceSet peerPieces) {
+		return !isCompleted && picker.isInteresting(peerPieces);
 	}
 
-	private Piece request(boolean[] compare, boolean[] peerPieces) {
-		boolean isInterested = false;
-		if (compare == hasPiece) {
-			for (int i = 0; i < peerPieces.length; i++) {
-				if (!hasPiece[i] && peerPieces[i]) {
-					isInterested = true;
-					break;
-				}
-			}
-		} else {
-			for (int i = 0; i < peerPieces.length; i++) {
-				if (compare[i] && peerPieces[i]) {
-					isInterested = true;
-					break;
-				}
-			}
-		}
-
-		if (!isInterested) {
+	/**
+	 * Selects a piece that should have its blocks requested from a peer. The
+	 * remaining blocks of pieces that have already been started are requested
+	 * first, then the rarest piece that the peer has is started. Once every
+	 * needed piece has been started, the missing blocks of started pieces are
+	 * requested again from other peers to finish the download.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @return the piece to request blocks of, or <code>null</code> if the
+	 *         peer has nothing that this client needs
+	 */
+	synchronized Piece request(PieceSet peerPieces) {
+		if (isCompleted || !picker.isInteresting(peerPieces)) {
 			return null;
 		}
 
-		boolean hasIncompletePiece = false;
-		for (int i = 0; i < incompletePieces.size(); i++) {
-			Piece piece = (Piece) incompletePieces.get(i);
-			if (peerPieces[piece.getNumber()]) {
-				hasIncompletePiece = true;
-				break;
-			}
-		}
-
-		if (hasIncompletePiece) {
-			if (incompletePieces.size() == 0) {
-				return hasPiece == compare ? getRarePiece(peerPieces)
-						: getRarePiece(compare, peerPieces);
-			}
-			Piece piece = (Piece) incompletePieces.get(ConnectionPool.RANDOM
-					.nextInt(incompletePieces.size()));
-			while (!peerPieces[piece.getNumber()]) {
-				if (isCompleted) {
-					return null;
-				} else if (incompletePieces.size() == 0) {
-					return hasPiece == compare ? getRarePiece(peerPieces)
-							: getRarePiece(compare, peerPieces);
-				}
-				piece = (Piece) incompletePieces.get(ConnectionPool.RANDOM
-						.nextInt(incompletePieces.size()));
-			}
-			return piece;
-		} else {
-			return hasPiece == compare ? getRarePiece(peerPieces)
-					: getRarePiece(compare, peerPieces);
-		}
-	}
-
-	private Piece getRarePiece(boolean[] peerPieces) {
-		int min = pieceAvailability[0];
-		for (int i = 1; i < peerPieces.length; i++) {
-			if (!hasPiece[i] && peerPieces[i] && min > pieceAvailability[i]) {
-				min = pieceAvailability[i];
-			}
-		}
-
-		int size = pieces.size();
-		int pieceNumber = ConnectionPool.RANDOM.nextInt(size);
-		while (hasPiece[pieceNumber] || pieceAvailability[pieceNumber] != min
-				|| !peerPieces[pieceNumber]) {
-			if (isCompleted) {
-				return null;
-			}
-			pieceNumber = ConnectionPool.RANDOM.nextInt(size);
-		}
-		return (Piece) pieces.get(pieceNumber);
-	}
-
-	private Piece getRarePiece(boolean[] compare, boolean[] peerPieces) {
-		int min = pieceAvailability[0];
-		for (int i = 1; i < peerPieces.length; i++) {
-			if (!hasPiece[i] && compare[i] && peerPieces[i]
-					&& min > pieceAvailability[i]) {
-				min = pieceAvailability[i];
+		for (int i = picker.nextStarted(peerPieces, 0); i != -1; i = picker
+				.nextStarted(peerPieces, i + 1)) {
+			Piece piece = (Piece) pieces.get(i);
+			if (piece.hasUnrequestedBlocks()) {
+				return piece;
 			}
 		}
 
-		int size = pieces.size();
-		int pieceNumber = ConnectionPool.RANDOM.nextInt(size);
-		while (hasPiece[pieceNumber] || pieceAvailability[pieceNumber] != min
-				|| !compare[pieceNumber] || !peerPieces[pieceNumber]) {
-			if (isCompleted) {
-				return null;
-			}
-			pieceNumber = ConnectionPool.RANDOM.nextInt(size);
+		int number = picker.pick(peerPieces);
+		if (number == -1) {
+			// endgame, everything that the peer has has been requested
+			// already
+			number = picker.pickStarted(peerPieces);
 		}
-		return (Piece) pieces.get(pieceNumber);
+		return number == -1 ? null : (Piece) pieces.get(number);
 	}
 
 	String getPeerID() {
@@ -1022,30 +917,22 @@ public class TorrentManager {
 	 * @param piece
 	 *            the number of the piece
 	 */
-	void updatePieceAvailability(int piece) {
-		pieceAvailability[piece]++;
+	synchronized void updatePieceAvailability(int piece) {
+		picker.addAvailability(piece);
 	}
 
-	void addPieceAvailability(boolean[] peerPieces) {
-		if (peerPieces.length != pieceAvailability.length) {
-			throw new IllegalArgumentException("The length of the array is not " + pieceAvailability.length); //$NON-NLS-1$
-		}
-		for (int i = 0; i < pieceAvailability.length; i++) {
-			if (peerPieces[i]) {
-				pieceAvailability[i]++;
-			}
+	synchronized void addPieceAvailability(PieceSet peerPieces) {
+		if (peerPieces.size() != hasPiece.size()) {
+			throw new IllegalArgumentException("The size of the set is not " + hasPiece.size()); //$NON-NLS-1$
 		}
+		picker.addAvailability(peerPieces);
 	}
 
-	void removePieceAvailability(boolean[] peerPieces) {
-		if (peerPieces.length != pieceAvailability.length) {
-			throw new IllegalArgumentException("The length of the array is not " + pieceAvailability.length); //$NON-NLS-1$
-		}
-		for (int i = 0; i < pieceAvailability.length; i++) {
-			if (peerPieces[i]) {
-				pieceAvailability[i]--;
-			}
+	synchronized void removePieceAvailability(PieceSet peerPieces) {
+		if (peerPieces.size() != hasPiece.size()) {
+			throw new IllegalArgumentException("The size of the set is not " + hasPiece.size()); //$NON-NLS-1$
 		}
+		picker.removeAvailability(peerPieces);
 	}
 
 	void addToUploaded(long length) {
@@ -1082,39 +969,34 @@ public class TorrentManager {
 			throw new IllegalArgumentException("The provided array should be of length " + files.length); //$NON-NLS-1$
 		}
 
+		// the user is deciding to not download some files or to download some
+		// of them first
+		boolean isSelective = false;
+		boolean isPrioritizing = false;
 		for (int i = 0; i < downloadChoices.length; i++) {
-			int[] pieces = files[i].getPieces();
-			for (int j = 0; j < pieces.length; j++) {
-				if (downloadChoices[i] > 0) {
-					priorityPieces[j] = true;
-				} else if (downloadChoices[i] == 0) {
-					interestedPieces[j] = true;
-				} else {
-					uninterestedPieces[j] = uninterestedPieces[j] || false;
-				}
+			if (downloadChoices[i] != downloadChoices[0]) {
+				isSelective = true;
 			}
-		}
-
-		if (isSelective) {
-			return;
-		}
-
-		for (int i = 0; i < downloadChoices.length; i++) {
 			if (downloadChoices[i] > 0) {
 				isPrioritizing = true;
-				break;
 			}
 		}
+		isPrioritizing = isPrioritizing && isSelective;
 
+		boolean[] wanted = new boolean[pieces.size()];
+		boolean[] priority = new boolean[wanted.length];
 		for (int i = 0; i < downloadChoices.length; i++) {
-			for (int j = i + 1; j < downloadChoices.length; j++) {
-				if (downloadChoices[i] != downloadChoices[j]) {
-					isSelective = true;
-					return;
-				}
+			int[] filePieces = files[i].getPieces();
+			for (int j = 0; j < filePieces.length; j++) {
+				// a piece that spans several files is needed by all of them
+				wanted[filePieces[j]] |= !isSelective || downloadChoices[i] >= 0;
+				priority[filePieces[j]] |= isPrioritizing
+						&& downloadChoices[i] > 0;
 			}
 		}
-		isSelective = false;
+		for (int i = 0; i < wanted.length; i++) {
+			picker.setWanted(i, wanted[i], priority[i]);
+		}
 	}
 
 	public void setMaxDownloadSpeed(long maximum) {
@@ -1480,7 +1362,7 @@ public class TorrentManager {
 			Piece piece = (Piece) pieces.get(i);
 			if (piece.isComplete()) {
 				completedPieces--;
-				hasPiece[i] = false;
+				hasPiece.clear(i);
 			}
 			remaining += piece.getWritten();
 			piece.setState(states[i]);
@@ -1488,116 +1370,115 @@ public class TorrentManager {
 			remaining -= written;
 			if (written == piece.getLength()) {
 				completedPieces++;
-				hasPiece[i] = true;
-				incompletePieces.remove(piece);
-			} else if (written != 0 && !incompletePieces.contains(piece)) {
-				incompletePieces.add(piece);
+				hasPiece.set(i);
+				picker.setDone(i, true);
+			} else {
+				picker.setDone(i, false);
+				if (written != 0) {
+					picker.setStarted(i);
+				}
 			}
 		}
 		updateBitfield();
-
-		for (int i = 0; i < hasPiece.length; i++) {
-			if (!hasPiece[i]) {
-				return;
-			}
-		}
-		isCompleted = true;
+		isCompleted = hasPiece.isFull();
 	}
 
-	private class HashCheckThread extends Thread {
+	private class HashCheckThread extends Thread implements
+			IPieceVerificationListener {
+
+		/**
+		 * Guards {@link #pending}.
+		 */
+		private final Object lock = new Object();
+
+		/**
+		 * The number of pieces that have been queued but not yet verified.
+		 */
+		private int pending = 0;
+
+		private volatile boolean cancelled = false;
 
 		private HashCheckThread() {
 			super("Hash Check Thread - " + torrent.getName()); //$NON-NLS-1$
 		}
 
+		/**
+		 * Stops the hash check after the piece that is currently being read.
+		 * The thread is not interrupted as that would close the channels of
+		 * the files that it is reading from.
+		 */
+		private void cancel() {
+			cancelled = true;
+			synchronized (lock) {
+				lock.notifyAll();
+			}
+		}
+
 		private void cleanup() {
 			isHashChecking = false;
 			fireStateChangedEvent(ITorrentStateListener.STOPPED);
 		}
 
-		public void run() {
-			try {
-				int read = 0;
-				int count = 0;
-				ByteBuffer buffer = ByteBuffer.allocate(pieceLength);
-				for (int i = 0; i < files.length; i++) {
-					FileChannel channel = files[i].getChannel();
-					while ((read += channel.read(buffer)) == pieceLength) {
-						if (isInterrupted()) {
-							cleanup();
-							return;
-						}
-						Piece piece = (Piece) pieces.get(count);
-						if (piece.isComplete()) {
-							completedPieces--;
-							hasPiece[i] = false;
-						}
-						remaining += piece.getWritten();
-						buffer.rewind();
-						if (torrent.getPieces()[count]
-								.equals(new String(shaDigest.digest(buffer
-										.array()), "ISO-8859-1"))) { //$NON-NLS-1$
-							piece.setAsCompleted();
-							hasPiece[count] = true;
-							completedPieces++;
-							remaining -= piece.getLength();
-						} else {
-							piece.reset();
-						}
-						incompletePieces.remove(piece);
-						fireHashCheckedEvent(count);
-						count++;
-						read = 0;
-					}
-				}
-
-				if (read > 0) {
-					if (isInterrupted()) {
-						cleanup();
-						return;
-					}
-					Piece piece = (Piece) pieces.get(count);
+		public void verified(int number, boolean valid) {
+			if (!cancelled) {
+				Piece piece = (Piece) pieces.get(number);
+				synchronized (TorrentManager.this) {
 					if (piece.isComplete()) {
 						completedPieces--;
-						hasPiece[count] = false;
+						hasPiece.clear(number);
 					}
 					remaining += piece.getWritten();
-					buffer.rewind();
-					shaDigest.update(buffer.array(), 0, read);
-					if (torrent.getPieces()[count].equals(new String(shaDigest
-							.digest(), "ISO-8859-1"))) { //$NON-NLS-1$
-						hasPiece[count] = true;
+					if (valid) {
 						piece.setAsCompleted();
+						hasPiece.set(number);
 						completedPieces++;
 						remaining -= piece.getLength();
 					} else {
 						piece.reset();
 					}
-					incompletePieces.remove(piece);
-					fireHashCheckedEvent(count);
+					picker.setDone(number, valid);
 				}
+				fireHashCheckedEvent(number);
+			}
+			synchronized (lock) {
+				pending--;
+				lock.notifyAll();
+			}
+		}
 
-				updateBitfield();
-				saveState();
-				if (isInterrupted()) {
+		public void run() {
+			try {
+				// the pieces are read sequentially here and hashed in
+				// parallel by the verifier
+				for (int i = 0; i < hasPiece.size() && !cancelled; i++) {
+					byte[] data = storage.read(i, 0, storage.getPieceLength(i),
+							false);
+					synchronized (lock) {
+						pending++;
+					}
+					verifier.verify(i, data, this);
+				}
+				synchronized (lock) {
+					while (pending > 0 && !cancelled) {
+						lock.wait();
+					}
+				}
+
+				if (cancelled) {
 					cleanup();
+					saveState();
 					return;
 				}
+				synchronized (TorrentManager.this) {
+					updateBitfield();
+				}
+				saveState();
 				isHashChecking = false;
 				if (isWaitingToStart) {
-					try {
-						TorrentManager.this.start();
-					} catch (IOException e) {
-						throw new RuntimeException(e);
-					}
+					TorrentManager.this.start();
 				}
-			} catch (ClosedByInterruptException e) {
+			} catch (InterruptedException e) {
 				cleanup();
-				try {
-					saveState();
-				} catch (IOException ex) {
-					throw new RuntimeException(ex);
-				}
 			} catch (IOException e) {
 				cleanup();
 				throw new RuntimeException(e);
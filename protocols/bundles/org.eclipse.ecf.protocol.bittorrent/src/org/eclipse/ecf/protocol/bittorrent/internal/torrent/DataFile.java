@@ -12,9 +12,11 @@
  *****************************************************************************/
 package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 /**
@@ -34,11 +36,6 @@ public class DataFile {
 	 */
 	private int[] pieces;
 
-	/**
-	 * The number of bytes that occupy a given piece
-	 */
-	private int[] pieceLengths;
-
 	/**
 	 * The size of the file.
 	 */
@@ -92,121 +89,60 @@ public class DataFile {
 		}
 
 		this.pieces = pieces;
-		int numPieces = pieces.length;
-		pieceLengths = new int[numPieces];
-		pieceLengths[0] = 0;
-		// if there is only one piece, the length has been set and there is no
-		// need to set anymore additional values
-		if (numPieces == 1) {
-			return;
-		}
-
-		pieceLengths[1] = initialLength;
-		for (int i = 2; i < numPieces; i++) {
-			pieceLengths[i] = pieceLengths[i - 1] + length;
-		}
 	}
 
 	/**
-	 * Writes data retrieved from a peer onto this file.
+	 * Writes data onto this file at the specified position. The file's
+	 * position is not changed by this method, so concurrent writes to different
+	 * parts of the file do not need to be synchronized.
 	 * 
-	 * @param piece
-	 *            the piece's number
-	 * @param offset
-	 *            the offset for the given piece
-	 * @param block
-	 *            the data that has been retrieved from the peer of which the
-	 *            contents may be written onto this file
+	 * @param position
+	 *            the position within this file to start writing at
 	 * @param data
-	 *            an integer array with information on how to write the amount
-	 *            of information stored within <code>block</code>, the first
-	 *            value represents the amount written thus far, the second value
-	 *            represents the amount of available data to write, and the
-	 *            third value is the index within the piece itself
-	 * @return the information to use for the next file that needs writing to,
-	 *         if applicable, if the returned value is <code>null</code>, no
-	 *         other files needs data written to
-	 * @throws IllegalArgumentException
-	 *             If <code>piece</code> is not a part of this file, or if the
-	 *             provided offset to seek to to write to this file exceeds this
-	 *             file's length
+	 *            an array that holds the data to write
+	 * @param offset
+	 *            the offset within <code>data</code> that the data starts at
+	 * @param length
+	 *            the number of bytes to write
 	 * @throws IOException
 	 *             If an I/O error occurs while attempting to write to the file
 	 */
-	int[] write(int piece, int offset, byte[] block, int[] data)
-			throws IllegalArgumentException, IOException {
-		if (offset == -1) {
-			return data;
-		}
-		int index = indexOf(piece);
-		if (index == -1) {
-			throw new IllegalArgumentException();
-		}
-
-		int seek = pieceLengths[index] + offset;
-		if (seek >= this.length) {
-			throw new IllegalArgumentException("The seeking position cannot be greater than this file's length"); //$NON-NLS-1$
-		}
-
-		synchronized (file) {
-			// move to the specified position and write to the file
-			file.seek(seek);
-			// check to see if there's more data to available to write than how
-			// large this file actually holds
-			if (seek + data[1] > this.length) {
-				// since there is an excessive amount of data, just take the
-				// difference
-				int write = (int) (this.length - seek);
-				file.write(block, data[0], write);
-				data[0] += write;
-				data[1] -= write;
-				data[2] = write;
-				return data;
-			} else {
-				file.write(block, data[0], data[1]);
-				return null;
-			}
+	void write(long position, byte[] data, int offset, int length)
+			throws IOException {
+		FileChannel channel = file.getChannel();
+		ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
 		}
 	}
 
 	/**
-	 * Retrieves the data that a particular piece represents within this file. A
-	 * piece can potentially be split between multiple files, so the array
-	 * returned here may or may not be equal to the piece's length.
+	 * Reads data from this file at the specified position. The file's position
+	 * is not changed by this method.
 	 * 
-	 * @param piece
-	 *            the number of the interested piece
-	 * @return the block of data that is represented by the interested piece, or
-	 *         <code>null</code> if this file does not contain the specified
-	 *         piece
+	 * @param position
+	 *            the position within this file to start reading from
+	 * @param data
+	 *            the array to read the data into
+	 * @param offset
+	 *            the offset within <code>data</code> to store the data at
+	 * @param length
+	 *            the number of bytes to read
 	 * @throws IOException
-	 *             If an I/O error occurs while attempting to read the data from
-	 *             this file
+	 *             If an I/O error occurs while attempting to read from the
+	 *             file, or if the end of the file has been reached
 	 */
-	public byte[] getData(int piece) throws IOException {
-		// check to see whether this file contains this piece
-		int index = indexOf(piece);
-		if (index == -1) {
-			return null;
-		}
-
-		int dataLength = -1;
-		// if this is the last piece, retrieve the length by decrementing the
-		// length of this file and the starting length of the last piece
-		if (pieceLengths.length - 1 == index) {
-			dataLength = (int) (length - pieceLengths[index]);
-		} else {
-			// get the length by decrementing the length of the piece after it
-			// with the current piece
-			dataLength = pieceLengths[index + 1] - pieceLengths[index];
-		}
-		// create a new byte array to store the data so that it can be returned
-		byte[] data = new byte[dataLength];
-		synchronized (file) {
-			file.seek(pieceLengths[index]);
-			file.read(data, 0, dataLength);
+	void read(long position, byte[] data, int offset, int length)
+			throws IOException {
+		FileChannel channel = file.getChannel();
+		ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read == -1) {
+				throw new EOFException();
+			}
+			position += read;
 		}
-		return data;
 	}
 
 	/**
@@ -233,26 +169,6 @@ public class DataFile {
 		return pieces[0] <= piece && pieces[pieces.length - 1] >= piece;
 	}
 
-	/**
-	 * Gets the position of the specified piece within {@link #pieces}.
-	 * 
-	 * @param piece
-	 *            the piece's number
-	 * @return the index of the provided piece's number in <code>pieces</code>,
-	 *         or <code>-1</code> if it could not be found
-	 */
-	private int indexOf(int piece) {
-		if (!containsPiece(piece)) {
-			return -1;
-		}
-		for (int i = 0; i < pieces.length; i++) {
-			if (pieces[i] == piece) {
-				return i;
-			}
-		}
-		return -1;
-	}
-
 	/**
 	 * Retrieves the <code>FileChannel</code> associated with the file being
 	 * wrapped.
@@ -0,0 +1,34 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+/**
+ * This listener is notified when a {@link PieceVerifier} has finished
+ * checking a piece's data against its SHA-1 hash.
+ */
+public interface IPieceVerificationListener {
+
+	/**
+	 * This method is called by one of the verifier's threads after the piece
+	 * with the given number has been hashed.
+	 * 
+	 * @param number
+	 *            the number of the piece that has been verified
+	 * @param valid
+	 *            <code>true</code> if the piece's data matches the hash
+	 *            specified by the torrent's metainfo, <code>false</code> if it
+	 *            does not or if it could not be read
+	 */
+	public void verified(int number, boolean valid);
+
+}
@@ -13,7 +13,6 @@
 package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Vector;
 
@@ -31,17 +30,9 @@ public class Piece {
 	private static final int BLOCK_REQUEST_SIZE = 16384;
 
 	/**
-	 * An <code>ArrayList</code> that contains {@link DataFile}(s) that this
-	 * piece corresponds to.
+	 * The {@link PieceStorage} that this piece's data is written to.
 	 */
-	private final ArrayList files;
-
-	/**
-	 * An <code>ArrayList</code> that contains <code>Integer</code>(s)
-	 * which corresponsd to the length of data of each {@link DataFile} within
-	 * {@link #files} that this piece represents.
-	 */
-	private final ArrayList fileLengths;
+	private PieceStorage storage;
 
 	/**
 	 * This piece's number.
@@ -105,8 +96,6 @@ public class Piece {
 		}
 		this.state = state;
 		this.number = number;
-		files = new ArrayList();
-		fileLengths = new ArrayList();
 	}
 
 	/**
@@ -151,41 +140,6 @@ public class Piece {
 		state.reset();
 	}
 
-	/**
-	 * Retrieves the index offset position within a file at position
-	 * <code>pos</code> within {@link #files} requires writing to.
-	 * 
-	 * @param pos
-	 *            the position of the {@link DataFile} within <code>files</code>
-	 * @param index
-	 *            the index within this piece that data is available for writing
-	 *            to
-	 * @return the additional offset index that this piece corresponds to within
-	 *         the <code>DataFile</code> or <code>-1</code> if the offset
-	 *         does not pertain to that file
-	 */
-	private int getFileOffset(int pos, int index) {
-		if (files.size() == 1) {
-			return index;
-		}
-		int count = 0;
-		int offset = 0;
-		do {
-			offset += ((Integer) fileLengths.get(count++)).intValue();
-		} while (count <= pos);
-
-		if (index > offset) {
-			return -1;
-		} else {
-			pos = offset - ((Integer) fileLengths.get(count - 1)).intValue();
-			if (pos <= index && index < offset) {
-				return index - pos;
-			} else {
-				return -1;
-			}
-		}
-	}
-
 	/**
 	 * Writes the bytes received from peers onto the corresponding files on the
 	 * local file system.
@@ -207,49 +161,22 @@ public class Piece {
 	 *             If an I/O error occurs while attempting to write the data to
 	 *             the files
 	 */
-	public boolean write(int pieceIndex, byte[] block, int offset, int length)
-			throws IOException {
+	public synchronized boolean write(int pieceIndex, byte[] block,
+			int offset, int length) throws IOException {
 		int blockIndex = pieceIndex / BLOCK_REQUEST_SIZE;
 		if (completed[blockIndex]) {
 			return false;
 		}
 
+		storage.write(number, pieceIndex, block, offset, length);
 		state.addDownloadedBlock(pieceIndex, length);
-		int[] ret = null;
+		writtenBlocks[blockIndex] += length;
 		// check to see if we're writing to this piece's last block
-		if (blockIndex == blocks - 1) {
-			int limit = isLastPiece ? this.length % BLOCK_REQUEST_SIZE
-					: BLOCK_REQUEST_SIZE;
-			ret = new int[] { offset, length, 0 };
-			for (int i = 0; i < files.size(); i++) {
-				ret = ((DataFile) files.get(i)).write(number, getFileOffset(i,
-						pieceIndex), block, ret);
-				if (ret == null) {
-					break;
-				}
-				pieceIndex += ret[2];
-			}
-
-			writtenBlocks[blockIndex] += length;
-			if (writtenBlocks[blockIndex] == limit) {
-				completed[blockIndex] = true;
-			}
-		} else {
-			ret = new int[] { offset, length, 0 };
-			for (int i = 0; i < files.size(); i++) {
-				ret = ((DataFile) files.get(i)).write(number, getFileOffset(i,
-						pieceIndex), block, ret);
-				if (ret == null) {
-					break;
-				}
-				pieceIndex += ret[2];
-			}
-
-			writtenBlocks[blockIndex] += length;
-			// if the entire block has been written, note this fact
-			if (writtenBlocks[blockIndex] == BLOCK_REQUEST_SIZE) {
-				completed[blockIndex] = true;
-			}
+		int limit = blockIndex == blocks - 1 && isLastPiece ? this.length
+				% BLOCK_REQUEST_SIZE : BLOCK_REQUEST_SIZE;
+		// if the entire block has been written, note this fact
+		if (writtenBlocks[blockIndex] == limit) {
+			completed[blockIndex] = true;
 		}
 		return true;
 	}
@@ -269,28 +196,19 @@ public class Piece {
 	}
 
 	/**
-	 * Adds a {@link DataFile} as being a part of this piece with the specified
-	 * length as the length of data within the file that this piece holds.
+	 * Sets the {@link PieceStorage} that the data of this piece is written to.
 	 * 
-	 * @param file
-	 *            the <code>DataFile</code> to be added as being a part of
-	 *            this piece
-	 * @param length
-	 *            a length of bytes within <code>file</code> that is being
-	 *            contained by this piece
+	 * @param storage
+	 *            the storage of the torrent that this piece belongs to
 	 * @throws IllegalArgumentException
-	 *             If <code>(file == null || length < 0)</code> returns
-	 *             <code>true</code>
+	 *             If <code>storage</code> is <code>null</code>
 	 */
-	public void addFile(DataFile file, int length)
+	public void setStorage(PieceStorage storage)
 			throws IllegalArgumentException {
-		if (file == null) {
-			throw new IllegalArgumentException("The file cannot be null"); //$NON-NLS-1$
-		} else if (length < 0) {
-			throw new IllegalArgumentException("The length cannot be a negative number"); //$NON-NLS-1$
+		if (storage == null) {
+			throw new IllegalArgumentException("The storage cannot be null"); //$NON-NLS-1$
 		}
-		files.add(file);
-		fileLengths.add(Integer.valueOf(length));
+		this.storage = storage;
 	}
 
 	/**
@@ -378,6 +296,21 @@ public class Piece {
 		return number;
 	}
 
+	/**
+	 * Returns whether this piece has a block that has neither been completed
+	 * nor requested from a peer.
+	 * 
+	 * @return <code>true</code> if a block has not been requested yet
+	 */
+	public synchronized boolean hasUnrequestedBlocks() {
+		for (int i = 0; i < blocks; i++) {
+			if (!completed[i] && !requested[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns an array of size three with information about the next block of
 	 * data that should be requested from a peer to complete this piece.
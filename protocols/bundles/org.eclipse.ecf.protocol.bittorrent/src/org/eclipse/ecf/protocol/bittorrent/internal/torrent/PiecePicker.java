@@ -0,0 +1,364 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.util.Random;
+
+/**
+ * A <code>PiecePicker</code> decides which piece should be requested next
+ * from a peer. It keeps track of how many connected peers have each piece and
+ * selects the rarest pieces first so that they get replicated before the
+ * peers that have them disappear.
+ * <p>
+ * The pieces are kept in an array that is sorted by their availability, with
+ * the start of each availability level stored separately. A piece moves to
+ * the neighbouring level by swapping it with the piece at the boundary of its
+ * level, so updates from HAVE and BITFIELD messages take constant time per
+ * piece.
+ * </p>
+ * <p>
+ * The picker tracks which pieces are still needed, as in wanted and not yet
+ * completed, and which of those have already been started. Once every needed
+ * piece has been started, the picker is in endgame mode and the remaining
+ * blocks of the started pieces may be requested from several peers.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PiecePicker {
+
+	private final Random random = new Random();
+
+	/**
+	 * The number of connected peers that have each piece.
+	 */
+	private final int[] availability;
+
+	/**
+	 * The piece numbers sorted by their availability.
+	 */
+	private final int[] order;
+
+	/**
+	 * The index of each piece in {@link #order}.
+	 */
+	private final int[] positions;
+
+	/**
+	 * The index in {@link #order} at which the pieces with an availability
+	 * equal to or greater than the array's index start.
+	 */
+	private int[] levels;
+
+	/**
+	 * The pieces that should be downloaded.
+	 */
+	private final PieceSet wanted;
+
+	/**
+	 * The pieces that should be downloaded before any other piece.
+	 */
+	private final PieceSet priority;
+
+	/**
+	 * The pieces whose data has been written in its entirety.
+	 */
+	private final PieceSet done;
+
+	/**
+	 * The pieces that are wanted but not done.
+	 */
+	private final PieceSet needed;
+
+	/**
+	 * The needed pieces that have been handed out by {@link #pick(PieceSet)}
+	 * or that have been partially written.
+	 */
+	private final PieceSet started;
+
+	/**
+	 * Creates a new picker for a torrent with the specified number of pieces.
+	 * All pieces are initially wanted and unavailable.
+	 * 
+	 * @param size
+	 *            the number of pieces
+	 */
+	public PiecePicker(int size) {
+		availability = new int[size];
+		order = new int[size];
+		positions = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+			positions[i] = i;
+		}
+		levels = new int[8];
+		for (int i = 1; i < levels.length; i++) {
+			levels[i] = size;
+		}
+		wanted = new PieceSet(size);
+		priority = new PieceSet(size);
+		done = new PieceSet(size);
+		needed = new PieceSet(size);
+		started = new PieceSet(size);
+		wanted.setAll();
+		needed.setAll();
+	}
+
+	/**
+	 * Retrieves the number of connected peers that have the specified piece.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @return the piece's availability
+	 */
+	public int getAvailability(int piece) {
+		return availability[piece];
+	}
+
+	/**
+	 * Records that another peer has the specified piece.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 */
+	public void addAvailability(int piece) {
+		int level = availability[piece] + 1;
+		if (level + 1 >= levels.length) {
+			int[] grown = new int[levels.length * 2];
+			System.arraycopy(levels, 0, grown, 0, levels.length);
+			for (int i = levels.length; i < grown.length; i++) {
+				grown[i] = order.length;
+			}
+			levels = grown;
+		}
+		// swap the piece with the last piece of its current level and move
+		// the boundary down to include it in the next level
+		swap(positions[piece], --levels[level]);
+		availability[piece] = level;
+	}
+
+	/**
+	 * Records that a peer that had the specified piece has gone away.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 */
+	public void removeAvailability(int piece) {
+		int level = availability[piece];
+		if (level == 0) {
+			return;
+		}
+		// swap the piece with the first piece of its current level and move
+		// the boundary up to exclude it
+		swap(positions[piece], levels[level]++);
+		availability[piece] = level - 1;
+	}
+
+	/**
+	 * Records that another peer has every piece in the provided set.
+	 * 
+	 * @param pieces
+	 *            the pieces that the peer has
+	 */
+	public void addAvailability(PieceSet pieces) {
+		for (int i = pieces.nextSetBit(0); i != -1; i = pieces
+				.nextSetBit(i + 1)) {
+			addAvailability(i);
+		}
+	}
+
+	/**
+	 * Records that a peer that had every piece in the provided set has gone
+	 * away.
+	 * 
+	 * @param pieces
+	 *            the pieces that the peer had
+	 */
+	public void removeAvailability(PieceSet pieces) {
+		for (int i = pieces.nextSetBit(0); i != -1; i = pieces
+				.nextSetBit(i + 1)) {
+			removeAvailability(i);
+		}
+	}
+
+	private void swap(int i, int j) {
+		int first = order[i];
+		int second = order[j];
+		order[i] = second;
+		order[j] = first;
+		positions[second] = i;
+		positions[first] = j;
+	}
+
+	/**
+	 * Sets whether the specified piece should be downloaded at all and whether
+	 * it should be downloaded before any piece that is not prioritized.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @param isWanted
+	 *            <code>true</code> if the piece should be downloaded
+	 * @param isPriority
+	 *            <code>true</code> if the piece should be prioritized
+	 */
+	public void setWanted(int piece, boolean isWanted, boolean isPriority) {
+		wanted.set(piece, isWanted);
+		priority.set(piece, isPriority);
+		updateNeeded(piece);
+	}
+
+	/**
+	 * Sets whether the data of the specified piece has been written in its
+	 * entirety. A piece that is done is not picked anymore, a piece that has
+	 * been found to be corrupt after it has been done should be reset with
+	 * this method so that it gets downloaded again.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @param isDone
+	 *            <code>true</code> if the piece has been written completely
+	 */
+	public void setDone(int piece, boolean isDone) {
+		done.set(piece, isDone);
+		started.clear(piece);
+		updateNeeded(piece);
+	}
+
+	/**
+	 * Marks a needed piece as having been started so that its remaining blocks
+	 * are requested before new pieces are started.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 */
+	public void setStarted(int piece) {
+		if (needed.get(piece)) {
+			started.set(piece);
+		}
+	}
+
+	private void updateNeeded(int piece) {
+		if (wanted.get(piece) && !done.get(piece)) {
+			needed.set(piece);
+		} else {
+			needed.clear(piece);
+			started.clear(piece);
+		}
+	}
+
+	/**
+	 * Returns whether the peer with the specified pieces has any piece that
+	 * is needed.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @return <code>true</code> if the peer has a needed piece
+	 */
+	public boolean isInteresting(PieceSet peerPieces) {
+		return needed.intersects(peerPieces);
+	}
+
+	/**
+	 * Returns whether every needed piece has been started.
+	 * 
+	 * @return <code>true</code> if the picker is in endgame mode
+	 */
+	public boolean isEndgame() {
+		return started.cardinality() == needed.cardinality();
+	}
+
+	/**
+	 * Finds the next started piece that the peer has.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @param from
+	 *            the piece number to start searching from
+	 * @return the number of the piece, or <code>-1</code> if there is none
+	 */
+	public int nextStarted(PieceSet peerPieces, int from) {
+		return started.nextSetBit(from, peerPieces);
+	}
+
+	/**
+	 * Picks the rarest needed piece that has not been started yet and that
+	 * the peer has, prioritized pieces are picked first. Pieces of equal
+	 * rarity are picked at random. The picked piece is marked as started.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @return the number of the piece, or <code>-1</code> if the peer has no
+	 *         such piece
+	 */
+	public int pick(PieceSet peerPieces) {
+		if (isEndgame() || !needed.intersects(peerPieces)) {
+			return -1;
+		}
+		int piece = -1;
+		if (!priority.isEmpty()) {
+			piece = pickRarest(peerPieces, priority);
+		}
+		if (piece == -1) {
+			piece = pickRarest(peerPieces, null);
+		}
+		if (piece != -1) {
+			started.set(piece);
+		}
+		return piece;
+	}
+
+	private int pickRarest(PieceSet peerPieces, PieceSet mask) {
+		// pieces that no peer has cannot be picked, start at the first level
+		for (int level = 1; level < levels.length - 1
+				&& levels[level] < order.length; level++) {
+			int start = levels[level];
+			int end = levels[level + 1];
+			if (start == end) {
+				continue;
+			}
+			// begin at a random position so that peers do not all start the
+			// same pieces
+			int first = start + random.nextInt(end - start);
+			int i = first;
+			do {
+				int piece = order[i];
+				if (needed.get(piece) && !started.get(piece)
+						&& peerPieces.get(piece)
+						&& (mask == null || mask.get(piece))) {
+					return piece;
+				}
+				if (++i == end) {
+					i = start;
+				}
+			} while (i != first);
+		}
+		return -1;
+	}
+
+	/**
+	 * Picks a random started piece that the peer has, this is used to request
+	 * the missing blocks of pieces again while in endgame mode.
+	 * 
+	 * @param peerPieces
+	 *            the pieces that the peer has
+	 * @return the number of the piece, or <code>-1</code> if the peer has no
+	 *         started piece
+	 */
+	public int pickStarted(PieceSet peerPieces) {
+		int size = availability.length;
+		int piece = started.nextSetBit(random.nextInt(size), peerPieces);
+		return piece != -1 ? piece : started.nextSetBit(0, peerPieces);
+	}
+
+}
@@ -0,0 +1,235 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+/**
+ * A <code>PieceSet</code> is a fixed size set of piece numbers that is backed
+ * by an array of <code>long</code>s, with one bit per piece. The number of
+ * pieces in the set is maintained as pieces are added and removed so that
+ * checking whether the set is empty or full does not require a scan.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PieceSet {
+
+	private final long[] words;
+
+	private final int size;
+
+	private int count = 0;
+
+	/**
+	 * Creates a new empty set for the specified number of pieces.
+	 * 
+	 * @param size
+	 *            the number of pieces of the torrent
+	 */
+	public PieceSet(int size) {
+		this.size = size;
+		words = new long[(size + 63) >>> 6];
+	}
+
+	/**
+	 * Retrieves the number of pieces that this set can hold.
+	 * 
+	 * @return the number of pieces of the torrent
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Retrieves the number of pieces that are in this set.
+	 * 
+	 * @return the number of pieces in this set
+	 */
+	public int cardinality() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Returns whether this set contains every piece of the torrent.
+	 * 
+	 * @return <code>true</code> if every piece is in this set
+	 */
+	public boolean isFull() {
+		return count == size;
+	}
+
+	public boolean get(int piece) {
+		return (words[piece >>> 6] & (1L << piece)) != 0;
+	}
+
+	/**
+	 * Adds a piece to this set.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @return <code>true</code> if the piece was not in this set before
+	 */
+	public boolean set(int piece) {
+		long mask = 1L << piece;
+		int i = piece >>> 6;
+		if ((words[i] & mask) != 0) {
+			return false;
+		}
+		words[i] |= mask;
+		count++;
+		return true;
+	}
+
+	/**
+	 * Removes a piece from this set.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @return <code>true</code> if the piece was in this set before
+	 */
+	public boolean clear(int piece) {
+		long mask = 1L << piece;
+		int i = piece >>> 6;
+		if ((words[i] & mask) == 0) {
+			return false;
+		}
+		words[i] &= ~mask;
+		count--;
+		return true;
+	}
+
+	/**
+	 * Adds or removes a piece from this set.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @param value
+	 *            <code>true</code> if the piece should be added
+	 * @return <code>true</code> if this set has been changed
+	 */
+	public boolean set(int piece, boolean value) {
+		return value ? set(piece) : clear(piece);
+	}
+
+	/**
+	 * Removes all pieces from this set.
+	 */
+	public void clear() {
+		for (int i = 0; i < words.length; i++) {
+			words[i] = 0;
+		}
+		count = 0;
+	}
+
+	/**
+	 * Adds all pieces of the torrent to this set.
+	 */
+	public void setAll() {
+		for (int i = 0; i < words.length; i++) {
+			words[i] = -1L;
+		}
+		int remainder = size & 63;
+		if (remainder != 0) {
+			words[words.length - 1] = (1L << remainder) - 1;
+		}
+		count = size;
+	}
+
+	/**
+	 * Finds the first piece in this set that is equal to or after the
+	 * specified piece.
+	 * 
+	 * @param from
+	 *            the piece number to start searching from
+	 * @return the number of the piece, or <code>-1</code> if there is none
+	 */
+	public int nextSetBit(int from) {
+		return nextSetBit(from, null);
+	}
+
+	/**
+	 * Finds the first piece that is in both this set and the other set that is
+	 * equal to or after the specified piece.
+	 * 
+	 * @param from
+	 *            the piece number to start searching from
+	 * @param other
+	 *            the other set, or <code>null</code> to only consider this
+	 *            set
+	 * @return the number of the piece, or <code>-1</code> if there is none
+	 */
+	public int nextSetBit(int from, PieceSet other) {
+		if (from >= size) {
+			return -1;
+		}
+		int i = from >>> 6;
+		long word = words[i] & (-1L << from);
+		while (true) {
+			if (other != null) {
+				word &= other.words[i];
+			}
+			if (word != 0) {
+				return (i << 6) + numberOfTrailingZeros(word);
+			} else if (++i == words.length) {
+				return -1;
+			}
+			word = words[i];
+		}
+	}
+
+	/**
+	 * Returns whether this set and the other set have a piece in common.
+	 * 
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if at least one piece is in both sets
+	 */
+	public boolean intersects(PieceSet other) {
+		for (int i = 0; i < words.length; i++) {
+			if ((words[i] & other.words[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int numberOfTrailingZeros(long word) {
+		// Long.numberOfTrailingZeros() is not available on J2SE 1.4
+		int n = 0;
+		if ((word & 0xFFFFFFFFL) == 0) {
+			n += 32;
+			word >>>= 32;
+		}
+		if ((word & 0xFFFF) == 0) {
+			n += 16;
+			word >>>= 16;
+		}
+		if ((word & 0xFF) == 0) {
+			n += 8;
+			word >>>= 8;
+		}
+		if ((word & 0xF) == 0) {
+			n += 4;
+			word >>>= 4;
+		}
+		if ((word & 0x3) == 0) {
+			n += 2;
+			word >>>= 2;
+		}
+		return (word & 0x1) == 0 ? n + 1 : n;
+	}
+
+}
@@ -149,7 +149,7 @@ public class PieceState {
 	 * Resets all state information corresponding so that it is as if no data
 	 * has been downloaded thus far.
 	 */
-	void reset() {
+	synchronized void reset() {
 		blocks.clear();
 	}
 
@@ -187,7 +187,7 @@ public class PieceState {
 	 * @return the string representation of this <code>PieceState</code> in a
 	 *         format equal to what is parsed by <code>parse(String)</code>
 	 */
-	public String toString() {
+	public synchronized String toString() {
 		final StringBuffer buffer = new StringBuffer(Integer.toString(number));
 		synchronized (buffer) {
 			buffer.append(":"); //$NON-NLS-1$
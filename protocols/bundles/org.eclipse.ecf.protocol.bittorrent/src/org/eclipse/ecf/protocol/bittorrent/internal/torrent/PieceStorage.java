@@ -0,0 +1,314 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A <code>PieceStorage</code> reads and writes the data of a torrent's
+ * pieces at block granularity. The files of a torrent are treated as one
+ * contiguous range of bytes, a block is mapped onto the one or more
+ * {@link DataFile}s that it spans and transferred with positional
+ * <code>FileChannel</code> I/O, so concurrent reads and writes do not need to
+ * be serialized on a file's position.
+ * <p>
+ * Pieces that have been read in their entirety, such as for a hash check or to
+ * serve requests from peers, are kept in a least recently used cache that is
+ * bounded by the number of bytes that it holds. Writing to a piece removes it
+ * from the cache.
+ * </p>
+ */
+public class PieceStorage {
+
+	/**
+	 * The default maximum number of bytes that is held by the piece cache. The
+	 * value is 16777216 (16 MB) unless the
+	 * <code>org.eclipse.ecf.protocol.bittorrent.pieceCacheSize</code> system
+	 * property is set.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = Integer.getInteger(
+			"org.eclipse.ecf.protocol.bittorrent.pieceCacheSize", 16777216) //$NON-NLS-1$
+			.intValue();
+
+	private final DataFile[] files;
+
+	/**
+	 * The position of the first byte of each file within the torrent's data.
+	 */
+	private final long[] offsets;
+
+	private final int pieceLength;
+
+	private final long total;
+
+	private final int cacheSize;
+
+	/**
+	 * Maps <code>Integer</code> piece numbers to the <code>byte[]</code>
+	 * data of the piece, in least recently used order.
+	 */
+	private final LinkedHashMap cache = new LinkedHashMap(16, 0.75f, true);
+
+	private int cached = 0;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * Creates a new storage over the provided files.
+	 * 
+	 * @param files
+	 *            the files of the torrent, in the order that they are listed
+	 *            in the torrent's metainfo
+	 * @param pieceLength
+	 *            the length of the torrent's pieces
+	 * @param cacheSize
+	 *            the maximum number of bytes to cache, or <code>0</code> to
+	 *            disable caching
+	 */
+	public PieceStorage(DataFile[] files, int pieceLength, int cacheSize) {
+		this.files = files;
+		this.pieceLength = pieceLength;
+		this.cacheSize = cacheSize;
+		offsets = new long[files.length];
+		long offset = 0;
+		for (int i = 0; i < files.length; i++) {
+			offsets[i] = offset;
+			offset += files[i].length();
+		}
+		total = offset;
+	}
+
+	/**
+	 * Retrieves the length of the specified piece. All pieces have the same
+	 * length except for the last one which may be shorter.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @return the length of the piece
+	 */
+	public int getPieceLength(int piece) {
+		long start = (long) piece * pieceLength;
+		return (int) Math.min(pieceLength, total - start);
+	}
+
+	/**
+	 * Writes a block of data that has been received for a piece.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @param index
+	 *            the position within the piece that the block starts at
+	 * @param data
+	 *            an array that holds the block
+	 * @param offset
+	 *            the offset of the block within <code>data</code>
+	 * @param length
+	 *            the length of the block
+	 * @throws IllegalArgumentException
+	 *             If the block does not lie within the piece
+	 * @throws IOException
+	 *             If an I/O error occurs while writing to the files
+	 */
+	public void write(int piece, int index, byte[] data, int offset,
+			int length) throws IllegalArgumentException, IOException {
+		checkRange(piece, index, length);
+		invalidate(piece);
+		transfer((long) piece * pieceLength + index, data, offset, length,
+				true);
+	}
+
+	/**
+	 * Reads a block of a piece. The block is copied from the cache if the piece
+	 * is cached, otherwise the entire piece is read and cached if
+	 * <code>cache</code> is <code>true</code> and only the block itself is
+	 * read if it is not.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @param index
+	 *            the position within the piece that the block starts at
+	 * @param length
+	 *            the length of the block
+	 * @param cache
+	 *            whether the piece should be read and cached in its entirety,
+	 *            this should only be set for pieces that have been verified
+	 * @return the block's data
+	 * @throws IllegalArgumentException
+	 *             If the block does not lie within the piece
+	 * @throws IOException
+	 *             If an I/O error occurs while reading from the files
+	 */
+	public byte[] read(int piece, int index, int length, boolean cache)
+			throws IllegalArgumentException, IOException {
+		checkRange(piece, index, length);
+		byte[] block = new byte[length];
+		byte[] data = getCached(piece);
+		if (data == null && cache && getPieceLength(piece) <= cacheSize) {
+			data = loadPiece(piece);
+		}
+		if (data != null) {
+			System.arraycopy(data, index, block, 0, length);
+		} else {
+			transfer((long) piece * pieceLength + index, block, 0, length,
+					false);
+		}
+		return block;
+	}
+
+	/**
+	 * Reads the entire data of a piece. The piece will be cached so that
+	 * subsequent reads of it can be served from memory.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 * @return the piece's data, this array must not be modified
+	 * @throws IOException
+	 *             If an I/O error occurs while reading from the files
+	 */
+	public byte[] readPiece(int piece) throws IOException {
+		byte[] data = getCached(piece);
+		return data == null ? loadPiece(piece) : data;
+	}
+
+	/**
+	 * Reads the entire data of a piece from the files and caches it.
+	 */
+	private byte[] loadPiece(int piece) throws IOException {
+		byte[] data = new byte[getPieceLength(piece)];
+		transfer((long) piece * pieceLength, data, 0, data.length, false);
+		putCached(piece, data);
+		return data;
+	}
+
+	/**
+	 * Removes the specified piece from the cache.
+	 * 
+	 * @param piece
+	 *            the number of the piece
+	 */
+	public void invalidate(int piece) {
+		synchronized (cache) {
+			byte[] data = (byte[]) cache.remove(new Integer(piece));
+			if (data != null) {
+				cached -= data.length;
+			}
+		}
+	}
+
+	private byte[] getCached(int piece) {
+		synchronized (cache) {
+			byte[] data = (byte[]) cache.get(new Integer(piece));
+			if (data == null) {
+				misses++;
+			} else {
+				hits++;
+			}
+			return data;
+		}
+	}
+
+	private void putCached(int piece, byte[] data) {
+		if (data.length > cacheSize) {
+			return;
+		}
+		synchronized (cache) {
+			byte[] old = (byte[]) cache.put(new Integer(piece), data);
+			cached += data.length - (old == null ? 0 : old.length);
+			Iterator it = cache.entrySet().iterator();
+			while (cached > cacheSize) {
+				Map.Entry eldest = (Map.Entry) it.next();
+				cached -= ((byte[]) eldest.getValue()).length;
+				it.remove();
+			}
+		}
+	}
+
+	private void checkRange(int piece, int index, int length) {
+		if (piece < 0 || (long) piece * pieceLength >= total) {
+			throw new IllegalArgumentException("The piece number " + piece //$NON-NLS-1$
+					+ " does not exist"); //$NON-NLS-1$
+		} else if (index < 0 || length < 0
+				|| index + length > getPieceLength(piece)) {
+			throw new IllegalArgumentException("The block of data goes beyond the range of piece " + piece); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Reads or writes a range of the torrent's data from or to the files that
+	 * it spans.
+	 */
+	private void transfer(long position, byte[] data, int offset, int length,
+			boolean write) throws IOException {
+		int i = indexOf(position);
+		while (length > 0) {
+			long filePosition = position - offsets[i];
+			int count = (int) Math.min(length, files[i].length() - filePosition);
+			if (count > 0) {
+				if (write) {
+					files[i].write(filePosition, data, offset, count);
+				} else {
+					files[i].read(filePosition, data, offset, count);
+				}
+				position += count;
+				offset += count;
+				length -= count;
+			}
+			i++;
+		}
+	}
+
+	/**
+	 * Finds the file that contains the byte at the specified position.
+	 */
+	private int indexOf(long position) {
+		int low = 0;
+		int high = offsets.length - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (offsets[middle] <= position) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Retrieves the number of reads that have been served from the cache.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public long getCacheHits() {
+		synchronized (cache) {
+			return hits;
+		}
+	}
+
+	/**
+	 * Retrieves the number of reads that could not be served from the cache.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public long getCacheMisses() {
+		synchronized (cache) {
+			return misses;
+		}
+	}
+
+}
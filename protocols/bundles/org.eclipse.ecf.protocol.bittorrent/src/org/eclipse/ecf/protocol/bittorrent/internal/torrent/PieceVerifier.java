@@ -0,0 +1,255 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedList;
+
+import org.eclipse.ecf.protocol.bittorrent.TorrentConfiguration;
+
+/**
+ * A <code>PieceVerifier</code> checks the data of pieces against the SHA-1
+ * hashes of the torrent's metainfo on a set of worker threads, each of which
+ * owns its own <code>MessageDigest</code>. Workers are started as pieces are
+ * queued, up to the number of available processors, and exit after they have
+ * been idle for {@link #IDLE_TIMEOUT} milliseconds.
+ * <p>
+ * Pieces can either be queued with their data already read, such as while
+ * rechecking an entire torrent, in which case the number of bytes held by the
+ * queue is bounded and the caller blocks until workers catch up, or without
+ * their data, in which case the worker reads the piece from the
+ * {@link PieceStorage}.
+ * </p>
+ */
+public class PieceVerifier {
+
+	/**
+	 * The number of milliseconds that a worker waits for a new piece before
+	 * exiting. The value is 30000.
+	 */
+	private static final long IDLE_TIMEOUT = 30000;
+
+	private static final int MAX_WORKERS = Runtime.getRuntime()
+			.availableProcessors();
+
+	private final String name;
+
+	private final PieceStorage storage;
+
+	/**
+	 * The SHA-1 hashes of the pieces as specified in the torrent's metainfo.
+	 */
+	private final String[] hashes;
+
+	/**
+	 * The maximum number of bytes of piece data that may be queued.
+	 */
+	private final int readAhead;
+
+	private final LinkedList queue = new LinkedList();
+
+	private int workers = 0;
+
+	private int idle = 0;
+
+	private int buffered = 0;
+
+	/**
+	 * Creates a new verifier for the pieces of a torrent.
+	 * 
+	 * @param name
+	 *            the name of the torrent, used to name the worker threads
+	 * @param storage
+	 *            the storage to read pieces from
+	 * @param hashes
+	 *            the SHA-1 hashes of the pieces as specified in the torrent's
+	 *            metainfo
+	 * @param readAhead
+	 *            the maximum number of bytes of already read piece data that
+	 *            may be waiting to be hashed, at least one piece is always
+	 *            accepted
+	 */
+	public PieceVerifier(String name, PieceStorage storage, String[] hashes,
+			int readAhead) {
+		this.name = name;
+		this.storage = storage;
+		this.hashes = hashes;
+		this.readAhead = readAhead;
+	}
+
+	/**
+	 * Queues a piece to be read from the storage and verified. This method
+	 * returns immediately, the piece is read into the storage's cache so that
+	 * it can be served to peers if it is valid.
+	 * 
+	 * @param number
+	 *            the number of the piece
+	 * @param listener
+	 *            the listener to notify once the piece has been verified
+	 */
+	public synchronized void verify(int number,
+			IPieceVerificationListener listener) {
+		enqueue(new Task(number, null, listener));
+	}
+
+	/**
+	 * Queues a piece whose data has already been read to be verified. This
+	 * method blocks while the data of other pieces that are waiting to be
+	 * hashed would exceed the verifier's read-ahead limit.
+	 * 
+	 * @param number
+	 *            the number of the piece
+	 * @param data
+	 *            the piece's data
+	 * @param listener
+	 *            the listener to notify once the piece has been verified
+	 * @throws InterruptedException
+	 *             If the calling thread is interrupted while waiting
+	 */
+	public synchronized void verify(int number, byte[] data,
+			IPieceVerificationListener listener) throws InterruptedException {
+		while (buffered > 0 && buffered + data.length > readAhead) {
+			wait();
+		}
+		buffered += data.length;
+		enqueue(new Task(number, data, listener));
+	}
+
+	private void enqueue(Task task) {
+		queue.addLast(task);
+		if (queue.size() > idle && workers < MAX_WORKERS) {
+			workers++;
+			new Worker().start();
+		}
+		notifyAll();
+	}
+
+	private synchronized Task take() {
+		long timeout = IDLE_TIMEOUT;
+		while (queue.isEmpty()) {
+			if (timeout <= 0) {
+				workers--;
+				return null;
+			}
+			long start = System.currentTimeMillis();
+			idle++;
+			try {
+				wait(timeout);
+			} catch (InterruptedException e) {
+				workers--;
+				return null;
+			} finally {
+				idle--;
+			}
+			timeout -= System.currentTimeMillis() - start;
+		}
+		return (Task) queue.removeFirst();
+	}
+
+	private synchronized void release(Task task) {
+		if (task.data != null) {
+			buffered -= task.data.length;
+			notifyAll();
+		}
+	}
+
+	private static class Task {
+
+		private final int number;
+
+		private final byte[] data;
+
+		private final IPieceVerificationListener listener;
+
+		private Task(int number, byte[] data,
+				IPieceVerificationListener listener) {
+			this.number = number;
+			this.data = data;
+			this.listener = listener;
+		}
+
+	}
+
+	private class Worker extends Thread {
+
+		private final MessageDigest digest;
+
+		private Worker() {
+			super("Piece Verifier - " + name); //$NON-NLS-1$
+			setDaemon(true);
+			try {
+				digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			} catch (NoSuchAlgorithmException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private boolean check(Task task) {
+			try {
+				byte[] data = task.data;
+				if (data == null) {
+					data = storage.readPiece(task.number);
+				}
+				if (hashes[task.number].equals(new String(digest.digest(data),
+						"ISO-8859-1"))) { //$NON-NLS-1$
+					return true;
+				}
+			} catch (UnsupportedEncodingException e) {
+				throw new RuntimeException(e);
+			} catch (IOException e) {
+				TorrentConfiguration.debug("Piece " + task.number //$NON-NLS-1$
+						+ " could not be read: " + e.getMessage()); //$NON-NLS-1$
+			} catch (RuntimeException e) {
+				TorrentConfiguration.debug("Piece " + task.number //$NON-NLS-1$
+						+ " could not be verified: " + e); //$NON-NLS-1$
+			}
+			// a corrupt piece should not be served from the cache
+			storage.invalidate(task.number);
+			return false;
+		}
+
+		public void run() {
+			Task task = null;
+			try {
+				while ((task = take()) != null) {
+					boolean valid;
+					try {
+						valid = check(task);
+					} finally {
+						release(task);
+					}
+					try {
+						task.listener.verified(task.number, valid);
+					} catch (RuntimeException e) {
+						// a failing listener must not stop the other pieces
+						// from being verified
+						TorrentConfiguration.debug("The listener of piece " //$NON-NLS-1$
+								+ task.number + " has failed: " + e); //$NON-NLS-1$
+					}
+				}
+			} finally {
+				if (task != null) {
+					// the worker has died, let another worker take over
+					synchronized (PieceVerifier.this) {
+						workers--;
+					}
+				}
+			}
+		}
+
+	}
+
+}
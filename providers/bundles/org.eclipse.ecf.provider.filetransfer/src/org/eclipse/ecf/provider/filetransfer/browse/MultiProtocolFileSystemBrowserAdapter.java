@@ -38,6 +38,7 @@ public class MultiProtocolFileSystemBrowserAdapter implements IRemoteFileSystemB
 
 	IConnectContext connectContext = null;
 	Proxy proxy = null;
+	private final RemoteFileSystemBrowseCache browseCache = new RemoteFileSystemBrowseCache();
 
 	/*
 	 * (non-Javadoc)
@@ -97,6 +98,33 @@ public class MultiProtocolFileSystemBrowserAdapter implements IRemoteFileSystemB
 		return fileSystemBrowser.sendBrowseRequest(directoryOrFileID, listener);
 	}
 
+	/**
+	 * Send browse requests for directoryOrFileID and, recursively, all of its subdirectories down
+	 * to maxDepth.  Requests are issued concurrently (bounded by
+	 * {@link RecursiveFileSystemBrowser#DEFAULT_MAX_CONCURRENT_REQUESTS}), and the listener
+	 * receives one browse event per directory as soon as it is available.  Listings are cached
+	 * by this adapter for {@link RemoteFileSystemBrowseCache#DEFAULT_TTL} ms.
+	 * 
+	 * @param directoryOrFileID the IFileID of the remote directory to walk.  Must not be <code>null</code>.
+	 * @param listener the listener to receive browse events.  Must not be <code>null</code>.
+	 * @param maxDepth the maximum depth to recurse, or {@link RecursiveFileSystemBrowser#UNLIMITED_DEPTH}.
+	 * @return IRemoteFileSystemRequest for canceling the whole walk.  Adapts to {@link RecursiveFileSystemBrowser}.
+	 * @throws RemoteFileSystemException if the browse request for directoryOrFileID cannot be sent
+	 * @since 3.3
+	 */
+	public IRemoteFileSystemRequest sendRecursiveBrowseRequest(IFileID directoryOrFileID, IRemoteFileSystemListener listener, int maxDepth) throws RemoteFileSystemException {
+		RecursiveFileSystemBrowser browser = new RecursiveFileSystemBrowser(this, listener, browseCache, RecursiveFileSystemBrowser.DEFAULT_MAX_CONCURRENT_REQUESTS, maxDepth);
+		return browser.sendBrowseRequest(directoryOrFileID);
+	}
+
+	/**
+	 * @return the cache of directory listings used by {@link #sendRecursiveBrowseRequest(IFileID, IRemoteFileSystemListener, int)}.
+	 * @since 3.3
+	 */
+	public RemoteFileSystemBrowseCache getBrowseCache() {
+		return browseCache;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.core.runtime.IAdaptable#getAdapter(java.lang.Class)
 	 */
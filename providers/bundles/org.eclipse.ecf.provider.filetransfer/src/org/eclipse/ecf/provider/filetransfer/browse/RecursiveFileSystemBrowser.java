@@ -0,0 +1,312 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.provider.filetransfer.browse;
+
+import java.util.*;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.ecf.filetransfer.*;
+import org.eclipse.ecf.filetransfer.events.IRemoteFileSystemBrowseEvent;
+import org.eclipse.ecf.filetransfer.events.IRemoteFileSystemEvent;
+import org.eclipse.ecf.filetransfer.identity.IFileID;
+
+/**
+ * Browser that walks a remote directory tree by fanning out browse requests to a
+ * delegate {@link IRemoteFileSystemBrowserContainerAdapter}.  At most
+ * <code>maxConcurrentRequests</code> browse requests are outstanding at any time, so the
+ * number of connections used against the remote server is bounded.
+ * <p>
+ * Results are streamed: the listener receives one {@link IRemoteFileSystemBrowseEvent}
+ * per directory (or file) as soon as its listing is available, in no particular order.
+ * Listings are served from and stored into an optional {@link RemoteFileSystemBrowseCache}.
+ * </p>
+ *
+ * @since 3.3
+ */
+public class RecursiveFileSystemBrowser {
+
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.filetransfer.browse.maxConcurrentRequests", "8")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	public static final int UNLIMITED_DEPTH = -1;
+
+	final IRemoteFileSystemBrowserContainerAdapter browser;
+	final IRemoteFileSystemListener listener;
+	final RemoteFileSystemBrowseCache cache;
+	final int maxConcurrentRequests;
+	final int maxDepth;
+
+	final Object lock = new Object();
+	// pending directories (with their depth) that have not been requested yet
+	final LinkedList<Object[]> pending = new LinkedList<Object[]>();
+	// directories requested but not yet answered
+	final Set<IFileID> outstanding = new HashSet<IFileID>();
+	// requests currently outstanding against the delegate browser, mapped to null while being sent
+	final Map<IFileID, IRemoteFileSystemRequest> inFlight = new HashMap<IFileID, IRemoteFileSystemRequest>();
+	// directories already requested, to avoid walking links twice
+	final Set<IFileID> visited = new HashSet<IFileID>();
+	boolean canceled = false;
+	boolean done = false;
+
+	/**
+	 * @param browser the browser used to issue individual browse requests.  Must not be <code>null</code>.
+	 * @param listener the listener to receive browse events.  Must not be <code>null</code>.
+	 * @param cache cache of directory listings.  May be <code>null</code>.
+	 * @param maxConcurrentRequests the maximum number of outstanding browse requests.  Must be > 0.
+	 * @param maxDepth the maximum depth to recurse below the root, or {@link #UNLIMITED_DEPTH}.
+	 */
+	public RecursiveFileSystemBrowser(IRemoteFileSystemBrowserContainerAdapter browser, IRemoteFileSystemListener listener, RemoteFileSystemBrowseCache cache, int maxConcurrentRequests, int maxDepth) {
+		Assert.isNotNull(browser);
+		Assert.isNotNull(listener);
+		Assert.isLegal(maxConcurrentRequests > 0);
+		this.browser = browser;
+		this.listener = listener;
+		this.cache = cache;
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		this.maxDepth = maxDepth;
+	}
+
+	public RecursiveFileSystemBrowser(IRemoteFileSystemBrowserContainerAdapter browser, IRemoteFileSystemListener listener, RemoteFileSystemBrowseCache cache) {
+		this(browser, listener, cache, DEFAULT_MAX_CONCURRENT_REQUESTS, UNLIMITED_DEPTH);
+	}
+
+	/**
+	 * Start browsing at the given root.
+	 * @param rootID the directory or file to start at.  Must not be <code>null</code>.
+	 * @return IRemoteFileSystemRequest that can be used to cancel the whole walk.
+	 * @throws RemoteFileSystemException if the browse request for the root cannot be sent
+	 */
+	public IRemoteFileSystemRequest sendBrowseRequest(final IFileID rootID) throws RemoteFileSystemException {
+		Assert.isNotNull(rootID);
+		synchronized (lock) {
+			visited.add(rootID);
+			pending.add(new Object[] {rootID, Integer.valueOf(0)});
+		}
+		IRemoteFileSystemRequest request = new IRemoteFileSystemRequest() {
+			public void cancel() {
+				RecursiveFileSystemBrowser.this.cancel();
+			}
+
+			public IRemoteFileSystemListener getRemoteFileListener() {
+				return listener;
+			}
+
+			public IFileID getFileID() {
+				return rootID;
+			}
+
+			public <T> T getAdapter(Class<T> adapter) {
+				if (adapter == null)
+					return null;
+				if (adapter.isInstance(this))
+					return adapter.cast(this);
+				if (adapter.isInstance(RecursiveFileSystemBrowser.this))
+					return adapter.cast(RecursiveFileSystemBrowser.this);
+				return null;
+			}
+		};
+		// Report failure to send the root request directly to the caller
+		Object[] root = nextPending();
+		if (root != null)
+			sendRequest((IFileID) root[0], ((Integer) root[1]).intValue(), true);
+		pump();
+		return request;
+	}
+
+	/**
+	 * Cancel all outstanding and pending browse requests.
+	 */
+	public void cancel() {
+		IRemoteFileSystemRequest[] requests;
+		synchronized (lock) {
+			if (canceled || done)
+				return;
+			canceled = true;
+			pending.clear();
+			requests = inFlight.values().toArray(new IRemoteFileSystemRequest[inFlight.size()]);
+		}
+		// Requests still being sent are canceled by sendRequest once the send returns
+		for (int i = 0; i < requests.length; i++)
+			if (requests[i] != null)
+				requests[i].cancel();
+	}
+
+	/**
+	 * @return <code>true</code> if every reachable directory has been browsed (or the walk was canceled)
+	 * and no request is outstanding.
+	 */
+	public boolean isDone() {
+		synchronized (lock) {
+			return done;
+		}
+	}
+
+	/**
+	 * Wait until the walk is done.
+	 * @param timeout the maximum time to wait in ms.  If 0, wait forever.
+	 * @return <code>true</code> if the walk is done, <code>false</code> if the timeout expired first.
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean waitForDone(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis() + timeout;
+		synchronized (lock) {
+			while (!done) {
+				if (timeout == 0) {
+					lock.wait();
+				} else {
+					long remaining = end - System.currentTimeMillis();
+					if (remaining <= 0)
+						return false;
+					lock.wait(remaining);
+				}
+			}
+			return true;
+		}
+	}
+
+	Object[] nextPending() {
+		synchronized (lock) {
+			if (canceled || pending.isEmpty() || outstanding.size() >= maxConcurrentRequests)
+				return null;
+			Object[] next = pending.removeFirst();
+			outstanding.add((IFileID) next[0]);
+			return next;
+		}
+	}
+
+	void pump() {
+		Object[] next;
+		while ((next = nextPending()) != null) {
+			try {
+				sendRequest((IFileID) next[0], ((Integer) next[1]).intValue(), false);
+			} catch (RemoteFileSystemException e) {
+				// not thrown when rethrow == false
+			}
+		}
+		checkDone();
+	}
+
+	void sendRequest(final IFileID fileID, final int depth, boolean rethrow) throws RemoteFileSystemException {
+		IRemoteFile[] cached = (cache == null) ? null : cache.get(fileID);
+		if (cached != null) {
+			handleListing(fileID, depth, cached, null);
+			return;
+		}
+		synchronized (lock) {
+			inFlight.put(fileID, null);
+		}
+		IRemoteFileSystemRequest request = null;
+		try {
+			request = browser.sendBrowseRequest(fileID, new IRemoteFileSystemListener() {
+				public void handleRemoteFileEvent(IRemoteFileSystemEvent event) {
+					if (event instanceof IRemoteFileSystemBrowseEvent) {
+						IRemoteFileSystemBrowseEvent browseEvent = (IRemoteFileSystemBrowseEvent) event;
+						handleListing(fileID, depth, browseEvent.getRemoteFiles(), browseEvent.getException());
+						pump();
+					}
+				}
+			});
+		} catch (RemoteFileSystemException e) {
+			synchronized (lock) {
+				inFlight.remove(fileID);
+			}
+			if (rethrow) {
+				synchronized (lock) {
+					outstanding.remove(fileID);
+					done = true;
+					lock.notifyAll();
+				}
+				throw e;
+			}
+			handleListing(fileID, depth, null, e);
+			return;
+		}
+		boolean wasCanceled;
+		synchronized (lock) {
+			// The response may already have been handled, in which case the request is finished
+			if (!inFlight.containsKey(fileID))
+				return;
+			inFlight.put(fileID, request);
+			wasCanceled = canceled;
+		}
+		// cancel() was called during the send, before it could see this request
+		if (wasCanceled && request != null)
+			request.cancel();
+	}
+
+	void handleListing(IFileID fileID, int depth, IRemoteFile[] remoteFiles, Exception exception) {
+		boolean wasCanceled;
+		synchronized (lock) {
+			wasCanceled = canceled;
+			inFlight.remove(fileID);
+		}
+		if (exception == null && cache != null)
+			cache.put(fileID, remoteFiles);
+		if (!wasCanceled)
+			listener.handleRemoteFileEvent(createBrowseEvent(fileID, remoteFiles, exception));
+		// fileID stays outstanding until its children are pending, so that
+		// checkDone cannot see an empty walk in between
+		synchronized (lock) {
+			if (!canceled && remoteFiles != null && (maxDepth == UNLIMITED_DEPTH || depth < maxDepth))
+				addChildren(fileID, remoteFiles, depth + 1);
+			outstanding.remove(fileID);
+		}
+	}
+
+	// Must be called holding lock
+	private void addChildren(IFileID parentID, IRemoteFile[] remoteFiles, int depth) {
+		for (int i = 0; i < remoteFiles.length; i++) {
+			IRemoteFile remoteFile = remoteFiles[i];
+			if (remoteFile == null || !remoteFile.getInfo().isDirectory())
+				continue;
+			IFileID childID = remoteFile.getID();
+			// A directory browse of a file returns the file itself
+			if (childID == null || childID.equals(parentID) || !visited.add(childID))
+				continue;
+			pending.add(new Object[] {childID, Integer.valueOf(depth)});
+		}
+	}
+
+	void checkDone() {
+		synchronized (lock) {
+			if (!done && outstanding.isEmpty() && (canceled || pending.isEmpty())) {
+				done = true;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	IRemoteFileSystemBrowseEvent createBrowseEvent(final IFileID fileID, final IRemoteFile[] remoteFiles, final Exception exception) {
+		return new IRemoteFileSystemBrowseEvent() {
+
+			public IFileID getFileID() {
+				return fileID;
+			}
+
+			public Exception getException() {
+				return exception;
+			}
+
+			public IRemoteFile[] getRemoteFiles() {
+				return remoteFiles;
+			}
+
+			public String toString() {
+				StringBuilder buf = new StringBuilder("RemoteFileSystemBrowseEvent["); //$NON-NLS-1$
+				buf.append("fileID=").append(fileID).append(";"); //$NON-NLS-1$ //$NON-NLS-2$
+				List list = (remoteFiles != null) ? Arrays.asList(remoteFiles) : null;
+				buf.append("files=").append(list).append("]"); //$NON-NLS-1$ //$NON-NLS-2$
+				return buf.toString();
+			}
+		};
+	}
+}
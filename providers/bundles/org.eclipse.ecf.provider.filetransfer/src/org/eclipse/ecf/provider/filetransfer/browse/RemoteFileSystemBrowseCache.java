@@ -0,0 +1,122 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.provider.filetransfer.browse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.eclipse.ecf.filetransfer.IRemoteFile;
+import org.eclipse.ecf.filetransfer.identity.IFileID;
+
+/**
+ * Cache of remote directory listings keyed by {@link IFileID}.  Each entry
+ * expires after a time-to-live, and the cache holds at most a fixed number of
+ * entries, evicting the least recently used listing when full.
+ *
+ * @since 3.3
+ */
+public class RemoteFileSystemBrowseCache {
+
+	public static final long DEFAULT_TTL = Long.parseLong(System.getProperty("org.eclipse.ecf.provider.filetransfer.browse.cacheTTL", "30000")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	public static final int DEFAULT_MAX_ENTRIES = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.filetransfer.browse.cacheMaxEntries", "10000")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	static class Entry {
+		final IRemoteFile[] remoteFiles;
+		final long expires;
+
+		Entry(IRemoteFile[] remoteFiles, long expires) {
+			this.remoteFiles = remoteFiles;
+			this.expires = expires;
+		}
+	}
+
+	private final long ttl;
+	private final Map<IFileID, Entry> entries;
+
+	/**
+	 * @param ttl time to live (in ms) for each cached listing.  If <= 0, nothing is cached.
+	 * @param maxEntries the maximum number of listings to keep.  Must be > 0.
+	 */
+	public RemoteFileSystemBrowseCache(long ttl, final int maxEntries) {
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("maxEntries must be > 0"); //$NON-NLS-1$
+		this.ttl = ttl;
+		this.entries = new LinkedHashMap<IFileID, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 2870914578206493718L;
+
+			protected boolean removeEldestEntry(Map.Entry<IFileID, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public RemoteFileSystemBrowseCache() {
+		this(DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+	}
+
+	public long getTTL() {
+		return ttl;
+	}
+
+	/**
+	 * Get the cached listing for the given file id.
+	 * @param fileID the file id.  Must not be <code>null</code>.
+	 * @return IRemoteFile[] the cached listing, or <code>null</code> if there is no
+	 * unexpired listing cached for fileID.
+	 */
+	public IRemoteFile[] get(IFileID fileID) {
+		synchronized (entries) {
+			Entry entry = entries.get(fileID);
+			if (entry == null)
+				return null;
+			if (entry.expires < System.currentTimeMillis()) {
+				entries.remove(fileID);
+				return null;
+			}
+			return entry.remoteFiles;
+		}
+	}
+
+	/**
+	 * Cache the listing for the given file id.  Failed browses (<code>null</code> remoteFiles)
+	 * are not cached.
+	 * @param fileID the file id.  Must not be <code>null</code>.
+	 * @param remoteFiles the listing.  May be <code>null</code>.
+	 */
+	public void put(IFileID fileID, IRemoteFile[] remoteFiles) {
+		if (ttl <= 0 || remoteFiles == null)
+			return;
+		synchronized (entries) {
+			entries.put(fileID, new Entry(remoteFiles, System.currentTimeMillis() + ttl));
+		}
+	}
+
+	public void remove(IFileID fileID) {
+		synchronized (entries) {
+			entries.remove(fileID);
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+}
@@ -10,10 +10,17 @@ import java.util.*;
 /**
  * A table of DNS entries. This is a hash table which can handle multiple
  * entries with the same name. <p> Storing multiple entries with the same name
- * is implemented using a linked list of <code>CacheNode</code>'s. <p> The
- * current implementation of the API of DNSCache does expose the cache nodes to
- * clients. Clients must explicitly deal with the nodes when iterating over
- * entries in the cache. Here's how to iterate over all entries in the cache:
+ * is implemented using a linked list of <code>CacheNode</code>'s. The lists
+ * are never modified once they have been stored, adding or removing an entry
+ * replaces the list of its name, so clients can walk a list returned by
+ * {@link #find(String)} or {@link #iterator()} without holding a lock while
+ * the cache is being modified. <p> The table is split into segments that are
+ * locked independently, so that lookups for different names do not contend
+ * with each other or with the socket listener storing incoming answers. <p>
+ * The records in the cache are also indexed by the second in which they
+ * expire, so that {@link #getExpired(long)} only has to look at the records
+ * that are due instead of at the whole cache. <p> Here's how to iterate over
+ * all entries in the cache:
  * 
  * <pre>
  * for (Iterator i=dnscache.iterator(); i.hasNext(); ) {
@@ -24,35 +31,43 @@ import java.util.*;
  * }
  * </pre>
  * 
- * <p> And here's how to iterate over all entries having a given name:
- * 
  * @version %I%, %G%
  * @author Arthur van Hoff, Werner Randelshofer, Rick Blair
  */
 public class DNSCache {
 	//    private static Logger logger = Logger.getLogger(DNSCache.class.getName());
-	// Implementation note:
-	// We might completely hide the existence of CacheNode's in a future version
-	// of DNSCache. But this will require to implement two (inner) classes for
-	// the iterators that will be returned by method <code>iterator()</code> and
-	// method <code>find(name)</code>.
-	// Since DNSCache is not a public class, it does not seem worth the effort
-	// to clean its API up that much.
 
-	// [PJYF Oct 15 2004] This should implements Collections that would be amuch
-	// cleaner implementation
+	/**
+	 * The number of independently locked segments of the table.
+	 */
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * The granularity of the expiration index in milliseconds.
+	 */
+	private static final long EXPIRATION_BUCKET = 1000;
+
+	/**
+	 * The segments of the table. Keys are instances of String. The String
+	 * contains an unqualified service name. Values are linked lists of
+	 * CacheNode instances.
+	 */
+	private final HashMap[] segments;
 
 	/**
-	 * The number of DNSEntry's in the cache.
+	 * Index of the records by the second in which they expire. Keys are Longs,
+	 * values are Lists of DNSRecords. Records that have been removed from the
+	 * cache or whose TTL has been reset are only dropped or moved once their
+	 * bucket is due.
 	 */
-	private int size;
+	private final TreeMap expirations = new TreeMap();
 
 	/**
-	 * The hashtable used internally to store the entries of the cache. Keys are
-	 * instances of String. The String contains an unqualified service name.
-	 * Values are linked lists of CacheNode instances.
+	 * The bucket of each record in the expiration index, so that a record that
+	 * is added again is not indexed twice. Keys are DNSRecords, values are
+	 * Longs. Guarded by the lock of expirations.
 	 */
-	private final HashMap hashtable;
+	private final IdentityHashMap scheduled = new IdentityHashMap();
 
 	/**
 	 * Cache nodes are used to implement storage of multiple DNSEntry's of the
@@ -61,10 +76,15 @@ public class DNSCache {
 	public static class CacheNode {
 		//        private static Logger logger = Logger.getLogger(CacheNode.class.getName());
 		private final DNSEntry value;
-		private CacheNode next;
+		private final CacheNode next;
 
 		public CacheNode(DNSEntry value) {
+			this(value, null);
+		}
+
+		CacheNode(DNSEntry value, CacheNode next) {
 			this.value = value;
+			this.next = next;
 		}
 
 		public CacheNode next() {
@@ -80,61 +100,136 @@ public class DNSCache {
 	 * Create a table with a given initial size.
 	 */
 	public DNSCache(final int size) {
-		hashtable = new HashMap(size);
+		segments = new HashMap[SEGMENTS];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new HashMap(Math.max(16, size / SEGMENTS));
+		}
+	}
+
+	private HashMap segmentFor(final String name) {
+		int h = name.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & (SEGMENTS - 1)];
 	}
 
 	/**
 	 * Clears the cache.
 	 */
-	public synchronized void clear() {
-		hashtable.clear();
-		size = 0;
+	public void clear() {
+		for (int i = 0; i < segments.length; i++) {
+			synchronized (segments[i]) {
+				segments[i].clear();
+			}
+		}
+		synchronized (expirations) {
+			expirations.clear();
+			scheduled.clear();
+		}
 	}
 
 	/**
 	 * Adds an entry to the table.
 	 */
-	public synchronized void add(final DNSEntry entry) {
+	public void add(final DNSEntry entry) {
 		// logger.log("DNSCache.add("+entry.getName()+")");
-		final CacheNode newValue = new CacheNode(entry);
-		final CacheNode node = (CacheNode) hashtable.get(entry.getName());
-		if (node == null) {
-			hashtable.put(entry.getName(), newValue);
-		} else {
-			newValue.next = node.next;
-			node.next = newValue;
+		final HashMap segment = segmentFor(entry.getName());
+		synchronized (segment) {
+			final CacheNode node = (CacheNode) segment.get(entry.getName());
+			if (node == null) {
+				segment.put(entry.getName(), new CacheNode(entry));
+			} else {
+				// keep the first entry of the name first
+				segment.put(entry.getName(), new CacheNode(node.value, new CacheNode(entry, node.next)));
+			}
+		}
+		if (entry instanceof DNSRecord) {
+			index((DNSRecord) entry);
+		}
+	}
+
+	private void index(final DNSRecord rec) {
+		final Long bucket = new Long(rec.getExpirationTime(100) / EXPIRATION_BUCKET);
+		synchronized (expirations) {
+			final Long previous = (Long) scheduled.get(rec);
+			if (previous != null) {
+				if (previous.longValue() <= bucket.longValue()) {
+					// it is rescheduled once its bucket is due
+					return;
+				}
+				final List list = (List) expirations.get(previous);
+				for (final Iterator i = list.iterator(); i.hasNext();) {
+					if (i.next() == rec) {
+						i.remove();
+						break;
+					}
+				}
+				if (list.isEmpty()) {
+					expirations.remove(previous);
+				}
+			}
+			scheduled.put(rec, bucket);
+			List list = (List) expirations.get(bucket);
+			if (list == null) {
+				list = new ArrayList();
+				expirations.put(bucket, list);
+			}
+			list.add(rec);
 		}
-		size++;
+	}
+
+	/**
+	 * Resets the TTL of a cached record to that of another record. A record
+	 * whose TTL shrinks is moved to its earlier bucket in the expiration
+	 * index, a record whose TTL grows is rescheduled once its bucket is due.
+	 */
+	public void resetTTL(final DNSRecord rec, final DNSRecord other) {
+		rec.resetTTL(other);
+		index(rec);
 	}
 
 	/**
 	 * Remove a specific entry from the table. Returns true if the entry was
 	 * found.
 	 */
-	public synchronized boolean remove(DNSEntry entry) {
-		CacheNode node = (CacheNode) hashtable.get(entry.getName());
-		if (node != null) {
+	public boolean remove(DNSEntry entry) {
+		final HashMap segment = segmentFor(entry.getName());
+		synchronized (segment) {
+			final CacheNode node = (CacheNode) segment.get(entry.getName());
+			final CacheNode list = remove(node, entry);
+			if (list == node) {
+				return false;
+			}
+			if (list == null) {
+				segment.remove(entry.getName());
+			} else {
+				segment.put(entry.getName(), list);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Returns a copy of the list without the entry, or the list itself if it
+	 * does not contain the entry.
+	 */
+	private static CacheNode remove(final CacheNode node, final DNSEntry entry) {
+		if (node == null) {
+			return null;
+		} else if (node.value == entry) {
+			return node.next;
+		}
+		final CacheNode next = remove(node.next, entry);
+		return (next == node.next) ? node : new CacheNode(node.value, next);
+	}
+
+	/**
+	 * Returns whether the table contains this very entry.
+	 */
+	private boolean contains(final DNSEntry entry) {
+		for (CacheNode node = find(entry.getName()); node != null; node = node.next) {
 			if (node.value == entry) {
-				if (node.next == null) {
-					hashtable.remove(entry.getName());
-				} else {
-					hashtable.put(entry.getName(), node.next);
-				}
-				size--;
 				return true;
 			}
-
-			CacheNode previous = node;
-			node = node.next;
-			while (node != null) {
-				if (node.value == entry) {
-					previous.next = node.next;
-					size--;
-					return true;
-				}
-				previous = node;
-				node = node.next;
-			};
 		}
 		return false;
 	}
@@ -143,7 +238,7 @@ public class DNSCache {
 	 * Get a matching DNS entry from the table (using equals). Returns the entry
 	 * that was found.
 	 */
-	public synchronized DNSEntry get(DNSEntry entry) {
+	public DNSEntry get(DNSEntry entry) {
 		for (CacheNode node = find(entry.getName()); node != null; node = node.next) {
 			if (node.value.equals(entry)) {
 				return node.value;
@@ -155,7 +250,7 @@ public class DNSCache {
 	/**
 	 * Get a matching DNS entry from the table.
 	 */
-	public synchronized DNSEntry get(String name, int type, int clazz) {
+	public DNSEntry get(String name, int type, int clazz) {
 		for (CacheNode node = find(name); node != null; node = node.next) {
 			if (node.value.type == type && node.value.clazz == clazz) {
 				return node.value;
@@ -164,14 +259,52 @@ public class DNSCache {
 		return null;
 	}
 
+	/**
+	 * Returns the records of the cache that have expired at the given time.
+	 * The records are not removed from the cache, records that are returned
+	 * once are not returned again unless they are added again. Records whose
+	 * TTL has been reset since they have been added are rescheduled.
+	 */
+	public List getExpired(final long now) {
+		final List due = new ArrayList();
+		synchronized (expirations) {
+			final Map head = expirations.headMap(new Long(now / EXPIRATION_BUCKET + 1));
+			for (final Iterator i = head.values().iterator(); i.hasNext();) {
+				due.addAll((List) i.next());
+			}
+			head.clear();
+			for (final Iterator i = due.iterator(); i.hasNext();) {
+				scheduled.remove(i.next());
+			}
+		}
+		final List expired = new ArrayList();
+		for (final Iterator i = due.iterator(); i.hasNext();) {
+			final DNSRecord rec = (DNSRecord) i.next();
+			if (!contains(rec)) {
+				continue;
+			} else if (rec.isExpired(now)) {
+				expired.add(rec);
+			} else {
+				index(rec);
+			}
+		}
+		return expired;
+	}
+
 	/**
 	 * Iterates over all cache nodes. The iterator returns instances of
 	 * DNSCache.CacheNode. Each instance returned is the first node of a linked
 	 * list. To retrieve all entries, one must iterate over this linked list.
 	 * See code snippets in the header of the class.
 	 */
-	public synchronized Iterator iterator() {
-		return new ArrayList(hashtable.values()).iterator();
+	public Iterator iterator() {
+		final List list = new ArrayList();
+		for (int i = 0; i < segments.length; i++) {
+			synchronized (segments[i]) {
+				list.addAll(segments[i].values());
+			}
+		}
+		return list.iterator();
 	}
 
 	/**
@@ -180,14 +313,17 @@ public class DNSCache {
 	 * node of a linked list. To retrieve all entries, one must iterate over
 	 * this linked list.
 	 */
-	public synchronized CacheNode find(String name) {
-		return (CacheNode) hashtable.get(name);
+	public CacheNode find(String name) {
+		final HashMap segment = segmentFor(name);
+		synchronized (segment) {
+			return (CacheNode) segment.get(name);
+		}
 	}
 
 	/**
 	 * List all entries for debugging.
 	 */
-	public synchronized void print() {
+	public void print() {
 		for (final Iterator i = iterator(); i.hasNext();) {
 			for (CacheNode n = (CacheNode) i.next(); n != null; n = n.next) {
 				System.out.println(n.value);
@@ -195,7 +331,7 @@ public class DNSCache {
 		}
 	}
 
-	public synchronized String toString() {
+	public String toString() {
 		final StringBuffer aLog = new StringBuffer();
 		aLog.append("\t---- cache ----");
 		for (final Iterator i = iterator(); i.hasNext();) {
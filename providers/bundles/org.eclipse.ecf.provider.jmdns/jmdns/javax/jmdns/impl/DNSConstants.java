@@ -114,6 +114,7 @@ public final class DNSConstants
     public final static int PROBE_WAIT_INTERVAL = 250;           //milliseconds between probe loops.
     public final static int RESPONSE_MIN_WAIT_INTERVAL = 20;            //minimal wait interval for response.
     public final static int RESPONSE_MAX_WAIT_INTERVAL = 115;           //maximal wait interval for response
+    public final static int QUERY_BATCH_INTERVAL = 20;              //milliseconds queries are held back to be sent together.
     public final static int PROBE_CONFLICT_INTERVAL = 1000;          //milliseconds to wait after conflict.
     public final static int PROBE_THROTTLE_COUNT = 10;            //After x tries go 1 time a sec. on probes.
     public final static int PROBE_THROTTLE_COUNT_INTERVAL = 5000;          //We only increment the throttle count, if
@@ -335,6 +335,21 @@ public final class DNSOutgoing
             && numAdditionals == 0 && numAnswers == 0;
     }
 
+    public boolean isTruncated()
+    {
+        return (flags & DNSConstants.FLAGS_TC) != 0;
+    }
+
+    public int getNumQuestions()
+    {
+        return numQuestions;
+    }
+
+    public int getNumAnswers()
+    {
+        return numAnswers;
+    }
+
 
     public String toString()
     {
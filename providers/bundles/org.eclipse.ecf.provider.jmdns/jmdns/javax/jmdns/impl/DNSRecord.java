@@ -159,7 +159,7 @@ public abstract class DNSRecord extends DNSEntry
      * Check if the record is stale, ie it has outlived
      * more than half of its TTL.
      */
-    boolean isStale(long now)
+    public boolean isStale(long now)
     {
         return getExpirationTime(50) <= now;
     }
@@ -102,6 +102,11 @@ public class JmDNSImpl extends JmDNS {
 	 */
 	Timer timer;
 
+	/**
+	 * Collects the queries of the resolvers, so that they are sent together.
+	 */
+	private QueryBatcher queryBatcher;
+
 	/**
 	 * The source for random values. This is used to introduce random delays in
 	 * responses. This reduces the potential for collisions on the network.
@@ -225,6 +230,7 @@ public class JmDNSImpl extends JmDNS {
 		// I would pass' JmDNS.Timer'.
 		timer = new Timer();
 		new RecordReaper(this).start(timer);
+		queryBatcher = new QueryBatcher(this);
 		shutdown = new Thread(new Shutdown(), "JmDNS.Shutdown");
 		Runtime.getRuntime().addShutdownHook(shutdown);
 
@@ -320,6 +326,13 @@ public class JmDNSImpl extends JmDNS {
 		return cache;
 	}
 
+	/**
+	 * Return the QueryBatcher used by the resolvers to send their queries
+	 */
+	public QueryBatcher getQueryBatcher() {
+		return queryBatcher;
+	}
+
 	/**
 	 * @see javax.jmdns.JmDNS#getHostName()
 	 */
@@ -465,14 +478,12 @@ public class JmDNSImpl extends JmDNS {
 
 		// report cached service types
 		final List serviceEvents = new ArrayList();
-		synchronized (cache) {
-			for (final Iterator i = cache.iterator(); i.hasNext();) {
-				for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next()) {
-					final DNSRecord rec = (DNSRecord) n.getValue();
-					if (rec.type == DNSConstants.TYPE_SRV) {
-						if (rec.name.endsWith(type)) {
-							serviceEvents.add(new ServiceEventImpl(this, type, toUnqualifiedName(type, rec.name), null));
-						}
+		for (final Iterator i = cache.iterator(); i.hasNext();) {
+			for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next()) {
+				final DNSRecord rec = (DNSRecord) n.getValue();
+				if (rec.type == DNSConstants.TYPE_SRV) {
+					if (rec.name.endsWith(type)) {
+						serviceEvents.add(new ServiceEventImpl(this, type, toUnqualifiedName(type, rec.name), null));
 					}
 				}
 			}
@@ -818,7 +829,7 @@ public class JmDNSImpl extends JmDNS {
 					isInformative = true;
 					cache.remove(c);
 				} else {
-					c.resetTTL(rec);
+					cache.resetTTL(c, rec);
 					rec = c;
 				}
 			} else {
@@ -0,0 +1,261 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package javax.jmdns.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimerTask;
+//import java.util.logging.Level;
+//import java.util.logging.Logger;
+
+/**
+ * Collects the queries of the resolver tasks and sends them together.
+ * <p/>
+ * Each resolver used to send a packet of its own for every question it asked,
+ * so that resolving many services at once flooded the network with small
+ * packets. Queries handed to the QueryBatcher are held back for
+ * {@link DNSConstants#QUERY_BATCH_INTERVAL} milliseconds, and are then packed
+ * into as few packets as possible. Questions and known answers that are asked
+ * for by more than one resolver are sent only once per packet. Known answers
+ * that do not fit into the packet of their questions are sent in the packets
+ * that follow it, and all but the last of these packets have the TC bit set
+ * (RFC 6762, section 7.2).
+ */
+public final class QueryBatcher
+{
+//    private static Logger logger = Logger.getLogger(QueryBatcher.class.getName());
+
+    /**
+     * A query of a resolver.
+     */
+    public static final class Query
+    {
+        final DNSQuestion[] questions;
+        final DNSRecord[] knownAnswers;
+
+        /**
+         * @param questions the questions to ask
+         * @param knownAnswers known answers to the questions. May contain null
+         * elements for answers that are not known.
+         */
+        public Query(DNSQuestion[] questions, DNSRecord[] knownAnswers)
+        {
+            this.questions = questions;
+            this.knownAnswers = knownAnswers;
+        }
+    }
+
+    private final JmDNSImpl jmDNSImpl;
+
+    /**
+     * The queries waiting to be sent. Null if no flush is scheduled.
+     */
+    private List pending;
+
+    QueryBatcher(JmDNSImpl jmDNSImpl)
+    {
+        this.jmDNSImpl = jmDNSImpl;
+    }
+
+    /**
+     * Queue a query. The questions are sent within
+     * {@link DNSConstants#QUERY_BATCH_INTERVAL} milliseconds, together with
+     * the known answers that have more than half of their TTL left by then.
+     *
+     * @param questions the questions to ask
+     * @param knownAnswers known answers to the questions, used for known answer
+     * suppression. May contain null elements for answers that are not known.
+     */
+    public void query(DNSQuestion[] questions, DNSRecord[] knownAnswers)
+    {
+        synchronized (this)
+        {
+            if (pending != null)
+            {
+                pending.add(new Query(questions, knownAnswers));
+                return;
+            }
+            pending = new ArrayList();
+            pending.add(new Query(questions, knownAnswers));
+        }
+        try
+        {
+            jmDNSImpl.timer.schedule(new TimerTask()
+            {
+                public void run()
+                {
+                    flush();
+                }
+            }, DNSConstants.QUERY_BATCH_INTERVAL);
+        }
+        catch (IllegalStateException e)
+        {
+            // the timer has been canceled, JmDNS is closing
+            synchronized (this)
+            {
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * Send the pending queries.
+     */
+    void flush()
+    {
+        List queries;
+        synchronized (this)
+        {
+            queries = pending;
+            pending = null;
+        }
+        if (queries == null || jmDNSImpl.getState() == DNSState.CANCELED)
+        {
+            return;
+        }
+        try
+        {
+            for (Iterator i = pack(queries, System.currentTimeMillis()).iterator(); i.hasNext();)
+            {
+                jmDNSImpl.send((DNSOutgoing) i.next());
+            }
+        }
+        catch (Throwable e)
+        {
+//            logger.log(Level.WARNING, "flush() exception ", e);
+            jmDNSImpl.recover();
+        }
+    }
+
+    /**
+     * Pack queries into as few messages as possible.
+     *
+     * @param queries the queries, instances of {@link Query}
+     * @param now the time at which the messages are sent
+     * @return the messages to send, in order, instances of DNSOutgoing
+     */
+    public static List pack(List queries, long now)
+    {
+        final List messages = new ArrayList();
+        List questions = new ArrayList();
+        List answers = new ArrayList();
+        DNSOutgoing out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+        for (Iterator i = queries.iterator(); i.hasNext();)
+        {
+            final Query query = (Query) i.next();
+            final List added = new ArrayList();
+            for (int j = 0; j < query.questions.length; j++)
+            {
+                if (!questions.contains(query.questions[j]) && !added.contains(query.questions[j]))
+                {
+                    added.add(query.questions[j]);
+                }
+            }
+            if (!addQuestions(out, added))
+            {
+                // The questions don't fit, finish what we have and start
+                // a new packet for them
+                if (!questions.isEmpty())
+                {
+                    out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+                    addQuestions(out, questions);
+                    addKnownAnswers(messages, out, answers, now);
+                }
+                questions = new ArrayList();
+                answers = new ArrayList();
+                out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+                if (!addQuestions(out, added))
+                {
+//                    logger.log(Level.WARNING, "pack() query does not fit into a packet");
+                    out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+                    continue;
+                }
+            }
+            questions.addAll(added);
+            for (int j = 0; j < query.knownAnswers.length; j++)
+            {
+                if (query.knownAnswers[j] != null && !answers.contains(query.knownAnswers[j]))
+                {
+                    answers.add(query.knownAnswers[j]);
+                }
+            }
+        }
+        if (!questions.isEmpty())
+        {
+            addKnownAnswers(messages, out, answers, now);
+        }
+        return messages;
+    }
+
+    /**
+     * Add questions to a message. Returns false if they don't fit, in which
+     * case the message must not be used anymore.
+     */
+    private static boolean addQuestions(DNSOutgoing out, List questions)
+    {
+        try
+        {
+            for (Iterator i = questions.iterator(); i.hasNext();)
+            {
+                out.addQuestion((DNSQuestion) i.next());
+            }
+            return true;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Add the known answers to the message, and the message to the messages.
+     * Known answers with less than half of their TTL left are left out
+     * (RFC 6762, section 7.1). If the known answers don't fit, the message
+     * gets the TC bit set and the remaining known answers are put into the
+     * messages that follow it (RFC 6762, section 7.2).
+     */
+    private static void addKnownAnswers(List messages, DNSOutgoing out, List answers, long now)
+    {
+        for (Iterator i = answers.iterator(); i.hasNext();)
+        {
+            final DNSRecord answer = (DNSRecord) i.next();
+            if (answer.isStale(now))
+            {
+                continue;
+            }
+            try
+            {
+                out.addAnswer(answer, now);
+            }
+            catch (IOException e)
+            {
+                // no room for more known answers
+                out.flags |= DNSConstants.FLAGS_TC;
+                messages.add(out);
+                out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
+                try
+                {
+                    out.addAnswer(answer, now);
+                }
+                catch (IOException e1)
+                {
+//                    logger.log(Level.WARNING, "addKnownAnswers() known answer does not fit into a packet");
+                }
+            }
+        }
+        messages.add(out);
+    }
+}
@@ -57,6 +57,12 @@ public class ServiceInfoImpl extends ServiceInfo implements DNSListener
     Hashtable props;
     InetAddress addr;
 
+    /**
+     * The time at which the first of the records that this service info has
+     * been resolved from expires, or 0 if no record has been applied yet.
+     */
+    private long expirationTime;
+
     /**
      * @see javax.jmdns.ServiceInfo#create(String, String, int, String)
      */
@@ -491,7 +497,7 @@ public class ServiceInfoImpl extends ServiceInfo implements DNSListener
                     if (rec.name.equals(server))
                     {
                         addr = ((DNSRecord.Address) rec).getAddress();
-
+                        updateExpirationTime(rec);
                     }
                     break;
                 case DNSConstants.TYPE_SRV:
@@ -503,6 +509,7 @@ public class ServiceInfoImpl extends ServiceInfo implements DNSListener
                         weight = srv.weight;
                         priority = srv.priority;
                         addr = null;
+                        updateExpirationTime(rec);
                         // changed to use getCache() instead - jeffs
                         // updateRecord(jmdns, now, (DNSRecord)jmdns.cache.get(server, TYPE_A, CLASS_IN));
                         updateRecord(jmdns, now, (DNSRecord) jmdns.getCache().get(server, DNSConstants.TYPE_A, DNSConstants.CLASS_IN));
@@ -513,6 +520,7 @@ public class ServiceInfoImpl extends ServiceInfo implements DNSListener
                     {
                         DNSRecord.Text txt = (DNSRecord.Text) rec;
                         setText(txt.text);
+                        updateExpirationTime(rec);
                     }
                     break;
             }
@@ -531,6 +539,27 @@ public class ServiceInfoImpl extends ServiceInfo implements DNSListener
         }
     }
 
+    private synchronized void updateExpirationTime(DNSRecord rec)
+    {
+        final long expires = rec.getExpirationTime(100);
+        if ((expirationTime == 0) || (expires < expirationTime))
+        {
+            expirationTime = expires;
+        }
+    }
+
+    /**
+     * Returns the time at which the first of the records that this service
+     * info has been resolved from expires. The service info should be resolved
+     * again after this time.
+     *
+     * @return the expiration time in milliseconds, or 0 if unknown
+     */
+    public synchronized long getExpirationTime()
+    {
+        return expirationTime;
+    }
+
     /**
      * Returns true if the service info is filled with data.
      */
@@ -4,14 +4,11 @@
 
 package javax.jmdns.impl.tasks;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Logger;
 
-import javax.jmdns.impl.DNSCache;
 import javax.jmdns.impl.DNSConstants;
 import javax.jmdns.impl.DNSRecord;
 import javax.jmdns.impl.DNSState;
@@ -54,29 +51,14 @@ public class RecordReaper extends TimerTask
 
             // Remove expired answers from the cache
             // -------------------------------------
-            // To prevent race conditions, we defensively copy all cache
-            // entries into a list.
-            List list = new ArrayList();
-            synchronized (this.jmDNSImpl.getCache())
-            {
-                for (Iterator i = this.jmDNSImpl.getCache().iterator(); i.hasNext();)
-                {
-                    for (DNSCache.CacheNode n = (DNSCache.CacheNode) i.next(); n != null; n = n.next())
-                    {
-                        list.add(n.getValue());
-                    }
-                }
-            }
-            // Now, we remove them.
+            // The cache only hands out the records whose expiration is due,
+            // so we don't have to walk the whole cache each time.
             long now = System.currentTimeMillis();
-            for (Iterator i = list.iterator(); i.hasNext();)
+            for (Iterator i = this.jmDNSImpl.getCache().getExpired(now).iterator(); i.hasNext();)
             {
                 DNSRecord c = (DNSRecord) i.next();
-                if (c.isExpired(now))
-                {
-                    this.jmDNSImpl.updateRecord(now, c);
-                    this.jmDNSImpl.getCache().remove(c);
-                }
+                this.jmDNSImpl.updateRecord(now, c);
+                this.jmDNSImpl.getCache().remove(c);
             }
         }
     }
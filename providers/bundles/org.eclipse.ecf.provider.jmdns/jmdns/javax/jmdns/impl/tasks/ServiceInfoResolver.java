@@ -9,8 +9,8 @@ import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
 
+import javax.jmdns.impl.DNSCache;
 import javax.jmdns.impl.DNSConstants;
-import javax.jmdns.impl.DNSOutgoing;
 import javax.jmdns.impl.DNSQuestion;
 import javax.jmdns.impl.DNSRecord;
 import javax.jmdns.impl.DNSState;
@@ -60,21 +60,25 @@ public class ServiceInfoResolver extends TimerTask
             {
                 if (count++ < 3 && !info.hasData())
                 {
-                    long now = System.currentTimeMillis();
-                    DNSOutgoing out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
-                    out.addQuestion(new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN));
-                    out.addQuestion(new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN));
+                    DNSCache cache = this.jmDNSImpl.getCache();
                     if (info.getServer() != null)
                     {
-                        out.addQuestion(new DNSQuestion(info.getServer(), DNSConstants.TYPE_A, DNSConstants.CLASS_IN));
+                        this.jmDNSImpl.getQueryBatcher().query(new DNSQuestion[] {
+                                new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN),
+                                new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN),
+                                new DNSQuestion(info.getServer(), DNSConstants.TYPE_A, DNSConstants.CLASS_IN)}, new DNSRecord[] {
+                                (DNSRecord) cache.get(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN),
+                                (DNSRecord) cache.get(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN),
+                                (DNSRecord) cache.get(info.getServer(), DNSConstants.TYPE_A, DNSConstants.CLASS_IN)});
                     }
-                    out.addAnswer((DNSRecord) this.jmDNSImpl.getCache().get(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN), now);
-                    out.addAnswer((DNSRecord) this.jmDNSImpl.getCache().get(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN), now);
-                    if (info.getServer() != null)
+                    else
                     {
-                        out.addAnswer((DNSRecord) this.jmDNSImpl.getCache().get(info.getServer(), DNSConstants.TYPE_A, DNSConstants.CLASS_IN), now);
+                        this.jmDNSImpl.getQueryBatcher().query(new DNSQuestion[] {
+                                new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN),
+                                new DNSQuestion(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN)}, new DNSRecord[] {
+                                (DNSRecord) cache.get(info.getQualifiedName(), DNSConstants.TYPE_SRV, DNSConstants.CLASS_IN),
+                                (DNSRecord) cache.get(info.getQualifiedName(), DNSConstants.TYPE_TXT, DNSConstants.CLASS_IN)});
                     }
-                    this.jmDNSImpl.send(out);
                 }
                 else
                 {
@@ -4,15 +4,16 @@
 
 package javax.jmdns.impl.tasks;
 
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
 
+import javax.jmdns.impl.DNSCache;
 import javax.jmdns.impl.DNSConstants;
-import javax.jmdns.impl.DNSOutgoing;
 import javax.jmdns.impl.DNSQuestion;
 import javax.jmdns.impl.DNSRecord;
 import javax.jmdns.impl.DNSState;
@@ -62,21 +63,27 @@ public class ServiceResolver extends TimerTask
                 {
 //                    logger.finer("run() JmDNS querying service");
                     long now = System.currentTimeMillis();
-                    DNSOutgoing out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
-                    out.addQuestion(new DNSQuestion(type, DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN));
+                    List answers = new ArrayList();
                     for (Iterator s = this.jmDNSImpl.getServices().values().iterator(); s.hasNext();)
                     {
                         final ServiceInfoImpl info = (ServiceInfoImpl) s.next();
-                        try
+                        if (info.getType().equalsIgnoreCase(type))
                         {
-                            out.addAnswer(new DNSRecord.Pointer(info.getType(), DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, DNSConstants.DNS_TTL, info.getQualifiedName()), now);
+                            answers.add(new DNSRecord.Pointer(info.getType(), DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, DNSConstants.DNS_TTL, info.getQualifiedName()));
                         }
-                        catch (IOException ee)
+                    }
+                    // Services of other hosts that we already know need not
+                    // be announced to us again, unless less than half of
+                    // their TTL is left (RFC 6762, section 7.1)
+                    for (DNSCache.CacheNode n = this.jmDNSImpl.getCache().find(type); n != null; n = n.next())
+                    {
+                        final DNSRecord rec = (DNSRecord) n.getValue();
+                        if (rec.getType() == DNSConstants.TYPE_PTR && !rec.isStale(now) && !answers.contains(rec))
                         {
-                            break;
+                            answers.add(rec);
                         }
                     }
-                    this.jmDNSImpl.send(out);
+                    this.jmDNSImpl.getQueryBatcher().query(new DNSQuestion[] {new DNSQuestion(type, DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN)}, (DNSRecord[]) answers.toArray(new DNSRecord[answers.size()]));
                 }
                 else
                 {
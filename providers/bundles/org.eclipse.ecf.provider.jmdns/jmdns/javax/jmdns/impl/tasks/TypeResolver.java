@@ -4,14 +4,15 @@
 
 package javax.jmdns.impl.tasks;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 //import java.util.logging.Level;
 //import java.util.logging.Logger;
 
 import javax.jmdns.impl.DNSConstants;
-import javax.jmdns.impl.DNSOutgoing;
 import javax.jmdns.impl.DNSQuestion;
 import javax.jmdns.impl.DNSRecord;
 import javax.jmdns.impl.DNSState;
@@ -61,13 +62,12 @@ public class TypeResolver extends TimerTask
                 if (count++ < 3)
                 {
 //                    logger.finer("run() JmDNS querying type");
-                    DNSOutgoing out = new DNSOutgoing(DNSConstants.FLAGS_QR_QUERY);
-                    out.addQuestion(new DNSQuestion("_services" + DNSConstants.DNS_META_QUERY + "local.", DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN));
+                    List answers = new ArrayList();
                     for (Iterator iterator = this.jmDNSImpl.getServiceTypes().values().iterator(); iterator.hasNext();)
                     {
-                        out.addAnswer(new DNSRecord.Pointer("_services" + DNSConstants.DNS_META_QUERY + "local.", DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, DNSConstants.DNS_TTL, (String) iterator.next()), 0);
+                        answers.add(new DNSRecord.Pointer("_services" + DNSConstants.DNS_META_QUERY + "local.", DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, DNSConstants.DNS_TTL, (String) iterator.next()));
                     }
-                    this.jmDNSImpl.send(out);
+                    this.jmDNSImpl.getQueryBatcher().query(new DNSQuestion[] {new DNSQuestion("_services" + DNSConstants.DNS_META_QUERY + "local.", DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN)}, (DNSRecord[]) answers.toArray(new DNSRecord[answers.size()]));
                 }
                 else
                 {
@@ -0,0 +1,141 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.internal.provider.jmdns;
+
+import java.util.*;
+import org.eclipse.ecf.discovery.IServiceInfo;
+
+/**
+ * Keeps track of the services that are being resolved, and caches resolved
+ * services until the records that they were resolved from expire.
+ * <p>
+ * A service that is announced again while it is being resolved is not resolved
+ * twice, and a service that is removed while it is being resolved has its
+ * resolve dropped, so its result is neither reported nor cached.
+ * </p>
+ */
+public class ResolveTracker {
+
+	// Interval at which expired entries are removed from the cache
+	private static final long CACHE_SWEEP_INTERVAL = 60000;
+
+	static class CachedServiceInfo {
+		final IServiceInfo serviceInfo;
+		final long expirationTime;
+
+		CachedServiceInfo(IServiceInfo serviceInfo, long expirationTime) {
+			this.serviceInfo = serviceInfo;
+			this.expirationTime = expirationTime;
+		}
+	}
+
+	// Map<String,Object> of service keys to the tokens of resolves that have been
+	// started but whose result has not been processed yet
+	private final Map pending = new HashMap();
+	// Map<String,CachedServiceInfo>
+	private final Map cache = new HashMap();
+	private long nextCacheSweep = 0;
+
+	/**
+	 * Start resolving a service.
+	 * @param key the key of the service
+	 * @return the token of the new resolve, or <code>null</code> if the service is already being resolved
+	 */
+	public synchronized Object start(String key) {
+		if (pending.containsKey(key))
+			return null;
+		final Object token = new Object();
+		pending.put(key, token);
+		return token;
+	}
+
+	/**
+	 * @param key the key of the service
+	 * @param now the current time
+	 * @return the cached service, or <code>null</code> if it is not cached or has expired
+	 */
+	public synchronized IServiceInfo getCached(String key, long now) {
+		final CachedServiceInfo cached = (CachedServiceInfo) cache.get(key);
+		if (cached == null)
+			return null;
+		if (cached.expirationTime <= now) {
+			cache.remove(key);
+			return null;
+		}
+		return cached.serviceInfo;
+	}
+
+	/**
+	 * End a resolve started by {@link #start(String)}. If the resolve is still current, serviceInfo
+	 * is cached until expirationTime.
+	 * @param key the key of the service
+	 * @param token the token returned by {@link #start(String)}
+	 * @param serviceInfo the resolved service, or <code>null</code> if it could not be resolved
+	 * @param expirationTime the time at which the resolved records expire, or 0 to not cache serviceInfo
+	 * @param now the current time
+	 * @return <code>true</code> if the resolve is still current, <code>false</code> if the service
+	 * has been removed meanwhile and the result must be dropped
+	 */
+	public synchronized boolean complete(String key, Object token, IServiceInfo serviceInfo, long expirationTime, long now) {
+		if (pending.get(key) != token)
+			return false;
+		pending.remove(key);
+		if (serviceInfo != null && expirationTime > now)
+			put(key, serviceInfo, expirationTime, now);
+		return true;
+	}
+
+	/**
+	 * End a resolve started by {@link #start(String)} without a result, e.g. because it could not be run.
+	 * @param key the key of the service
+	 * @param token the token returned by {@link #start(String)}
+	 */
+	public synchronized void abandon(String key, Object token) {
+		if (pending.get(key) == token)
+			pending.remove(key);
+	}
+
+	/**
+	 * Remove a service whose records have been withdrawn.  Its cached entry is removed, and the
+	 * result of a pending resolve will be dropped.
+	 * @param key the key of the service
+	 */
+	public synchronized void remove(String key) {
+		pending.remove(key);
+		cache.remove(key);
+	}
+
+	public synchronized void clear() {
+		pending.clear();
+		cache.clear();
+	}
+
+	/**
+	 * @return the number of cached services, including expired ones that have not been removed yet
+	 */
+	public synchronized int getCacheSize() {
+		return cache.size();
+	}
+
+	private void put(String key, IServiceInfo serviceInfo, long expirationTime, long now) {
+		cache.put(key, new CachedServiceInfo(serviceInfo, expirationTime));
+		if (now < nextCacheSweep)
+			return;
+		nextCacheSweep = now + CACHE_SWEEP_INTERVAL;
+		for (final Iterator i = cache.values().iterator(); i.hasNext();) {
+			if (((CachedServiceInfo) i.next()).expirationTime <= now)
+				i.remove();
+		}
+	}
+}
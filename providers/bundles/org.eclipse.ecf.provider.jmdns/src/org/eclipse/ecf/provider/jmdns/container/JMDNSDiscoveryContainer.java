@@ -17,6 +17,7 @@ import java.net.URI;
 import java.util.*;
 import javax.jmdns.*;
 import javax.jmdns.ServiceInfo;
+import javax.jmdns.impl.ServiceInfoImpl;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.*;
@@ -38,6 +39,11 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 
 	public static final int DEFAULT_REQUEST_TIMEOUT = 3000;
 
+	/**
+	 * The number of threads that resolve discovered services concurrently.
+	 */
+	private static final int RESOLVER_THREADS = Integer.parseInt(System.getProperty("org.eclipse.ecf.provider.jmdns.resolverThreads", "8")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	private static int instanceCount = 0;
 
 	JmDNS jmdns = null;
@@ -53,12 +59,21 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 	 */
 	final Map services = Collections.synchronizedMap(new HashMap());
 
+	/**
+	 * The services being resolved, and the resolved services whose records have not expired yet, so
+	 * that services announced again are not resolved again.
+	 */
+	final ResolveTracker resolves = new ResolveTracker();
+
 	boolean disposed = false;
 	final Object lock = new Object();
 
 	SimpleFIFOQueue queue = null;
 	Thread notificationThread = null;
 
+	SimpleFIFOQueue resolveQueue = null;
+	Thread[] resolverThreads = null;
+
 	/**
 	 * @since 4.0
 	 */
@@ -98,6 +113,7 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 			this.targetID = (targetID1 == null) ? getConfig().getID() : targetID1;
 			fireContainerEvent(new ContainerConnectingEvent(this.getID(), this.targetID, joinContext));
 			initializeQueue();
+			initializeResolvers();
 			try {
 				this.jmdns = JmDNS.create();
 				jmdns.addServiceTypeListener(this);
@@ -137,6 +153,33 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 		notificationThread.start();
 	}
 
+	private void initializeResolvers() {
+		resolveQueue = new SimpleFIFOQueue();
+		final SimpleFIFOQueue resolves = resolveQueue;
+		resolverThreads = new Thread[RESOLVER_THREADS];
+		for (int i = 0; i < resolverThreads.length; i++) {
+			resolverThreads[i] = new Thread(new Runnable() {
+				public void run() {
+					while (!Thread.currentThread().isInterrupted()) {
+						final Runnable runnable = (Runnable) resolves.dequeue();
+						if (runnable == null)
+							break;
+						try {
+							runnable.run();
+						} catch (final Throwable t) {
+							JMDNSPlugin plugin = JMDNSPlugin.getDefault();
+							if (plugin != null) {
+								plugin.logException("handleRuntimeException", t); //$NON-NLS-1$
+							}
+						}
+					}
+				}
+			}, "JMDNS Resolver Thread " + i); //$NON-NLS-1$
+			resolverThreads[i].setDaemon(true);
+			resolverThreads[i].start();
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.ecf.core.IContainer#disconnect()
 	 */
@@ -150,6 +193,11 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 			queue.close();
 			notificationThread.interrupt();
 			notificationThread = null;
+			resolveQueue.close();
+			for (int i = 0; i < resolverThreads.length; i++)
+				resolverThreads[i].interrupt();
+			resolverThreads = null;
+			resolves.clear();
 			this.targetID = null;
 			serviceTypes.clear();
 			// @see https://bugs.eclipse.org/bugs/show_bug.cgi?id=385395
@@ -286,8 +334,8 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 
 	/**************************** JMDNS listeners ***********************************/
 
-	private void runInThread(final Runnable runnable) {
-		queue.enqueue(runnable);
+	private boolean runInThread(final Runnable runnable) {
+		return queue.enqueue(runnable);
 	}
 
 	/* (non-Javadoc)
@@ -307,31 +355,84 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 	 */
 	public void serviceAdded(final ServiceEvent arg0) {
 		Trace.trace(JMDNSPlugin.PLUGIN_ID, "serviceAdded(" + arg0.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-		runInThread(new Runnable() {
+		final String serviceType = arg0.getType();
+		final String serviceName = arg0.getName();
+		final String key = serviceType + serviceName;
+		final Object token = resolves.start(key);
+		if (token == null) {
+			// already being resolved, the pending resolve will notify the listeners
+			return;
+		}
+
+		final IServiceInfo cached = resolves.getCached(key, System.currentTimeMillis());
+		if (cached != null) {
+			handleServiceResolved(key, token, cached, 0);
+			return;
+		}
+
+		// explicitly get the service to determine the naming authority (part of the service properties).
+		// Resolving blocks until the records have been received, so it is done by the resolver threads
+		// without holding the container lock
+		final SimpleFIFOQueue resolvers = resolveQueue;
+		final boolean queued = resolvers != null && resolvers.enqueue(new Runnable() {
 			public void run() {
-				final String serviceType = arg0.getType();
-				final String serviceName = arg0.getName();
 				IServiceInfo aServiceInfo = null;
-				synchronized (lock) {
-					if (getConnectedID() == null || disposed) {
-						return;
-					}
-
-					// explicitly get the service to determine the naming authority (part of the service properties)
-					try {
-						final ServiceInfo info = arg0.getDNS().getServiceInfo(serviceType, serviceName);
+				long expirationTime = 0;
+				try {
+					final ServiceInfo info = arg0.getDNS().getServiceInfo(serviceType, serviceName, DEFAULT_REQUEST_TIMEOUT);
+					if (info != null) {
 						aServiceInfo = createIServiceInfoFromServiceInfo(info);
-						services.put(serviceType + serviceName, aServiceInfo);
-						serviceTypes.add(aServiceInfo.getServiceID().getServiceTypeID());
-					} catch (final Exception e) {
-						Trace.trace(JMDNSPlugin.PLUGIN_ID, "Failed to resolve in serviceAdded(" + arg0.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
-						return;
+						if (info instanceof ServiceInfoImpl)
+							expirationTime = ((ServiceInfoImpl) info).getExpirationTime();
 					}
+				} catch (final Exception e) {
+					Trace.catching(JMDNSPlugin.PLUGIN_ID, JMDNSDebugOptions.EXCEPTIONS_CATCHING, JMDNSDiscoveryContainer.class, "serviceAdded", e); //$NON-NLS-1$
 				}
-				fireTypeDiscovered(aServiceInfo.getServiceID().getServiceTypeID());
-				fireDiscovered(aServiceInfo);
+				handleServiceResolved(key, token, aServiceInfo, expirationTime);
 			}
 		});
+		if (!queued)
+			resolves.abandon(key, token);
+	}
+
+	/**
+	 * Passes a service announced by {@link #serviceAdded(ServiceEvent)} that has been resolved to the
+	 * notification thread, so that the listeners are notified in the order of the announcements and
+	 * removals.
+	 * @param key the service's key in {@link #services}
+	 * @param token the token of the resolve in {@link #resolves}
+	 * @param aServiceInfo the resolved service, or <code>null</code> if it could not be resolved
+	 * @param expirationTime the time until which aServiceInfo may be cached, or 0 to not cache it
+	 */
+	void handleServiceResolved(final String key, final Object token, final IServiceInfo aServiceInfo, final long expirationTime) {
+		final boolean queued = runInThread(new Runnable() {
+			public void run() {
+				addResolvedService(key, token, aServiceInfo, expirationTime);
+			}
+		});
+		if (!queued)
+			resolves.abandon(key, token);
+	}
+
+	void addResolvedService(final String key, final Object token, final IServiceInfo aServiceInfo, final long expirationTime) {
+		// Only cached if the service has not been removed in the meantime
+		if (!resolves.complete(key, token, aServiceInfo, expirationTime, System.currentTimeMillis()))
+			return;
+		if (aServiceInfo == null) {
+			Trace.trace(JMDNSPlugin.PLUGIN_ID, "Failed to resolve in serviceAdded(" + key + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+		final IServiceTypeID serviceTypeID = aServiceInfo.getServiceID().getServiceTypeID();
+		synchronized (lock) {
+			if (getConnectedID() == null || disposed) {
+				return;
+			}
+			if (!serviceTypes.contains(serviceTypeID))
+				serviceTypes.add(serviceTypeID);
+		}
+		services.put(key, aServiceInfo);
+		fireTypeDiscovered(serviceTypeID);
+		fireDiscovered(aServiceInfo);
 	}
 
 	/* (non-Javadoc)
@@ -339,14 +440,16 @@ public class JMDNSDiscoveryContainer extends AbstractDiscoveryContainerAdapter i
 	 */
 	public void serviceRemoved(final ServiceEvent arg0) {
 		Trace.trace(JMDNSPlugin.PLUGIN_ID, "serviceRemoved(" + arg0.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+		final String key = arg0.getType() + arg0.getName();
+		// the records have been withdrawn, the cached resolve is no longer valid and the result of a
+		// pending resolve is dropped
+		resolves.remove(key);
 		runInThread(new Runnable() {
 			public void run() {
 				if (getConnectedID() == null || disposed) {
 					return;
 				}
-				final String serviceType = arg0.getType();
-				final String serviceName = arg0.getName();
-				IServiceInfo aServiceInfo = (IServiceInfo) services.remove(serviceType + serviceName);
+				IServiceInfo aServiceInfo = (IServiceInfo) services.remove(key);
 				if (aServiceInfo == null) {
 					Trace.trace(JMDNSPlugin.PLUGIN_ID, "Failed to resolve in serviceRemoved(" + arg0.getName() + ")"); //$NON-NLS-1$ //$NON-NLS-2$
 					return;
@@ -103,6 +103,14 @@ public class Activator implements BundleActivator {
 		return context;
 	}
 
+	/**
+	 * @return Bundle this bundle, or <code>null</code> if not started in a framework
+	 */
+	public Bundle getBundle() {
+		final BundleContext c = context;
+		return (c == null) ? null : c.getBundle();
+	}
+
 	/**
 	 * Returns the shared instance
 	 * 
@@ -124,6 +132,8 @@ public class Activator implements BundleActivator {
 	}
 
 	protected LogService getLogService() {
+		if (this.context == null)
+			return new SystemLogService(PLUGIN_ID);
 		if (logServiceTracker == null) {
 			logServiceTracker = new ServiceTracker(this.context, LogService.class.getName(), null);
 			logServiceTracker.open();
@@ -21,10 +21,13 @@ import org.eclipse.ecf.core.ContainerConnectException;
 import org.eclipse.ecf.core.events.*;
 import org.eclipse.ecf.core.identity.*;
 import org.eclipse.ecf.core.jobs.JobsExecutor;
+import org.eclipse.ecf.core.metrics.*;
 import org.eclipse.ecf.core.security.IConnectContext;
 import org.eclipse.ecf.core.sharedobject.*;
 import org.eclipse.ecf.core.sharedobject.events.ISharedObjectActivatedEvent;
 import org.eclipse.ecf.core.status.SerializableStatus;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.core.util.*;
 import org.eclipse.ecf.core.util.reflection.ClassUtil;
 import org.eclipse.ecf.internal.provider.remoteservice.Activator;
@@ -33,6 +36,7 @@ import org.eclipse.ecf.remoteservice.*;
 import org.eclipse.ecf.remoteservice.asyncproxy.AsyncReturnUtil;
 import org.eclipse.ecf.remoteservice.events.*;
 import org.eclipse.ecf.remoteservice.util.AsyncUtil;
+import org.eclipse.ecf.remoteservice.util.TracingUtil;
 import org.eclipse.equinox.concurrent.future.*;
 import org.eclipse.osgi.framework.eventmgr.*;
 import org.osgi.framework.InvalidSyntaxException;
@@ -135,6 +139,14 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	private IExecutor requestExecutor;
 
+	// Metrics are named ecf.remoteservice.<containerID>.<metric>, and are created in initialize
+	private String metricsPrefix;
+	private ICounter callsSent;
+	private ICounter callFailures;
+	private IHistogram callTime;
+	private ICounter callsReceived;
+	private IHistogram invokeTime;
+
 	private Object remoteServiceCallPolicyLock = new Object();
 	private IRemoteServiceCallPolicy remoteServiceCallPolicy;
 
@@ -447,6 +459,13 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		Trace.entering(Activator.PLUGIN_ID, IRemoteServiceProviderDebugOptions.METHODS_ENTERING, this.getClass(), "initialize"); //$NON-NLS-1$
 		ID localContainerID = getLocalContainerID();
 		localRegistry = (localContainerID == null) ? new RemoteServiceRegistryImpl() : new RemoteServiceRegistryImpl(localContainerID);
+		final IMetricsRegistry metrics = MetricsRegistry.getDefault();
+		metricsPrefix = "ecf.remoteservice." + ((localContainerID == null) ? getID().getName() : localContainerID.getName()) + "."; //$NON-NLS-1$ //$NON-NLS-2$
+		callsSent = metrics.counter(metricsPrefix + "calls.sent"); //$NON-NLS-1$
+		callFailures = metrics.counter(metricsPrefix + "calls.failed"); //$NON-NLS-1$
+		callTime = metrics.histogram(metricsPrefix + "call.time"); //$NON-NLS-1$
+		callsReceived = metrics.counter(metricsPrefix + "calls.received"); //$NON-NLS-1$
+		invokeTime = metrics.histogram(metricsPrefix + "invoke.time"); //$NON-NLS-1$
 		super.addEventProcessor(new IEventProcessor() {
 			public boolean processEvent(Event arg0) {
 				if (arg0 instanceof IContainerConnectedEvent) {
@@ -504,6 +523,8 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		synchronized (localRegistryUnregistrationTargets) {
 			localRegistryUnregistrationTargets.clear();
 		}
+		if (metricsPrefix != null)
+			MetricsRegistry.getDefault().removeAll(metricsPrefix);
 		super.dispose(containerID);
 	}
 
@@ -879,7 +900,14 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 
 	// generic
 	private Request createRequest(RemoteServiceRegistrationImpl remoteRegistration, IRemoteCall call, IRemoteCallListener listener) {
-		return new Request(this.getLocalContainerID(), remoteRegistration.getServiceId(), RemoteCallImpl.createRemoteCall(null, call.getMethod(), call.getParameters(), call.getTimeout()), listener);
+		final RemoteCallImpl remoteCall = RemoteCallImpl.createRemoteCall(null, call.getMethod(), call.getParameters(), call.getTimeout());
+		final Request request = new Request(this.getLocalContainerID(), remoteRegistration.getServiceId(), remoteCall, listener);
+		request.span = Tracing.startSpan("ecf.generic.call"); //$NON-NLS-1$
+		if (request.span.isRecording())
+			request.span.setAttribute("method", call.getMethod()); //$NON-NLS-1$
+		// Call headers and trace context go to the remote container with the call
+		remoteCall.setHeaders(TracingUtil.getHeaders(call, request.span));
+		return request;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -961,8 +989,13 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 					}
 				}
 			}
-			if (!doneWaiting)
-				throw new ServiceException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", ServiceException.REMOTE, new TimeoutException(call.getTimeout())); //$NON-NLS-1$ //$NON-NLS-2$
+			if (!doneWaiting) {
+				final TimeoutException te = new TimeoutException(call.getTimeout());
+				// A late response no longer finds the request, and is not recorded again
+				if (removeRequest(request))
+					recordCallComplete(request, te);
+				throw new ServiceException("Request timed out after " + Long.toString(call.getTimeout()) + "ms", ServiceException.REMOTE, te); //$NON-NLS-1$ //$NON-NLS-2$
+			}
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			throw new ECFException("Error sending request", e); //$NON-NLS-1$
@@ -1415,8 +1448,11 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST_BYTES, serializeCallRequest(request)));
 		} catch (final IOException e) {
 			removeRequest(request);
+			recordCallComplete(request, e);
 			throw e;
 		}
+		if (callsSent != null)
+			callsSent.increment();
 		return request;
 	}
 
@@ -1424,6 +1460,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 * @since 4.6
 	 */
 	protected byte[] serializeCallRequest(Request request) throws IOException {
+		final ISpan span = Tracing.startSpan("ecf.generic.serialize", request.span); //$NON-NLS-1$
 		try {
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<byte[]>() {
 				@Override
@@ -1443,7 +1480,10 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			if (t != null) {
 				t.printStackTrace(System.err);
 			}
+			span.setError(t);
 			throw new IOException(msg, t);
+		} finally {
+			span.end();
 		}
 	}
 
@@ -1455,7 +1495,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<Request>() {
 				@Override
 				public Request run() throws Exception {
-					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getContext().getBundle(), new ByteArrayInputStream(requestBytes));
+					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getBundle(), new ByteArrayInputStream(requestBytes));
 					long svcId = oins.readLong();
 					RemoteServiceRegistrationImpl reg = null;
 					// Find registration for this call request
@@ -1522,7 +1562,7 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			return AccessController.doPrivileged(new PrivilegedExceptionAction<Response>() {
 				@Override
 				public Response run() throws Exception {
-					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getContext().getBundle(), new ByteArrayInputStream(responseBytes));
+					OSGIObjectInputStream oins = new OSGIObjectInputStream(Activator.getDefault().getBundle(), new ByteArrayInputStream(responseBytes));
 
 					ID targetContainerID;
 					try {
@@ -1625,9 +1665,26 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 	 */
 	@SuppressWarnings("unchecked")
 	protected void executeRequest(IExecutor executor, final Request request, final ID responseTarget, final RemoteServiceRegistrationImpl localRegistration, final boolean respond) {
+		// Continues the trace of the caller.  The queue span covers the wait for an executor thread
+		final ISpan span = Tracing.startSpan("ecf.generic.execute", request.getCall().getHeaders()); //$NON-NLS-1$
+		final ISpan queueSpan = Tracing.startSpan("ecf.generic.queue", span); //$NON-NLS-1$
 		IProgressRunnable runnable = new IProgressRunnable() {
 			public Object run(IProgressMonitor monitor) throws Exception {
+				queueSpan.end();
+				final ISpan previous = Tracing.setCurrentSpan(span);
+				try {
+					runRequest();
+				} finally {
+					Tracing.restoreCurrentSpan(previous);
+					span.end();
+				}
+				return null;
+			}
+
+			void runRequest() {
 				final RemoteCallImpl call = request.getCall();
+				if (span.isRecording())
+					span.setAttribute("method", call.getMethod()); //$NON-NLS-1$
 				Response response = null;
 				Object result = null;
 				try {
@@ -1637,7 +1694,17 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 					if (callPolicy != null)
 						callPolicy.checkRemoteCall(responseTarget, localRegistration, call);
 
-					result = invokeLocal(localRegistration, call);
+					final long invokeStart = System.nanoTime();
+					final ISpan invokeSpan = Tracing.startSpan("ecf.generic.invoke", span); //$NON-NLS-1$
+					try {
+						result = invokeLocal(localRegistration, call);
+					} finally {
+						invokeSpan.end();
+						if (invokeTime != null) {
+							invokeTime.recordSince(invokeStart);
+							callsReceived.increment();
+						}
+					}
 
 					response = new Response(request.getRequestId(), result);
 					// Invocation target exception happens if the local method being invoked throws (cause)
@@ -1652,10 +1719,17 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 					response = new Response(request.getRequestId(), getSerializableException(e));
 					logRemoteCallException("No class def found error invoking remote service.  Remote request=" + request, e); //$NON-NLS-1$
 				}
+				if (response.hadException())
+					span.setError(response.getException());
 				// Now send response back to responseTarget (original requestor)
-				if (respond)
-					sendCallResponse(responseTarget, response);
-				return null;
+				if (respond) {
+					final ISpan respondSpan = Tracing.startSpan("ecf.generic.respond", span); //$NON-NLS-1$
+					try {
+						sendCallResponse(responseTarget, response);
+					} finally {
+						respondSpan.end();
+					}
+				}
 			}
 		};
 		// Now actually execute the runnable asynchronously using the executor
@@ -1764,9 +1838,12 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		try {
 			addRequest(request);
 			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(CALL_REQUEST_BYTES, serializeCallRequest(request)));
+			if (callsSent != null)
+				callsSent.increment();
 		} catch (final IOException e) {
 			log(CALL_REQUEST_ERROR_CODE, CALL_REQUEST_ERROR_MESSAGE, e);
 			removeRequest(request);
+			recordCallComplete(request, e);
 			fireCallCompleteEvent(listener, request.getRequestId(), null, true, e);
 		}
 	}
@@ -1793,13 +1870,30 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 		}
 	}
 
+	private void recordCallComplete(Request request, Throwable failure) {
+		// The span may only be ended once, e.g. a send failure racing with a response
+		if (!request.setCallCompleted())
+			return;
+		if (failure != null)
+			request.span.setError(failure);
+		request.span.end();
+		if (callTime == null)
+			return;
+		callTime.recordSince(request.createTime);
+		if (failure != null)
+			callFailures.increment();
+	}
+
 	protected void handleCallResponse(Response response) {
 		final Request request = getRequest(response.getRequestId());
 		if (request == null) {
 			log(REQUEST_NOT_FOUND_ERROR_CODE, REQUEST_NOT_FOUND_ERROR_MESSAGE, new NullPointerException());
 			return;
 		}
-		removeRequest(request);
+		// Already removed by a timed out caller
+		if (!removeRequest(request))
+			return;
+		recordCallComplete(request, response.getException());
 		final IRemoteCallListener listener = request.getListener();
 		if (listener != null) {
 			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
@@ -1830,7 +1924,10 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			log(REQUEST_NOT_FOUND_ERROR_CODE, REQUEST_NOT_FOUND_ERROR_MESSAGE, new NullPointerException());
 			return;
 		}
-		removeRequest(request);
+		// Already removed by a timed out caller
+		if (!removeRequest(request))
+			return;
+		recordCallComplete(request, response.getException());
 		final IRemoteCallListener listener = request.getListener();
 		if (listener != null) {
 			fireCallCompleteEvent(listener, request.getRequestId(), response.getResponse(), response.hadException(), response.getException());
@@ -1850,7 +1947,11 @@ public class RegistrySharedObject extends BaseSharedObject implements IRemoteSer
 			sendSharedObjectMsgTo(remoteRegistration.getContainerID(), SharedObjectMsg.createMsg(FIRE_REQUEST, request));
 		} catch (final IOException e) {
 			log(FIRE_REQUEST_ERROR_CODE, FIRE_REQUEST_ERROR_MESSAGE, e);
+			request.span.setError(e);
 			throw new ECFException("IOException sending fire request", e); //$NON-NLS-1$
+		} finally {
+			// No response for fire requests
+			request.span.end();
 		}
 		Trace.exiting(Activator.PLUGIN_ID, IRemoteServiceProviderDebugOptions.METHODS_EXITING, this.getClass(), "sendFireRequest", request); //$NON-NLS-1$
 		return request;
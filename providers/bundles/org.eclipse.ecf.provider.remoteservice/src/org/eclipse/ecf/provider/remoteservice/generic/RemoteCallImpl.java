@@ -13,15 +13,21 @@ package org.eclipse.ecf.provider.remoteservice.generic;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Map;
 import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
 import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteCallHeaders;
 
-public class RemoteCallImpl extends SharedObjectMsg implements IRemoteCall, Serializable {
+public class RemoteCallImpl extends SharedObjectMsg implements IRemoteCall, IRemoteCallHeaders, Serializable {
 
 	private static final long serialVersionUID = 1L;
 
 	long timeout = IRemoteCall.DEFAULT_TIMEOUT;
 
+	// Added in 4.7.  Remote containers of older versions ignore the field, and
+	// it's null when received from them
+	Map<String, String> headers;
+
 	/**
 	 * @param clazz the class
 	 * @param method the method
@@ -43,6 +49,20 @@ public class RemoteCallImpl extends SharedObjectMsg implements IRemoteCall, Seri
 		return timeout;
 	}
 
+	/**
+	 * @since 4.7
+	 */
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @since 4.7
+	 */
+	public void setHeaders(Map<String, String> headers) {
+		this.headers = headers;
+	}
+
 	public String toString() {
 		StringBuffer buf = new StringBuffer("RemoteCallImpl["); //$NON-NLS-1$
 		synchronized (buf) {
@@ -52,7 +72,10 @@ public class RemoteCallImpl extends SharedObjectMsg implements IRemoteCall, Seri
 					.append(parameters == null ? "" : Arrays.asList(parameters) //$NON-NLS-1$
 							.toString())
 					.append(';');
-			buf.append("timeout=").append(timeout).append(']'); //$NON-NLS-1$
+			buf.append("timeout=").append(timeout); //$NON-NLS-1$
+			if (headers != null)
+				buf.append(";headers=").append(headers); //$NON-NLS-1$
+			buf.append(']');
 		}
 		return buf.toString();
 	}
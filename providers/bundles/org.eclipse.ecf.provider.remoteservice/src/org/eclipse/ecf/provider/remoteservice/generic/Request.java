@@ -13,6 +13,8 @@ package org.eclipse.ecf.provider.remoteservice.generic;
 
 import java.io.Serializable;
 import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.Tracing;
 import org.eclipse.ecf.remoteservice.IRemoteCallListener;
 
 public class Request implements Serializable {
@@ -35,6 +37,26 @@ public class Request implements Serializable {
 
 	transient IRemoteCallListener listener = null;
 
+	// Time the request was created, for call latency metrics.  Not sent to the remote container
+	transient long createTime = System.nanoTime();
+
+	// Span of the call.  Ended when the response is received
+	transient ISpan span = Tracing.NOOP_SPAN;
+
+	// Set once the call has been recorded in the span and metrics
+	private transient boolean callCompleted = false;
+
+	/**
+	 * @return true the first time it is called for this request, false
+	 *         afterwards
+	 */
+	synchronized boolean setCallCompleted() {
+		if (callCompleted)
+			return false;
+		callCompleted = true;
+		return true;
+	}
+
 	private synchronized static long getNextRequestId() {
 		long result = nextRequestId;
 		nextRequestId = (nextRequestId == Long.MAX_VALUE) ? 0L : nextRequestId + 1;
@@ -0,0 +1,311 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.remoteservice.eventadmin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Buffers serialized event message data per target and hands it to a
+ * {@link Sender} as a single batch, either when a batch reaches its maximum
+ * size or when the batch window expires.
+ * <p>
+ * A member receives both the batches sent to the entire group and the batches
+ * sent to it alone, so these two kinds of batches must not overtake each
+ * other. Therefore, the buffered group batch is sent before any event is
+ * buffered for a single target, and the buffered single target batches are
+ * sent before any event is buffered for the group.
+ * </p>
+ * <p>
+ * Batches are taken from the buffers under a lock, but sent outside of it,
+ * so that adding events is not held up by the sending of other batches.
+ * Batches are sent in the order in which they were taken, which delivers the
+ * events to each member in the order they were added. After
+ * {@link #close()}, events are sent immediately, still after all batches
+ * taken before.
+ * </p>
+ */
+public class EventBatcher {
+
+	public interface Sender {
+		/**
+		 * Send a batch of message data to target.
+		 *
+		 * @param target
+		 *            the target. May be <code>null</code> (entire group).
+		 * @param batch
+		 *            the message data (each element an Object[] as created
+		 *            for a single event) in posting order.
+		 * @throws IOException
+		 *             if the batch cannot be sent
+		 */
+		void sendBatch(ID target, Object[] batch) throws IOException;
+
+		/**
+		 * Handle the failure to send a batch that was flushed by the batch
+		 * window timer, or that was discarded because an earlier batch
+		 * failed. Failures of batches sent by {@link EventBatcher#add(ID, Object[])}
+		 * or {@link EventBatcher#flush(boolean)} with rethrow are thrown to
+		 * the caller instead.
+		 *
+		 * @param target
+		 *            the target. May be <code>null</code> (entire group).
+		 * @param batch
+		 *            the message data that was not sent.
+		 * @param e
+		 *            the exception.
+		 */
+		void handleBatchException(ID target, Object[] batch, IOException e);
+	}
+
+	private static final Object GROUP = new Object();
+
+	private final Sender sender;
+	private final int maxBatchSize;
+	// Map<ID|GROUP,List<Object[]>>, guarded by lock. Either only the GROUP
+	// buffer or only target buffers are non-empty.
+	private final Map buffers = new LinkedHashMap();
+	private final Object lock = new Object();
+	private Timer timer;
+	private boolean closed;
+	// The number of batch lists taken so far, guarded by lock
+	private long taken;
+	// The number of batch lists sent so far, guarded by sendLock
+	private long sent;
+	private final Object sendLock = new Object();
+
+	/**
+	 * @param sender
+	 *            the sender of batches. Must not be <code>null</code>.
+	 * @param maxBatchSize
+	 *            the number of events after which a batch is sent
+	 *            immediately. Must be > 1.
+	 * @param batchWindow
+	 *            the maximum time (in ms) an event is buffered. Must be > 0.
+	 */
+	public EventBatcher(Sender sender, int maxBatchSize, long batchWindow) {
+		if (maxBatchSize <= 1 || batchWindow <= 0)
+			throw new IllegalArgumentException(
+					"maxBatchSize must be > 1 and batchWindow > 0"); //$NON-NLS-1$
+		this.sender = sender;
+		this.maxBatchSize = maxBatchSize;
+		this.timer = new Timer("Distributed EventAdmin Batch Flusher", true); //$NON-NLS-1$
+		this.timer.schedule(new TimerTask() {
+			public void run() {
+				try {
+					flush(false);
+				} catch (IOException e) {
+					// not thrown when rethrow == false
+				}
+			}
+		}, batchWindow, batchWindow);
+	}
+
+	/**
+	 * Add message data for target to the current batch for target, sending
+	 * the batch if it is full.
+	 *
+	 * @param target
+	 *            the target. May be <code>null</code> (entire group).
+	 * @param messageData
+	 *            the message data for a single event.
+	 * @throws IOException
+	 *             if a batch cannot be sent
+	 */
+	public void add(ID target, Object[] messageData) throws IOException {
+		final Object key = (target == null) ? GROUP : target;
+		// List<Batch> to send
+		final List batches = new ArrayList();
+		final long ticket;
+		synchronized (lock) {
+			// Send what could otherwise be overtaken by this event
+			if (key == GROUP) {
+				if (!buffers.isEmpty() && !buffers.containsKey(GROUP))
+					takeAll(batches);
+			} else if (buffers.containsKey(GROUP)) {
+				takeAll(batches);
+			}
+			List buffer = (List) buffers.get(key);
+			if (buffer == null) {
+				buffer = new ArrayList(closed ? 1 : maxBatchSize);
+				buffers.put(key, buffer);
+			}
+			buffer.add(messageData);
+			if (closed || buffer.size() >= maxBatchSize) {
+				buffers.remove(key);
+				batches.add(new Batch(key, buffer));
+			}
+			if (batches.isEmpty())
+				return;
+			ticket = taken++;
+		}
+		send(ticket, batches, true);
+	}
+
+	/**
+	 * Send all buffered batches now. Failures are passed to
+	 * {@link Sender#handleBatchException(ID, Object[], IOException)}.
+	 */
+	public void flush() {
+		try {
+			flush(false);
+		} catch (IOException e) {
+			// not thrown when rethrow == false
+		}
+	}
+
+	/**
+	 * Send all buffered batches now.
+	 *
+	 * @param rethrow
+	 *            if <code>true</code>, the first failure is thrown, and the
+	 *            batches not sent after it are passed to
+	 *            {@link Sender#handleBatchException(ID, Object[], IOException)}.
+	 *            If <code>false</code>, every failure is passed to
+	 *            handleBatchException.
+	 * @throws IOException
+	 *             if rethrow is <code>true</code> and a batch cannot be sent
+	 */
+	public void flush(boolean rethrow) throws IOException {
+		final List batches = new ArrayList();
+		final long ticket;
+		synchronized (lock) {
+			if (buffers.isEmpty())
+				return;
+			takeAll(batches);
+			ticket = taken++;
+		}
+		send(ticket, batches, rethrow);
+	}
+
+	// Must be called holding lock
+	private void takeAll(List batches) {
+		for (Iterator i = buffers.entrySet().iterator(); i.hasNext();) {
+			final Map.Entry entry = (Map.Entry) i.next();
+			batches.add(new Batch(entry.getKey(), (List) entry.getValue()));
+			i.remove();
+		}
+	}
+
+	// Sends batches once all batches taken before them have been sent
+	private void send(long ticket, List batches, boolean rethrow) throws IOException {
+		boolean interrupted = false;
+		synchronized (sendLock) {
+			// Must not give up the turn, or all later batches would wait forever
+			while (sent != ticket) {
+				try {
+					sendLock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		try {
+			IOException failure = null;
+			for (Iterator i = batches.iterator(); i.hasNext();) {
+				final Batch batch = (Batch) i.next();
+				if (failure != null) {
+					sender.handleBatchException(batch.getTarget(), batch.getData(), failure);
+					continue;
+				}
+				try {
+					if (!batch.isEmpty())
+						sender.sendBatch(batch.getTarget(), batch.getData());
+				} catch (IOException e) {
+					if (!rethrow)
+						sender.handleBatchException(batch.getTarget(), batch.getData(), e);
+					else
+						failure = e;
+				}
+			}
+			if (failure != null)
+				throw failure;
+		} finally {
+			synchronized (sendLock) {
+				sent++;
+				sendLock.notifyAll();
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Remove any buffered batch for target without sending it (e.g. because
+	 * target has left the group).
+	 *
+	 * @param target
+	 *            the target. Must not be <code>null</code>.
+	 */
+	public void discard(ID target) {
+		synchronized (lock) {
+			buffers.remove(target);
+		}
+	}
+
+	/**
+	 * Send all buffered batches and stop the batch window timer. Events added
+	 * afterwards are sent immediately.
+	 */
+	public void close() {
+		synchronized (lock) {
+			if (closed)
+				return;
+			closed = true;
+			timer.cancel();
+			timer = null;
+		}
+		flush();
+	}
+
+	public String toString() {
+		StringBuffer buffer = new StringBuffer("EventBatcher[maxBatchSize="); //$NON-NLS-1$
+		buffer.append(maxBatchSize).append(", pending="); //$NON-NLS-1$
+		synchronized (lock) {
+			for (Iterator i = buffers.values().iterator(); i.hasNext();)
+				buffer.append(((List) i.next()).size()).append(i.hasNext() ? "," : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		buffer.append("]"); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	private static class Batch {
+		private final Object key;
+		private final List buffer;
+
+		Batch(Object key, List buffer) {
+			this.key = key;
+			this.buffer = buffer;
+		}
+
+		ID getTarget() {
+			return (key == GROUP) ? null : (ID) key;
+		}
+
+		Object[] getData() {
+			return buffer.toArray();
+		}
+
+		boolean isEmpty() {
+			return buffer.isEmpty();
+		}
+	}
+}
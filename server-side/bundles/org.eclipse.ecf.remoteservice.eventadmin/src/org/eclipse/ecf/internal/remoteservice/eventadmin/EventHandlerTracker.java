@@ -17,6 +17,7 @@ import java.security.Permission;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +39,8 @@ public class EventHandlerTracker extends ServiceTracker implements EventDispatch
 	private final Map partialWildcard;
 	// Map<String,List<EventHandlerWrapper>> key is topic name
 	private final Map topicName;
+	// notified when the set of subscribed topics changes
+	private volatile Runnable topicsChangedCallback;
 
 	public EventHandlerTracker(BundleContext context, LogService log) {
 		super(context, EventHandler.class.getName(), null);
@@ -55,20 +58,23 @@ public class EventHandlerTracker extends ServiceTracker implements EventDispatch
 				bucket(wrapper);
 			}
 		}
+		fireTopicsChanged();
 		return wrapper;
 	}
 
 	public void modifiedService(ServiceReference reference, Object service) {
 		EventHandlerWrapper wrapper = (EventHandlerWrapper) service;
+		boolean rebucketed = false;
 		synchronized (this) {
 			unbucket(wrapper);
 			if (wrapper.init()) {
 				bucket(wrapper);
-				return;
+				rebucketed = true;
 			}
 		}
-
-		wrapper.flush(); // needs to be called outside sync region
+		fireTopicsChanged();
+		if (!rebucketed)
+			wrapper.flush(); // needs to be called outside sync region
 	}
 
 	public void removedService(ServiceReference reference, Object service) {
@@ -76,9 +82,42 @@ public class EventHandlerTracker extends ServiceTracker implements EventDispatch
 		synchronized (this) {
 			unbucket(wrapper);
 		}
+		fireTopicsChanged();
 		wrapper.flush(); // needs to be called outside sync region
 	}
 
+	/**
+	 * Set the callback to run (outside of any lock) whenever a handler is
+	 * added, modified or removed.
+	 * 
+	 * @param callback
+	 *            the callback. May be <code>null</code>.
+	 */
+	public void setTopicsChangedCallback(Runnable callback) {
+		this.topicsChangedCallback = callback;
+	}
+
+	private void fireTopicsChanged() {
+		final Runnable callback = topicsChangedCallback;
+		if (callback != null)
+			callback.run();
+	}
+
+	/**
+	 * Return the topic patterns of all tracked handlers. Partial wildcards are
+	 * returned with their trailing "/*".
+	 * 
+	 * @return the subscribed topic patterns
+	 */
+	public synchronized String[] getTopics() {
+		if (globalWildcard.size() > 0)
+			return new String[] { "*" }; //$NON-NLS-1$
+		List topics = new ArrayList(topicName.keySet());
+		for (Iterator i = partialWildcard.keySet().iterator(); i.hasNext();)
+			topics.add(i.next() + "/*"); //$NON-NLS-1$
+		return (String[]) topics.toArray(new String[topics.size()]);
+	}
+
 	/**
 	 * Place the wrapper into the appropriate buckets. This is a performance
 	 * optimization for event delivery.
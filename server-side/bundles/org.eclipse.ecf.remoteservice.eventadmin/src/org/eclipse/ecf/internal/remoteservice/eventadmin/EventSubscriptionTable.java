@@ -0,0 +1,146 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.internal.remoteservice.eventadmin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.ecf.core.identity.ID;
+
+/**
+ * Replicated table of the topic subscriptions advertised by the remote members
+ * of a group. Members that have not (yet) advertised their subscriptions are
+ * considered to be interested in every topic.
+ */
+public class EventSubscriptionTable {
+
+	static class Subscription {
+		final String[] topics;
+		final Set excludedTopics;
+
+		Subscription(String[] topics, String[] excludedTopics) {
+			this.topics = (topics == null) ? new String[0] : topics;
+			this.excludedTopics = (excludedTopics == null) ? Collections.EMPTY_SET
+					: new HashSet(Arrays.asList(excludedTopics));
+		}
+
+		boolean matches(String topic) {
+			if (excludedTopics.contains(topic))
+				return false;
+			for (int i = 0; i < topics.length; i++)
+				if (topicMatches(topics[i], topic))
+					return true;
+			return false;
+		}
+
+		public String toString() {
+			return "Subscription[topics=" + Arrays.asList(topics) + ", excludedTopics=" + excludedTopics + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	// Map<ID,Subscription>
+	private final Map subscriptions = new ConcurrentHashMap();
+
+	/**
+	 * Test whether the given {@link org.osgi.service.event.EventHandler} topic
+	 * pattern matches the given event topic. Patterns are either
+	 * <code>*</code>, a topic prefix ending in <code>/*</code>, or an exact
+	 * topic name.
+	 *
+	 * @param pattern
+	 *            the subscribed topic pattern. Must not be <code>null</code>.
+	 * @param topic
+	 *            the event topic. Must not be <code>null</code>.
+	 * @return <code>true</code> if pattern matches topic
+	 */
+	public static boolean topicMatches(String pattern, String topic) {
+		if (pattern.equals("*")) //$NON-NLS-1$
+			return true;
+		if (pattern.endsWith("/*")) { //$NON-NLS-1$
+			// Same as EventHandlerTracker.getHandlers: "a/b/*" matches "a/b",
+			// "a/b/c" and "a/b/c/d"
+			int prefixLength = pattern.length() - 2;
+			if (!topic.regionMatches(0, pattern, 0, prefixLength))
+				return false;
+			return topic.length() == prefixLength || topic.charAt(prefixLength) == '/';
+		}
+		return pattern.equals(topic);
+	}
+
+	/**
+	 * Record the subscriptions advertised by a remote member, replacing any
+	 * previous advertisement from that member.
+	 *
+	 * @param memberID
+	 *            the remote container ID. Must not be <code>null</code>.
+	 * @param topics
+	 *            the topic patterns subscribed to by member. May be
+	 *            <code>null</code>.
+	 * @param excludedTopics
+	 *            topics that the member does not want to receive. May be
+	 *            <code>null</code>.
+	 */
+	public void update(ID memberID, String[] topics, String[] excludedTopics) {
+		subscriptions.put(memberID, new Subscription(topics, excludedTopics));
+	}
+
+	public void remove(ID memberID) {
+		subscriptions.remove(memberID);
+	}
+
+	public void clear() {
+		subscriptions.clear();
+	}
+
+	public boolean isInterested(ID memberID, String topic) {
+		final Subscription subscription = (Subscription) subscriptions.get(memberID);
+		return subscription == null || subscription.matches(topic);
+	}
+
+	/**
+	 * Get the members interested in the given topic.
+	 *
+	 * @param members
+	 *            the current remote group members. Must not be
+	 *            <code>null</code>.
+	 * @param topic
+	 *            the event topic. Must not be <code>null</code>.
+	 * @return ID[] the interested members, or <code>null</code> if every
+	 *         member is interested.
+	 */
+	public ID[] getInterestedMembers(ID[] members, String topic) {
+		List interested = null;
+		for (int i = 0; i < members.length; i++) {
+			if (isInterested(members[i], topic)) {
+				if (interested != null)
+					interested.add(members[i]);
+			} else if (interested == null) {
+				// First uninterested member, so copy everyone before it
+				interested = new ArrayList(members.length);
+				for (int j = 0; j < i; j++)
+					interested.add(members[j]);
+			}
+		}
+		return (interested == null) ? null : (ID[]) interested.toArray(new ID[interested.size()]);
+	}
+
+	public String toString() {
+		return "EventSubscriptionTable[" + subscriptions + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -17,6 +17,7 @@ package org.eclipse.ecf.remoteservice.eventadmin;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.security.Permission;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,17 +28,26 @@ import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.events.IContainerConnectedEvent;
+import org.eclipse.ecf.core.events.IContainerDisconnectedEvent;
+import org.eclipse.ecf.core.events.IContainerEjectedEvent;
 import org.eclipse.ecf.core.identity.ID;
 import org.eclipse.ecf.core.sharedobject.BaseSharedObject;
+import org.eclipse.ecf.core.sharedobject.SharedObjectInitException;
 import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
+import org.eclipse.ecf.core.sharedobject.events.ISharedObjectActivatedEvent;
 import org.eclipse.ecf.core.sharedobject.events.ISharedObjectCreateResponseEvent;
 import org.eclipse.ecf.core.sharedobject.events.ISharedObjectMessageEvent;
+import org.eclipse.ecf.core.util.IEventProcessor;
 import org.eclipse.ecf.internal.remoteservice.eventadmin.DefaultSerializationHandler;
+import org.eclipse.ecf.internal.remoteservice.eventadmin.EventBatcher;
 import org.eclipse.ecf.internal.remoteservice.eventadmin.EventHandlerTracker;
 import org.eclipse.ecf.internal.remoteservice.eventadmin.EventHandlerWrapper;
+import org.eclipse.ecf.internal.remoteservice.eventadmin.EventSubscriptionTable;
 import org.eclipse.ecf.internal.remoteservice.eventadmin.LogTracker;
 import org.eclipse.ecf.remoteservice.eventadmin.serialization.SerializationHandler;
 import org.eclipse.osgi.framework.eventmgr.CopyOnWriteIdentityMap;
+import org.eclipse.osgi.framework.eventmgr.EventDispatcher;
 import org.eclipse.osgi.framework.eventmgr.EventManager;
 import org.eclipse.osgi.framework.eventmgr.ListenerQueue;
 import org.osgi.framework.BundleContext;
@@ -70,10 +80,31 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 	private ServiceTracker etfServiceTracker;
 	private ServiceTracker shServiceTracker;
 	private final Set eventFilters = new HashSet();
+	// topics advertised to peers as not to be sent to us
+	private final Set receiveExclusions = new HashSet();
 	private final Map topic2serializationHandler = new HashMap();
 
 	private static final String SHARED_OBJECT_MESSAGE_METHOD = "__handlePostEventSharedObjectMsg";
 
+	private static final String SUBSCRIPTIONS_MESSAGE_METHOD = "__handleSubscriptionsSharedObjectMsg";
+
+	private static final String BATCH_MESSAGE_METHOD = "__handlePostEventBatchSharedObjectMsg";
+
+	/**
+	 * System property to enable interest-based routing by default. See
+	 * {@link #setInterestRouting(boolean)}.
+	 * 
+	 * @since 1.4
+	 */
+	public static final String INTEREST_ROUTING_PROPERTY = DistributedEventAdmin.class
+			.getName() + ".InterestRouting";
+
+	private volatile boolean interestRouting = Boolean
+			.getBoolean(INTEREST_ROUTING_PROPERTY);
+	private final EventSubscriptionTable subscriptionTable = new EventSubscriptionTable();
+	private volatile EventBatcher batcher;
+	private final Object batchingLock = new Object();
+
 	/**
 	 * @since 1.2
 	 * @noreference This field is not intended to be referenced by clients.
@@ -143,6 +174,11 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 		eventManager = new EventManager(
 				"Distributed EventAdmin Async Event Dispatcher Thread",
 				eventGroup);
+		eventHandlerTracker.setTopicsChangedCallback(new Runnable() {
+			public void run() {
+				subscriptionsChanged();
+			}
+		});
 		eventHandlerTracker.open();
 		
 		// Other services can contribute Event topic filters which will be ignored
@@ -197,6 +233,8 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 	 * registration with the OSGi service registry.
 	 */
 	public void stop() {
+		setBatching(0, 0);
+		eventHandlerTracker.setTopicsChangedCallback(null);
 		eventHandlerTracker.close();
 		if (eventManager != null) {
 			eventManager.close();
@@ -214,6 +252,282 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 		}
 	}
 
+	/**
+	 * @since 1.4
+	 */
+	protected void initialize() throws SharedObjectInitException {
+		super.initialize();
+		addEventProcessor(new IEventProcessor() {
+			public boolean processEvent(org.eclipse.ecf.core.util.Event event) {
+				if (event instanceof IContainerConnectedEvent) {
+					handleMemberJoined(((IContainerConnectedEvent) event)
+							.getTargetID());
+				} else if (event instanceof IContainerDisconnectedEvent) {
+					handleMemberDeparted(((IContainerDisconnectedEvent) event)
+							.getTargetID());
+				} else if (event instanceof IContainerEjectedEvent) {
+					subscriptionTable.clear();
+				} else if (event instanceof ISharedObjectActivatedEvent) {
+					if (interestRouting
+							&& getID().equals(
+							((ISharedObjectActivatedEvent) event)
+									.getActivatedID()))
+						sendSubscriptions(null);
+				}
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * Enable or disable interest-based routing of posted events. When
+	 * enabled, this distributed event admin advertises the topics of its
+	 * local {@link EventHandler}s (and the topics added with
+	 * {@link #addReceiveExcludedTopics(String[])}, which it does not want to
+	 * receive) to the other group members, and
+	 * {@link #sendMessage(Event)} only sends an event to the members that
+	 * have a matching subscription. Members that have not advertised any
+	 * subscriptions (e.g. because they have routing disabled) continue to
+	 * receive every event. When disabled (the default, unless the
+	 * {@link #INTEREST_ROUTING_PROPERTY} system property is set), every
+	 * event is sent to the whole group.
+	 * <p>
+	 * All members of a group should run a version of
+	 * DistributedEventAdmin that understands subscription advertisements
+	 * before routing is enabled on any of them.
+	 * 
+	 * @param interestRouting
+	 *            <code>true</code> to enable interest-based routing.
+	 * @since 1.4
+	 */
+	public void setInterestRouting(boolean interestRouting) {
+		if (this.interestRouting == interestRouting)
+			return;
+		this.interestRouting = interestRouting;
+		// Advertise (or withdraw by advertising nothing) our subscriptions
+		sendSubscriptions(null);
+	}
+
+	/**
+	 * @return <code>true</code> if interest-based routing is enabled.
+	 * @since 1.4
+	 */
+	public boolean isInterestRouting() {
+		return interestRouting;
+	}
+
+	/**
+	 * Get the remote group members that should receive the given event. The
+	 * default implementation returns <code>null</code> (meaning all members)
+	 * unless interest-based routing is enabled, in which case only the
+	 * members with a subscription matching the event topic are returned.
+	 * 
+	 * @param eventToSend
+	 *            the event to send. Will not be <code>null</code>.
+	 * @return ID[] the members to send to (possibly of length 0), or
+	 *         <code>null</code> to send to the entire group.
+	 * @since 1.4
+	 */
+	protected ID[] getInterestedReceivers(Event eventToSend) {
+		if (!interestRouting)
+			return null;
+		final ID localContainerID = getLocalContainerID();
+		final ID[] members = getGroupMemberIDs();
+		final List remoteMembers = new ArrayList(members.length);
+		for (int i = 0; i < members.length; i++)
+			if (!members[i].equals(localContainerID))
+				remoteMembers.add(members[i]);
+		return subscriptionTable.getInterestedMembers((ID[]) remoteMembers
+				.toArray(new ID[remoteMembers.size()]), eventToSend.getTopic());
+	}
+
+	void subscriptionsChanged() {
+		if (interestRouting)
+			sendSubscriptions(null);
+	}
+
+	/**
+	 * Advertise the topics of local {@link EventHandler}s to the given
+	 * member, or the whole group if target is <code>null</code>. Nothing is
+	 * sent if interest-based routing is disabled, except when it has just
+	 * been disabled, in which case a wildcard subscription is advertised so
+	 * that other members resume sending every event.
+	 * 
+	 * @param target
+	 *            the member to send to. May be <code>null</code>.
+	 * @since 1.4
+	 */
+	protected void sendSubscriptions(ID target) {
+		if (getContext() == null)
+			return;
+		String[] topics;
+		String[] excluded;
+		if (interestRouting) {
+			topics = eventHandlerTracker.getTopics();
+			synchronized (receiveExclusions) {
+				excluded = (String[]) receiveExclusions
+						.toArray(new String[receiveExclusions.size()]);
+			}
+		} else {
+			if (target != null)
+				return;
+			topics = new String[] { "*" };
+			excluded = null;
+		}
+		try {
+			sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(
+					SUBSCRIPTIONS_MESSAGE_METHOD, new Object[] { topics,
+							excluded }));
+		} catch (IOException e) {
+			logError("send subscriptions exception to target=" + target, e);
+		}
+	}
+
+	/**
+	 * Enable or disable batching of posted events. When enabled, the message
+	 * data of events posted via {@link #postEvent(Event)} is buffered per
+	 * target and sent as a single message once maxBatchSize events are
+	 * buffered for that target, or batchWindow milliseconds have elapsed.
+	 * Events are delivered to receivers in posting order, and receivers
+	 * dispatch each batch to their local {@link EventHandler}s in one pass.
+	 * <p>
+	 * A batch that is sent by {@link #postEvent(Event)} because it is full
+	 * fails the post as without batching, through
+	 * {@link #handleSendMessageException(String, Event, Object[], IOException)}.
+	 * Batches sent when the batch window expires have no poster to report to,
+	 * so their failures are passed to
+	 * {@link #handleSendBatchException(ID, Object[], IOException)}.
+	 * <p>
+	 * Batching is disabled by default. {@link #sendEvent(Event)} is not
+	 * affected, as it only dispatches locally and synchronously. Receivers
+	 * must run a version of DistributedEventAdmin that understands batch
+	 * messages.
+	 * <p>
+	 * When the setting changes, the buffered events are sent before any event
+	 * that is posted with the new setting.
+	 * 
+	 * @param maxBatchSize
+	 *            the maximum number of events per batch. If <= 1, batching
+	 *            is disabled and any buffered events are sent.
+	 * @param batchWindow
+	 *            the maximum time (in ms) an event is buffered before being
+	 *            sent. Must be > 0 if maxBatchSize > 1.
+	 * @since 1.4
+	 */
+	public void setBatching(int maxBatchSize, long batchWindow) {
+		final EventBatcher newBatcher = (maxBatchSize > 1) ? new EventBatcher(
+				new EventBatcher.Sender() {
+					public void sendBatch(ID target, Object[] batch)
+							throws IOException {
+						DistributedEventAdmin.this.sendBatch(target, batch);
+					}
+
+					public void handleBatchException(ID target,
+							Object[] batch, IOException e) {
+						handleSendBatchException(target, batch, e);
+					}
+				}, maxBatchSize, batchWindow) : null;
+		synchronized (batchingLock) {
+			final EventBatcher oldBatcher = batcher;
+			// Send the buffered events before switching. Events posted to
+			// oldBatcher meanwhile are sent immediately after them.
+			if (oldBatcher != null)
+				oldBatcher.close();
+			batcher = newBatcher;
+		}
+	}
+
+	/**
+	 * Send all currently buffered batches immediately. Has no effect if
+	 * batching is disabled.
+	 * 
+	 * @throws ServiceException
+	 *             if a batch cannot be sent. The batches that were not sent
+	 *             are passed to
+	 *             {@link #handleSendBatchException(ID, Object[], IOException)}.
+	 * @since 1.4
+	 */
+	public void flushBatches() {
+		final EventBatcher currentBatcher = batcher;
+		if (currentBatcher != null) {
+			try {
+				currentBatcher.flush(true);
+			} catch (IOException e) {
+				final String message = "send batch exception";
+				logError(message, e);
+				throw new ServiceException(message, e);
+			}
+		}
+	}
+
+	/**
+	 * Handle the failure to send a batch that was not sent by a posting
+	 * thread, e.g. because the batch window expired. The default
+	 * implementation logs an error. Subclasses may override to be notified
+	 * of these failures.
+	 * 
+	 * @param target
+	 *            the target of the batch. May be <code>null</code> (entire
+	 *            group).
+	 * @param batch
+	 *            the message data of the events that were not sent.
+	 * @param exception
+	 *            the exception. Will not be <code>null</code>.
+	 * @since 1.4
+	 */
+	protected void handleSendBatchException(ID target, Object[] batch,
+			IOException exception) {
+		logError("send batch exception to target=" + target + " batchSize="
+				+ batch.length, exception);
+	}
+
+	/**
+	 * Send a batch of message data (as created by
+	 * {@link #createMessageDataFromEvent(ID, Event)}) as a single shared
+	 * object message. If the batch cannot be serialized, each element is
+	 * sent individually so that only the offending events are lost.
+	 * 
+	 * @param target
+	 *            the target. May be <code>null</code>.
+	 * @param batch
+	 *            the message data of each event in posting order.
+	 * @throws IOException
+	 *             if the batch cannot be sent
+	 * @since 1.4
+	 */
+	protected void sendBatch(ID target, Object[] batch) throws IOException {
+		try {
+			sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(
+					BATCH_MESSAGE_METHOD, batch));
+		} catch (NotSerializableException e) {
+			for (int i = 0; i < batch.length; i++) {
+				try {
+					sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(
+							SHARED_OBJECT_MESSAGE_METHOD, (Object[]) batch[i]));
+				} catch (NotSerializableException e1) {
+					logWarning("send exception to target=" + target
+							+ " messageParams="
+							+ Arrays.asList((Object[]) batch[i]), e1);
+				}
+			}
+		}
+	}
+
+	void handleMemberJoined(ID memberID) {
+		if (interestRouting && !memberID.equals(getLocalContainerID()))
+			sendSubscriptions(memberID);
+	}
+
+	void handleMemberDeparted(ID memberID) {
+		final EventBatcher currentBatcher = batcher;
+		if (currentBatcher != null)
+			currentBatcher.discard(memberID);
+		if (memberID.equals(getConnectedID()) || memberID.equals(getLocalContainerID()))
+			subscriptionTable.clear();
+		else
+			subscriptionTable.remove(memberID);
+	}
+
 	/**
 	 * Send the given event synchronously. The default implementation of this
 	 * method simply does a <b>local-only</b> dispatch to {@link EventHandler}s.
@@ -258,7 +572,11 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 		// send into a new Event, or if it should not be sent at all
 		Event eventToSend = getEventToSend(event);
 		if (eventToSend != null) {
-			if (!eventFilters.contains(event.getTopic())) {
+			boolean filtered;
+			synchronized (eventFilters) {
+				filtered = eventFilters.contains(event.getTopic());
+			}
+			if (!filtered) {
 				sendMessage(eventToSend);
 				// sent successfully, so now dispatch to any appropriate local
 				// EventHandlers
@@ -284,6 +602,16 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 	 * Subclasses may override this method to customize or replace this
 	 * sendMessage behavior.
 	 * <p>
+	 * If {@link #getTarget(Event)} returns <code>null</code> and
+	 * interest-based routing is enabled (see
+	 * {@link #setInterestRouting(boolean)}), the message is only sent to the
+	 * members returned by {@link #getInterestedReceivers(Event)}, and is not
+	 * created at all if there are none.
+	 * <p>
+	 * If batching is enabled (see {@link #setBatching(int, long)}), the
+	 * message data is added to the current batch for the target instead of
+	 * being sent immediately.
+	 * <p>
 	 * If an exception occurs on serialization or sending, the
 	 * {@link #handleSendMessageException(String, Event, Object[], IOException)}
 	 * method will be called to handle it.
@@ -297,9 +625,36 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 		Object[] messageData = null;
 		try {
 			target = getTarget(eventToSend);
+			ID[] receivers = (target == null) ? getInterestedReceivers(eventToSend)
+					: null;
+			// No member is interested, so don't even serialize
+			if (receivers != null && receivers.length == 0)
+				return;
+			if (receivers != null && receivers.length == 1)
+				target = receivers[0];
 			messageData = createMessageDataFromEvent(target, eventToSend);
-			sendSharedObjectMsgTo(target, SharedObjectMsg.createMsg(
-					SHARED_OBJECT_MESSAGE_METHOD, messageData));
+			final EventBatcher currentBatcher = batcher;
+			if (currentBatcher != null) {
+				if (receivers == null || receivers.length == 1) {
+					currentBatcher.add(target, messageData);
+				} else {
+					for (int i = 0; i < receivers.length; i++) {
+						target = receivers[i];
+						currentBatcher.add(target, messageData);
+					}
+				}
+				return;
+			}
+			final SharedObjectMsg msg = SharedObjectMsg.createMsg(
+					SHARED_OBJECT_MESSAGE_METHOD, messageData);
+			if (receivers == null || receivers.length == 1) {
+				sendSharedObjectMsgTo(target, msg);
+			} else {
+				for (int i = 0; i < receivers.length; i++) {
+					target = receivers[i];
+					sendSharedObjectMsgTo(target, msg);
+				}
+			}
 		} catch (IOException e) {
 			handleSendMessageException("send exception to target=" + target,
 					eventToSend, messageData, e);
@@ -579,6 +934,89 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 		}
 	}
 
+	/**
+	 * Locally dispatch a batch of received Events asynchronously. All events
+	 * are queued to the event dispatch thread as a single entry and delivered
+	 * in array order to their matching {@link EventHandler}s.
+	 * {@link #notifyPreLocalDispatch(Event)} and
+	 * {@link #notifyPostLocalDispatch(Event)} are called for each event as in
+	 * {@link #localDispatch(Event, boolean)}.
+	 * 
+	 * @param dispatchedEvents
+	 *            the Events to dispatch. Must not be <code>null</code>.
+	 * @since 1.4
+	 */
+	protected void localDispatch(Event[] dispatchedEvents) {
+		EventManager currentManager = eventManager;
+		if (currentManager == null) {
+			return;
+		}
+
+		final List events = new ArrayList(dispatchedEvents.length);
+		// List<Map<EventHandlerWrapper,Permission>> parallel to events
+		final List handlers = new ArrayList(dispatchedEvents.length);
+		SecurityManager sm = System.getSecurityManager();
+		for (int i = 0; i < dispatchedEvents.length; i++) {
+			Event event = notifyPreLocalDispatch(dispatchedEvents[i]);
+			if (event == null)
+				continue;
+			String eventTopic = event.getTopic();
+			if (sm != null) {
+				try {
+					sm.checkPermission(new TopicPermission(eventTopic,
+							TopicPermission.PUBLISH));
+				} catch (SecurityException e) {
+					logError(
+							"Caller bundle does not have TopicPermission to publish topic "
+									+ eventTopic, e);
+					continue;
+				}
+			}
+			Permission perm = (sm == null) ? null : new TopicPermission(
+					eventTopic, TopicPermission.SUBSCRIBE);
+			Map eventHandlers = new HashMap();
+			for (Iterator iter = eventHandlerTracker.getHandlers(eventTopic)
+					.iterator(); iter.hasNext();)
+				eventHandlers.put(iter.next(), perm);
+			events.add(event);
+			handlers.add(eventHandlers);
+		}
+		if (events.isEmpty())
+			return;
+
+		CopyOnWriteIdentityMap listeners = new CopyOnWriteIdentityMap();
+		listeners.put(events, handlers);
+		ListenerQueue listenerQueue = new ListenerQueue(currentManager);
+		listenerQueue.queueListeners(listeners.entrySet(),
+				new EventDispatcher() {
+					public void dispatchEvent(Object eventListener,
+							Object listenerObject, int eventAction,
+							Object eventObject) {
+						for (int i = 0; i < events.size(); i++) {
+							Event event = (Event) events.get(i);
+							Map eventHandlers = (Map) handlers.get(i);
+							for (Iterator iter = eventHandlers.entrySet()
+									.iterator(); iter.hasNext();) {
+								Map.Entry entry = (Map.Entry) iter.next();
+								try {
+									((EventHandlerWrapper) entry.getKey())
+											.handleEvent(event,
+													(Permission) entry
+															.getValue());
+								} catch (Throwable t) {
+									logError("Exception delivering event="
+											+ event, t);
+								}
+							}
+						}
+					}
+				});
+		listenerQueue.dispatchEventAsynchronous(0, null);
+
+		for (int i = 0; i < events.size(); i++)
+			notifyPostLocalDispatch((Event) events.get(i));
+	}
+
 /**
 	 * Handle the shared object message.  This method is called on receiver implementations of 
 	 * the DistributedEventAdmin, so that they can deliver to locally registered {@link EventHandler}s.
@@ -614,6 +1052,37 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 								+ msg, e);
 			}
 			return true;
+		} else if (BATCH_MESSAGE_METHOD.equals(soMethod)) {
+			try {
+				Object[] batch = msg.getParameters();
+				List receivedEvents = new ArrayList(batch.length);
+				for (int i = 0; i < batch.length; i++) {
+					Event receivedEvent = createEventFromMessageData(fromID,
+							(Object[]) batch[i]);
+					if (receivedEvent != null) {
+						notifyReceivedEvent(fromID, receivedEvent);
+						receivedEvents.add(receivedEvent);
+					}
+				}
+				localDispatch((Event[]) receivedEvents
+						.toArray(new Event[receivedEvents.size()]));
+			} catch (Exception e) {
+				logError(
+						"DistributedEventAdmin handleSharedObjectMsg error receiving batch msg="
+								+ msg, e);
+			}
+			return true;
+		} else if (SUBSCRIPTIONS_MESSAGE_METHOD.equals(soMethod)) {
+			try {
+				Object[] params = msg.getParameters();
+				subscriptionTable.update(fromID, (String[]) params[0],
+						(String[]) params[1]);
+			} catch (Exception e) {
+				logError(
+						"DistributedEventAdmin handleSharedObjectMsg error receiving subscriptions msg="
+								+ msg, e);
+			}
+			return true;
 		} else {
 			logError("DistributedEventAdmin received bad shared object msg="
 					+ msg + " from=" + fromID);
@@ -733,7 +1202,11 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 	 */
 	public boolean addEventTopicFilters(String[] filters) {
 		final List asList = Arrays.asList(filters);
-		return eventFilters.addAll(asList);
+		boolean result;
+		synchronized (eventFilters) {
+			result = eventFilters.addAll(asList);
+		}
+		return result;
 	}
 	
 	/**
@@ -743,6 +1216,53 @@ public class DistributedEventAdmin extends BaseSharedObject implements
 	 */
 	public boolean removeEventTopicFilters(String[] filters) {
 		final List asList = Arrays.asList(filters);
-		return eventFilters.removeAll(asList);
+		boolean result;
+		synchronized (eventFilters) {
+			result = eventFilters.removeAll(asList);
+		}
+		return result;
+	}
+
+	/**
+	 * Add topics that this distributed event admin does not want to receive
+	 * from other members. With interest-based routing enabled (see
+	 * {@link #setInterestRouting(boolean)}), the excluded topics are
+	 * advertised to the group, and members stop sending events with these
+	 * exact topics here, even if a local {@link EventHandler} matches them.
+	 * Unlike the event topic filters, this does not affect the events posted
+	 * by this member.
+	 * 
+	 * @param topics
+	 *            the topics to exclude. Must not be <code>null</code>.
+	 * @return boolean true if any of the given topics was added
+	 * @since 1.4
+	 */
+	public boolean addReceiveExcludedTopics(String[] topics) {
+		final List asList = Arrays.asList(topics);
+		boolean result;
+		synchronized (receiveExclusions) {
+			result = receiveExclusions.addAll(asList);
+		}
+		if (result)
+			subscriptionsChanged();
+		return result;
+	}
+
+	/**
+	 * @param topics
+	 *            the topics to no longer exclude. Must not be
+	 *            <code>null</code>.
+	 * @return boolean true if any of the given topics was removed
+	 * @since 1.4
+	 */
+	public boolean removeReceiveExcludedTopics(String[] topics) {
+		final List asList = Arrays.asList(topics);
+		boolean result;
+		synchronized (receiveExclusions) {
+			result = receiveExclusions.removeAll(asList);
+		}
+		if (result)
+			subscriptionsChanged();
+		return result;
 	}
 }
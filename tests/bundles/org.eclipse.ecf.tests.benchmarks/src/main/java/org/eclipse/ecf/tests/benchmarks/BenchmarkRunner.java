@@ -0,0 +1,42 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Entry point of benchmarks.jar.  Accepts the usual JMH command line, but
+ * writes machine readable JSON results to <code>jmh-result.json</code> unless
+ * a result format or file is given with <code>-rf</code>/<code>-rff</code>.
+ */
+public class BenchmarkRunner {
+
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json"; //$NON-NLS-1$
+
+	public static void main(String[] args) throws Exception {
+		final CommandLineOptions cmd = new CommandLineOptions(args);
+		final ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+		if (!cmd.getResultFormat().hasValue())
+			builder.resultFormat(ResultFormatType.JSON);
+		if (!cmd.getResult().hasValue())
+			builder.result(DEFAULT_RESULT_FILE);
+		if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats() || cmd.shouldListWithParams()) {
+			// Let the JMH main handle the informational options
+			org.openjdk.jmh.Main.main(args);
+			return;
+		}
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,64 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.provider.generic.ContainerMessage;
+import org.eclipse.ecf.provider.generic.SOContainer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Serialization cost of generic provider {@link ContainerMessage}s, as done by
+ * {@link SOContainer} for every message sent and received.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContainerMessageBenchmark {
+
+	@Param({"16", "1024", "65536"})
+	public int payloadSize;
+
+	private ContainerMessage message;
+	private byte[] serialized;
+
+	@Setup
+	public void setup() throws Exception {
+		final ID from = IDFactory.getDefault().createGUID();
+		final ID to = IDFactory.getDefault().createStringID("ecftcp://localhost:3282/server"); //$NON-NLS-1$
+		final ID so = IDFactory.getDefault().createStringID(ContainerMessageBenchmark.class.getName());
+		message = ContainerMessage.createSharedObjectMessage(from, to, 1, so, new byte[payloadSize]);
+		serialized = SOContainer.serialize(message);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return SOContainer.serialize(message);
+	}
+
+	@Benchmark
+	public ContainerMessage deserialize() throws IOException {
+		return SOContainer.deserializeContainerMessage(serialized);
+	}
+
+	@Benchmark
+	public ContainerMessage roundTrip() throws IOException {
+		return SOContainer.deserializeContainerMessage(SOContainer.serialize(message));
+	}
+}
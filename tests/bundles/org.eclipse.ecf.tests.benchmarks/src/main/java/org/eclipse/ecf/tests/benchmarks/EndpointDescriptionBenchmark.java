@@ -0,0 +1,94 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.osgi.services.remoteserviceadmin.EndpointDescriptionReader;
+import org.openjdk.jmh.annotations.*;
+import org.osgi.framework.*;
+import org.osgi.service.remoteserviceadmin.EndpointDescription;
+
+/**
+ * Endpoint description filter matching, as done by discovery and import
+ * policies for every endpoint, and EDEF parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointDescriptionBenchmark {
+
+	private static final String FILTER = "(&(objectClass=com.acme.Foo)(service.imported.configs=ecf.generic.server)(|(ecf.rsvc.id>=100)(endpoint.service.id=1)))"; //$NON-NLS-1$
+
+	@Param({"1", "64"})
+	public int endpoints;
+
+	private byte[] edef;
+	private EndpointDescription endpointDescription;
+	private Filter compiledFilter;
+
+	@Setup
+	public void setup() throws Exception {
+		final StringBuilder buf = new StringBuilder();
+		buf.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+		buf.append("<endpoint-descriptions xmlns=\"http://www.osgi.org/xmlns/rsa/v1.0.0\">\n"); //$NON-NLS-1$
+		for (int i = 0; i < endpoints; i++) {
+			buf.append("<endpoint-description>\n"); //$NON-NLS-1$
+			buf.append("  <property name=\"objectClass\"><array><value>com.acme.Foo</value></array></property>\n"); //$NON-NLS-1$
+			appendProperty(buf, "endpoint.id", "ecftcp://localhost:3282/server"); //$NON-NLS-1$ //$NON-NLS-2$
+			appendLongProperty(buf, "endpoint.service.id", i + 1); //$NON-NLS-1$
+			appendProperty(buf, "endpoint.framework.uuid", "abcd-1234-7654-fedc"); //$NON-NLS-1$ //$NON-NLS-2$
+			buf.append("  <property name=\"service.imported.configs\"><array><value>ecf.generic.server</value></array></property>\n"); //$NON-NLS-1$
+			appendProperty(buf, "ecf.endpoint.id", "ecftcp://localhost:3282/server"); //$NON-NLS-1$ //$NON-NLS-2$
+			appendProperty(buf, "ecf.endpoint.id.ns", "org.eclipse.ecf.core.identity.StringID"); //$NON-NLS-1$ //$NON-NLS-2$
+			appendLongProperty(buf, "ecf.endpoint.ts", 1700000000000L); //$NON-NLS-1$
+			appendLongProperty(buf, "ecf.rsvc.id", 100 + i); //$NON-NLS-1$
+			buf.append("</endpoint-description>\n"); //$NON-NLS-1$
+		}
+		buf.append("</endpoint-descriptions>\n"); //$NON-NLS-1$
+		edef = buf.toString().getBytes(StandardCharsets.UTF_8);
+		endpointDescription = parse()[0];
+		compiledFilter = FrameworkUtil.createFilter(FILTER);
+	}
+
+	private static void appendProperty(StringBuilder buf, String name, String value) {
+		buf.append("  <property name=\"").append(name).append("\" value=\"").append(value).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private static void appendLongProperty(StringBuilder buf, String name, long value) {
+		buf.append("  <property name=\"").append(name).append("\" value-type=\"Long\" value=\"").append(value).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Benchmark
+	public EndpointDescription[] parse() throws IOException {
+		return new EndpointDescriptionReader().readEndpointDescriptions(new ByteArrayInputStream(edef));
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return endpointDescription.matches(FILTER);
+	}
+
+	/**
+	 * Baseline with the filter parsed once.
+	 */
+	@Benchmark
+	public boolean matchesCompiledFilter() {
+		return compiledFilter.matches(endpointDescription.getProperties());
+	}
+}
@@ -0,0 +1,143 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.core.identity.*;
+import org.eclipse.ecf.provider.generic.*;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceContainerAdapterFactory;
+import org.eclipse.ecf.provider.remoteservice.generic.RemoteServiceNamespace;
+import org.eclipse.ecf.remoteservice.*;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Remote service calls through the generic provider (RegistrySharedObject) over
+ * a loopback ecftcp connection between a server and a client container running
+ * in the benchmark JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GenericRemoteServiceBenchmark {
+
+	public interface Echo {
+		Object echo(Object o);
+	}
+
+	public static class EchoImpl implements Echo {
+		public Object echo(Object o) {
+			return o;
+		}
+	}
+
+	private static final long CONNECT_TIMEOUT = 10000;
+
+	@Param({"16", "16384"})
+	public int payloadSize;
+
+	private TCPServerSOContainerGroup serverGroup;
+	private TCPServerSOContainer server;
+	private TCPClientSOContainer client;
+	private IRemoteService remoteService;
+	private IRemoteCall call;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		final IIDFactory idFactory = IDFactory.getDefault();
+		// Normally contributed through the extension registry
+		if (idFactory.getNamespaceByName(RemoteServiceNamespace.NAME) == null)
+			idFactory.addNamespace(new RemoteServiceNamespace(RemoteServiceNamespace.NAME, "Generic remote service namespace")); //$NON-NLS-1$
+		final int port = freePort();
+		final ID serverID = idFactory.createStringID("ecftcp://127.0.0.1:" + port + "/server"); //$NON-NLS-1$ //$NON-NLS-2$
+		serverGroup = new TCPServerSOContainerGroup("benchmark", null, port, null); //$NON-NLS-1$
+		server = new TCPServerSOContainer(new SOContainerConfig(serverID), serverGroup, "/server", TCPServerSOContainer.DEFAULT_KEEPALIVE); //$NON-NLS-1$
+		serverGroup.putOnTheAir();
+		client = new TCPClientSOContainer(new SOContainerConfig(idFactory.createGUID()));
+
+		final RemoteServiceContainerAdapterFactory adapterFactory = new RemoteServiceContainerAdapterFactory();
+		final IRemoteServiceContainerAdapter serverAdapter = (IRemoteServiceContainerAdapter) adapterFactory.getAdapter(server, IRemoteServiceContainerAdapter.class);
+		final IRemoteServiceContainerAdapter clientAdapter = (IRemoteServiceContainerAdapter) adapterFactory.getAdapter(client, IRemoteServiceContainerAdapter.class);
+		serverAdapter.registerRemoteService(new String[] {Echo.class.getName()}, new EchoImpl(), null);
+
+		client.connect(serverID, null);
+		// Registrations arrive asynchronously after connect
+		IRemoteServiceReference[] refs = null;
+		final long end = System.currentTimeMillis() + CONNECT_TIMEOUT;
+		while ((refs == null || refs.length == 0) && System.currentTimeMillis() < end) {
+			Thread.sleep(50);
+			refs = clientAdapter.getRemoteServiceReferences(serverID, Echo.class.getName(), null);
+		}
+		if (refs == null || refs.length == 0)
+			throw new IllegalStateException("Echo service not available from " + serverID); //$NON-NLS-1$
+		remoteService = clientAdapter.getRemoteService(refs[0]);
+		call = RemoteCallFactory.createRemoteCall("echo", new Object[] {new byte[payloadSize]}); //$NON-NLS-1$
+	}
+
+	private static int freePort() throws Exception {
+		final ServerSocket ss = new ServerSocket(0);
+		try {
+			return ss.getLocalPort();
+		} finally {
+			ss.close();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (client != null) {
+			client.disconnect();
+			client.dispose();
+		}
+		if (server != null)
+			server.dispose();
+		if (serverGroup != null)
+			serverGroup.takeOffTheAir();
+	}
+
+	@Benchmark
+	public Object callSync() throws Exception {
+		return remoteService.callSync(call);
+	}
+
+	@Benchmark
+	public Object callAsync() throws Exception {
+		return remoteService.callAsync(call).get();
+	}
+
+	/**
+	 * Concurrent callers sharing the single client connection.
+	 */
+	@Benchmark
+	@Threads(8)
+	public Object callSyncContended() throws Exception {
+		return remoteService.callSync(call);
+	}
+
+	/**
+	 * Several outstanding asynchronous calls per caller.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(16)
+	public void callAsyncPipelined() throws Exception {
+		final IFuture[] futures = new IFuture[16];
+		for (int i = 0; i < futures.length; i++)
+			futures[i] = remoteService.callAsync(call);
+		for (int i = 0; i < futures.length; i++)
+			futures[i].get();
+	}
+}
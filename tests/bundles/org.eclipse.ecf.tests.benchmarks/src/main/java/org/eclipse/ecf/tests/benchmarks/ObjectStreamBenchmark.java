@@ -0,0 +1,117 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.core.util.OSGIObjectInputStream;
+import org.eclipse.ecf.core.util.OSGIObjectOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Round trips of typical remote service arguments through
+ * {@link OSGIObjectOutputStream}/{@link OSGIObjectInputStream}, with plain
+ * java serialization as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectStreamBenchmark {
+
+	/**
+	 * DTO style argument, neither Serializable nor Externalizable.
+	 */
+	public static class Dto {
+		public String name;
+		public int count;
+		public long[] values;
+		public List<String> tags;
+	}
+
+	@Param({"8", "256"})
+	public int size;
+
+	private Map<String, Object> serializableArgument;
+	private Dto dtoArgument;
+	private byte[] osgiBytes;
+	private byte[] javaBytes;
+
+	@Setup
+	public void setup() throws IOException {
+		serializableArgument = new HashMap<>();
+		for (int i = 0; i < size; i++)
+			serializableArgument.put("key" + i, (i % 2 == 0) ? (Object) Integer.valueOf(i) : "value" + i); //$NON-NLS-1$ //$NON-NLS-2$
+		dtoArgument = new Dto();
+		dtoArgument.name = "dto"; //$NON-NLS-1$
+		dtoArgument.count = size;
+		dtoArgument.values = new long[size];
+		dtoArgument.tags = new ArrayList<>();
+		for (int i = 0; i < size; i++)
+			dtoArgument.tags.add("tag" + i); //$NON-NLS-1$
+		osgiBytes = writeOSGI(serializableArgument);
+		javaBytes = writeJava(serializableArgument);
+	}
+
+	static byte[] writeOSGI(Object o) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final OSGIObjectOutputStream oos = new OSGIObjectOutputStream(bos, true);
+		oos.writeObject(o);
+		oos.flush();
+		return bos.toByteArray();
+	}
+
+	static Object readOSGI(byte[] bytes) throws IOException, ClassNotFoundException {
+		return new OSGIObjectInputStream(null, new ByteArrayInputStream(bytes)).readObject();
+	}
+
+	static byte[] writeJava(Object o) throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(o);
+		oos.flush();
+		return bos.toByteArray();
+	}
+
+	static Object readJava(byte[] bytes) throws IOException, ClassNotFoundException {
+		return new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+	}
+
+	@Benchmark
+	public byte[] osgiWriteMap() throws IOException {
+		return writeOSGI(serializableArgument);
+	}
+
+	@Benchmark
+	public Object osgiReadMap() throws Exception {
+		return readOSGI(osgiBytes);
+	}
+
+	@Benchmark
+	public Object osgiRoundTripDto() throws Exception {
+		return readOSGI(writeOSGI(dtoArgument));
+	}
+
+	@Benchmark
+	public byte[] javaWriteMap() throws IOException {
+		return writeJava(serializableArgument);
+	}
+
+	@Benchmark
+	public Object javaReadMap() throws Exception {
+		return readJava(javaBytes);
+	}
+}
@@ -0,0 +1,62 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import ch.ethz.iks.r_osgi.messages.RemoteCallMessage;
+import ch.ethz.iks.r_osgi.messages.RemoteOSGiMessage;
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Encoding and parsing of R-OSGi remote call messages, the per call protocol
+ * work done by the R-OSGi channel endpoint on both sides of a connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ROSGiMessageBenchmark {
+
+	@Param({"16", "16384"})
+	public int payloadSize;
+
+	private RemoteCallMessage message;
+	private byte[] encoded;
+
+	@Setup
+	public void setup() throws IOException {
+		message = new RemoteCallMessage();
+		message.setServiceID("r-osgi://127.0.0.1:9278#42"); //$NON-NLS-1$
+		message.setMethodSignature("echo(Ljava/lang/Object;)Ljava/lang/Object;"); //$NON-NLS-1$
+		message.setArgs(new Object[] {new byte[payloadSize]});
+		message.setXID(1);
+		encoded = encode();
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		final ObjectOutputStream out = new ObjectOutputStream(bos);
+		message.send(out);
+		out.close();
+		return bos.toByteArray();
+	}
+
+	@Benchmark
+	public RemoteOSGiMessage parse() throws Exception {
+		return RemoteOSGiMessage.parse(new ObjectInputStream(new ByteArrayInputStream(encoded)));
+	}
+}
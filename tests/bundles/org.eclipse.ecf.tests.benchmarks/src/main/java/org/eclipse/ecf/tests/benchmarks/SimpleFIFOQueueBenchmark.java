@@ -0,0 +1,106 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.ecf.core.sharedobject.util.SimpleFIFOQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of {@link SimpleFIFOQueue}, the queue between the transport
+ * threads and shared object event processing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleFIFOQueueBenchmark {
+
+	private static final Object ELEMENT = new Object();
+
+	// Producers back off above this size, so a slower consumer does not let
+	// the queue grow without bound during an iteration
+	private static final int CAPACITY = 4096;
+
+	@State(Scope.Thread)
+	public static class ThreadQueue {
+		SimpleFIFOQueue queue;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			queue = new SimpleFIFOQueue();
+		}
+	}
+
+	@State(Scope.Group)
+	public static class SharedQueue {
+		SimpleFIFOQueue queue;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			queue = new SimpleFIFOQueue();
+		}
+
+		boolean offer() {
+			if (queue.size() >= CAPACITY) {
+				Thread.yield();
+				return false;
+			}
+			return queue.enqueue(ELEMENT);
+		}
+
+		Object poll() {
+			// Does not block, so consumers can finish when producers stop
+			return queue.isEmpty() ? null : queue.removeHead();
+		}
+	}
+
+	/**
+	 * Uncontended enqueue immediately followed by dequeue.
+	 */
+	@Benchmark
+	public Object enqueueDequeue(ThreadQueue state) {
+		state.queue.enqueue(ELEMENT);
+		return state.queue.dequeue();
+	}
+
+	@Benchmark
+	@Group("producerConsumer")
+	@GroupThreads(1)
+	public boolean produce(SharedQueue state) {
+		return state.offer();
+	}
+
+	@Benchmark
+	@Group("producerConsumer")
+	@GroupThreads(1)
+	public void consume(SharedQueue state, Blackhole bh) {
+		bh.consume(state.poll());
+	}
+
+	@Benchmark
+	@Group("producersConsumer")
+	@GroupThreads(4)
+	public boolean produceMany(SharedQueue state) {
+		return state.offer();
+	}
+
+	@Benchmark
+	@Group("producersConsumer")
+	@GroupThreads(1)
+	public void consumeMany(SharedQueue state, Blackhole bh) {
+		bh.consume(state.poll());
+	}
+}
@@ -0,0 +1,91 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.core.identity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+
+public class IDInternTest extends TestCase {
+
+	private boolean oldIntern;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		oldIntern = IDFactory.isInternIDs();
+		IDFactory.setInternIDs(true);
+	}
+
+	protected void tearDown() throws Exception {
+		IDFactory.setInternIDs(oldIntern);
+		super.tearDown();
+	}
+
+	private ID serializeAndDeserialize(ID id) throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(bos);
+		oos.writeObject(id);
+		oos.close();
+		return (ID) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+	}
+
+	public void testInternStringID() throws Exception {
+		ID id1 = IDFactory.getDefault().createStringID(getName());
+		ID id2 = IDFactory.getDefault().createStringID(getName());
+		assertSame(id1, id2);
+		assertNotSame(id1, IDFactory.getDefault().createStringID(getName() + "2"));
+	}
+
+	public void testInternLongID() throws Exception {
+		assertSame(IDFactory.getDefault().createLongID(42), IDFactory.getDefault().createLongID(42));
+	}
+
+	public void testInternURIID() throws Exception {
+		URI uri = new URI("ecftcp://localhost:3282/server");
+		assertSame(IDFactory.getDefault().createURIID(uri), IDFactory.getDefault().createURIID(uri.toString()));
+	}
+
+	public void testInternDeserialized() throws Exception {
+		ID id = IDFactory.getDefault().createStringID(getName());
+		assertSame(id, serializeAndDeserialize(id));
+		ID guid = IDFactory.getDefault().createGUID();
+		assertSame(guid, serializeAndDeserialize(guid));
+	}
+
+	public void testNotInternedWhenDisabled() throws Exception {
+		IDFactory.setInternIDs(false);
+		ID id1 = IDFactory.getDefault().createStringID(getName());
+		ID id2 = IDFactory.getDefault().createStringID(getName());
+		assertNotSame(id1, id2);
+		assertEquals(id1, id2);
+		assertEquals(id1.hashCode(), id2.hashCode());
+		assertNotSame(id1, serializeAndDeserialize(id1));
+	}
+
+	public void testCachedHashCodeEquals() throws Exception {
+		IDFactory.setInternIDs(false);
+		ID id1 = IDFactory.getDefault().createStringID(getName());
+		ID id2 = IDFactory.getDefault().createStringID(getName() + "2");
+		// compute and cache hash codes
+		assertTrue(id1.hashCode() != id2.hashCode());
+		assertFalse(id1.equals(id2));
+		assertTrue(id1.equals(IDFactory.getDefault().createStringID(getName())));
+	}
+}
@@ -0,0 +1,103 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.core.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.metrics.ICounter;
+import org.eclipse.ecf.core.metrics.IGauge;
+import org.eclipse.ecf.core.metrics.IHistogram;
+import org.eclipse.ecf.core.metrics.MetricsRegistry;
+
+public class MetricsRegistryTest extends TestCase {
+
+	private MetricsRegistry registry;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		registry = new MetricsRegistry();
+	}
+
+	public void testCounter() throws Exception {
+		ICounter counter = registry.counter("test.counter");
+		counter.increment();
+		counter.add(41);
+		assertEquals(42, counter.getCount());
+		assertSame(counter, registry.counter("test.counter"));
+		try {
+			registry.histogram("test.counter");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+
+	public void testGaugeAndRemoveAll() throws Exception {
+		registry.gauge("test.a.gauge", new IGauge() {
+			public long getValue() {
+				return 7;
+			}
+		});
+		registry.counter("test.a.counter");
+		registry.counter("test.b.counter");
+		assertEquals(7, ((IGauge) registry.getMetrics().get("test.a.gauge")).getValue());
+		registry.removeAll("test.a.");
+		assertEquals(1, registry.getMetrics().size());
+		assertTrue(registry.getMetrics().containsKey("test.b.counter"));
+	}
+
+	public void testDisabled() throws Exception {
+		registry = new MetricsRegistry(false);
+		ICounter counter = registry.counter("test.counter");
+		counter.increment();
+		assertEquals(0, counter.getCount());
+		registry.histogram("test.histogram").record(10);
+		assertTrue(registry.getMetrics().isEmpty());
+	}
+
+	public void testHistogramExactSmallValues() throws Exception {
+		IHistogram h = registry.histogram("test.histogram");
+		for (int i = 1; i <= 50; i++)
+			h.record(i);
+		assertEquals(50, h.getCount());
+		assertEquals(1, h.getMin());
+		assertEquals(50, h.getMax());
+		assertEquals(25.5, h.getMean(), 0.001);
+		assertEquals(25, h.getValueAtPercentile(50.0));
+		assertEquals(50, h.getValueAtPercentile(100.0));
+		h.reset();
+		assertEquals(0, h.getCount());
+	}
+
+	public void testHistogramPercentileAccuracy() throws Exception {
+		IHistogram h = registry.histogram("test.histogram");
+		Random random = new Random(42);
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (Math.exp(random.nextDouble() * 30));
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+		double[] percentiles = new double[] {50.0, 90.0, 99.0, 99.9};
+		for (int i = 0; i < percentiles.length; i++) {
+			long expected = values[(int) Math.ceil(percentiles[i] / 100.0 * values.length) - 1];
+			long actual = h.getValueAtPercentile(percentiles[i]);
+			assertTrue(actual >= expected);
+			assertTrue(actual <= expected + expected / 30 + 1);
+		}
+		assertEquals(values[values.length - 1], h.getMax());
+	}
+}
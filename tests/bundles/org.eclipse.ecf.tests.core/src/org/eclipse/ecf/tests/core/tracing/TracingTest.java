@@ -0,0 +1,158 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.core.tracing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.tracing.ISpan;
+import org.eclipse.ecf.core.tracing.ITracer;
+import org.eclipse.ecf.core.tracing.Tracing;
+
+public class TracingTest extends TestCase {
+
+	static final String TRACE_HEADER = "test-trace";
+
+	static class TestSpan implements ISpan {
+		final String name;
+		final String traceId;
+		final TestSpan parent;
+		final Map<String, String> attributes = new HashMap<String, String>();
+		Throwable error;
+		int ended;
+
+		TestSpan(String name, String traceId, TestSpan parent) {
+			this.name = name;
+			this.traceId = traceId;
+			this.parent = parent;
+		}
+
+		public boolean isRecording() {
+			return true;
+		}
+
+		public void setAttribute(String key, String value) {
+			attributes.put(key, value);
+		}
+
+		public void setError(Throwable t) {
+			error = t;
+		}
+
+		public void inject(Map<String, String> headers) {
+			headers.put(TRACE_HEADER, traceId);
+		}
+
+		public void end() {
+			ended++;
+		}
+	}
+
+	static class TestTracer implements ITracer {
+		final List<TestSpan> spans = new ArrayList<TestSpan>();
+		int nextTraceId;
+
+		public ISpan startSpan(String name, ISpan parent) {
+			TestSpan p = (TestSpan) parent;
+			TestSpan span = new TestSpan(name, (p == null) ? String.valueOf(nextTraceId++) : p.traceId, p);
+			spans.add(span);
+			return span;
+		}
+
+		public ISpan startSpan(String name, Map<String, String> headers) {
+			String traceId = headers.get(TRACE_HEADER);
+			if (traceId == null)
+				return startSpan(name, (ISpan) null);
+			TestSpan span = new TestSpan(name, traceId, null);
+			spans.add(span);
+			return span;
+		}
+	}
+
+	private TestTracer tracer;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		tracer = new TestTracer();
+		Tracing.setTracer(tracer);
+	}
+
+	protected void tearDown() throws Exception {
+		Tracing.setTracer(null);
+		super.tearDown();
+	}
+
+	public void testDisabled() throws Exception {
+		Tracing.setTracer(null);
+		assertFalse(Tracing.isEnabled());
+		assertNull(Tracing.getTracer());
+		ISpan span = Tracing.startSpan("test");
+		assertSame(Tracing.NOOP_SPAN, span);
+		assertFalse(span.isRecording());
+		Map<String, String> headers = new HashMap<String, String>();
+		headers.put(TRACE_HEADER, "1");
+		assertSame(Tracing.NOOP_SPAN, Tracing.startSpan("test", headers));
+		ISpan previous = Tracing.setCurrentSpan(span);
+		assertSame(Tracing.NOOP_SPAN, Tracing.getCurrentSpan());
+		Tracing.restoreCurrentSpan(previous);
+		assertTrue(tracer.spans.isEmpty());
+	}
+
+	public void testCurrentSpan() throws Exception {
+		assertSame(tracer, Tracing.getTracer());
+		assertSame(Tracing.NOOP_SPAN, Tracing.getCurrentSpan());
+		TestSpan root = (TestSpan) Tracing.startSpan("root");
+		assertNull(root.parent);
+		ISpan previous = Tracing.setCurrentSpan(root);
+		try {
+			assertSame(root, Tracing.getCurrentSpan());
+			TestSpan child = (TestSpan) Tracing.startSpan("child");
+			assertSame(root, child.parent);
+			assertEquals(root.traceId, child.traceId);
+			ISpan previousChild = Tracing.setCurrentSpan(child);
+			assertSame(child, Tracing.getCurrentSpan());
+			// not recording spans do not change the current span
+			ISpan noop = Tracing.setCurrentSpan(Tracing.NOOP_SPAN);
+			assertSame(child, Tracing.getCurrentSpan());
+			Tracing.restoreCurrentSpan(noop);
+			assertSame(child, Tracing.getCurrentSpan());
+			Tracing.restoreCurrentSpan(previousChild);
+			assertSame(root, Tracing.getCurrentSpan());
+		} finally {
+			Tracing.restoreCurrentSpan(previous);
+		}
+		assertSame(Tracing.NOOP_SPAN, Tracing.getCurrentSpan());
+	}
+
+	public void testExplicitParent() throws Exception {
+		TestSpan root = (TestSpan) Tracing.startSpan("root");
+		TestSpan child = (TestSpan) Tracing.startSpan("child", root);
+		assertSame(root, child.parent);
+		assertSame(Tracing.NOOP_SPAN, Tracing.startSpan("child", Tracing.NOOP_SPAN));
+	}
+
+	public void testPropagation() throws Exception {
+		ISpan client = Tracing.startSpan("client");
+		Map<String, String> headers = new HashMap<String, String>();
+		client.inject(headers);
+		TestSpan server = (TestSpan) Tracing.startSpan("server", headers);
+		assertEquals(((TestSpan) client).traceId, server.traceId);
+		// Without headers a new trace is started
+		TestSpan other = (TestSpan) Tracing.startSpan("other", (Map<String, String>) null);
+		assertFalse(server.traceId.equals(other.traceId));
+	}
+}
@@ -0,0 +1,157 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+
+package org.eclipse.ecf.tests.filetransfer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.ecf.core.identity.Namespace;
+import org.eclipse.ecf.core.security.IConnectContext;
+import org.eclipse.ecf.core.util.Proxy;
+import org.eclipse.ecf.filetransfer.IRemoteFileSystemBrowserContainerAdapter;
+import org.eclipse.ecf.filetransfer.IRemoteFileSystemListener;
+import org.eclipse.ecf.filetransfer.IRemoteFileSystemRequest;
+import org.eclipse.ecf.filetransfer.events.IRemoteFileSystemBrowseEvent;
+import org.eclipse.ecf.filetransfer.identity.IFileID;
+import org.eclipse.ecf.provider.filetransfer.browse.RecursiveFileSystemBrowser;
+import org.eclipse.ecf.provider.filetransfer.browse.RemoteFileSystemBrowseCache;
+
+public class RecursiveFileBrowseTest extends AbstractBrowseTestCase {
+
+	private static final int CHILDREN = 3;
+
+	private File root;
+
+	private List events;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		events = Collections.synchronizedList(new ArrayList());
+		root = File.createTempFile("recursivebrowse", "");
+		root.delete();
+		root.mkdir();
+		// root, CHILDREN subdirectories, each with CHILDREN subdirectories and a file
+		for (int i = 0; i < CHILDREN; i++) {
+			File child = new File(root, "dir" + i);
+			child.mkdir();
+			for (int j = 0; j < CHILDREN; j++)
+				new File(child, "dir" + j).mkdir();
+			new File(child, "file.txt").createNewFile();
+		}
+	}
+
+	protected void tearDown() throws Exception {
+		delete(root);
+		root = null;
+		events = null;
+		super.tearDown();
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null)
+			for (int i = 0; i < children.length; i++)
+				delete(children[i]);
+		file.delete();
+	}
+
+	protected void handleFileSystemBrowseEvent(IRemoteFileSystemBrowseEvent event) {
+		super.handleFileSystemBrowseEvent(event);
+		events.add(event);
+	}
+
+	private RecursiveFileSystemBrowser browse(RemoteFileSystemBrowseCache cache, int maxDepth) throws Exception {
+		RecursiveFileSystemBrowser browser = new RecursiveFileSystemBrowser(adapter, createRemoteFileSystemListener(), cache, 2, maxDepth);
+		request = browser.sendBrowseRequest(createFileID(root.toURI().toURL()));
+		assertTrue(browser.waitForDone(30000));
+		return browser;
+	}
+
+	public void testRecursiveBrowse() throws Exception {
+		browse(null, RecursiveFileSystemBrowser.UNLIMITED_DEPTH);
+		assertHasEventCount(events, IRemoteFileSystemBrowseEvent.class, 1 + CHILDREN + CHILDREN * CHILDREN);
+		for (int i = 0; i < events.size(); i++) {
+			IRemoteFileSystemBrowseEvent event = (IRemoteFileSystemBrowseEvent) events.get(i);
+			assertNull(event.getException());
+			assertNotNull(event.getRemoteFiles());
+		}
+	}
+
+	public void testRecursiveBrowseMaxDepth() throws Exception {
+		browse(null, 1);
+		assertHasEventCount(events, IRemoteFileSystemBrowseEvent.class, 1 + CHILDREN);
+	}
+
+	public void testRecursiveBrowseCached() throws Exception {
+		RemoteFileSystemBrowseCache cache = new RemoteFileSystemBrowseCache(60000, 100);
+		browse(cache, RecursiveFileSystemBrowser.UNLIMITED_DEPTH);
+		assertEquals(1 + CHILDREN + CHILDREN * CHILDREN, cache.size());
+		events.clear();
+		// Remove the tree, second walk must be served entirely from the cache
+		delete(new File(root, "dir0"));
+		browse(cache, RecursiveFileSystemBrowser.UNLIMITED_DEPTH);
+		assertHasEventCount(events, IRemoteFileSystemBrowseEvent.class, 1 + CHILDREN + CHILDREN * CHILDREN);
+	}
+
+	public void testCancelDuringSend() throws Exception {
+		final RecursiveFileSystemBrowser[] browser = new RecursiveFileSystemBrowser[1];
+		final List canceled = new ArrayList();
+		// Cancels the walk while the root request is being sent, and never answers
+		IRemoteFileSystemBrowserContainerAdapter canceling = new IRemoteFileSystemBrowserContainerAdapter() {
+			public IRemoteFileSystemRequest sendBrowseRequest(final IFileID fileID, final IRemoteFileSystemListener listener) {
+				browser[0].cancel();
+				return new IRemoteFileSystemRequest() {
+					public void cancel() {
+						canceled.add(fileID);
+					}
+
+					public IRemoteFileSystemListener getRemoteFileListener() {
+						return listener;
+					}
+
+					public IFileID getFileID() {
+						return fileID;
+					}
+
+					public <T> T getAdapter(Class<T> adapter) {
+						return null;
+					}
+				};
+			}
+
+			public Namespace getBrowseNamespace() {
+				return adapter.getBrowseNamespace();
+			}
+
+			public void setConnectContextForAuthentication(IConnectContext connectContext) {
+				// not needed
+			}
+
+			public void setProxy(Proxy proxy) {
+				// not needed
+			}
+
+			public <T> T getAdapter(Class<T> adapter) {
+				return null;
+			}
+		};
+		browser[0] = new RecursiveFileSystemBrowser(canceling, createRemoteFileSystemListener(), null, 2, RecursiveFileSystemBrowser.UNLIMITED_DEPTH);
+		IFileID rootID = createFileID(root.toURI().toURL());
+		browser[0].sendBrowseRequest(rootID);
+		assertEquals(Collections.singletonList(rootID), canceled);
+	}
+
+}
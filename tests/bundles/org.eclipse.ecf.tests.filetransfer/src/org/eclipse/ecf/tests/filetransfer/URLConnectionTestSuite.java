@@ -31,7 +31,7 @@ import org.osgi.framework.FrameworkUtil;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ FileBrowseTest.class, FileIDFactoryTest.class, FileSendTest.class, GetRemoteFileNameTest.class,
-		NamespaceTest.class, URIProtocolFactoryRetrieveTest.class, URLBrowseTest.class, URLCancelTest.class,
+		NamespaceTest.class, RecursiveFileBrowseTest.class, URIProtocolFactoryRetrieveTest.class, URLBrowseTest.class, URLCancelTest.class,
 		URLPartialRetrieveTest.class, URLRetrievePauseResumeTest.class, URLRetrieveTest.class })
 public class URLConnectionTestSuite {
 
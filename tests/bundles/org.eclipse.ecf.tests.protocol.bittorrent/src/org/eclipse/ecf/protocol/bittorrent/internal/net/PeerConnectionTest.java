@@ -0,0 +1,177 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import junit.framework.TestCase;
+
+public class PeerConnectionTest extends TestCase {
+
+	/**
+	 * The send buffer of a connection holds 1097 bytes plus the bitfield,
+	 * 3600 bytes for this number of pieces. Once it is filled up with nine byte
+	 * have messages, there is no room left for a choke or unchoke message.
+	 */
+	private static final int NUM_PIECES = 20024;
+
+	private static final byte[] INTERESTED = { 0x00, 0x00, 0x00, 0x01, 0x02 };
+
+	private static final byte[] NOT_INTERESTED = { 0x00, 0x00, 0x00, 0x01, 0x03 };
+
+	private File directory;
+
+	private ConnectionPool pool;
+
+	private Selector selector;
+
+	private SocketChannel remote;
+
+	private PeerConnection connection;
+
+	/**
+	 * What the remote peer has received, without the handshake.
+	 */
+	private ByteBuffer received;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		directory = TestTorrents.createDirectory("peerconnection"); //$NON-NLS-1$
+		TorrentManager manager = TestTorrents.createManager(directory,
+				NUM_PIECES);
+		pool = new ConnectionPool(manager);
+		selector = Selector.open();
+
+		ServerSocketChannel server = ServerSocketChannel.open();
+		server.socket().bind(new InetSocketAddress("127.0.0.1", 0)); //$NON-NLS-1$
+		remote = SocketChannel.open();
+		remote.socket().setReceiveBufferSize(4096);
+		remote.connect(server.socket().getLocalSocketAddress());
+		SocketChannel local = server.accept();
+		server.close();
+		local.socket().setSendBufferSize(4096);
+		remote.configureBlocking(false);
+
+		connection = new PeerConnection(pool, manager);
+		connection.setChannel(local);
+		// an incoming connection, the handshake is sent right away
+		connection.open(selector);
+		received = ByteBuffer.allocate(1024 * 1024);
+	}
+
+	protected void tearDown() throws Exception {
+		connection.disconnect();
+		remote.close();
+		selector.close();
+		TestTorrents.delete(directory);
+		super.tearDown();
+	}
+
+	private void sendFromRemote(byte[] message) throws IOException {
+		remote.write(ByteBuffer.wrap(message));
+	}
+
+	private void readFromRemote(int expected) throws Exception {
+		for (int i = 0; i < 100 && pool.getUnchokedPeers() != expected; i++) {
+			connection.read();
+			Thread.sleep(10);
+		}
+		assertEquals(expected, pool.getUnchokedPeers());
+	}
+
+	/**
+	 * Queues more have messages than the socket and the send buffer of the
+	 * connection can hold while the remote peer is not reading.
+	 */
+	private void fillSendBuffer() throws IOException {
+		for (int i = 0; i < NUM_PIECES; i++) {
+			connection.queueHaveMessage(i);
+		}
+		for (int i = 0; i < 200; i++) {
+			connection.tick(false);
+		}
+	}
+
+	/**
+	 * Reads everything the remote peer has received until the given message
+	 * shows up, the connection is ticked to continue sending.
+	 */
+	private boolean receivedByRemote(byte id) throws Exception {
+		int position = 68;
+		for (int i = 0; i < 500; i++) {
+			connection.tick(false);
+			remote.read(received);
+			while (position + 4 <= received.position()) {
+				int length = received.getInt(position);
+				if (position + 4 + length > received.position()) {
+					break;
+				}
+				if (length == 1 && received.get(position + 4) == id) {
+					return true;
+				}
+				position += 4 + length;
+			}
+			Thread.sleep(5);
+		}
+		return false;
+	}
+
+	public void testUnchokeDeliveredWhenSendBufferFull() throws Exception {
+		fillSendBuffer();
+		sendFromRemote(INTERESTED);
+		readFromRemote(1);
+		assertFalse(connection.isChoking());
+		assertTrue(receivedByRemote((byte) 1));
+	}
+
+	public void testUnchokedSlotReleasedOnceWhenSendBufferFull()
+			throws Exception {
+		fillSendBuffer();
+		sendFromRemote(INTERESTED);
+		readFromRemote(1);
+		sendFromRemote(NOT_INTERESTED);
+		readFromRemote(0);
+		assertTrue(connection.isChoking());
+		connection.disconnect();
+		assertEquals(0, pool.getUnchokedPeers());
+	}
+
+	public void testChokeDeliveredWhenSendBufferFull() throws Exception {
+		sendFromRemote(INTERESTED);
+		readFromRemote(1);
+		assertTrue(receivedByRemote((byte) 1));
+		fillSendBuffer();
+		sendFromRemote(NOT_INTERESTED);
+		readFromRemote(0);
+		assertTrue(connection.isChoking());
+		assertTrue(receivedByRemote((byte) 0));
+		connection.disconnect();
+		assertEquals(0, pool.getUnchokedPeers());
+	}
+
+	public void testChokeMessageSentAfterUnchoke() throws Exception {
+		sendFromRemote(INTERESTED);
+		readFromRemote(1);
+		assertTrue(receivedByRemote((byte) 1));
+		sendFromRemote(NOT_INTERESTED);
+		readFromRemote(0);
+		assertTrue(receivedByRemote((byte) 0));
+	}
+
+}
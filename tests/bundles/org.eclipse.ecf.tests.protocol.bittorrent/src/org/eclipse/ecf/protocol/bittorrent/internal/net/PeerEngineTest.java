@@ -0,0 +1,63 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.net;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+public class PeerEngineTest extends TestCase {
+
+	private File directory;
+
+	private TorrentManager manager;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		directory = TestTorrents.createDirectory("peerengine"); //$NON-NLS-1$
+		manager = TestTorrents.createManager(directory, 8);
+	}
+
+	protected void tearDown() throws Exception {
+		TestTorrents.delete(directory);
+		super.tearDown();
+	}
+
+	public void testRegisterAfterShutdown() throws Exception {
+		ConnectionPool pool = new ConnectionPool(manager);
+		PeerEngine engine = new PeerEngine(pool, getName());
+		engine.start();
+		assertTrue(engine.isRunning());
+		engine.shutdown();
+		engine.join(5000);
+		assertFalse(engine.isAlive());
+		assertFalse(engine.isRunning());
+		assertFalse(engine.register(new PeerConnection(pool, manager)));
+	}
+
+	public void testPoolReplacesStoppedEngine() throws Exception {
+		ConnectionPool pool = new ConnectionPool(manager);
+		// nobody listens on port 1, the connection fails on its own
+		pool.connectTo("127.0.0.1", 1); //$NON-NLS-1$
+		PeerEngine engine = pool.getEngine();
+		assertNotNull(engine);
+		engine.shutdown();
+		engine.join(5000);
+		pool.connectTo("127.0.0.1", 2); //$NON-NLS-1$
+		PeerEngine replacement = pool.getEngine();
+		assertNotSame(engine, replacement);
+		assertTrue(replacement.isRunning());
+		pool.close();
+	}
+
+}
@@ -0,0 +1,98 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.net;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.ecf.protocol.bittorrent.TorrentFile;
+
+/**
+ * Creates single file torrents in a temporary directory for tests.
+ */
+final class TestTorrents {
+
+	private TestTorrents() {
+		// only static methods
+	}
+
+	static File createDirectory(String name) throws IOException {
+		File directory = File.createTempFile(name, ""); //$NON-NLS-1$
+		if (!directory.delete() || !directory.mkdirs()) {
+			throw new IOException("Unable to create " + directory); //$NON-NLS-1$
+		}
+		return directory;
+	}
+
+	static void delete(File file) {
+		File[] files = file.listFiles();
+		for (int i = 0; files != null && i < files.length; i++) {
+			delete(files[i]);
+		}
+		file.delete();
+	}
+
+	/**
+	 * Creates a manager for a torrent of <code>numPieces</code> pieces of two
+	 * bytes each, the last piece being one byte long.
+	 */
+	static TorrentManager createManager(File directory, int numPieces)
+			throws IOException {
+		StringBuffer pieces = new StringBuffer();
+		for (int i = 0; i < numPieces * 20; i++) {
+			pieces.append((char) (i % 256));
+		}
+		int length = numPieces * 2 - 1;
+		String name = "test"; //$NON-NLS-1$
+		String torrent = "d8:announce25:http://localhost/announce4:infod6:length" //$NON-NLS-1$
+				+ "i" + length + "e4:name" + name.length() + ":" + name //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "12:piece lengthi2e6:pieces" + pieces.length() + ":" //$NON-NLS-1$ //$NON-NLS-2$
+				+ pieces + "ee"; //$NON-NLS-1$
+		File file = new File(directory, name + ".torrent"); //$NON-NLS-1$
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(torrent.getBytes("ISO-8859-1")); //$NON-NLS-1$
+		} finally {
+			out.close();
+		}
+		TorrentFile torrentFile = new TorrentFile(file);
+		torrentFile.setTargetFile(new File(directory, name));
+		File state = new File(directory, "state"); //$NON-NLS-1$
+		state.mkdirs();
+		TorrentManager.setStatePath(state);
+		TorrentManager manager = new TorrentManager(torrentFile, null);
+		joinHashCheck(name);
+		return manager;
+	}
+
+	/**
+	 * Waits for the initial hash check so that it does not race with the
+	 * removal of the directory.
+	 */
+	private static void joinHashCheck(String name) throws IOException {
+		Thread[] threads = new Thread[Thread.activeCount() + 8];
+		int count = Thread.enumerate(threads);
+		for (int i = 0; i < count; i++) {
+			if (threads[i].getName().equals("Hash Check Thread - " + name)) { //$NON-NLS-1$
+				try {
+					threads[i].join(10000);
+				} catch (InterruptedException e) {
+					throw new IOException("Interrupted"); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class PiecePickerTest extends TestCase {
+
+	private static PieceSet all(int size) {
+		PieceSet set = new PieceSet(size);
+		set.setAll();
+		return set;
+	}
+
+	public void testUnavailablePiecesNotPicked() {
+		PiecePicker picker = new PiecePicker(10);
+		assertEquals(-1, picker.pick(all(10)));
+		picker.addAvailability(7);
+		assertEquals(7, picker.pick(all(10)));
+		assertEquals(-1, picker.pick(all(10)));
+	}
+
+	public void testRarestFirst() {
+		PiecePicker picker = new PiecePicker(10);
+		PieceSet peer = all(10);
+		for (int i = 0; i < 3; i++) {
+			picker.addAvailability(peer);
+		}
+		picker.removeAvailability(4);
+		picker.removeAvailability(4);
+		picker.removeAvailability(8);
+		assertEquals(1, picker.getAvailability(4));
+		assertEquals(2, picker.getAvailability(8));
+		assertEquals(3, picker.getAvailability(0));
+		assertEquals(4, picker.pick(peer));
+		assertEquals(8, picker.pick(peer));
+		int piece = picker.pick(peer);
+		assertTrue(piece != 4 && piece != 8 && piece != -1);
+	}
+
+	public void testOnlyPeerPiecesPicked() {
+		PiecePicker picker = new PiecePicker(10);
+		picker.addAvailability(all(10));
+		picker.addAvailability(2);
+		PieceSet peer = new PieceSet(10);
+		peer.set(2);
+		// piece 2 is not the rarest, but the only one the peer has
+		assertEquals(2, picker.pick(peer));
+		assertEquals(-1, picker.pick(peer));
+	}
+
+	public void testPriorityFirst() {
+		PiecePicker picker = new PiecePicker(10);
+		PieceSet peer = all(10);
+		picker.addAvailability(peer);
+		picker.addAvailability(peer);
+		picker.removeAvailability(1);
+		picker.setWanted(6, true, true);
+		assertEquals(6, picker.pick(peer));
+		assertEquals(1, picker.pick(peer));
+	}
+
+	public void testUnwantedAndDonePiecesNotPicked() {
+		PiecePicker picker = new PiecePicker(3);
+		PieceSet peer = all(3);
+		picker.addAvailability(peer);
+		picker.setWanted(0, false, false);
+		picker.setDone(1, true);
+		assertTrue(picker.isInteresting(peer));
+		assertEquals(2, picker.pick(peer));
+		assertEquals(-1, picker.pick(peer));
+		// a corrupt piece is needed again
+		picker.setDone(1, false);
+		assertEquals(1, picker.pick(peer));
+		picker.setDone(1, true);
+		picker.setDone(2, true);
+		assertFalse(picker.isInteresting(peer));
+	}
+
+	public void testEndgame() {
+		PiecePicker picker = new PiecePicker(4);
+		PieceSet peer = all(4);
+		picker.addAvailability(peer);
+		picker.setStarted(0);
+		assertFalse(picker.isEndgame());
+		for (int i = 0; i < 3; i++) {
+			assertTrue(picker.pick(peer) != -1);
+		}
+		assertTrue(picker.isEndgame());
+		assertEquals(-1, picker.pick(peer));
+		assertTrue(picker.pickStarted(peer) != -1);
+		assertEquals(0, picker.nextStarted(peer, 0));
+		PieceSet other = new PieceSet(4);
+		other.set(3);
+		assertEquals(3, picker.pickStarted(other));
+		picker.setDone(3, true);
+		assertEquals(-1, picker.pickStarted(other));
+	}
+
+	public void testHighAvailability() {
+		PiecePicker picker = new PiecePicker(5);
+		PieceSet peer = all(5);
+		// beyond the initial number of availability levels
+		for (int i = 0; i < 20; i++) {
+			picker.addAvailability(peer);
+		}
+		picker.removeAvailability(3);
+		assertEquals(20, picker.getAvailability(0));
+		assertEquals(19, picker.getAvailability(3));
+		assertEquals(3, picker.pick(peer));
+	}
+
+	public void testAgainstLinearScan() {
+		Random random = new Random(7);
+		int size = 200;
+		for (int run = 0; run < 20; run++) {
+			PiecePicker picker = new PiecePicker(size);
+			int[] availability = new int[size];
+			boolean[] started = new boolean[size];
+			for (int step = 0; step < 2000; step++) {
+				int piece = random.nextInt(size);
+				if (random.nextInt(3) != 0) {
+					picker.addAvailability(piece);
+					availability[piece]++;
+				} else {
+					picker.removeAvailability(piece);
+					if (availability[piece] > 0) {
+						availability[piece]--;
+					}
+				}
+				assertEquals(availability[piece], picker
+						.getAvailability(piece));
+				if (random.nextInt(50) == 0) {
+					PieceSet peer = new PieceSet(size);
+					for (int i = 0; i < size; i++) {
+						if (random.nextBoolean()) {
+							peer.set(i);
+						}
+					}
+					int rarest = Integer.MAX_VALUE;
+					for (int i = 0; i < size; i++) {
+						if (peer.get(i) && !started[i] && availability[i] > 0) {
+							rarest = Math.min(rarest, availability[i]);
+						}
+					}
+					int picked = picker.pick(peer);
+					if (rarest == Integer.MAX_VALUE) {
+						assertEquals(-1, picked);
+					} else {
+						assertTrue(picked != -1);
+						assertTrue(peer.get(picked));
+						assertFalse(started[picked]);
+						assertEquals(rarest, availability[picked]);
+						started[picked] = true;
+					}
+				}
+			}
+		}
+	}
+
+}
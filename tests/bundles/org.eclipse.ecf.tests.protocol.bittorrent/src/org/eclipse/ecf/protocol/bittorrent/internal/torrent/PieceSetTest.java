@@ -0,0 +1,132 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class PieceSetTest extends TestCase {
+
+	public void testSetAndClear() {
+		PieceSet set = new PieceSet(130);
+		assertTrue(set.isEmpty());
+		assertTrue(set.set(0));
+		assertTrue(set.set(63));
+		assertTrue(set.set(64));
+		assertTrue(set.set(129));
+		assertFalse(set.set(64));
+		assertEquals(4, set.cardinality());
+		assertTrue(set.get(63));
+		assertTrue(set.get(64));
+		assertFalse(set.get(65));
+		assertTrue(set.clear(63));
+		assertFalse(set.clear(63));
+		assertFalse(set.get(63));
+		assertEquals(3, set.cardinality());
+		assertFalse(set.set(0, true));
+		assertTrue(set.set(0, false));
+		assertEquals(2, set.cardinality());
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertEquals(-1, set.nextSetBit(0));
+	}
+
+	public void testSetAll() {
+		PieceSet set = new PieceSet(70);
+		set.setAll();
+		assertTrue(set.isFull());
+		assertEquals(70, set.cardinality());
+		assertTrue(set.get(69));
+		assertEquals(69, set.nextSetBit(69));
+		// the bits beyond the last piece must not be set
+		assertEquals(-1, set.nextSetBit(70));
+		set.clear(69);
+		assertFalse(set.isFull());
+		assertEquals(-1, set.nextSetBit(69));
+
+		PieceSet exact = new PieceSet(128);
+		exact.setAll();
+		assertEquals(128, exact.cardinality());
+		assertEquals(127, exact.nextSetBit(127));
+	}
+
+	public void testNextSetBit() {
+		PieceSet set = new PieceSet(200);
+		set.set(5);
+		set.set(63);
+		set.set(127);
+		set.set(128);
+		set.set(199);
+		assertEquals(5, set.nextSetBit(0));
+		assertEquals(5, set.nextSetBit(5));
+		assertEquals(63, set.nextSetBit(6));
+		assertEquals(127, set.nextSetBit(64));
+		assertEquals(128, set.nextSetBit(128));
+		assertEquals(199, set.nextSetBit(129));
+		assertEquals(-1, set.nextSetBit(200));
+	}
+
+	public void testNextSetBitWithOther() {
+		PieceSet set = new PieceSet(200);
+		PieceSet other = new PieceSet(200);
+		set.set(5);
+		set.set(100);
+		set.set(150);
+		other.set(6);
+		other.set(150);
+		assertEquals(150, set.nextSetBit(0, other));
+		assertEquals(-1, set.nextSetBit(151, other));
+		other.set(5);
+		assertEquals(5, set.nextSetBit(0, other));
+	}
+
+	public void testIntersects() {
+		PieceSet set = new PieceSet(100);
+		PieceSet other = new PieceSet(100);
+		set.set(10);
+		other.set(11);
+		assertFalse(set.intersects(other));
+		other.set(10);
+		assertTrue(set.intersects(other));
+		assertTrue(other.intersects(set));
+	}
+
+	public void testAgainstBitSet() {
+		Random random = new Random(42);
+		int size = 1000;
+		PieceSet set = new PieceSet(size);
+		PieceSet other = new PieceSet(size);
+		BitSet expected = new BitSet(size);
+		BitSet expectedOther = new BitSet(size);
+		for (int step = 0; step < 5000; step++) {
+			int piece = random.nextInt(size);
+			boolean value = random.nextBoolean();
+			assertEquals(expected.get(piece) != value, set.set(piece, value));
+			expected.set(piece, value);
+			piece = random.nextInt(size);
+			other.set(piece);
+			expectedOther.set(piece);
+			assertEquals(expected.cardinality(), set.cardinality());
+			int from = random.nextInt(size);
+			assertEquals(expected.nextSetBit(from), set.nextSetBit(from));
+			BitSet both = (BitSet) expected.clone();
+			both.and(expectedOther);
+			assertEquals(both.nextSetBit(from), set.nextSetBit(from, other));
+			assertEquals(expected.intersects(expectedOther), set
+					.intersects(other));
+		}
+	}
+
+}
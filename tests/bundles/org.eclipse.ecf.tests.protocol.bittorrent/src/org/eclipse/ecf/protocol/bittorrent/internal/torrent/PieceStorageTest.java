@@ -0,0 +1,159 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+public class PieceStorageTest extends TestCase {
+
+	private static final int PIECE_LENGTH = 16;
+
+	private File first;
+
+	private File second;
+
+	private DataFile[] files;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		first = File.createTempFile("piecestorage", ".1"); //$NON-NLS-1$ //$NON-NLS-2$
+		second = File.createTempFile("piecestorage", ".2"); //$NON-NLS-1$ //$NON-NLS-2$
+		// 40 bytes in total, the second piece spans both files and the last
+		// piece is 8 bytes long
+		files = new DataFile[] { new DataFile(first, 20),
+				new DataFile(second, 20) };
+	}
+
+	protected void tearDown() throws Exception {
+		first.delete();
+		second.delete();
+		super.tearDown();
+	}
+
+	private static byte[] bytes(int start, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (start + i);
+		}
+		return data;
+	}
+
+	private void writeAll(PieceStorage storage) throws IOException {
+		for (int piece = 0; piece < 3; piece++) {
+			int length = storage.getPieceLength(piece);
+			storage.write(piece, 0, bytes(piece * PIECE_LENGTH, length), 0,
+					length);
+		}
+	}
+
+	public void testPieceLength() {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 0);
+		assertEquals(PIECE_LENGTH, storage.getPieceLength(0));
+		assertEquals(PIECE_LENGTH, storage.getPieceLength(1));
+		assertEquals(8, storage.getPieceLength(2));
+	}
+
+	public void testReadWriteAcrossFiles() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 0);
+		writeAll(storage);
+		assertTrue(Arrays.equals(bytes(16, 16), storage.read(1, 0, 16, false)));
+		assertTrue(Arrays.equals(bytes(34, 6), storage.read(2, 2, 6, false)));
+		assertTrue(Arrays.equals(bytes(16, 16), storage.readPiece(1)));
+	}
+
+	public void testBlockWithinPiece() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 0);
+		storage.write(1, 2, bytes(100, 8), 2, 4);
+		assertTrue(Arrays.equals(bytes(102, 4), storage.read(1, 2, 4, false)));
+	}
+
+	public void testInvalidRange() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 0);
+		try {
+			storage.read(3, 0, 1, false);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			storage.read(-1, 0, 1, false);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			storage.read(2, 4, 5, false);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			storage.write(0, -1, new byte[1], 0, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testCachedReads() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 64);
+		writeAll(storage);
+		storage.readPiece(0);
+		long misses = storage.getCacheMisses();
+		long hits = storage.getCacheHits();
+		assertTrue(Arrays.equals(bytes(4, 4), storage.read(0, 4, 4, true)));
+		assertEquals(hits + 1, storage.getCacheHits());
+		assertEquals(misses, storage.getCacheMisses());
+	}
+
+	public void testWriteInvalidatesCache() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 64);
+		writeAll(storage);
+		storage.readPiece(0);
+		storage.write(0, 0, bytes(50, 4), 0, 4);
+		long misses = storage.getCacheMisses();
+		assertTrue(Arrays.equals(bytes(50, 4), storage.read(0, 0, 4, true)));
+		assertEquals(misses + 1, storage.getCacheMisses());
+	}
+
+	public void testLeastRecentlyUsedPieceEvicted() throws Exception {
+		// room for two full pieces
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 32);
+		writeAll(storage);
+		storage.readPiece(0);
+		storage.readPiece(1);
+		// piece 0 is now the most recently used one
+		storage.readPiece(0);
+		storage.readPiece(2);
+		long misses = storage.getCacheMisses();
+		storage.readPiece(0);
+		storage.readPiece(2);
+		assertEquals(misses, storage.getCacheMisses());
+		storage.readPiece(1);
+		assertEquals(misses + 1, storage.getCacheMisses());
+	}
+
+	public void testCacheDisabled() throws Exception {
+		PieceStorage storage = new PieceStorage(files, PIECE_LENGTH, 0);
+		writeAll(storage);
+		storage.readPiece(0);
+		long misses = storage.getCacheMisses();
+		assertTrue(Arrays.equals(bytes(0, 16), storage.readPiece(0)));
+		assertEquals(misses + 1, storage.getCacheMisses());
+	}
+
+}
@@ -0,0 +1,145 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.protocol.bittorrent.internal.torrent;
+
+import java.io.File;
+import java.security.MessageDigest;
+
+import junit.framework.TestCase;
+
+public class PieceVerifierTest extends TestCase {
+
+	private static final int PIECE_LENGTH = 16;
+
+	private static final int NUM_PIECES = 64;
+
+	private File file;
+
+	private PieceStorage storage;
+
+	private String[] hashes;
+
+	private byte[][] pieces;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		file = File.createTempFile("pieceverifier", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+		storage = new PieceStorage(new DataFile[] { new DataFile(file,
+				PIECE_LENGTH * NUM_PIECES) }, PIECE_LENGTH, 0);
+		MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+		hashes = new String[NUM_PIECES];
+		pieces = new byte[NUM_PIECES][PIECE_LENGTH];
+		for (int i = 0; i < NUM_PIECES; i++) {
+			for (int j = 0; j < PIECE_LENGTH; j++) {
+				pieces[i][j] = (byte) (i * PIECE_LENGTH + j);
+			}
+			hashes[i] = new String(digest.digest(pieces[i]), "ISO-8859-1"); //$NON-NLS-1$
+		}
+	}
+
+	protected void tearDown() throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	private static class Recorder implements IPieceVerificationListener {
+
+		// one more for a piece that does not exist
+		private final boolean[] valid = new boolean[NUM_PIECES + 1];
+
+		private final boolean fail;
+
+		private int count = 0;
+
+		Recorder(boolean fail) {
+			this.fail = fail;
+		}
+
+		public synchronized void verified(int number, boolean isValid) {
+			valid[number] = isValid;
+			count++;
+			notifyAll();
+			if (fail) {
+				throw new RuntimeException("listener failure"); //$NON-NLS-1$
+			}
+		}
+
+		synchronized boolean waitFor(int expected) throws InterruptedException {
+			long end = System.currentTimeMillis() + 10000;
+			while (count < expected && System.currentTimeMillis() < end) {
+				wait(100);
+			}
+			return count == expected;
+		}
+
+		synchronized boolean isValid(int number) {
+			return valid[number];
+		}
+
+	}
+
+	public void testVerifyData() throws Exception {
+		PieceVerifier verifier = new PieceVerifier(getName(), storage,
+				hashes, PIECE_LENGTH * 4);
+		Recorder recorder = new Recorder(false);
+		for (int i = 0; i < NUM_PIECES; i++) {
+			byte[] data = (byte[]) pieces[i].clone();
+			if (i % 2 == 1) {
+				data[0]++;
+			}
+			verifier.verify(i, data, recorder);
+		}
+		assertTrue(recorder.waitFor(NUM_PIECES));
+		for (int i = 0; i < NUM_PIECES; i++) {
+			assertEquals(i % 2 == 0, recorder.isValid(i));
+		}
+	}
+
+	public void testVerifyFromStorage() throws Exception {
+		storage.write(3, 0, pieces[3], 0, PIECE_LENGTH);
+		PieceVerifier verifier = new PieceVerifier(getName(), storage,
+				hashes, 0);
+		Recorder recorder = new Recorder(false);
+		verifier.verify(3, recorder);
+		verifier.verify(4, recorder);
+		assertTrue(recorder.waitFor(2));
+		assertTrue(recorder.isValid(3));
+		assertFalse(recorder.isValid(4));
+	}
+
+	public void testFailingListener() throws Exception {
+		PieceVerifier verifier = new PieceVerifier(getName(), storage,
+				hashes, PIECE_LENGTH * NUM_PIECES);
+		Recorder recorder = new Recorder(true);
+		for (int i = 0; i < NUM_PIECES; i++) {
+			verifier.verify(i, pieces[i], recorder);
+		}
+		assertTrue(recorder.waitFor(NUM_PIECES));
+		for (int i = 0; i < NUM_PIECES; i++) {
+			assertTrue(recorder.isValid(i));
+		}
+	}
+
+	public void testUnknownPiece() throws Exception {
+		PieceVerifier verifier = new PieceVerifier(getName(), storage,
+				hashes, 0);
+		Recorder recorder = new Recorder(false);
+		// the storage rejects the piece number, the piece is reported invalid
+		verifier.verify(NUM_PIECES, recorder);
+		verifier.verify(0, pieces[0], recorder);
+		assertTrue(recorder.waitFor(2));
+		assertFalse(recorder.isValid(NUM_PIECES));
+		assertTrue(recorder.isValid(0));
+	}
+
+}
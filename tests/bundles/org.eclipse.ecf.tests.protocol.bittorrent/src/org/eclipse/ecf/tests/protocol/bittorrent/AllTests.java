@@ -0,0 +1,37 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.protocol.bittorrent;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.ecf.protocol.bittorrent.internal.net.PeerConnectionTest;
+import org.eclipse.ecf.protocol.bittorrent.internal.net.PeerEngineTest;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PiecePickerTest;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceSetTest;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceStorageTest;
+import org.eclipse.ecf.protocol.bittorrent.internal.torrent.PieceVerifierTest;
+
+public class AllTests extends TestCase {
+
+	public static TestSuite suite() {
+		TestSuite suite = new TestSuite();
+		suite.addTestSuite(PeerConnectionTest.class);
+		suite.addTestSuite(PeerEngineTest.class);
+		suite.addTestSuite(PiecePickerTest.class);
+		suite.addTestSuite(PieceSetTest.class);
+		suite.addTestSuite(PieceStorageTest.class);
+		suite.addTestSuite(PieceVerifierTest.class);
+		return suite;
+	}
+}
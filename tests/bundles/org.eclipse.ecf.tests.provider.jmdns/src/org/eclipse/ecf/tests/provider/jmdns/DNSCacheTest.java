@@ -0,0 +1,158 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jmdns;
+
+import java.util.List;
+
+import javax.jmdns.impl.DNSCache;
+import javax.jmdns.impl.DNSConstants;
+import javax.jmdns.impl.DNSRecord;
+
+import junit.framework.TestCase;
+
+public class DNSCacheTest extends TestCase {
+
+	private static final String TYPE = "_ecf._tcp.local.";
+
+	private DNSCache cache;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		cache = new DNSCache(100);
+	}
+
+	private static DNSRecord createPointer(String alias, int ttl) {
+		return new DNSRecord.Pointer(TYPE, DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, ttl, alias + "." + TYPE);
+	}
+
+	private static int count(List list, Object element) {
+		int count = 0;
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) == element) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public void testAddAndRemove() {
+		final DNSRecord first = createPointer("first", 60);
+		final DNSRecord second = createPointer("second", 60);
+		cache.add(first);
+		cache.add(second);
+		DNSCache.CacheNode node = cache.find(TYPE);
+		assertSame(first, node.getValue());
+		assertSame(second, node.next().getValue());
+		assertNull(node.next().next());
+		assertSame(second, cache.get(createPointer("second", 60)));
+
+		assertTrue(cache.remove(first));
+		assertFalse(cache.remove(first));
+		// lists handed out before are not modified
+		assertSame(first, node.getValue());
+		node = cache.find(TYPE);
+		assertSame(second, node.getValue());
+		assertNull(node.next());
+		assertTrue(cache.remove(second));
+		assertNull(cache.find(TYPE));
+		assertFalse(cache.iterator().hasNext());
+	}
+
+	public void testGetExpired() {
+		final DNSRecord shortLived = createPointer("short", 1);
+		final DNSRecord longLived = createPointer("long", 60);
+		final long now = System.currentTimeMillis();
+		cache.add(shortLived);
+		cache.add(longLived);
+		assertTrue(cache.getExpired(now - 1000).isEmpty());
+
+		List expired = cache.getExpired(now + 2000);
+		assertEquals(1, expired.size());
+		assertSame(shortLived, expired.get(0));
+		// records are only returned once
+		assertTrue(cache.getExpired(now + 2000).isEmpty());
+
+		expired = cache.getExpired(now + 61000);
+		assertEquals(1, expired.size());
+		assertSame(longLived, expired.get(0));
+	}
+
+	public void testRemovedRecordNotExpired() {
+		final DNSRecord rec = createPointer("removed", 1);
+		cache.add(rec);
+		cache.remove(rec);
+		assertTrue(cache.getExpired(System.currentTimeMillis() + 2000).isEmpty());
+	}
+
+	public void testExtendedRecordRescheduled() {
+		final DNSRecord rec = createPointer("extended", 1);
+		final long now = System.currentTimeMillis();
+		cache.add(rec);
+		rec.setTtl(60);
+		assertTrue(cache.getExpired(now + 2000).isEmpty());
+		final List expired = cache.getExpired(now + 61000);
+		assertEquals(1, expired.size());
+		assertSame(rec, expired.get(0));
+	}
+
+	public void testReAddedRecordIndexedOnce() {
+		final DNSRecord rec = createPointer("readded", 1);
+		cache.add(rec);
+		cache.remove(rec);
+		cache.add(rec);
+		cache.remove(rec);
+		cache.add(rec);
+		final List expired = cache.getExpired(System.currentTimeMillis() + 2000);
+		assertEquals(1, count(expired, rec));
+	}
+
+	public void testShortenedRecordIndexedOnce() {
+		final DNSRecord rec = createPointer("shortened", 60);
+		final long now = System.currentTimeMillis();
+		cache.add(rec);
+		cache.remove(rec);
+		rec.setTtl(1);
+		cache.add(rec);
+		List expired = cache.getExpired(now + 2000);
+		assertEquals(1, count(expired, rec));
+		assertTrue(cache.getExpired(now + 61000).isEmpty());
+	}
+
+	public void testResetTTLShortened() {
+		final DNSRecord rec = createPointer("reset", 60);
+		final long now = System.currentTimeMillis();
+		cache.add(rec);
+		// a response announces the record with a shorter TTL
+		cache.resetTTL(rec, createPointer("reset", 1));
+		List expired = cache.getExpired(now + 2000);
+		assertEquals(1, count(expired, rec));
+		assertTrue(cache.getExpired(now + 61000).isEmpty());
+	}
+
+	public void testResetTTLExtended() {
+		final DNSRecord rec = createPointer("reset", 1);
+		final long now = System.currentTimeMillis();
+		cache.add(rec);
+		cache.resetTTL(rec, createPointer("reset", 60));
+		assertTrue(cache.getExpired(now + 2000).isEmpty());
+		assertEquals(1, count(cache.getExpired(now + 61000), rec));
+	}
+
+	public void testClear() {
+		final DNSRecord rec = createPointer("cleared", 1);
+		cache.add(rec);
+		cache.clear();
+		assertNull(cache.find(TYPE));
+		assertTrue(cache.getExpired(System.currentTimeMillis() + 2000).isEmpty());
+	}
+}
@@ -0,0 +1,101 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jmdns;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jmdns.impl.DNSConstants;
+import javax.jmdns.impl.DNSOutgoing;
+import javax.jmdns.impl.DNSQuestion;
+import javax.jmdns.impl.DNSRecord;
+import javax.jmdns.impl.QueryBatcher;
+
+import junit.framework.TestCase;
+
+public class QueryBatcherTest extends TestCase {
+
+	private static final String TYPE = "_ecf._tcp.local.";
+
+	private static DNSQuestion createQuestion(String type) {
+		return new DNSQuestion(type, DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN);
+	}
+
+	private static DNSRecord createPointer(String alias, int ttl) {
+		return new DNSRecord.Pointer(TYPE, DNSConstants.TYPE_PTR, DNSConstants.CLASS_IN, ttl, alias + "." + TYPE);
+	}
+
+	private static List queries(QueryBatcher.Query[] queries) {
+		final List list = new ArrayList();
+		for (int i = 0; i < queries.length; i++) {
+			list.add(queries[i]);
+		}
+		return list;
+	}
+
+	public void testDuplicatesSentOnce() {
+		final DNSRecord answer = createPointer("known", 60);
+		final List messages = QueryBatcher.pack(queries(new QueryBatcher.Query[] {new QueryBatcher.Query(new DNSQuestion[] {createQuestion(TYPE)}, new DNSRecord[] {answer, null}), new QueryBatcher.Query(new DNSQuestion[] {createQuestion(TYPE), createQuestion("_other._tcp.local.")}, new DNSRecord[] {createPointer("known", 60)})}), System.currentTimeMillis());
+		assertEquals(1, messages.size());
+		final DNSOutgoing out = (DNSOutgoing) messages.get(0);
+		assertEquals(2, out.getNumQuestions());
+		assertEquals(1, out.getNumAnswers());
+		assertFalse(out.isTruncated());
+	}
+
+	public void testStaleKnownAnswersLeftOut() {
+		final DNSRecord answer = createPointer("stale", 100);
+		final long now = System.currentTimeMillis();
+		final List queries = queries(new QueryBatcher.Query[] {new QueryBatcher.Query(new DNSQuestion[] {createQuestion(TYPE)}, new DNSRecord[] {answer})});
+		assertEquals(1, ((DNSOutgoing) QueryBatcher.pack(queries, now).get(0)).getNumAnswers());
+		// less than half of the TTL left
+		final List messages = QueryBatcher.pack(queries, now + 60000);
+		assertEquals(1, messages.size());
+		assertEquals(1, ((DNSOutgoing) messages.get(0)).getNumQuestions());
+		assertEquals(0, ((DNSOutgoing) messages.get(0)).getNumAnswers());
+	}
+
+	public void testOverflowingKnownAnswersTruncated() {
+		final DNSRecord[] answers = new DNSRecord[200];
+		for (int i = 0; i < answers.length; i++) {
+			answers[i] = createPointer("a service with a rather long name number " + i, 60);
+		}
+		final List messages = QueryBatcher.pack(queries(new QueryBatcher.Query[] {new QueryBatcher.Query(new DNSQuestion[] {createQuestion(TYPE)}, answers)}), System.currentTimeMillis());
+		assertTrue(messages.size() > 1);
+		int numAnswers = 0;
+		for (int i = 0; i < messages.size(); i++) {
+			final DNSOutgoing out = (DNSOutgoing) messages.get(i);
+			assertEquals(i == 0 ? 1 : 0, out.getNumQuestions());
+			assertEquals(i < messages.size() - 1, out.isTruncated());
+			assertTrue(out.getNumAnswers() > 0);
+			numAnswers += out.getNumAnswers();
+		}
+		assertEquals(answers.length, numAnswers);
+	}
+
+	public void testOverflowingQuestionsSplit() {
+		final QueryBatcher.Query[] queries = new QueryBatcher.Query[200];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = new QueryBatcher.Query(new DNSQuestion[] {createQuestion("_type" + i + "._tcp.local.")}, new DNSRecord[0]);
+		}
+		final List messages = QueryBatcher.pack(queries(queries), System.currentTimeMillis());
+		assertTrue(messages.size() > 1);
+		int numQuestions = 0;
+		for (int i = 0; i < messages.size(); i++) {
+			final DNSOutgoing out = (DNSOutgoing) messages.get(i);
+			assertFalse(out.isTruncated());
+			numQuestions += out.getNumQuestions();
+		}
+		assertEquals(queries.length, numQuestions);
+	}
+}
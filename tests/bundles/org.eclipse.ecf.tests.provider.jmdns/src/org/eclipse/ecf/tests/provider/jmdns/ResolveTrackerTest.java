@@ -0,0 +1,120 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.provider.jmdns;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.discovery.IServiceInfo;
+import org.eclipse.ecf.internal.provider.jmdns.ResolveTracker;
+
+public class ResolveTrackerTest extends TestCase {
+
+	private static final String KEY = "_ecf._tcp.local.service";
+
+	private ResolveTracker tracker;
+	private IServiceInfo serviceInfo;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		tracker = new ResolveTracker();
+		serviceInfo = (IServiceInfo) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {IServiceInfo.class}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				return null;
+			}
+		});
+	}
+
+	public void testResolvedOnce() throws Exception {
+		final Object token = tracker.start(KEY);
+		assertNotNull(token);
+		// announced again while being resolved
+		assertNull(tracker.start(KEY));
+		assertNotNull(tracker.start(KEY + "2"));
+		assertTrue(tracker.complete(KEY, token, serviceInfo, 0, 0));
+		assertNotNull(tracker.start(KEY));
+	}
+
+	public void testCachedUntilExpiration() throws Exception {
+		final Object token = tracker.start(KEY);
+		assertTrue(tracker.complete(KEY, token, serviceInfo, 1000, 0));
+		assertSame(serviceInfo, tracker.getCached(KEY, 999));
+		assertNull(tracker.getCached(KEY, 1000));
+		assertEquals(0, tracker.getCacheSize());
+	}
+
+	public void testNotCached() throws Exception {
+		// no expiration time, e.g. because the result came from the cache
+		assertTrue(tracker.complete(KEY, tracker.start(KEY), serviceInfo, 0, 0));
+		assertNull(tracker.getCached(KEY, 0));
+		// not resolved
+		assertTrue(tracker.complete(KEY, tracker.start(KEY), null, 1000, 0));
+		assertNull(tracker.getCached(KEY, 0));
+		// expired before it was resolved
+		assertTrue(tracker.complete(KEY, tracker.start(KEY), serviceInfo, 1000, 1000));
+		assertNull(tracker.getCached(KEY, 0));
+	}
+
+	public void testRemovedWhileResolving() throws Exception {
+		final Object token = tracker.start(KEY);
+		tracker.remove(KEY);
+		// the result is dropped, and the removed service is not cached
+		assertFalse(tracker.complete(KEY, token, serviceInfo, 1000, 0));
+		assertNull(tracker.getCached(KEY, 0));
+		assertEquals(0, tracker.getCacheSize());
+	}
+
+	public void testAnnouncedAgainAfterRemove() throws Exception {
+		final Object first = tracker.start(KEY);
+		tracker.remove(KEY);
+		final Object second = tracker.start(KEY);
+		assertNotNull(second);
+		// the first resolve neither completes nor abandons the second one
+		tracker.abandon(KEY, first);
+		assertFalse(tracker.complete(KEY, first, serviceInfo, 1000, 0));
+		assertNull(tracker.start(KEY));
+		assertTrue(tracker.complete(KEY, second, serviceInfo, 1000, 0));
+		assertSame(serviceInfo, tracker.getCached(KEY, 0));
+	}
+
+	public void testRemoveCached() throws Exception {
+		assertTrue(tracker.complete(KEY, tracker.start(KEY), serviceInfo, 1000, 0));
+		tracker.remove(KEY);
+		assertNull(tracker.getCached(KEY, 0));
+	}
+
+	public void testAbandon() throws Exception {
+		tracker.abandon(KEY, tracker.start(KEY));
+		assertNotNull(tracker.start(KEY));
+	}
+
+	public void testExpiredEntriesSwept() throws Exception {
+		for (int i = 0; i < 10; i++)
+			assertTrue(tracker.complete(KEY + i, tracker.start(KEY + i), serviceInfo, 1000, 0));
+		assertEquals(10, tracker.getCacheSize());
+		// the next put after the sweep interval removes expired entries
+		assertTrue(tracker.complete(KEY, tracker.start(KEY), serviceInfo, 200000, 100000));
+		assertEquals(1, tracker.getCacheSize());
+	}
+
+	public void testClear() throws Exception {
+		final Object token = tracker.start(KEY);
+		assertTrue(tracker.complete(KEY + "2", tracker.start(KEY + "2"), serviceInfo, 1000, 0));
+		tracker.clear();
+		assertFalse(tracker.complete(KEY, token, serviceInfo, 1000, 0));
+		assertEquals(0, tracker.getCacheSize());
+	}
+}
@@ -0,0 +1,222 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.eventadmin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.internal.remoteservice.eventadmin.EventBatcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventBatcherTest {
+
+	private final List<Object[]> batches = Collections.synchronizedList(new ArrayList<Object[]>());
+	private final List<ID> targets = Collections.synchronizedList(new ArrayList<ID>());
+	private EventBatcher batcher;
+
+	private EventBatcher createBatcher(int maxBatchSize, long batchWindow) {
+		return new EventBatcher(new EventBatcher.Sender() {
+			public void sendBatch(ID target, Object[] batch) throws IOException {
+				targets.add(target);
+				batches.add(batch);
+			}
+
+			public void handleBatchException(ID target, Object[] batch, IOException e) {
+				Assert.fail(e.getMessage());
+			}
+		}, maxBatchSize, batchWindow);
+	}
+
+	private static Object[] data(int i) {
+		return new Object[] { Integer.valueOf(i) };
+	}
+
+	@After
+	public void teardown() {
+		if (batcher != null)
+			batcher.close();
+	}
+
+	@Test
+	public void testFullBatchSentImmediately() throws Exception {
+		batcher = createBatcher(3, 60000);
+		for (int i = 0; i < 5; i++)
+			batcher.add(null, data(i));
+		Assert.assertEquals(1, batches.size());
+		Assert.assertEquals(3, batches.get(0).length);
+		batcher.flush();
+		Assert.assertEquals(2, batches.size());
+		Assert.assertNull(targets.get(1));
+		// order is preserved across batches
+		int expected = 0;
+		for (Object[] batch : batches)
+			for (int i = 0; i < batch.length; i++)
+				Assert.assertEquals(Integer.valueOf(expected++), ((Object[]) batch[i])[0]);
+	}
+
+	@Test
+	public void testBatchesPerTarget() throws Exception {
+		batcher = createBatcher(10, 60000);
+		ID a = IDFactory.getDefault().createStringID("a");
+		ID b = IDFactory.getDefault().createStringID("b");
+		batcher.add(a, data(0));
+		batcher.add(b, data(1));
+		batcher.add(a, data(2));
+		batcher.discard(b);
+		batcher.flush();
+		Assert.assertEquals(1, batches.size());
+		Assert.assertEquals(a, targets.get(0));
+		Assert.assertEquals(2, batches.get(0).length);
+	}
+
+	@Test
+	public void testGroupAndTargetBatchesKeepOrder() throws Exception {
+		batcher = createBatcher(10, 60000);
+		ID a = IDFactory.getDefault().createStringID("a");
+		ID b = IDFactory.getDefault().createStringID("b");
+		batcher.add(null, data(0));
+		batcher.add(a, data(1));
+		batcher.add(b, data(2));
+		batcher.add(a, data(3));
+		batcher.add(null, data(4));
+		batcher.flush();
+		// a receives 0, 1, 3, 4 in this order
+		Assert.assertEquals(4, batches.size());
+		Assert.assertNull(targets.get(0));
+		Assert.assertEquals(a, targets.get(1));
+		Assert.assertEquals(2, batches.get(1).length);
+		Assert.assertEquals(b, targets.get(2));
+		Assert.assertNull(targets.get(3));
+		Assert.assertEquals(Integer.valueOf(4), ((Object[]) batches.get(3)[0])[0]);
+	}
+
+	@Test
+	public void testFailureReportedToCaller() throws Exception {
+		final List<Object[]> failed = Collections.synchronizedList(new ArrayList<Object[]>());
+		batcher = new EventBatcher(new EventBatcher.Sender() {
+			public void sendBatch(ID target, Object[] batch) throws IOException {
+				throw new IOException("send failed");
+			}
+
+			public void handleBatchException(ID target, Object[] batch, IOException e) {
+				failed.add(batch);
+			}
+		}, 2, 60000);
+		batcher.add(null, data(0));
+		try {
+			batcher.add(null, data(1));
+			Assert.fail();
+		} catch (IOException e) {
+			// full batch is sent by the caller
+		}
+		batcher.add(null, data(2));
+		try {
+			batcher.flush(true);
+			Assert.fail();
+		} catch (IOException e) {
+			// expected
+		}
+		Assert.assertTrue(failed.isEmpty());
+		batcher.add(null, data(3));
+		batcher.flush();
+		Assert.assertEquals(1, failed.size());
+	}
+
+	@Test(timeout = 10000)
+	public void testAddNotBlockedBySend() throws Exception {
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		batcher = new EventBatcher(new EventBatcher.Sender() {
+			public void sendBatch(ID target, Object[] batch) throws IOException {
+				sending.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException("interrupted");
+				}
+				batches.add(batch);
+			}
+
+			public void handleBatchException(ID target, Object[] batch, IOException e) {
+				Assert.fail(e.getMessage());
+			}
+		}, 2, 60000);
+		final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+		Thread sender = new Thread() {
+			public void run() {
+				try {
+					batcher.add(null, data(0));
+					batcher.add(null, data(1));
+				} catch (Exception e) {
+					failures.add(e);
+				}
+			}
+		};
+		sender.start();
+		Assert.assertTrue(sending.await(5, TimeUnit.SECONDS));
+		// Buffering is not held up by the blocked send
+		batcher.add(null, data(2));
+		Thread filler = new Thread() {
+			public void run() {
+				try {
+					batcher.add(null, data(3));
+				} catch (Exception e) {
+					failures.add(e);
+				}
+			}
+		};
+		filler.start();
+		// The second full batch waits for the first one
+		Thread.sleep(100);
+		Assert.assertTrue(batches.isEmpty());
+		release.countDown();
+		sender.join(5000);
+		filler.join(5000);
+		Assert.assertTrue(failures.isEmpty());
+		Assert.assertEquals(2, batches.size());
+		Assert.assertEquals(Integer.valueOf(0), ((Object[]) batches.get(0)[0])[0]);
+		Assert.assertEquals(Integer.valueOf(2), ((Object[]) batches.get(1)[0])[0]);
+	}
+
+	@Test
+	public void testAddAfterClose() throws Exception {
+		batcher = createBatcher(10, 60000);
+		batcher.add(null, data(0));
+		batcher.add(null, data(1));
+		batcher.close();
+		Assert.assertEquals(1, batches.size());
+		Assert.assertEquals(2, batches.get(0).length);
+		// Sent immediately, after the buffered events
+		batcher.add(null, data(2));
+		Assert.assertEquals(2, batches.size());
+		Assert.assertEquals(Integer.valueOf(2), ((Object[]) batches.get(1)[0])[0]);
+	}
+
+	@Test
+	public void testBatchWindow() throws Exception {
+		batcher = createBatcher(100, 50);
+		batcher.add(null, data(0));
+		long end = System.currentTimeMillis() + 5000;
+		while (batches.isEmpty() && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		Assert.assertEquals(1, batches.size());
+	}
+}
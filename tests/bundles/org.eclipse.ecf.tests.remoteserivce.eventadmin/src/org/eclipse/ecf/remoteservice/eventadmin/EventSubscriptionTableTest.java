@@ -0,0 +1,70 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.eventadmin;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.internal.remoteservice.eventadmin.EventSubscriptionTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventSubscriptionTableTest {
+
+	private EventSubscriptionTable table;
+	private ID[] members;
+
+	@Before
+	public void setup() throws Exception {
+		table = new EventSubscriptionTable();
+		members = new ID[] { IDFactory.getDefault().createStringID("a"),
+				IDFactory.getDefault().createStringID("b"),
+				IDFactory.getDefault().createStringID("c") };
+	}
+
+	@Test
+	public void testTopicMatches() {
+		Assert.assertTrue(EventSubscriptionTable.topicMatches("*", "org/foo"));
+		Assert.assertTrue(EventSubscriptionTable.topicMatches("org/foo", "org/foo"));
+		Assert.assertFalse(EventSubscriptionTable.topicMatches("org/foo", "org/foo/bar"));
+		Assert.assertTrue(EventSubscriptionTable.topicMatches("org/*", "org/foo/bar"));
+		Assert.assertTrue(EventSubscriptionTable.topicMatches("org/*", "org"));
+		Assert.assertFalse(EventSubscriptionTable.topicMatches("org/*", "organization/foo"));
+	}
+
+	@Test
+	public void testUnknownMembersAreInterested() {
+		Assert.assertNull(table.getInterestedMembers(members, "org/foo"));
+	}
+
+	@Test
+	public void testInterestedMembers() {
+		table.update(members[0], new String[] { "org/foo/*" }, null);
+		table.update(members[1], new String[] { "org/bar" }, null);
+		ID[] interested = table.getInterestedMembers(members, "org/foo/x");
+		Assert.assertArrayEquals(new ID[] { members[0], members[2] }, interested);
+		table.update(members[2], new String[0], null);
+		interested = table.getInterestedMembers(members, "org/baz");
+		Assert.assertEquals(0, interested.length);
+		table.remove(members[2]);
+		interested = table.getInterestedMembers(members, "org/baz");
+		Assert.assertArrayEquals(new ID[] { members[2] }, interested);
+	}
+
+	@Test
+	public void testExcludedTopics() {
+		table.update(members[0], new String[] { "*" }, new String[] { "local/only" });
+		Assert.assertFalse(table.isInterested(members[0], "local/only"));
+		Assert.assertTrue(table.isInterested(members[0], "local/other"));
+	}
+}
@@ -0,0 +1,185 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.ecf.core.IContainer;
+import org.eclipse.ecf.core.util.ECFException;
+import org.eclipse.ecf.remoteservice.IRemoteCall;
+import org.eclipse.ecf.remoteservice.IRemoteCallListener;
+import org.eclipse.ecf.remoteservice.IRemoteServiceID;
+import org.eclipse.ecf.remoteservice.IRemoteServiceReference;
+import org.eclipse.ecf.remoteservice.IRemoteServiceRegistration;
+import org.eclipse.ecf.remoteservice.RemoteCallFactory;
+import org.eclipse.ecf.remoteservice.client.AbstractClientContainer;
+import org.eclipse.ecf.remoteservice.client.AbstractClientService;
+import org.eclipse.ecf.remoteservice.client.IRemoteCallable;
+import org.eclipse.ecf.remoteservice.client.RemoteCallableFactory;
+import org.eclipse.ecf.remoteservice.client.RemoteServiceClientRegistration;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallCompleteEvent;
+import org.eclipse.ecf.remoteservice.events.IRemoteCallEvent;
+import org.eclipse.equinox.concurrent.future.IFuture;
+
+public class AsyncCallLimitTest extends AbstractRestTestCase {
+
+	private static final String METHOD = "method";
+
+	IContainer container;
+	IRemoteServiceRegistration registration;
+	BlockingClientService service;
+	CountDownLatch release = new CountDownLatch(1);
+
+	static class BlockingClientService extends AbstractClientService {
+
+		private final CountDownLatch release;
+
+		BlockingClientService(IContainer container, IRemoteServiceRegistration registration, CountDownLatch release, int maxAsyncCallsInProgress) {
+			super((AbstractClientContainer) container, (RemoteServiceClientRegistration) registration);
+			this.release = release;
+			this.maxAsyncCallsInProgress = maxAsyncCallsInProgress;
+		}
+
+		protected Object invokeRemoteCall(IRemoteCall call, IRemoteCallable callable) throws ECFException {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new ECFException(e);
+			}
+			return "result";
+		}
+
+		protected IRemoteServiceID getRemoteServiceID() {
+			return registration.getID();
+		}
+
+		protected IRemoteServiceReference getRemoteServiceReference() {
+			return registration.getReference();
+		}
+
+		protected String[] getInterfaceClassNames() {
+			return new String[0];
+		}
+	}
+
+	class CompleteEvents implements IRemoteCallListener {
+		final List events = new ArrayList();
+
+		public synchronized void handleEvent(IRemoteCallEvent event) {
+			if (event instanceof IRemoteCallCompleteEvent) {
+				events.add(event);
+				notifyAll();
+			}
+		}
+
+		synchronized IRemoteCallCompleteEvent waitFor(int count) throws InterruptedException {
+			long end = System.currentTimeMillis() + 5000;
+			while (events.size() < count && System.currentTimeMillis() < end)
+				wait(end - System.currentTimeMillis());
+			assertEquals(count, events.size());
+			return (IRemoteCallCompleteEvent) events.get(count - 1);
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		container = createRestContainer(RestConstants.TEST_DE_TARGET);
+		registration = registerCallable(container, RemoteCallableFactory.createCallable(METHOD), null);
+		service = createService(2);
+	}
+
+	protected void tearDown() throws Exception {
+		release.countDown();
+		registration.unregister();
+		container.dispose();
+		super.tearDown();
+	}
+
+	private BlockingClientService createService(int maxAsyncCallsInProgress) {
+		return new BlockingClientService(container, registration, release, maxAsyncCallsInProgress);
+	}
+
+	private IRemoteCall createCall() {
+		return RemoteCallFactory.createRemoteCall(METHOD);
+	}
+
+	public void testFutureRejectedOverLimit() throws Exception {
+		IFuture first = service.callAsync(createCall());
+		IFuture second = service.callAsync(createCall());
+		IFuture rejected = service.callAsync(createCall());
+		assertFalse(first.isDone());
+		assertFalse(second.isDone());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+		release.countDown();
+		assertEquals("result", first.get());
+		assertEquals("result", second.get());
+		// The completed calls are no longer in progress
+		assertEquals("result", service.callAsync(createCall()).get());
+	}
+
+	public void testListenerRejectedOverLimit() throws Exception {
+		CompleteEvents events = new CompleteEvents();
+		service.callAsync(createCall(), events);
+		service.callAsync(createCall(), events);
+		service.callAsync(createCall(), events);
+		IRemoteCallCompleteEvent rejected = events.waitFor(1);
+		assertTrue(rejected.hadException());
+		assertTrue(rejected.getException() instanceof RejectedExecutionException);
+		release.countDown();
+		events.waitFor(3);
+		assertFalse(((IRemoteCallCompleteEvent) events.events.get(1)).hadException());
+		assertFalse(((IRemoteCallCompleteEvent) events.events.get(2)).hadException());
+	}
+
+	public void testLimitPerService() throws Exception {
+		BlockingClientService other = createService(2);
+		service.callAsync(createCall());
+		service.callAsync(createCall());
+		IFuture future = other.callAsync(createCall());
+		assertFalse(future.isDone());
+		release.countDown();
+		assertEquals("result", future.get());
+	}
+
+	public void testNoLimit() throws Exception {
+		BlockingClientService unlimited = createService(0);
+		IFuture[] futures = new IFuture[5];
+		for (int i = 0; i < futures.length; i++)
+			futures[i] = unlimited.callAsync(createCall());
+		release.countDown();
+		for (int i = 0; i < futures.length; i++)
+			assertEquals("result", futures[i].get());
+	}
+
+	public void testRejectedAfterDispose() throws Exception {
+		IFuture running = service.callAsync(createCall());
+		container.dispose();
+		// The running call is interrupted
+		running.get();
+		assertFalse(running.getStatus().isOK());
+		IFuture rejected = service.callAsync(createCall());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+	}
+
+	public void testRejectedAfterDisposeBeforeFirstCall() throws Exception {
+		container.dispose();
+		IFuture rejected = service.callAsync(createCall());
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+	}
+}
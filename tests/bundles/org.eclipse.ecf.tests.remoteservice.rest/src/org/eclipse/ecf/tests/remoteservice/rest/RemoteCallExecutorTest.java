@@ -0,0 +1,82 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.rest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.ecf.remoteservice.client.RemoteCallExecutor;
+import org.eclipse.equinox.concurrent.future.IFuture;
+import org.eclipse.equinox.concurrent.future.IProgressRunnable;
+
+public class RemoteCallExecutorTest extends TestCase {
+
+	private RemoteCallExecutor executor = new RemoteCallExecutor("test", 2, 1);
+
+	private CountDownLatch release = new CountDownLatch(1);
+
+	protected void tearDown() throws Exception {
+		release.countDown();
+		executor.shutdown();
+		super.tearDown();
+	}
+
+	private IFuture submit(final String result) {
+		return executor.execute(new IProgressRunnable() {
+			public Object run(IProgressMonitor monitor) throws Exception {
+				release.await();
+				return result;
+			}
+		}, null);
+	}
+
+	public void testExecute() throws Exception {
+		IFuture future = submit("result");
+		release.countDown();
+		assertEquals("result", future.get());
+	}
+
+	public void testRejectWhenSaturated() throws Exception {
+		IFuture[] futures = new IFuture[3];
+		for (int i = 0; i < futures.length; i++)
+			futures[i] = submit("r" + i);
+		// Two running, one waiting
+		IFuture rejected = submit("rejected");
+		assertTrue(rejected.isDone());
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+		release.countDown();
+		for (int i = 0; i < futures.length; i++)
+			assertEquals("r" + i, futures[i].get());
+	}
+
+	public void testShutdownRejectsWaitingCalls() throws Exception {
+		IFuture running = submit("running");
+		submit("running");
+		IFuture waiting = submit("waiting");
+		executor.shutdown();
+		assertTrue(waiting.isDone());
+		assertTrue(waiting.getStatus().getException() instanceof RejectedExecutionException);
+		// Running calls are interrupted
+		running.get();
+		assertFalse(running.getStatus().isOK());
+	}
+
+	public void testRejectAfterShutdown() throws Exception {
+		executor.shutdown();
+		IFuture rejected = submit("rejected");
+		assertTrue(rejected.getStatus().getException() instanceof RejectedExecutionException);
+	}
+}
@@ -0,0 +1,48 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.NotSerializableException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.remoteservice.rest.client.XMLRemoteResponseDeserializer;
+import org.w3c.dom.Document;
+
+public class XMLRemoteResponseDeserializerTest extends TestCase {
+
+	private static final String TEXT = "gr\u00fc\u00dfe";
+	private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><status><text>" + TEXT + "</text></status>";
+
+	private XMLRemoteResponseDeserializer deserializer = new XMLRemoteResponseDeserializer();
+
+	public void testDeserializeBytes() throws Exception {
+		Document doc = (Document) deserializer.deserializeResponse("uri", null, null, null, XML.getBytes("UTF-8"));
+		assertEquals(TEXT, doc.getElementsByTagName("text").item(0).getTextContent());
+	}
+
+	public void testDeserializeStream() throws Exception {
+		Document doc = (Document) deserializer.deserializeResponse("uri", null, null, null, new ByteArrayInputStream(XML.getBytes("UTF-8")));
+		assertEquals(TEXT, doc.getElementsByTagName("text").item(0).getTextContent());
+	}
+
+	public void testInvalidResponse() throws Exception {
+		try {
+			deserializer.deserializeResponse("uri", null, null, null, new ByteArrayInputStream("<status>".getBytes("UTF-8")));
+			fail();
+		} catch (NotSerializableException e) {
+			// success
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import junit.framework.TestCase;
+
+public class BinaryCodecTest extends TestCase {
+
+	private BinaryCodec codec = new BinaryCodec();
+
+	private byte[] encode(Object value) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.encode(value, out);
+		return out.toByteArray();
+	}
+
+	private Object decode(byte[] bytes) throws IOException {
+		return codec.decode(new ByteArrayInputStream(bytes));
+	}
+
+	private Object roundTrip(Object value) throws IOException {
+		return decode(encode(value));
+	}
+
+	public void testScalars() throws Exception {
+		assertNull(roundTrip(null));
+		assertEquals(Boolean.TRUE, roundTrip(Boolean.TRUE));
+		assertEquals(Boolean.FALSE, roundTrip(Boolean.FALSE));
+		assertEquals(new Byte((byte) -7), roundTrip(new Byte((byte) -7)));
+		assertEquals(new Short(Short.MIN_VALUE), roundTrip(new Short(Short.MIN_VALUE)));
+		assertEquals(new Character('\uffff'), roundTrip(new Character('\uffff')));
+		assertEquals(new Integer(Integer.MIN_VALUE), roundTrip(new Integer(Integer.MIN_VALUE)));
+		assertEquals(new Integer(-1), roundTrip(new Integer(-1)));
+		assertEquals(new Long(Long.MAX_VALUE), roundTrip(new Long(Long.MAX_VALUE)));
+		assertEquals(new Long(Long.MIN_VALUE), roundTrip(new Long(Long.MIN_VALUE)));
+		assertEquals(new Float(-1.5f), roundTrip(new Float(-1.5f)));
+		assertEquals(new Double(Double.NaN), roundTrip(new Double(Double.NaN)));
+		assertEquals("gr\u00fc\u00dfe \u4e16\u754c", roundTrip("gr\u00fc\u00dfe \u4e16\u754c"));
+		assertEquals("", roundTrip(""));
+	}
+
+	public void testSmallIntegersAreCompact() throws Exception {
+		assertEquals(2, encode(new Integer(-64)).length);
+		assertEquals(2, encode(new Long(63)).length);
+	}
+
+	public void testBytes() throws Exception {
+		byte[] bytes = new byte[5000];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte) i;
+		assertTrue(Arrays.equals(bytes, (byte[]) roundTrip(bytes)));
+		assertEquals(0, ((byte[]) roundTrip(new byte[0])).length);
+	}
+
+	public void testCollections() throws Exception {
+		Object[] array = new Object[] {"a", new Integer(1), null, new Object[] {"nested"}};
+		Object[] decodedArray = (Object[]) roundTrip(array);
+		assertEquals(4, decodedArray.length);
+		assertEquals("a", decodedArray[0]);
+		assertEquals(new Integer(1), decodedArray[1]);
+		assertNull(decodedArray[2]);
+		assertEquals("nested", ((Object[]) decodedArray[3])[0]);
+
+		List<Object> list = new ArrayList<Object>();
+		list.add("x");
+		list.add(new Long(2));
+		assertEquals(list, roundTrip(list));
+
+		Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+		map.put("b", new Integer(1));
+		map.put("a", list);
+		map.put(null, null);
+		Map<?, ?> decodedMap = (Map<?, ?>) roundTrip(map);
+		assertEquals(map, decodedMap);
+		// The order of the entries is kept
+		assertEquals(new ArrayList<Object>(map.keySet()), new ArrayList<Object>(decodedMap.keySet()));
+		assertEquals(new HashMap<Object, Object>(), roundTrip(new HashMap<Object, Object>()));
+	}
+
+	public void testTypedArray() throws Exception {
+		String[] array = new String[] {"a", null, "b"};
+		// Only Object[] has the compact encoding, so the array type is kept
+		assertEquals(15, encode(array)[0]);
+		Object decoded = roundTrip(array);
+		assertEquals(String[].class, decoded.getClass());
+		assertTrue(Arrays.equals(array, (String[]) decoded));
+		assertEquals(String[].class, ((Object[]) roundTrip(new Object[] {array}))[0].getClass());
+	}
+
+	public void testOtherCollectionClasses() throws Exception {
+		LinkedList<Object> list = new LinkedList<Object>();
+		list.add("x");
+		assertEquals(15, encode(list)[0]);
+		assertEquals(LinkedList.class, roundTrip(list).getClass());
+		assertEquals(15, encode(Arrays.asList(new Object[] {"x"}))[0]);
+
+		TreeMap<Object, Object> map = new TreeMap<Object, Object>();
+		map.put("a", new Integer(1));
+		assertEquals(15, encode(map)[0]);
+		assertEquals(map, roundTrip(map));
+		assertEquals(TreeMap.class, roundTrip(map).getClass());
+	}
+
+	public void testSerializable() throws Exception {
+		Date date = new Date(123456789L);
+		assertEquals(date, roundTrip(date));
+	}
+
+	public void testNotSerializable() throws Exception {
+		try {
+			encode(new Object());
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testEmptyInput() throws Exception {
+		assertNull(decode(new byte[0]));
+	}
+
+	public void testInvalidTag() throws Exception {
+		try {
+			decode(new byte[] {(byte) 99});
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testTruncatedInput() throws Exception {
+		byte[] bytes = encode(new Object[] {"abc", new Long(Long.MAX_VALUE)});
+		for (int length = 1; length < bytes.length; length++) {
+			try {
+				decode(Arrays.copyOf(bytes, length));
+				fail("decoded " + length + " of " + bytes.length + " bytes");
+			} catch (EOFException e) {
+				// expected
+			}
+		}
+	}
+
+	private byte[] forgedLength(int tag) {
+		// The tag followed by a length of Integer.MAX_VALUE, and no data
+		return new byte[] {(byte) tag, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07};
+	}
+
+	public void testForgedLength() throws Exception {
+		// STRING, BYTES, ARRAY, LIST and MAP
+		for (int tag = 10; tag <= 14; tag++) {
+			try {
+				decode(forgedLength(tag));
+				fail("tag " + tag);
+			} catch (EOFException e) {
+				// expected, without allocating the forged length
+			}
+		}
+	}
+
+	public void testInvalidLength() throws Exception {
+		try {
+			decode(new byte[] {10, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f});
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	private Object nest(int depth) {
+		Object value = "leaf";
+		for (int i = 0; i < depth; i++) {
+			List<Object> list = new ArrayList<Object>();
+			list.add(value);
+			value = (i % 2 == 0) ? (Object) list : (Object) list.toArray();
+		}
+		return value;
+	}
+
+	public void testMaxDepth() throws Exception {
+		Object value = roundTrip(nest(BinaryCodec.MAX_DEPTH));
+		for (int i = 0; i < BinaryCodec.MAX_DEPTH; i++)
+			value = (value instanceof List) ? ((List<?>) value).get(0) : ((Object[]) value)[0];
+		assertEquals("leaf", value);
+	}
+
+	public void testEncodeTooDeep() throws Exception {
+		try {
+			encode(nest(BinaryCodec.MAX_DEPTH + 1));
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testEncodeCycle() throws Exception {
+		List<Object> list = new ArrayList<Object>();
+		list.add(list);
+		try {
+			encode(list);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testDecodeTooDeep() throws Exception {
+		// MAX_DEPTH + 1 nested maps with a single key, followed by null
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i <= BinaryCodec.MAX_DEPTH; i++) {
+			out.write(14);
+			out.write(1);
+		}
+		out.write(0);
+		try {
+			decode(out.toByteArray());
+			fail();
+		} catch (EOFException e) {
+			fail("depth is not limited");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
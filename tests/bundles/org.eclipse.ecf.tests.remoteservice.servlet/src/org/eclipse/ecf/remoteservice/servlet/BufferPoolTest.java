@@ -0,0 +1,149 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BufferPoolTest extends TestCase {
+
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	// Reads of mixed sizes, including single bytes and reads that bypass the buffer
+	private static int nextLength(Random random) {
+		switch (random.nextInt(3)) {
+			case 0 :
+				return 1;
+			case 1 :
+				return 1 + random.nextInt(100);
+			default :
+				return BufferPool.BUFFER_SIZE + random.nextInt(BufferPool.BUFFER_SIZE);
+		}
+	}
+
+	public void testAcquireRelease() {
+		byte[] buffer = BufferPool.acquire();
+		assertEquals(BufferPool.BUFFER_SIZE, buffer.length);
+		BufferPool.release(buffer);
+		byte[] again = BufferPool.acquire();
+		assertSame(buffer, again);
+		assertNotSame(again, BufferPool.acquire());
+	}
+
+	public void testRead() throws Exception {
+		byte[] data = createData(100000);
+		BufferPool.PooledInputStream in = new BufferPool.PooledInputStream(new ByteArrayInputStream(data));
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		Random random = new Random(1);
+		while (true) {
+			int length = nextLength(random);
+			if (length == 1) {
+				int b = in.read();
+				if (b < 0)
+					break;
+				read.write(b);
+			} else {
+				byte[] b = new byte[length + 2];
+				int n = in.read(b, 1, length);
+				if (n < 0)
+					break;
+				assertTrue(n > 0 && n <= length);
+				read.write(b, 1, n);
+			}
+		}
+		assertTrue(Arrays.equals(data, read.toByteArray()));
+		assertEquals(0, in.read(new byte[1], 0, 0));
+		in.close();
+	}
+
+	public void testReadAfterClose() throws Exception {
+		BufferPool.PooledInputStream in = new BufferPool.PooledInputStream(new ByteArrayInputStream(new byte[10]));
+		in.close();
+		// Closing twice does not release the buffer twice
+		in.close();
+		try {
+			in.read();
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		assertNotSame(BufferPool.acquire(), BufferPool.acquire());
+	}
+
+	public void testWrite() throws Exception {
+		byte[] data = createData(100000);
+		final boolean[] closed = new boolean[1];
+		ByteArrayOutputStream target = new ByteArrayOutputStream() {
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		BufferPool.PooledOutputStream out = new BufferPool.PooledOutputStream(target);
+		Random random = new Random(2);
+		int off = 0;
+		while (off < data.length) {
+			int length = Math.min(nextLength(random), data.length - off);
+			if (length == 1)
+				out.write(data[off]);
+			else
+				out.write(data, off, length);
+			off += length;
+		}
+		out.close();
+		assertTrue(Arrays.equals(data, target.toByteArray()));
+		assertFalse(closed[0]);
+		try {
+			out.write(0);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testDiscard() throws Exception {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		BufferPool.PooledOutputStream out = new BufferPool.PooledOutputStream(target);
+		out.write(new byte[] {1, 2, 3}, 0, 3);
+		out.discard();
+		assertEquals(0, target.size());
+		// Closing after a discard writes nothing and does not release the buffer twice
+		out.close();
+		assertEquals(0, target.size());
+		assertNotSame(BufferPool.acquire(), BufferPool.acquire());
+		try {
+			out.write(0);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testFlush() throws Exception {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		BufferPool.PooledOutputStream out = new BufferPool.PooledOutputStream(target);
+		out.write(new byte[] {1, 2, 3}, 0, 3);
+		assertEquals(0, target.size());
+		out.flush();
+		assertEquals(3, target.size());
+		out.close();
+	}
+}
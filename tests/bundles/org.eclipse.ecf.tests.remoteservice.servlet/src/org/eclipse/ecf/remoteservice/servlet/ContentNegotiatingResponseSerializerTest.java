@@ -0,0 +1,65 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.remoteservice.servlet;
+
+import junit.framework.TestCase;
+
+public class ContentNegotiatingResponseSerializerTest extends TestCase {
+
+	private static final String BINARY = BinaryCodec.CONTENT_TYPE;
+	private static final String SERIALIZED = ObjectSerializationResponseSerializer.CONTENT_TYPE;
+
+	private ContentNegotiatingResponseSerializer serializer = new ContentNegotiatingResponseSerializer();
+
+	private String select(String accept, String requestType) {
+		return serializer.selectContentType(accept, requestType);
+	}
+
+	public void testNoAccept() {
+		assertEquals(SERIALIZED, select(null, null));
+		assertEquals(SERIALIZED, select(null, SERIALIZED));
+		assertEquals(BINARY, select(null, BINARY));
+	}
+
+	public void testExplicitType() {
+		assertEquals(BINARY, select(BINARY, null));
+		assertEquals(SERIALIZED, select(SERIALIZED, BINARY));
+	}
+
+	public void testQuality() {
+		assertEquals(SERIALIZED, select(BINARY + ";q=0.5, " + SERIALIZED, null));
+		assertEquals(BINARY, select(SERIALIZED + ";q=0.2, " + BINARY + ";q=0.8", null));
+		assertEquals(BINARY, select(" " + BINARY + " ; q=1.0 ,text/html", null));
+	}
+
+	public void testWildcard() {
+		assertEquals(SERIALIZED, select("*/*", null));
+		assertEquals(BINARY, select("*/*", BINARY));
+		assertEquals(BINARY, select("application/*", BINARY));
+		// An explicit type wins over a wildcard of the same quality
+		assertEquals(BINARY, select("*/*, " + BINARY, SERIALIZED));
+		assertEquals(SERIALIZED, select("*/*;q=0.9, " + BINARY + ";q=0.1", null));
+	}
+
+	public void testNothingAcceptable() {
+		assertEquals(SERIALIZED, select("text/html", null));
+		assertEquals(BINARY, select("text/html", BINARY));
+		assertEquals(SERIALIZED, select(BINARY + ";q=0", null));
+		assertEquals(SERIALIZED, select(BINARY + ";q=invalid", null));
+	}
+
+	public void testMediaType() {
+		assertNull(ContentNegotiatingResponseSerializer.getMediaType(null));
+		assertEquals(BINARY, ContentNegotiatingResponseSerializer.getMediaType(" Application/X-ECF-Binary ; charset=x"));
+	}
+}
@@ -0,0 +1,31 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.remoteservice.servlet;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.ecf.remoteservice.servlet.BinaryCodecTest;
+import org.eclipse.ecf.remoteservice.servlet.BufferPoolTest;
+import org.eclipse.ecf.remoteservice.servlet.ContentNegotiatingResponseSerializerTest;
+
+public class AllTests extends TestCase {
+
+	public static TestSuite suite() {
+		TestSuite suite = new TestSuite();
+		suite.addTestSuite(BinaryCodecTest.class);
+		suite.addTestSuite(BufferPoolTest.class);
+		suite.addTestSuite(ContentNegotiatingResponseSerializerTest.class);
+		return suite;
+	}
+}
@@ -0,0 +1,184 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.server.generic;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.provider.comm.IAsynchConnection;
+import org.eclipse.ecf.provider.comm.tcp.IDDictionary;
+import org.eclipse.ecf.provider.generic.SOContainer;
+
+public class IDDictionaryTest extends TestCase {
+
+	private IDDictionary sender;
+	private IDDictionary receiver;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sender = new IDDictionary(4);
+		receiver = new IDDictionary(4);
+	}
+
+	private ID createID(String name) throws Exception {
+		return IDFactory.getDefault().createStringID(name);
+	}
+
+	private ID[] roundTrip(ID[] ids) throws Exception {
+		return (ID[]) receiver.deserialize(sender.serialize(ids));
+	}
+
+	public void testRoundTrip() throws Exception {
+		ID[] ids = new ID[] {createID("a"), createID("b"), createID("a")};
+		ID[] result = roundTrip(ids);
+		assertEquals(3, result.length);
+		for (int i = 0; i < ids.length; i++)
+			assertEquals(ids[i], result[i]);
+		// Second message references the entries defined by the first
+		result = roundTrip(new ID[] {createID("b"), createID("a")});
+		assertEquals(createID("b"), result[0]);
+		assertEquals(createID("a"), result[1]);
+		assertEquals(2, sender.getDefinitionsSent());
+		assertEquals(3, sender.getReferencesSent());
+	}
+
+	public void testSmallerThanFullForm() throws Exception {
+		ID[] ids = new ID[] {createID("ecftcp://localhost:3282/server"), IDFactory.getDefault().createGUID()};
+		byte[] first = sender.serialize(ids);
+		receiver.deserialize(first);
+		byte[] second = sender.serialize(ids);
+		assertTrue(second.length < SOContainer.serialize(ids).length / 2);
+		assertEquals(ids[1], ((ID[]) receiver.deserialize(second))[1]);
+	}
+
+	public void testEviction() throws Exception {
+		for (int i = 0; i < 10; i++)
+			assertEquals(createID("id" + i), roundTrip(new ID[] {createID("id" + i)})[0]);
+		// Evicted entries are defined again
+		assertEquals(createID("id0"), roundTrip(new ID[] {createID("id0")})[0]);
+		assertEquals(11, sender.getDefinitionsSent());
+	}
+
+	public void testUnknownHandle() throws Exception {
+		sender.serialize(new ID[] {createID("a")});
+		try {
+			// definition was never received
+			receiver.deserialize(sender.serialize(new ID[] {createID("a")}));
+			fail();
+		} catch (IOException e) {
+			// success
+		}
+		// Later messages could resolve handles to the wrong IDs, so they are rejected too
+		assertTrue(receiver.isFailed());
+		try {
+			receiver.deserialize(sender.serialize(new ID[] {createID("b")}));
+			fail();
+		} catch (IOException e) {
+			// success
+		}
+	}
+
+	public void testSendAsynchKeepsSerializationOrder() throws Exception {
+		final List sent = Collections.synchronizedList(new ArrayList());
+		final IAsynchConnection conn = (IAsynchConnection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {IAsynchConnection.class}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("sendAsynch")) {
+					sent.add(args[1]);
+					// Give other senders a chance to serialize while this one sends
+					Thread.sleep(1);
+				}
+				return null;
+			}
+		});
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int thread = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						for (int i = 0; i < 20; i++)
+							sender.sendAsynch(conn, null, new ID[] {createID("t" + thread + "." + (i % 6))});
+					} catch (Exception e) {
+						fail(e.getMessage());
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (int t = 0; t < threads.length; t++)
+			threads[t].join(10000);
+		assertEquals(80, sent.size());
+		// Every message refers only to handles defined by earlier messages
+		for (int i = 0; i < sent.size(); i++)
+			assertEquals(1, ((ID[]) receiver.deserialize((byte[]) sent.get(i))).length);
+	}
+
+	public void testSendFailureReportedToWaitingSenders() throws Exception {
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List sent = Collections.synchronizedList(new ArrayList());
+		final IAsynchConnection conn = (IAsynchConnection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {IAsynchConnection.class}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().equals("sendAsynch")) {
+					sent.add(args[1]);
+					sending.countDown();
+					release.await();
+					throw new IOException("send failed");
+				}
+				return null;
+			}
+		});
+		final List failures = Collections.synchronizedList(new ArrayList());
+		Thread[] threads = new Thread[3];
+		for (int t = 0; t < threads.length; t++) {
+			final int thread = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						sender.sendAsynch(conn, null, new ID[] {createID("t" + thread)});
+					} catch (Exception e) {
+						failures.add(e);
+					}
+				}
+			});
+			threads[t].start();
+			// The first thread is sending while the others queue their messages
+			assertTrue(sending.await(5, TimeUnit.SECONDS));
+		}
+		Thread.sleep(100);
+		release.countDown();
+		for (int t = 0; t < threads.length; t++)
+			threads[t].join(10000);
+		// Every message after the failed one is discarded, and its sender is told so
+		assertEquals(1, sent.size());
+		assertEquals(threads.length, failures.size());
+		try {
+			sender.sendAsynch(conn, null, new ID[] {createID("later")});
+			fail();
+		} catch (IOException e) {
+			// success
+		}
+		assertEquals(1, sent.size());
+	}
+}
@@ -0,0 +1,104 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.server.generic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.provider.generic.SharedObjectDispatcher;
+
+public class SharedObjectDispatcherTest extends TestCase {
+
+	private SharedObjectDispatcher dispatcher;
+
+	protected void tearDown() throws Exception {
+		if (dispatcher != null)
+			dispatcher.shutdown();
+		super.tearDown();
+	}
+
+	public void testEventsDeliveredInOrder() throws Exception {
+		dispatcher = new SharedObjectDispatcher("test", null, 2, 4);
+		final List received = Collections.synchronizedList(new ArrayList());
+		final SharedObjectDispatcher.Mailbox mailbox = dispatcher.createMailbox();
+		for (int i = 0; i < 100; i++)
+			mailbox.enqueue(new Integer(i));
+		mailbox.start(new SharedObjectDispatcher.Processor() {
+			public boolean process(Object event) {
+				received.add(event);
+				return true;
+			}
+		});
+		final long end = System.currentTimeMillis() + 5000;
+		while (received.size() < 100 && System.currentTimeMillis() < end)
+			Thread.sleep(10);
+		assertEquals(100, received.size());
+		for (int i = 0; i < 100; i++)
+			assertEquals(new Integer(i), received.get(i));
+	}
+
+	public void testBlockedWorkerDoesNotDeadlock() throws Exception {
+		// One worker, whose mailbox waits for an event delivered to another mailbox
+		dispatcher = new SharedObjectDispatcher("test", null, 1, 4, 4, 50);
+		final Object lock = new Object();
+		final boolean[] replied = new boolean[1];
+		final boolean[] waiterDone = new boolean[1];
+		final SharedObjectDispatcher.Mailbox waiter = dispatcher.createMailbox();
+		waiter.start(new SharedObjectDispatcher.Processor() {
+			public boolean process(Object event) {
+				synchronized (lock) {
+					final long end = System.currentTimeMillis() + 5000;
+					while (!replied[0] && System.currentTimeMillis() < end) {
+						try {
+							lock.wait(100);
+						} catch (InterruptedException e) {
+							return false;
+						}
+					}
+					waiterDone[0] = replied[0];
+				}
+				return true;
+			}
+		});
+		final SharedObjectDispatcher.Mailbox replier = dispatcher.createMailbox();
+		replier.start(new SharedObjectDispatcher.Processor() {
+			public boolean process(Object event) {
+				synchronized (lock) {
+					replied[0] = true;
+					lock.notifyAll();
+				}
+				return true;
+			}
+		});
+		waiter.enqueue("request");
+		Thread.sleep(20);
+		replier.enqueue("reply");
+		final long end = System.currentTimeMillis() + 5000;
+		synchronized (lock) {
+			while (!waiterDone[0] && System.currentTimeMillis() < end)
+				lock.wait(100);
+		}
+		assertTrue(waiterDone[0]);
+		assertTrue(dispatcher.getActiveThreadCount() > 1);
+	}
+
+	public void testNoExtraWorkersWithoutStallCheck() throws Exception {
+		dispatcher = new SharedObjectDispatcher("test", null, 1, 4, 4, 0);
+		assertEquals(1, dispatcher.getPoolSize());
+		assertEquals(4, dispatcher.getMaxPoolSize());
+		assertTrue(dispatcher.getStallMillis() <= 0);
+	}
+}
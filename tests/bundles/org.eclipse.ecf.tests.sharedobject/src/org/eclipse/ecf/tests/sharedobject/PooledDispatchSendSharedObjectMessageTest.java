@@ -0,0 +1,37 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+/**
+ * Runs {@link SendSharedObjectMessageTest} with shared object events
+ * dispatched by a worker pool rather than a thread per shared object.
+ */
+public class PooledDispatchSendSharedObjectMessageTest extends SendSharedObjectMessageTest {
+
+	private static final String DISPATCH_PROP = "org.eclipse.ecf.provider.generic.sharedObjectDispatch";
+
+	private String oldDispatch;
+
+	protected void setUp() throws Exception {
+		oldDispatch = System.setProperty(DISPATCH_PROP, "pooled");
+		super.setUp();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		if (oldDispatch == null)
+			System.getProperties().remove(DISPATCH_PROP);
+		else
+			System.setProperty(DISPATCH_PROP, oldDispatch);
+	}
+}
@@ -0,0 +1,96 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectContainerTransaction;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectTransactionListener;
+import org.eclipse.ecf.core.sharedobject.QuorumCommitPolicy;
+import org.eclipse.ecf.core.sharedobject.ScalableTwoPhaseCommitEventProcessor;
+import org.eclipse.ecf.core.sharedobject.SharedObjectAddAbortException;
+import org.eclipse.ecf.core.sharedobject.TransactionSharedObjectConfiguration;
+
+public class QuorumTransactionSharedObjectTest extends AbstractSharedObjectTest {
+
+	ID sharedObjectID;
+	TestTransactionSharedObject sharedObject;
+
+	protected int getClientCount() {
+		return 3;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		createServerAndClients();
+		connectClients();
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		cleanUpServerAndClients();
+		sharedObjectID = null;
+		sharedObject = null;
+	}
+
+	public void testRequiredVotes() throws Exception {
+		ID[] participants = new ID[] {IDFactory.getDefault().createStringID("a"), IDFactory.getDefault().createStringID("b"), IDFactory.getDefault().createStringID("c")};
+		assertEquals(3, new QuorumCommitPolicy(QuorumCommitPolicy.ALL).getRequiredVotes(participants));
+		assertEquals(2, new QuorumCommitPolicy(QuorumCommitPolicy.MAJORITY).getRequiredVotes(participants));
+		assertEquals(0, new QuorumCommitPolicy(0.0f).getRequiredVotes(participants));
+		try {
+			new QuorumCommitPolicy(1.5f);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// success
+		}
+	}
+
+	public void testAddQuorumTransactionSharedObject() throws Exception {
+		sharedObject = new TestTransactionSharedObject("quorum", new TransactionSharedObjectConfiguration(10000, new QuorumCommitPolicy(QuorumCommitPolicy.MAJORITY)));
+		sharedObjectID = addClientSharedObject(0, IDFactory.getDefault().createStringID("quorum0"), sharedObject, null);
+		ISharedObjectContainerTransaction transaction = (ISharedObjectContainerTransaction) sharedObject.getAdapter(ISharedObjectContainerTransaction.class);
+		assertTrue(transaction instanceof ScalableTwoPhaseCommitEventProcessor);
+		assertEquals(ISharedObjectContainerTransaction.COMMITTED, transaction.getTransactionState());
+		ScalableTwoPhaseCommitEventProcessor processor = (ScalableTwoPhaseCommitEventProcessor) transaction;
+		assertTrue(processor.getVotes() >= processor.getRequiredVotes());
+	}
+
+	public void testAddAsynchronousTransactionSharedObject() throws Exception {
+		final Object[] outcome = new Object[1];
+		sharedObject = new TestTransactionSharedObject("async", new TransactionSharedObjectConfiguration(10000, new QuorumCommitPolicy(QuorumCommitPolicy.ALL, null, true)));
+		sharedObject.addTransactionListener(new ISharedObjectTransactionListener() {
+			public void transactionCommitted(ISharedObjectContainerTransaction transaction) {
+				synchronized (outcome) {
+					outcome[0] = transaction;
+					outcome.notifyAll();
+				}
+			}
+
+			public void transactionAborted(ISharedObjectContainerTransaction transaction, SharedObjectAddAbortException exception) {
+				synchronized (outcome) {
+					outcome[0] = exception;
+					outcome.notifyAll();
+				}
+			}
+		});
+		sharedObjectID = addClientSharedObject(0, IDFactory.getDefault().createStringID("async0"), sharedObject, null);
+		synchronized (outcome) {
+			long end = System.currentTimeMillis() + 10000;
+			while (outcome[0] == null && System.currentTimeMillis() < end)
+				outcome.wait(end - System.currentTimeMillis());
+		}
+		assertTrue("outcome=" + outcome[0], outcome[0] instanceof ISharedObjectContainerTransaction);
+		assertEquals(ISharedObjectContainerTransaction.COMMITTED, ((ISharedObjectContainerTransaction) outcome[0]).getTransactionState());
+	}
+}
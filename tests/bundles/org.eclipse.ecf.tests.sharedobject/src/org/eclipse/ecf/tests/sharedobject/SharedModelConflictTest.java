@@ -0,0 +1,93 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.core.sharedobject.model.ISharedModelEvent;
+import org.eclipse.ecf.core.sharedobject.model.ISharedModelListener;
+import org.eclipse.ecf.core.sharedobject.model.PropertyDelta;
+
+public class SharedModelConflictTest extends TestCase {
+
+	private ID a;
+	private ID b;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		a = IDFactory.getDefault().createStringID("a");
+		b = IDFactory.getDefault().createStringID("b");
+	}
+
+	public void testConcurrentChangesConverge() {
+		PropertyDelta fromA = new PropertyDelta(PropertyDelta.CHANGE, "p", "valueA", 2, a);
+		PropertyDelta fromB = new PropertyDelta(PropertyDelta.CHANGE, "p", "valueB", 2, b);
+		TestSharedModel first = new TestSharedModel();
+		TestSharedModel second = new TestSharedModel();
+		first.apply(a, new PropertyDelta(PropertyDelta.ADD, "p", "initial", 1, a));
+		second.apply(a, new PropertyDelta(PropertyDelta.ADD, "p", "initial", 1, a));
+		// Same version received in different orders
+		first.apply(a, fromA);
+		first.apply(b, fromB);
+		second.apply(b, fromB);
+		second.apply(a, fromA);
+		assertEquals("valueB", first.get("p"));
+		assertEquals("valueB", second.get("p"));
+	}
+
+	public void testRemoveIsNotUndoneByOlderDelta() {
+		TestSharedModel model = new TestSharedModel();
+		model.apply(a, new PropertyDelta(PropertyDelta.ADD, "p", "v1", 1, a));
+		model.apply(a, new PropertyDelta(PropertyDelta.REMOVE, "p", null, 3, a));
+		// Change made before the remove arrives late
+		model.apply(b, new PropertyDelta(PropertyDelta.CHANGE, "p", "v2", 2, b));
+		assertNull(model.get("p"));
+		// A newer add does bring it back
+		model.apply(b, new PropertyDelta(PropertyDelta.ADD, "p", "v4", 4, b));
+		assertEquals("v4", model.get("p"));
+	}
+
+	public void testLocalAddAfterRemoveIsNewer() {
+		TestSharedModel model = new TestSharedModel();
+		model.apply(a, new PropertyDelta(PropertyDelta.ADD, "p", "v1", 5, a));
+		model.remove("p");
+		model.put("p", "v2");
+		assertEquals(7, model.getVersion("p"));
+	}
+
+	public void testListenersNotifiedWithoutLock() throws Exception {
+		final TestSharedModel model = new TestSharedModel();
+		final boolean[] readInListener = new boolean[1];
+		model.addListener(new ISharedModelListener() {
+			public void handleEvent(ISharedModelEvent event) {
+				// Another thread must be able to read the model while listeners run
+				Thread reader = new Thread(new Runnable() {
+					public void run() {
+						model.get("p");
+						readInListener[0] = true;
+					}
+				});
+				reader.start();
+				try {
+					reader.join(2000);
+				} catch (InterruptedException e) {
+					// fall through
+				}
+			}
+		});
+		model.apply(a, new PropertyDelta(PropertyDelta.ADD, "p", "v1", 1, a));
+		assertTrue(readInListener[0]);
+	}
+}
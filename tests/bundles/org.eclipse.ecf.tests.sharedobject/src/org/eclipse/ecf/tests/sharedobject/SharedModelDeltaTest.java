@@ -0,0 +1,73 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+
+public class SharedModelDeltaTest extends AbstractSharedObjectTest {
+
+	private static final int PROPERTY_COUNT = 40;
+
+	ID sharedObjectID;
+
+	protected int getClientCount() {
+		return 2;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		createServerAndClients();
+		connectClient(0);
+		sleep(500);
+	}
+
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		cleanUpServerAndClients();
+		sharedObjectID = null;
+	}
+
+	private TestSharedModel getReplica() {
+		return (TestSharedModel) getClientSOManager(1).getSharedObject(sharedObjectID);
+	}
+
+	public void testStateTransferAndDeltas() throws Exception {
+		TestSharedModel primary = new TestSharedModel();
+		sharedObjectID = addClientSharedObject(0, IDFactory.getDefault().createStringID("model0"), primary, null);
+		for (int i = 0; i < PROPERTY_COUNT; i++)
+			primary.put("p" + i, Integer.valueOf(i));
+		// Joiner is sent the properties in chunks
+		connectClient(1);
+		sleep(1000);
+		TestSharedModel replica = getReplica();
+		assertNotNull(replica);
+		assertTrue(replica.waitForStateTransfer(5000));
+		assertEquals(PROPERTY_COUNT, replica.size());
+		assertEquals(Integer.valueOf(7), replica.get("p7"));
+		assertEquals(primary.getVersion("p7"), replica.getVersion("p7"));
+		// Changes are sent as deltas
+		primary.put("p7", "changed");
+		primary.remove("p8");
+		primary.put("new", "added");
+		sleep(1000);
+		assertEquals("changed", replica.get("p7"));
+		assertEquals(2, replica.getVersion("p7"));
+		assertNull(replica.get("p8"));
+		assertEquals("added", replica.get("new"));
+		// Replica changes are sent to the primary
+		replica.put("p9", "fromReplica");
+		sleep(1000);
+		assertEquals("fromReplica", primary.get("p9"));
+	}
+}
@@ -0,0 +1,74 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.sharedobject.model.PropertyDelta;
+import org.eclipse.ecf.core.sharedobject.model.SharedModel;
+
+/**
+ * SharedModel with delta replication and small state transfer chunks
+ */
+public class TestSharedModel extends SharedModel {
+
+	boolean stateTransferred = false;
+
+	public TestSharedModel() {
+		super();
+		setDeltaReplication(true);
+	}
+
+	protected int getStateTransferChunkSize() {
+		return 16;
+	}
+
+	protected void stateTransferCompleted(ID fromID) {
+		synchronized (this) {
+			stateTransferred = true;
+			notifyAll();
+		}
+	}
+
+	public synchronized boolean waitForStateTransfer(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis() + timeout;
+		while (!stateTransferred && System.currentTimeMillis() < end)
+			wait(end - System.currentTimeMillis());
+		return stateTransferred;
+	}
+
+	public void put(String name, Object value) {
+		setOrAddProperty(name, value);
+	}
+
+	public void remove(String name) {
+		removeProperty(name);
+	}
+
+	public Object get(String name) {
+		Property p = getProperty(name);
+		return (p == null) ? null : p.getValue();
+	}
+
+	public long getVersion(String name) {
+		Property p = getProperty(name);
+		return (p == null) ? -1 : p.getVersion();
+	}
+
+	public void apply(ID fromID, PropertyDelta delta) {
+		handlePropertyDelta(fromID, delta);
+	}
+
+	public int size() {
+		return copyProperties().size();
+	}
+}
@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.sharedobject.ISharedObjectTransactionConfig;
 import org.eclipse.ecf.core.sharedobject.ReplicaSharedObjectDescription;
 import org.eclipse.ecf.core.sharedobject.SharedObjectInitException;
 import org.eclipse.ecf.core.sharedobject.SharedObjectMsg;
@@ -38,6 +39,14 @@ public class TestTransactionSharedObject extends TransactionSharedObject {
 		this.name = name;
 	}
 
+	/**
+	 * Primary constructor with transaction configuration
+	 */
+	public TestTransactionSharedObject(String name, ISharedObjectTransactionConfig config) {
+		super(config);
+		this.name = name;
+	}
+
 	/**
 	 * Replica constructor (null constructor)
 	 */
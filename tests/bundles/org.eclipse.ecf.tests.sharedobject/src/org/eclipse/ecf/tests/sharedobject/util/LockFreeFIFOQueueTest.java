@@ -0,0 +1,149 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sharedobject.util;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.sharedobject.util.LockFreeFIFOQueue;
+
+public class LockFreeFIFOQueueTest extends TestCase {
+
+	private static final int PRODUCERS = 4;
+	private static final int ITEMS = 10000;
+
+	public void testFIFO() {
+		LockFreeFIFOQueue queue = new LockFreeFIFOQueue();
+		assertTrue(queue.isEmpty());
+		assertFalse(queue.enqueue(null));
+		for (int i = 0; i < 10; i++)
+			assertTrue(queue.enqueue(Integer.valueOf(i)));
+		assertEquals(10, queue.size());
+		assertEquals(Integer.valueOf(0), queue.peekQueue());
+		for (int i = 0; i < 10; i++)
+			assertEquals(Integer.valueOf(i), queue.dequeue());
+		assertTrue(queue.isEmpty());
+		assertNull(queue.removeHead());
+		assertEquals(10, queue.getMaxSize());
+		assertEquals(10, queue.getDequeueCount());
+	}
+
+	public void testPeekTimeout() {
+		LockFreeFIFOQueue queue = new LockFreeFIFOQueue();
+		long start = System.currentTimeMillis();
+		assertNull(queue.peekQueue(100));
+		assertTrue(System.currentTimeMillis() - start >= 90);
+	}
+
+	public void testCloseWakesConsumer() throws Exception {
+		final LockFreeFIFOQueue queue = new LockFreeFIFOQueue();
+		final Object[] result = new Object[] {"notset"};
+		Thread consumer = new Thread(new Runnable() {
+			public void run() {
+				result[0] = queue.dequeue();
+			}
+		});
+		consumer.start();
+		Thread.sleep(100);
+		queue.close();
+		consumer.join(5000);
+		assertFalse(consumer.isAlive());
+		assertNull(result[0]);
+		assertFalse(queue.enqueue("after close"));
+	}
+
+	public void testFlush() {
+		LockFreeFIFOQueue queue = new LockFreeFIFOQueue();
+		queue.enqueue("a");
+		queue.enqueue("b");
+		Object[] flushed = queue.flush();
+		assertEquals(2, flushed.length);
+		assertEquals("a", flushed[0]);
+		assertEquals("b", flushed[1]);
+		assertTrue(queue.isStopped());
+	}
+
+	public void testBoundedOffer() {
+		LockFreeFIFOQueue queue = new LockFreeFIFOQueue(2);
+		assertTrue(queue.offer("a", 0));
+		assertTrue(queue.offer("b", 0));
+		assertFalse(queue.offer("c", 50));
+		assertEquals(1, queue.getRejectedCount());
+		assertEquals("a", queue.dequeue());
+		assertTrue(queue.offer("c", 0));
+		assertEquals(2, queue.size());
+	}
+
+	public void testBlockedProducerReleasedByConsumer() throws Exception {
+		final LockFreeFIFOQueue queue = new LockFreeFIFOQueue(1);
+		assertTrue(queue.enqueue("a"));
+		final boolean[] result = new boolean[1];
+		Thread producer = new Thread(new Runnable() {
+			public void run() {
+				result[0] = queue.enqueue("b");
+			}
+		});
+		producer.start();
+		Thread.sleep(100);
+		assertTrue(producer.isAlive());
+		assertEquals("a", queue.dequeue());
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertTrue(result[0]);
+		assertEquals("b", queue.dequeue());
+	}
+
+	public void testCloseReleasesBlockedProducer() throws Exception {
+		final LockFreeFIFOQueue queue = new LockFreeFIFOQueue(1);
+		assertTrue(queue.enqueue("a"));
+		final boolean[] result = new boolean[] {true};
+		Thread producer = new Thread(new Runnable() {
+			public void run() {
+				result[0] = queue.enqueue("b");
+			}
+		});
+		producer.start();
+		Thread.sleep(100);
+		queue.close();
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertFalse(result[0]);
+	}
+
+	public void testMultipleProducers() throws Exception {
+		final LockFreeFIFOQueue queue = new LockFreeFIFOQueue(64, true);
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			producers[p] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < ITEMS; i++)
+						queue.enqueue(new int[] {producer, i});
+				}
+			});
+			producers[p].start();
+		}
+		int[] next = new int[PRODUCERS];
+		for (int n = 0; n < PRODUCERS * ITEMS; n++) {
+			int[] item = (int[]) queue.dequeue();
+			assertNotNull(item);
+			// Items from the same producer must arrive in order
+			assertEquals(next[item[0]], item[1]);
+			next[item[0]]++;
+		}
+		for (int p = 0; p < PRODUCERS; p++)
+			producers[p].join(5000);
+		assertTrue(queue.isEmpty());
+		assertTrue(queue.getMaxSize() <= 64);
+		assertEquals(PRODUCERS * ITEMS, queue.getEnqueueCount());
+	}
+}
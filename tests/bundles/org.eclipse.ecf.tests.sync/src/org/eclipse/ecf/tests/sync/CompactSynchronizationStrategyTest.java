@@ -0,0 +1,218 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sync;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.internal.sync.doc.compact.CompactSynchronizationStrategy;
+import org.eclipse.ecf.internal.sync.doc.compact.CompactSynchronizationStrategyFactory;
+import org.eclipse.ecf.sync.IModelChange;
+import org.eclipse.ecf.sync.IModelChangeMessage;
+import org.eclipse.ecf.sync.doc.DocumentChangeMessage;
+import org.eclipse.ecf.sync.doc.IDocumentChange;
+
+public class CompactSynchronizationStrategyTest extends TestCase {
+
+	private static final String START_TEXT = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	private CompactSynchronizationStrategyFactory factory;
+
+	class Site {
+		final StringBuffer document = new StringBuffer(START_TEXT);
+		final CompactSynchronizationStrategy strategy;
+		// messages sent to this site, not yet delivered
+		final LinkedList inbox = new LinkedList();
+		Site other;
+
+		Site(String channel, boolean initiator) throws Exception {
+			strategy = (CompactSynchronizationStrategy) factory.createDocumentSynchronizationStrategy(IDFactory.getDefault().createStringID(channel), initiator);
+		}
+
+		void apply(IDocumentChange change) {
+			document.replace(change.getOffset(), change.getOffset() + change.getLengthOfReplacedText(), change.getText());
+		}
+
+		void localChange(int offset, int length, String text) throws Exception {
+			DocumentChangeMessage change = new DocumentChangeMessage(offset, length, text);
+			apply(change);
+			IModelChangeMessage[] messages = strategy.registerLocalChange(change);
+			for (int i = 0; i < messages.length; i++)
+				other.inbox.add(messages[i].serialize());
+		}
+
+		boolean receive() throws Exception {
+			if (inbox.isEmpty())
+				return false;
+			IModelChange change = strategy.deserializeRemoteChange((byte[]) inbox.removeFirst());
+			IModelChange[] changes = strategy.transformRemoteChange(change);
+			for (int i = 0; i < changes.length; i++)
+				apply((IDocumentChange) changes[i]);
+			return true;
+		}
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		factory = new CompactSynchronizationStrategyFactory();
+	}
+
+	protected void tearDown() throws Exception {
+		factory.dispose();
+		super.tearDown();
+	}
+
+	private Site[] createSites() throws Exception {
+		Site initiator = new Site(getName(), true);
+		Site receiver = new Site(getName(), false);
+		initiator.other = receiver;
+		receiver.other = initiator;
+		return new Site[] {initiator, receiver};
+	}
+
+	private void deliverAll(Site[] sites) throws Exception {
+		while (sites[0].receive() || sites[1].receive()) {
+			// deliver until both inboxes are empty
+		}
+	}
+
+	public void testTypingIsComposed() throws Exception {
+		Site[] sites = createSites();
+		for (int i = 0; i < 1000; i++)
+			sites[0].localChange(10 + i, 0, "x");
+		assertEquals(1, sites[0].strategy.getHistorySize());
+		assertEquals(1000, sites[0].strategy.getUnacknowledgedOperationsCount());
+		for (int i = 0; i < 200; i++)
+			sites[0].localChange(1010 - i - 1, 1, "");
+		assertEquals(2, sites[0].strategy.getHistorySize());
+		// remote change made before receiving anything
+		sites[1].localChange(5, 0, "remote");
+		deliverAll(sites);
+		assertEquals(sites[0].document.toString(), sites[1].document.toString());
+		// nothing has been sent after receiving the remote change
+		assertEquals(1, sites[1].strategy.getHistorySize());
+	}
+
+	public void testPartialAcknowledgement() throws Exception {
+		Site[] sites = createSites();
+		for (int i = 0; i < 10; i++)
+			sites[0].localChange(20 + i, 0, "x");
+		// receiver gets only the first 4 insertions, then edits
+		for (int i = 0; i < 4; i++)
+			sites[1].receive();
+		sites[1].localChange(22, 0, "yy");
+		sites[0].receive();
+		assertEquals(6, sites[0].strategy.getUnacknowledgedOperationsCount());
+		assertEquals(1, sites[0].strategy.getHistorySize());
+		deliverAll(sites);
+		assertEquals(sites[0].document.toString(), sites[1].document.toString());
+	}
+
+	public void testOverlappingDeletions() throws Exception {
+		Site[] sites = createSites();
+		// backspace over "jklmn" on one site, delete "lmnopq" on the other
+		for (int i = 0; i < 5; i++)
+			sites[0].localChange(13 - i, 1, "");
+		sites[1].localChange(11, 6, "");
+		sites[1].localChange(11, 0, "new");
+		deliverAll(sites);
+		assertEquals(sites[0].document.toString(), sites[1].document.toString());
+		assertEquals("abcdefghinewrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ", sites[0].document.toString());
+	}
+
+	public void testDeletionTransformedBeforeComposition() throws Exception {
+		Site[] sites = createSites();
+		sites[0].document.setLength(0);
+		sites[0].document.append("abcdefghij");
+		sites[1].document.setLength(0);
+		sites[1].document.append("abcdefghij");
+		sites[0].localChange(1, 1, "");
+		sites[0].localChange(1, 2, "");
+		sites[0].localChange(2, 1, "");
+		sites[1].localChange(0, 2, "");
+		sites[1].receive();
+		// composed onto a deletion shortened by the remote deletion
+		sites[1].localChange(0, 3, "");
+		sites[1].receive();
+		sites[1].receive();
+		sites[0].receive();
+		sites[0].receive();
+		assertEquals("ghij", sites[0].document.toString());
+		assertEquals("ghij", sites[1].document.toString());
+	}
+
+	public void testRandomConcurrentEdits() throws Exception {
+		Random random = new Random(4711);
+		for (int run = 0; run < 200; run++) {
+			factory.dispose();
+			Site[] sites = createSites();
+			int[] cursors = new int[] {random.nextInt(START_TEXT.length()), random.nextInt(START_TEXT.length())};
+			for (int step = 0; step < 400; step++) {
+				int s = random.nextInt(2);
+				Site site = sites[s];
+				if (random.nextInt(3) == 0) {
+					site.receive();
+					continue;
+				}
+				int length = site.document.length();
+				int cursor = Math.min(cursors[s], length);
+				if (random.nextInt(10) == 0)
+					cursor = random.nextInt(length + 1);
+				switch (random.nextInt(8)) {
+					case 0 :
+						// backspace
+						if (cursor > 0) {
+							site.localChange(cursor - 1, 1, "");
+							cursor--;
+						}
+						break;
+					case 1 :
+						// forward delete
+						if (cursor < length)
+							site.localChange(cursor, 1, "");
+						break;
+					case 2 :
+						// replace a selection
+						int selection = Math.min(random.nextInt(5), length - cursor);
+						site.localChange(cursor, selection, "r");
+						cursor++;
+						break;
+					case 3 :
+						// delete a selection
+						if (cursor < length) {
+							int start = random.nextInt(cursor + 1);
+							site.localChange(start, Math.min(1 + random.nextInt(8), length - start), "");
+							cursor = start;
+						}
+						break;
+					case 4 :
+						// replace a selection with longer text
+						int start = random.nextInt(cursor + 1);
+						String text = "R" + s + "R".substring(0, random.nextInt(2));
+						site.localChange(start, Math.min(random.nextInt(8), length - start), text);
+						cursor = start + text.length();
+						break;
+					default :
+						site.localChange(cursor, 0, String.valueOf((char) ('0' + s)));
+						cursor++;
+				}
+				cursors[s] = cursor;
+			}
+			deliverAll(sites);
+			assertEquals("run " + run, sites[0].document.toString(), sites[1].document.toString());
+		}
+	}
+}
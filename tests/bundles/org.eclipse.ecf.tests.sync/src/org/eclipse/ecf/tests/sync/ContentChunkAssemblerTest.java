@@ -0,0 +1,87 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sync;
+
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.core.identity.ID;
+import org.eclipse.ecf.core.identity.IDFactory;
+import org.eclipse.ecf.docshare.messages.ContentChunkMessage;
+import org.eclipse.ecf.docshare.messages.StartMessage;
+import org.eclipse.ecf.internal.docshare.ContentChunkAssembler;
+
+public class ContentChunkAssemblerTest extends TestCase {
+
+	private ID sender;
+	private ID receiver;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sender = IDFactory.getDefault().createStringID("sender");
+		receiver = IDFactory.getDefault().createStringID("receiver");
+	}
+
+	private String createContent(int length) {
+		// random text, so that it does not compress into a single chunk
+		Random random = new Random(length);
+		StringBuffer buf = new StringBuffer(length);
+		for (int i = 0; i < length; i++)
+			buf.append((char) ('a' + random.nextInt(26)));
+		// non-ASCII text must survive the UTF-8 round trip
+		buf.append("\u00e4\u20ac");
+		return buf.toString();
+	}
+
+	public void testReassembly() throws Exception {
+		String content = createContent(100000);
+		ContentChunkMessage[] chunks = ContentChunkMessage.createChunks(content, 1024);
+		assertTrue(chunks.length > 1);
+		ContentChunkAssembler assembler = new ContentChunkAssembler();
+		StartMessage start = new StartMessage(sender, "user", receiver, "file.txt", chunks.length);
+		assertTrue(start.isContentChunksSupported());
+		assembler.start(start);
+		for (int i = 0; i < chunks.length - 1; i++)
+			assertNull(assembler.add(chunks[i]));
+		StartMessage result = assembler.add(chunks[chunks.length - 1]);
+		assertNotNull(result);
+		assertEquals(content, result.getDocumentContent());
+		assertEquals("file.txt", result.getFilename());
+		assertEquals(sender, result.getSenderID());
+		assertFalse(assembler.isAssembling());
+	}
+
+	public void testOutOfOrderChunk() throws Exception {
+		ContentChunkMessage[] chunks = ContentChunkMessage.createChunks(createContent(20000), 512);
+		ContentChunkAssembler assembler = new ContentChunkAssembler();
+		assembler.start(new StartMessage(sender, "user", receiver, "file.txt", chunks.length));
+		assembler.add(chunks[0]);
+		try {
+			assembler.add(chunks[2]);
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		assertFalse(assembler.isAssembling());
+		// Later chunks are ignored
+		assertNull(assembler.add(chunks[3]));
+	}
+
+	public void testChunkWithoutStartIgnored() throws Exception {
+		ContentChunkMessage[] chunks = ContentChunkMessage.createChunks("small", 512);
+		assertEquals(1, chunks.length);
+		assertNull(new ContentChunkAssembler().add(chunks[0]));
+	}
+}
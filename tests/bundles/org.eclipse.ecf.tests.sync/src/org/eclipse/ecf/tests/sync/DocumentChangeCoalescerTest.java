@@ -0,0 +1,99 @@
+/****************************************************************************
+ * Copyright (c) 2026 Composent, Inc. and others.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * Contributors:
+ *    Composent, Inc. - initial API and implementation
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *****************************************************************************/
+package org.eclipse.ecf.tests.sync;
+
+import junit.framework.TestCase;
+
+import org.eclipse.ecf.internal.docshare.DocumentChangeCoalescer;
+import org.eclipse.ecf.sync.doc.DocumentChangeMessage;
+
+public class DocumentChangeCoalescerTest extends TestCase {
+
+	private DocumentChangeCoalescer coalescer;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		coalescer = new DocumentChangeCoalescer(10, 80, 16);
+	}
+
+	private void assertChange(int offset, int length, String text, DocumentChangeMessage change) {
+		assertNotNull(change);
+		assertEquals(offset, change.getOffset());
+		assertEquals(length, change.getLengthOfReplacedText());
+		assertEquals(text, change.getText());
+	}
+
+	public void testTypingIsMerged() {
+		assertEquals(0, coalescer.add(5, 0, "a").length);
+		assertEquals(0, coalescer.add(6, 0, "b").length);
+		assertEquals(0, coalescer.add(7, 0, "c").length);
+		assertChange(5, 0, "abc", coalescer.flush());
+		assertFalse(coalescer.hasPending());
+	}
+
+	public void testBackspaceTrimsPendingText() {
+		coalescer.add(5, 0, "abc");
+		coalescer.add(7, 1, "");
+		assertChange(5, 0, "ab", coalescer.flush());
+	}
+
+	public void testDeletesAreMerged() {
+		// Backspace twice, then forward delete at the same place
+		coalescer.add(9, 1, "");
+		coalescer.add(8, 1, "");
+		coalescer.add(8, 1, "");
+		assertChange(8, 3, "", coalescer.flush());
+	}
+
+	public void testInsertAndDeleteCancelOut() {
+		coalescer.add(5, 0, "a");
+		coalescer.add(5, 1, "");
+		assertNull(coalescer.flush());
+	}
+
+	public void testUnrelatedChangeFlushesPending() {
+		coalescer.add(5, 0, "a");
+		DocumentChangeMessage[] changes = coalescer.add(20, 0, "b");
+		assertEquals(1, changes.length);
+		assertChange(5, 0, "a", changes[0]);
+		assertChange(20, 0, "b", coalescer.flush());
+	}
+
+	public void testLongTextIsFlushed() {
+		coalescer.add(0, 0, "0123456789");
+		DocumentChangeMessage[] changes = coalescer.add(10, 0, "0123456789");
+		assertEquals(1, changes.length);
+		assertChange(0, 0, "01234567890123456789", changes[0]);
+		assertFalse(coalescer.hasPending());
+	}
+
+	public void testWindowAdapts() {
+		assertEquals(10, coalescer.getWindow());
+		coalescer.add(0, 0, "a");
+		coalescer.add(1, 0, "b");
+		coalescer.flush();
+		assertEquals(20, coalescer.getWindow());
+		coalescer.add(0, 0, "a");
+		coalescer.flush();
+		assertEquals(10, coalescer.getWindow());
+	}
+
+	public void testDisabled() {
+		coalescer = new DocumentChangeCoalescer(10, 0, 16);
+		assertFalse(coalescer.isEnabled());
+		DocumentChangeMessage[] changes = coalescer.add(5, 0, "a");
+		assertEquals(1, changes.length);
+		assertChange(5, 0, "a", changes[0]);
+		assertFalse(coalescer.hasPending());
+	}
+}
@@ -16,7 +16,7 @@ public class SyncServiceTests extends TestCase {
 	public void testGetAllSyncFactory() throws Exception {
 		IDocumentSynchronizationStrategyFactory  []factories = Activator.getDefault().getSynchStrategyFactories();
 		assertNotNull(factories);
-		assertTrue(factories.length == 2);
+		assertTrue(factories.length == 3);
 	}
 	
 	public void testGetColaSyncFactory() throws Exception {